@@ -1,5 +1,6 @@
 package com.arsen.core.analysis;
 
+import com.arsen.disassembler.DecodeBatch;
 import com.arsen.model.Address;
 import com.arsen.model.binary.BinaryFile;
 import com.arsen.model.disassembly.CrossReference;
@@ -19,15 +20,30 @@ public class AnalysisContext {
     private final Map<Address, Function> functions;
     private final List<CrossReference> crossReferences;
     private final List<String> strings;
+    private final List<DecodeBatch> decodeBatches;
 
     public AnalysisContext(BinaryFile binaryFile) {
         this.binaryFile = binaryFile;
-        this.instructions = new ConcurrentHashMap<>();
+        this.decodeBatches = new CopyOnWriteArrayList<>();
+        this.instructions = new InstructionMap(decodeBatches);
         this.functions = new ConcurrentHashMap<>();
         this.crossReferences = new CopyOnWriteArrayList<>();
         this.strings = new CopyOnWriteArrayList<>();
     }
 
+    public DecodeBatch findDecodeBatch(long address) {
+        for (DecodeBatch batch : decodeBatches) {
+            if (batch.contains(address)) {
+                return batch;
+            }
+        }
+        return null;
+    }
+
+    public void addDecodeBatch(DecodeBatch batch) {
+        decodeBatches.add(batch);
+    }
+
     public void addInstruction(Instruction instruction) {
         instructions.put(instruction.getAddress(), instruction);
     }
@@ -11,6 +11,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
 
 @Slf4j
 public class AnalysisEngine {
@@ -38,28 +39,32 @@ public class AnalysisEngine {
         eventBus.publish(Event.of(EventType.ANALYSIS_STARTED, binaryFile));
 
         return CompletableFuture.supplyAsync(() -> {
-            AnalysisContext context = new AnalysisContext(binaryFile);
-
-            for (int i = 0; i < analysisPasses.size(); i++) {
-                AnalysisPass pass = analysisPasses.get(i);
-                log.debug("Executing analysis pass: {}", pass.getName());
-
-                try {
-                    pass.execute(context);
-                    int progress = (int) (((i + 1.0) / analysisPasses.size()) * 100);
-                    eventBus.publish(Event.of(EventType.ANALYSIS_PROGRESS, progress));
-                } catch (Exception e) {
-                    log.error("Error in analysis pass: {}", pass.getName(), e);
-                }
-            }
-
-            AnalysisResult result = context.buildResult();
+            AnalysisResult result = runPasses(binaryFile, progress -> eventBus.publish(Event.of(EventType.ANALYSIS_PROGRESS, progress)));
             eventBus.publish(Event.of(EventType.ANALYSIS_COMPLETED, result));
             log.info("Analysis completed successfully");
             return result;
         }, executor);
     }
 
+    public AnalysisResult runPasses(BinaryFile binaryFile, IntConsumer progressListener) {
+        AnalysisContext context = new AnalysisContext(binaryFile);
+
+        for (int i = 0; i < analysisPasses.size(); i++) {
+            AnalysisPass pass = analysisPasses.get(i);
+            log.debug("Executing analysis pass: {}", pass.getName());
+
+            try {
+                pass.execute(context);
+                int progress = (int) (((i + 1.0) / analysisPasses.size()) * 100);
+                progressListener.accept(progress);
+            } catch (Exception e) {
+                log.error("Error in analysis pass: {}", pass.getName(), e);
+            }
+        }
+
+        return context.buildResult();
+    }
+
     public void registerPass(AnalysisPass pass) {
         analysisPasses.add(pass);
     }
@@ -1,7 +1,8 @@
 package com.arsen.core.analysis;
 
+import com.arsen.disassembler.DecodeBatch;
+import com.arsen.model.Address;
 import com.arsen.model.disassembly.CrossReference;
-import com.arsen.model.disassembly.Instruction;
 import com.arsen.model.disassembly.InstructionType;
 import lombok.extern.slf4j.Slf4j;
 
@@ -15,12 +16,14 @@ public class CrossReferencePass implements AnalysisPass {
 
     @Override
     public void execute(AnalysisContext context) {
-        for (Instruction instruction : context.getInstructions().values()) {
-            if (instruction.getTargetAddress() != null) {
-                CrossReference.XRefType type = determineXRefType(instruction.getType());
-                if (type != null) {
-                    CrossReference xref = CrossReference.builder().from(instruction.getAddress()).to(instruction.getTargetAddress()).type(type).build();
-                    context.addCrossReference(xref);
+        for (DecodeBatch batch : context.getDecodeBatches()) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.hasTarget(i)) {
+                    CrossReference.XRefType type = determineXRefType(batch.getType(i));
+                    if (type != null) {
+                        CrossReference xref = CrossReference.builder().from(Address.of(batch.getAddress(i))).to(Address.of(batch.getTarget(i))).type(type).build();
+                        context.addCrossReference(xref);
+                    }
                 }
             }
         }
@@ -1,9 +1,14 @@
 package com.arsen.core.analysis;
 
+import com.arsen.disassembler.DecodeBatch;
 import com.arsen.disassembler.DisassemblerFactory;
 import com.arsen.disassembler.IDisassembler;
+import com.arsen.loader.io.ByteSource;
 import com.arsen.model.Address;
+import com.arsen.model.Export;
 import com.arsen.model.Section;
+import com.arsen.model.Symbol;
+import com.arsen.model.binary.SymbolTable;
 import com.arsen.model.disassembly.BasicBlock;
 import com.arsen.model.disassembly.Function;
 import com.arsen.model.disassembly.Instruction;
@@ -22,96 +27,109 @@ public class FunctionDetectionPass implements AnalysisPass {
 
     @Override
     public void execute(AnalysisContext context) {
-        IDisassembler disassembler = DisassemblerFactory.create(context.getBinaryFile().getArchitecture());
+        IDisassembler disassembler = DisassemblerFactory.create(context.getBinaryFile().getArchitecture(), context.getBinaryFile().getEndianness());
 
+        Map<Address, Address> originalAddresses = new HashMap<>();
         Set<Address> functionStarts = new HashSet<>();
-        functionStarts.add(context.getBinaryFile().getEntryPoint());
+        addFunctionStart(context.getBinaryFile().getEntryPoint(), disassembler, functionStarts, originalAddresses);
 
-        for (Section section : context.getBinaryFile().getSections()) {
-            if (section.isExecutable()) {
-                analyzeSection(section, disassembler, context, functionStarts);
-            }
+        SymbolTable symbolTable = context.getBinaryFile().getSymbolTable();
+        symbolTable.getAddresses(Symbol.SymbolType.FUNCTION).forEach(symbolAddress -> addFunctionStart(symbolAddress, disassembler, functionStarts, originalAddresses));
+        context.getBinaryFile().getExports().stream().filter(export -> export.getAddress() != null).forEach(export -> addFunctionStart(export.getAddress(), disassembler, functionStarts, originalAddresses));
+
+        for (Section section : context.getBinaryFile().getExecutableRegions()) {
+            analyzeSection(section, disassembler, context, functionStarts);
         }
 
+        VisitedSet visited = new VisitedSet();
         for (Address funcAddr : functionStarts) {
-            Function function = analyzeFunction(funcAddr, disassembler, context);
+            Function function = analyzeFunction(funcAddr, originalAddresses.getOrDefault(funcAddr, funcAddr), disassembler.hasDelaySlots(), context, visited);
             if (function != null) {
                 context.addFunction(function);
             }
         }
     }
 
-    private void analyzeSection(Section section, IDisassembler disassembler, AnalysisContext context, Set<Address> functionStarts) {
-        byte[] data = section.getData();
-        if (data == null) return;
+    private void addFunctionStart(Address address, IDisassembler disassembler, Set<Address> functionStarts, Map<Address, Address> originalAddresses) {
+        if (address == null) return;
 
-        Address currentAddr = section.getVirtualAddress();
-        int offset = 0;
+        Address start = disassembler.normalizeEntry(address);
+        functionStarts.add(start);
+        if (!start.equals(address)) {
+            originalAddresses.putIfAbsent(start, address);
+        }
+    }
 
-        while (offset < data.length) {
-            try {
-                Instruction instruction = disassembler.disassemble(currentAddr, data, offset);
-                context.addInstruction(instruction);
+    private void analyzeSection(Section section, IDisassembler disassembler, AnalysisContext context, Set<Address> functionStarts) {
+        ByteSource content = section.getContent();
+        if (content == null) return;
 
-                if (instruction.getType() == InstructionType.CALL && instruction.getTargetAddress() != null) {
-                    functionStarts.add(instruction.getTargetAddress());
-                }
+        DecodeBatch batch = disassembler.decodeRange(section.getVirtualAddress(), content);
+        context.addDecodeBatch(batch);
 
-                offset += instruction.getSize();
-                currentAddr = currentAddr.add(instruction.getSize());
-            } catch (Exception e) {
-                offset++;
-                currentAddr = currentAddr.add(1);
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.getType(i) == InstructionType.CALL && batch.hasTarget(i)) {
+                functionStarts.add(Address.of(batch.getTarget(i)));
             }
         }
     }
 
-    private Function analyzeFunction(Address address, IDisassembler disassembler, AnalysisContext context) {
-        Map<Address, Instruction> allInstructions = context.getInstructions();
-
-        Instruction startInstr = allInstructions.get(address);
-        if (startInstr == null) {
+    private Function analyzeFunction(Address address, Address symbolAddress, boolean delaySlots, AnalysisContext context, VisitedSet visited) {
+        DecodeBatch startBatch = context.findDecodeBatch(address.value());
+        if (startBatch == null || startBatch.indexOf(address.value()) < 0) {
             return null;
         }
 
-        Set<Address> visited = new HashSet<>();
-        Set<Address> toVisit = new LinkedHashSet<>();
-        toVisit.add(address);
+        visited.reset();
+        long[] toVisit = new long[64];
+        int pending = 0;
+        toVisit[pending++] = address.value();
 
         List<Instruction> functionInstructions = new ArrayList<>();
 
-        while (!toVisit.isEmpty()) {
-            Iterator<Address> iterator = toVisit.iterator();
-            Address current = iterator.next();
-            iterator.remove();
+        while (pending > 0) {
+            long current = toVisit[--pending];
 
-            if (visited.contains(current)) {
+            DecodeBatch batch = context.findDecodeBatch(current);
+            int index = batch == null ? -1 : batch.indexOf(current);
+            if (index < 0) {
                 continue;
             }
-            visited.add(current);
 
-            Instruction instr = allInstructions.get(current);
-            if (instr == null) {
+            BitSet seen = visited.of(batch);
+            if (seen.get(index) || !batch.isDecodable(index)) {
                 continue;
             }
+            visited.mark(seen, index);
 
-            functionInstructions.add(instr);
+            functionInstructions.add(batch.toInstruction(index));
 
-            if (instr.getType() == InstructionType.RETURN) {
+            InstructionType type = batch.isValid(index) ? batch.getType(index) : InstructionType.NORMAL;
+            int next = index + 1;
+            long fallthrough = current + batch.getLength(index);
+            if (delaySlots && isTransfer(type) && next < batch.size() && batch.getAddress(next) == fallthrough) {
+                if (!seen.get(next)) {
+                    visited.mark(seen, next);
+                    functionInstructions.add(batch.toInstruction(next));
+                }
+                fallthrough += batch.getLength(next);
+                next++;
+            }
+
+            if (type == InstructionType.RETURN) {
                 continue;
             }
 
-            if (instr.getType() == InstructionType.JUMP || instr.getType() == InstructionType.CONDITIONAL_JUMP) {
-                if (instr.getTargetAddress() != null) {
-                    toVisit.add(instr.getTargetAddress());
-                }
+            if (pending + 2 > toVisit.length) {
+                toVisit = Arrays.copyOf(toVisit, toVisit.length * 2);
             }
 
-            if (instr.getType() != InstructionType.JUMP) {
-                Address nextAddr = current.add(instr.getSize());
-                if (allInstructions.containsKey(nextAddr)) {
-                    toVisit.add(nextAddr);
-                }
+            if ((type == InstructionType.JUMP || type == InstructionType.CONDITIONAL_JUMP) && batch.hasTarget(index)) {
+                toVisit[pending++] = batch.getTarget(index);
+            }
+
+            if (type != InstructionType.JUMP && next < batch.size() && batch.getAddress(next) == fallthrough) {
+                toVisit[pending++] = fallthrough;
             }
 
             if (functionInstructions.size() > 10000) {
@@ -120,12 +138,12 @@ public class FunctionDetectionPass implements AnalysisPass {
         }
 
         if (functionInstructions.isEmpty()) {
-            return Function.builder().address(address).name(formatFunctionName(address)).size(0).build();
+            return Function.builder().address(address).name(formatFunctionName(symbolAddress, context)).size(0).build();
         }
 
         functionInstructions.sort(Comparator.comparing(Instruction::getAddress));
 
-        List<BasicBlock> basicBlocks = buildBasicBlocks(functionInstructions);
+        List<BasicBlock> basicBlocks = buildBasicBlocks(functionInstructions, delaySlots);
 
         long functionSize = 0;
         if (!functionInstructions.isEmpty()) {
@@ -134,21 +152,29 @@ public class FunctionDetectionPass implements AnalysisPass {
             functionSize = last.getAddress().value() - first.getAddress().value() + last.getSize();
         }
 
-        return Function.builder().address(address).name(formatFunctionName(address)).size(functionSize).basicBlocks(basicBlocks).build();
+        return Function.builder().address(address).name(formatFunctionName(symbolAddress, context)).size(functionSize).basicBlocks(basicBlocks).build();
     }
 
-    private List<BasicBlock> buildBasicBlocks(List<Instruction> instructions) {
+    private List<BasicBlock> buildBasicBlocks(List<Instruction> instructions, boolean delaySlots) {
         if (instructions.isEmpty()) {
             return List.of();
         }
 
         Set<Address> blockStarts = new HashSet<>();
         blockStarts.add(instructions.getFirst().getAddress());
+        Map<Address, Instruction> terminators = new HashMap<>();
 
-        for (Instruction instr : instructions) {
+        for (int i = 0; i < instructions.size(); i++) {
+            Instruction instr = instructions.get(i);
             if (instr.getType() == InstructionType.JUMP || instr.getType() == InstructionType.CONDITIONAL_JUMP || instr.getType() == InstructionType.RETURN) {
 
-                Address nextAddr = instr.getAddress().add(instr.getSize());
+                Instruction last = instr;
+                if (delaySlots && i + 1 < instructions.size() && instructions.get(i + 1).getAddress().equals(instr.getAddress().add(instr.getSize()))) {
+                    last = instructions.get(i + 1);
+                }
+                terminators.put(last.getAddress(), instr);
+
+                Address nextAddr = last.getAddress().add(last.getSize());
                 blockStarts.add(nextAddr);
 
                 if (instr.getTargetAddress() != null) {
@@ -178,7 +204,7 @@ public class FunctionDetectionPass implements AnalysisPass {
                 currentBuilder.endAddress(addr.add(instr.getSize()));
             }
 
-            if (instr.getType() == InstructionType.JUMP || instr.getType() == InstructionType.CONDITIONAL_JUMP || instr.getType() == InstructionType.RETURN) {
+            if (terminators.containsKey(addr)) {
 
                 if (currentBuilder != null) {
                     blockBuilders.put(currentBlockStart, currentBuilder);
@@ -201,14 +227,15 @@ public class FunctionDetectionPass implements AnalysisPass {
             }
 
             Instruction lastInstr = tempBlock.getInstructions().getLast();
+            Instruction terminator = terminators.getOrDefault(lastInstr.getAddress(), lastInstr);
 
-            if (lastInstr.getType() == InstructionType.JUMP || lastInstr.getType() == InstructionType.CONDITIONAL_JUMP) {
-                if (lastInstr.getTargetAddress() != null) {
-                    builder.successor(lastInstr.getTargetAddress());
+            if (terminator.getType() == InstructionType.JUMP || terminator.getType() == InstructionType.CONDITIONAL_JUMP) {
+                if (terminator.getTargetAddress() != null) {
+                    builder.successor(terminator.getTargetAddress());
                 }
             }
 
-            if (lastInstr.getType() == InstructionType.CONDITIONAL_JUMP || lastInstr.getType() == InstructionType.NORMAL || lastInstr.getType() == InstructionType.CALL) {
+            if (terminator.getType() == InstructionType.CONDITIONAL_JUMP || terminator.getType() == InstructionType.NORMAL || terminator.getType() == InstructionType.CALL) {
                 Address fallthrough = lastInstr.getAddress().add(lastInstr.getSize());
                 if (blockStarts.contains(fallthrough)) {
                     builder.successor(fallthrough);
@@ -239,7 +266,49 @@ public class FunctionDetectionPass implements AnalysisPass {
         return result;
     }
 
-    private String formatFunctionName(Address address) {
+    private boolean isTransfer(InstructionType type) {
+        return type == InstructionType.JUMP || type == InstructionType.CONDITIONAL_JUMP || type == InstructionType.CALL || type == InstructionType.RETURN;
+    }
+
+    private String formatFunctionName(Address address, AnalysisContext context) {
+        SymbolTable symbolTable = context.getBinaryFile().getSymbolTable();
+        int index = symbolTable.indexOf(address);
+        if (index >= 0) {
+            return symbolTable.getName(index);
+        }
+        Optional<Export> export = context.getBinaryFile().getLinkageIndex().findExport(address);
+        if (export.isPresent()) {
+            return export.get().getName();
+        }
         return String.format("SUB_%016X", address.value()).toUpperCase();
     }
+
+    private static class VisitedSet {
+        private final Map<DecodeBatch, BitSet> bits = new IdentityHashMap<>();
+        private BitSet[] markedSets = new BitSet[64];
+        private int[] markedIndexes = new int[64];
+        private int marked;
+
+        BitSet of(DecodeBatch batch) {
+            return bits.computeIfAbsent(batch, b -> new BitSet(b.size()));
+        }
+
+        void mark(BitSet set, int index) {
+            if (marked == markedIndexes.length) {
+                markedSets = Arrays.copyOf(markedSets, marked * 2);
+                markedIndexes = Arrays.copyOf(markedIndexes, marked * 2);
+            }
+            set.set(index);
+            markedSets[marked] = set;
+            markedIndexes[marked++] = index;
+        }
+
+        void reset() {
+            for (int i = 0; i < marked; i++) {
+                markedSets[i].clear(markedIndexes[i]);
+                markedSets[i] = null;
+            }
+            marked = 0;
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package com.arsen.core.analysis;
+
+import com.arsen.disassembler.DecodeBatch;
+import com.arsen.model.Address;
+import com.arsen.model.disassembly.Instruction;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class InstructionMap extends AbstractMap<Address, Instruction> {
+    private final List<DecodeBatch> batches;
+    private final Map<Address, Instruction> added = new ConcurrentHashMap<>();
+
+    InstructionMap(List<DecodeBatch> batches) {
+        this.batches = batches;
+    }
+
+    @Override
+    public Instruction get(Object key) {
+        if (!(key instanceof Address address)) {
+            return null;
+        }
+        Instruction instruction = added.get(address);
+        if (instruction != null) {
+            return instruction;
+        }
+        for (DecodeBatch batch : batches) {
+            if (batch.contains(address.value())) {
+                int index = batch.indexOf(address.value());
+                return index < 0 ? null : batch.toInstruction(index);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Instruction put(Address address, Instruction instruction) {
+        return added.put(address, instruction);
+    }
+
+    @Override
+    public int size() {
+        long size = added.size();
+        for (DecodeBatch batch : batches) {
+            size += batch.size();
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Set<Entry<Address, Instruction>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Address, Instruction>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return InstructionMap.this.size();
+            }
+        };
+    }
+
+    private class EntryIterator implements Iterator<Entry<Address, Instruction>> {
+        private final Iterator<DecodeBatch> batchIterator = batches.iterator();
+        private final Iterator<Entry<Address, Instruction>> addedIterator = added.entrySet().iterator();
+        private DecodeBatch batch;
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            while (batch == null || index >= batch.size()) {
+                if (!batchIterator.hasNext()) {
+                    return addedIterator.hasNext();
+                }
+                batch = batchIterator.next();
+                index = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public Entry<Address, Instruction> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (batch == null || index >= batch.size()) {
+                return addedIterator.next();
+            }
+            Instruction instruction = batch.toInstruction(index++);
+            return new SimpleImmutableEntry<>(instruction.getAddress(), instruction);
+        }
+    }
+}
@@ -1,16 +1,16 @@
 package com.arsen.core.analysis;
 
+import com.arsen.loader.io.ByteSource;
 import com.arsen.model.Section;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
 
 @Slf4j
 public class StringAnalysisPass implements AnalysisPass {
 
     private static final int MIN_STRING_LENGTH = 4;
+    private static final int WINDOW_SIZE = 64 * 1024;
 
     @Override
     public String getName() {
@@ -19,29 +19,32 @@ public class StringAnalysisPass implements AnalysisPass {
 
     @Override
     public void execute(AnalysisContext context) {
-        for (Section section : context.getBinaryFile().getSections()) {
-            if (section.isReadable() && section.getData() != null) {
-                extractStrings(section.getData(), context);
+        for (Section section : context.getBinaryFile().getMappedRegions()) {
+            ByteSource content = section.getContent();
+            if (section.isReadable() && content != null) {
+                extractStrings(content, context);
             }
         }
         log.debug("Found {} strings", context.getStrings().size());
     }
 
-    private void extractStrings(byte[] data, AnalysisContext context) {
-        List<Byte> currentString = new ArrayList<>();
-
-        for (byte b : data) {
-            if (b >= 32 && b <= 126) {
-                currentString.add(b);
-            } else {
-                if (currentString.size() >= MIN_STRING_LENGTH) {
-                    byte[] strBytes = new byte[currentString.size()];
-                    for (int i = 0; i < currentString.size(); i++) {
-                        strBytes[i] = currentString.get(i);
+    private void extractStrings(ByteSource data, AnalysisContext context) {
+        byte[] window = new byte[WINDOW_SIZE];
+        long start = 0;
+
+        for (long base = 0; base < data.size(); base += WINDOW_SIZE) {
+            int count = data.read(base, window, 0, WINDOW_SIZE);
+            for (int i = 0; i < count; i++) {
+                byte b = window[i];
+                if (b < 32 || b > 126) {
+                    long end = base + i;
+                    if (end - start >= MIN_STRING_LENGTH) {
+                        byte[] strBytes = new byte[(int) (end - start)];
+                        data.read(start, strBytes, 0, strBytes.length);
+                        context.addString(new String(strBytes, StandardCharsets.US_ASCII));
                     }
-                    context.addString(new String(strBytes, StandardCharsets.US_ASCII));
+                    start = end + 1;
                 }
-                currentString.clear();
             }
         }
     }
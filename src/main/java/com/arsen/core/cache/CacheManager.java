@@ -1,7 +1,5 @@
 package com.arsen.core.cache;
 
-import com.arsen.model.Address;
-import com.arsen.model.disassembly.Instruction;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
@@ -10,11 +8,11 @@ import java.util.concurrent.TimeUnit;
 public class CacheManager {
     private static final CacheManager INSTANCE = new CacheManager();
 
-    private final Cache<Address, Instruction> instructionCache;
+    private final InstructionTemplateCache instructionTemplateCache;
     private final Cache<String, Object> analysisCache;
 
     private CacheManager() {
-        instructionCache = CacheBuilder.newBuilder().maximumSize(10000).expireAfterAccess(30, TimeUnit.MINUTES).build();
+        instructionTemplateCache = new InstructionTemplateCache(65536, 64);
 
         analysisCache = CacheBuilder.newBuilder().maximumSize(1000).expireAfterAccess(30, TimeUnit.MINUTES).build();
     }
@@ -23,12 +21,12 @@ public class CacheManager {
         return INSTANCE;
     }
 
-    public Instruction getInstruction(Address address) {
-        return instructionCache.getIfPresent(address);
+    public InstructionTemplate getInstructionTemplate(int mode, byte[] bytes) {
+        return instructionTemplateCache.get(mode, bytes);
     }
 
-    public void putInstruction(Address address, Instruction instruction) {
-        instructionCache.put(address, instruction);
+    public void putInstructionTemplate(int mode, byte[] bytes, InstructionTemplate template) {
+        instructionTemplateCache.put(mode, bytes, template);
     }
 
     public Object getAnalysisResult(String key) {
@@ -40,7 +38,7 @@ public class CacheManager {
     }
 
     public void clearAll() {
-        instructionCache.invalidateAll();
+        instructionTemplateCache.clear();
         analysisCache.invalidateAll();
     }
 }
@@ -0,0 +1,74 @@
+package com.arsen.core.cache;
+
+import com.arsen.model.Address;
+import com.arsen.model.disassembly.Instruction;
+import com.arsen.model.disassembly.Operand;
+
+import java.util.List;
+
+public record InstructionTemplate(String mnemonic, List<Operand> operands, long relativeOperands, long addressOperands, boolean addressDependent) {
+    private static final int MAX_OPERANDS = 64;
+
+    public static InstructionTemplate of(Instruction instruction) {
+        return new InstructionTemplate(instruction.getMnemonic(), instruction.getOperands(), 0, addressOperands(instruction.getOperands()), true);
+    }
+
+    public static InstructionTemplate of(Instruction instruction, Instruction probe, long address) {
+        List<Operand> operands = instruction.getOperands();
+        List<Operand> probeOperands = probe.getOperands();
+        long shift = probe.getAddress().value() - address;
+        if (!instruction.getMnemonic().equals(probe.getMnemonic()) || operands.size() != probeOperands.size() || operands.size() > MAX_OPERANDS) {
+            return of(instruction);
+        }
+
+        Operand[] rebased = new Operand[operands.size()];
+        long relative = 0;
+        for (int i = 0; i < rebased.length; i++) {
+            Operand operand = operands.get(i);
+            Operand other = probeOperands.get(i);
+            if (operand.equals(other)) {
+                rebased[i] = operand;
+            } else if (operand.getType() == other.getType() && other.getValue() - operand.getValue() == shift && isAddressText(operand) && isAddressText(other)) {
+                rebased[i] = Operand.builder().type(operand.getType()).value(operand.getValue() - address).build();
+                relative |= 1L << i;
+            } else {
+                return of(instruction);
+            }
+        }
+
+        List<Operand> template = List.of(rebased);
+        return new InstructionTemplate(instruction.getMnemonic(), template, relative, addressOperands(template) | relative, false);
+    }
+
+    public boolean isRelative(int index) {
+        return (relativeOperands & (1L << index)) != 0;
+    }
+
+    public boolean isAddress(int index) {
+        return (addressOperands & (1L << index)) != 0;
+    }
+
+    public long value(int index, long address) {
+        long value = operands.get(index).getValue();
+        return isRelative(index) ? address + value : value;
+    }
+
+    public String text(int index, long address) {
+        return isRelative(index) ? Address.of(value(index, address)).toString() : operands.get(index).getText();
+    }
+
+    private static long addressOperands(List<Operand> operands) {
+        long mask = 0;
+        for (int i = 0; i < Math.min(operands.size(), MAX_OPERANDS); i++) {
+            if (isAddressText(operands.get(i))) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    private static boolean isAddressText(Operand operand) {
+        String text = operand.getText();
+        return text != null && text.length() == 18 && text.startsWith("0x") && Address.of(operand.getValue()).toString().equals(text);
+    }
+}
@@ -0,0 +1,127 @@
+package com.arsen.core.cache;
+
+import java.util.Arrays;
+
+public class InstructionTemplateCache {
+    private static final int MAX_LENGTH = 16;
+    private static final int WAYS = 4;
+
+    private final Stripe[] stripes;
+    private final int stripeBits;
+
+    public InstructionTemplateCache(int maximumSize, int stripeCount) {
+        int count = Integer.highestOneBit(Math.max(1, stripeCount));
+        int sets = Integer.highestOneBit(Math.max(1, maximumSize / count / WAYS));
+        this.stripes = new Stripe[count];
+        this.stripeBits = Integer.numberOfTrailingZeros(count);
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(sets);
+        }
+    }
+
+    public InstructionTemplate get(int mode, byte[] bytes) {
+        if (bytes.length > MAX_LENGTH) {
+            return null;
+        }
+        long low = low(bytes);
+        long high = high(bytes);
+        int shape = mode << 8 | bytes.length;
+        int hash = hash(low, high, shape);
+        Stripe stripe = stripes[hash & (stripes.length - 1)];
+        synchronized (stripe) {
+            return stripe.get(hash >>> stripeBits, low, high, shape);
+        }
+    }
+
+    public void put(int mode, byte[] bytes, InstructionTemplate template) {
+        if (bytes.length > MAX_LENGTH) {
+            return;
+        }
+        long low = low(bytes);
+        long high = high(bytes);
+        int shape = mode << 8 | bytes.length;
+        int hash = hash(low, high, shape);
+        Stripe stripe = stripes[hash & (stripes.length - 1)];
+        synchronized (stripe) {
+            stripe.put(hash >>> stripeBits, low, high, shape, template);
+        }
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    private static long low(byte[] bytes) {
+        long value = 0;
+        for (int i = Math.min(bytes.length, 8) - 1; i >= 0; i--) {
+            value = value << 8 | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static long high(byte[] bytes) {
+        long value = 0;
+        for (int i = bytes.length - 1; i >= 8; i--) {
+            value = value << 8 | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static int hash(long low, long high, int shape) {
+        long hash = (low * 0x9E3779B97F4A7C15L) ^ (high * 0xC2B2AE3D27D4EB4FL) ^ (shape * 0x165667B19E3779F9L);
+        return (int) (hash ^ hash >>> 32);
+    }
+
+    private static class Stripe {
+        private final long[] lows;
+        private final long[] highs;
+        private final int[] shapes;
+        private final InstructionTemplate[] templates;
+        private final int setMask;
+        private int victim;
+
+        Stripe(int sets) {
+            this.lows = new long[sets * WAYS];
+            this.highs = new long[sets * WAYS];
+            this.shapes = new int[sets * WAYS];
+            this.templates = new InstructionTemplate[sets * WAYS];
+            this.setMask = sets - 1;
+        }
+
+        InstructionTemplate get(int hash, long low, long high, int shape) {
+            int base = (hash & setMask) * WAYS;
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if (shapes[slot] == shape && lows[slot] == low && highs[slot] == high) {
+                    return templates[slot];
+                }
+            }
+            return null;
+        }
+
+        void put(int hash, long low, long high, int shape, InstructionTemplate template) {
+            int base = (hash & setMask) * WAYS;
+            int target = -1;
+            for (int slot = base; slot < base + WAYS; slot++) {
+                if (shapes[slot] == shape && lows[slot] == low && highs[slot] == high || target == -1 && templates[slot] == null) {
+                    target = slot;
+                }
+            }
+            if (target == -1) {
+                target = base + (victim++ & (WAYS - 1));
+            }
+            lows[target] = low;
+            highs[target] = high;
+            shapes[target] = shape;
+            templates[target] = template;
+        }
+
+        void clear() {
+            Arrays.fill(templates, null);
+            Arrays.fill(shapes, 0);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.arsen.disassembler;
+
+import com.arsen.core.cache.CacheManager;
+import com.arsen.core.cache.InstructionTemplate;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.disassembly.Instruction;
+import com.arsen.model.disassembly.InstructionType;
+import com.arsen.model.disassembly.Operand;
+import com.arsen.model.disassembly.OperandType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DecodeBatch {
+    public static final long NO_TARGET = -1L;
+    public static final int STATUS_OK = 0;
+    public static final int STATUS_INVALID = 1;
+    public static final int STATUS_TRUNCATED = 2;
+    public static final int STATUS_UNKNOWN = 3;
+
+    private static final InstructionType[] TYPES = InstructionType.values();
+    private static final OperandType[] OPERAND_TYPES = OperandType.values();
+    private static final int ADDRESS_TEXT = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long TEMPLATE_PROBE_DISTANCE = 0x10001004L;
+
+    private final IDisassembler disassembler;
+    private final ByteSource content;
+    private final long baseAddress;
+
+    private int[] offsets;
+    private byte[] lengths;
+    private byte[] types;
+    private long[] targets;
+    private byte[] statuses;
+    private int count;
+
+    private volatile boolean packed;
+    private int[] mnemonicIds;
+    private int[] operandStarts;
+    private byte[] operandTypes;
+    private int[] operandTextIds;
+    private long[] operandValues;
+    private StringPool strings;
+
+    public DecodeBatch(IDisassembler disassembler, ByteSource content, long baseAddress, int expectedCount) {
+        this.disassembler = disassembler;
+        this.content = content;
+        this.baseAddress = baseAddress;
+        int capacity = Math.max(INITIAL_CAPACITY, expectedCount);
+        this.offsets = new int[capacity];
+        this.lengths = new byte[capacity];
+        this.types = new byte[capacity];
+        this.targets = new long[capacity];
+        this.statuses = new byte[capacity];
+    }
+
+    public void add(long address, int length, InstructionType type, long target) {
+        add(address, length, type, target, STATUS_OK);
+    }
+
+    public void add(long address, int length, InstructionType type, long target, int status) {
+        if (count == offsets.length) {
+            int capacity = offsets.length + (offsets.length >> 1);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            types = Arrays.copyOf(types, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+        offsets[count] = (int) (address - baseAddress);
+        lengths[count] = (byte) length;
+        types[count] = (byte) type.ordinal();
+        targets[count] = target;
+        statuses[count] = (byte) status;
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public long getBaseAddress() {
+        return baseAddress;
+    }
+
+    public long getEndAddress() {
+        return baseAddress + content.size();
+    }
+
+    public boolean contains(long address) {
+        return address - baseAddress >= 0 && address - baseAddress < content.size();
+    }
+
+    public long getAddress(int index) {
+        return baseAddress + offsets[index];
+    }
+
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    public int getLength(int index) {
+        return lengths[index] & 0xFF;
+    }
+
+    public InstructionType getType(int index) {
+        return TYPES[types[index]];
+    }
+
+    public boolean hasTarget(int index) {
+        return targets[index] != NO_TARGET;
+    }
+
+    public long getTarget(int index) {
+        return targets[index];
+    }
+
+    public int getStatus(int index) {
+        return statuses[index];
+    }
+
+    public boolean isValid(int index) {
+        return statuses[index] == STATUS_OK;
+    }
+
+    public boolean isDecodable(int index) {
+        return statuses[index] == STATUS_OK || statuses[index] == STATUS_UNKNOWN;
+    }
+
+    public int indexOf(long address) {
+        long offset = address - baseAddress;
+        if (offset < 0 || offset >= content.size()) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(offsets, 0, count, (int) offset);
+        return index >= 0 ? index : -1;
+    }
+
+    public byte[] getBytes(int index) {
+        byte[] bytes = new byte[(int) Math.min(getLength(index), content.size() - offsets[index])];
+        content.read(offsets[index], bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    public String getMnemonic(int index) {
+        pack();
+        return strings.get(mnemonicIds[index]);
+    }
+
+    public List<Operand> getOperands(int index) {
+        pack();
+        int start = operandStarts[index];
+        int end = operandStarts[index + 1];
+        if (start == end) {
+            return List.of();
+        }
+        List<Operand> operands = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            String text = operandTextIds[i] == ADDRESS_TEXT ? Address.of(operandValues[i]).toString() : strings.get(operandTextIds[i]);
+            operands.add(Operand.builder().type(operandTypes[i] < 0 ? null : OPERAND_TYPES[operandTypes[i]]).text(text).value(operandValues[i]).build());
+        }
+        return operands;
+    }
+
+    public Instruction toInstruction(int index) {
+        return new InstructionView(this, index);
+    }
+
+    private void pack() {
+        if (packed) {
+            return;
+        }
+        synchronized (this) {
+            if (packed) {
+                return;
+            }
+
+            StringPool pool = new StringPool();
+            Map<InstructionTemplate, int[]> templateIds = new IdentityHashMap<>();
+            int[] mnemonics = new int[count];
+            int[] starts = new int[count + 1];
+            byte[] types = new byte[count];
+            int[] textIds = new int[count];
+            long[] values = new long[count];
+            int operandCount = 0;
+
+            for (int i = 0; i < count; i++) {
+                long address = getAddress(i);
+                InstructionTemplate template = templateOf(address, getBytes(i));
+                int[] ids = template.addressDependent() ? intern(pool, template) : templateIds.computeIfAbsent(template, t -> intern(pool, t));
+                mnemonics[i] = ids[0];
+                starts[i] = operandCount;
+
+                List<Operand> operands = template.operands();
+                for (int j = 0; j < operands.size(); j++) {
+                    if (operandCount == types.length) {
+                        int capacity = types.length + (types.length >> 1) + 1;
+                        types = Arrays.copyOf(types, capacity);
+                        textIds = Arrays.copyOf(textIds, capacity);
+                        values = Arrays.copyOf(values, capacity);
+                    }
+                    Operand operand = operands.get(j);
+                    types[operandCount] = (byte) (operand.getType() == null ? -1 : operand.getType().ordinal());
+                    textIds[operandCount] = ids[j + 1];
+                    values[operandCount] = template.value(j, address);
+                    operandCount++;
+                }
+            }
+            starts[count] = operandCount;
+
+            this.strings = pool;
+            this.mnemonicIds = mnemonics;
+            this.operandStarts = starts;
+            this.operandTypes = Arrays.copyOf(types, operandCount);
+            this.operandTextIds = Arrays.copyOf(textIds, operandCount);
+            this.operandValues = Arrays.copyOf(values, operandCount);
+            this.packed = true;
+        }
+    }
+
+    private static int[] intern(StringPool pool, InstructionTemplate template) {
+        List<Operand> operands = template.operands();
+        int[] ids = new int[operands.size() + 1];
+        ids[0] = pool.intern(template.mnemonic());
+        for (int j = 0; j < operands.size(); j++) {
+            ids[j + 1] = template.isAddress(j) ? ADDRESS_TEXT : pool.intern(operands.get(j).getText());
+        }
+        return ids;
+    }
+
+    private InstructionTemplate templateOf(long address, byte[] bytes) {
+        CacheManager cache = CacheManager.getInstance();
+        int mode = disassembler.decodeMode(address);
+        InstructionTemplate template = cache.getInstructionTemplate(mode, bytes);
+        if (template != null && !template.addressDependent()) {
+            return template;
+        }
+
+        Instruction instruction = disassembler.disassemble(Address.of(address), bytes, 0);
+        if (template != null) {
+            return InstructionTemplate.of(instruction);
+        }
+
+        long probe = disassembler.decodeMode(address + TEMPLATE_PROBE_DISTANCE) == mode ? address + TEMPLATE_PROBE_DISTANCE : address - TEMPLATE_PROBE_DISTANCE;
+        if (disassembler.decodeMode(probe) != mode) {
+            return InstructionTemplate.of(instruction);
+        }
+
+        template = InstructionTemplate.of(instruction, disassembler.disassemble(Address.of(probe), bytes, 0), address);
+        cache.putInstructionTemplate(mode, bytes, template);
+        return template.addressDependent() ? InstructionTemplate.of(instruction) : template;
+    }
+
+    private static class StringPool {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int intern(String value) {
+            return ids.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        String get(int id) {
+            return values.get(id);
+        }
+    }
+}
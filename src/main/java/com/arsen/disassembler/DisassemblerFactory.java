@@ -1,19 +1,26 @@
 package com.arsen.disassembler;
 
+import com.arsen.disassembler.arch.arm.Arm64Disassembler;
 import com.arsen.disassembler.arch.arm.ArmDisassembler;
 import com.arsen.disassembler.arch.mips.MipsDisassembler;
 import com.arsen.disassembler.arch.powerpc.PowerPcDisassembler;
 import com.arsen.disassembler.arch.x86.X86Disassembler;
 import com.arsen.model.Architecture;
+import com.arsen.model.Endianness;
 
 public class DisassemblerFactory {
 
     public static IDisassembler create(Architecture architecture) {
+        return create(architecture, null);
+    }
+
+    public static IDisassembler create(Architecture architecture, Endianness endianness) {
         return switch (architecture) {
             case X86, X86_64 -> new X86Disassembler(architecture);
-            case ARM, ARM64 -> new ArmDisassembler(architecture);
-            case MIPS -> new MipsDisassembler(architecture);
-            case POWERPC -> new PowerPcDisassembler(architecture);
+            case ARM -> new ArmDisassembler(architecture);
+            case ARM64 -> new Arm64Disassembler(architecture);
+            case MIPS -> new MipsDisassembler(architecture, endianness == null ? Endianness.LITTLE : endianness);
+            case POWERPC -> new PowerPcDisassembler(architecture, endianness == null ? Endianness.BIG : endianness);
             default -> throw new UnsupportedOperationException("No disassembler for architecture: " + architecture);
         };
     }
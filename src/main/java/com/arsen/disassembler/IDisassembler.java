@@ -1,13 +1,66 @@
 package com.arsen.disassembler;
 
+import com.arsen.loader.io.ByteSource;
 import com.arsen.model.Address;
 import com.arsen.model.Architecture;
 import com.arsen.model.disassembly.Instruction;
 
+import java.util.Arrays;
+
 public interface IDisassembler {
+    int DECODE_WINDOW_SIZE = 64 * 1024;
+
     Architecture architecture();
 
     Instruction disassemble(Address address, byte[] data, int offset);
 
+    default Address normalizeEntry(Address address) {
+        return address;
+    }
+
+    default Instruction disassemble(Address address, ByteSource source, long offset) {
+        byte[] window = new byte[(int) Math.max(0, Math.min(getMaxInstructionSize(), source.size() - offset))];
+        source.read(offset, window, 0, window.length);
+        return disassemble(address, window, 0);
+    }
+
+    default int decode(byte[] data, int offset, int limit, long address, DecodeBatch batch) {
+        Instruction instruction = disassemble(Address.of(address), Arrays.copyOfRange(data, offset, Math.min(limit, offset + getMaxInstructionSize())), 0);
+        batch.add(address, instruction.getSize(), instruction.getType(), instruction.getTargetAddress() == null ? DecodeBatch.NO_TARGET : instruction.getTargetAddress().value());
+        return instruction.getSize();
+    }
+
+    default DecodeBatch decodeRange(Address start, ByteSource source) {
+        long size = Math.min(source.size(), Integer.MAX_VALUE);
+        int maxSize = getMaxInstructionSize();
+        DecodeBatch batch = new DecodeBatch(this, source, start.value(), (int) Math.min(size / Math.max(1, maxSize / 4), Integer.MAX_VALUE - 8));
+        byte[] window = new byte[DECODE_WINDOW_SIZE + maxSize];
+        long windowStart = 0;
+        int windowLength = 0;
+
+        long offset = 0;
+        while (offset < size) {
+            int position = (int) (offset - windowStart);
+            if (offset >= windowStart + windowLength || (position + maxSize > windowLength && windowStart + windowLength < size)) {
+                windowStart = offset;
+                windowLength = source.read(offset, window, 0, (int) Math.min(window.length, size - offset));
+                position = 0;
+            }
+
+            int length = decode(window, position, windowLength, start.value() + offset, batch);
+            offset += length > 0 ? length : 1;
+        }
+
+        return batch;
+    }
+
+    default int decodeMode(long address) {
+        return architecture().ordinal();
+    }
+
+    default boolean hasDelaySlots() {
+        return false;
+    }
+
     int getMaxInstructionSize();
 }
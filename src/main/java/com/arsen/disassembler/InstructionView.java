@@ -0,0 +1,68 @@
+package com.arsen.disassembler;
+
+import com.arsen.model.Address;
+import com.arsen.model.disassembly.Instruction;
+import com.arsen.model.disassembly.InstructionType;
+import com.arsen.model.disassembly.Operand;
+
+import java.util.List;
+
+final class InstructionView implements Instruction {
+    private final DecodeBatch batch;
+    private final int index;
+
+    InstructionView(DecodeBatch batch, int index) {
+        this.batch = batch;
+        this.index = index;
+    }
+
+    @Override
+    public Address getAddress() {
+        return Address.of(batch.getAddress(index));
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return batch.getBytes(index);
+    }
+
+    @Override
+    public String getMnemonic() {
+        return batch.getMnemonic(index);
+    }
+
+    @Override
+    public List<Operand> getOperands() {
+        return batch.getOperands(index);
+    }
+
+    @Override
+    public int getSize() {
+        return batch.getLength(index);
+    }
+
+    @Override
+    public InstructionType getType() {
+        return batch.getType(index);
+    }
+
+    @Override
+    public Address getTargetAddress() {
+        return batch.hasTarget(index) ? Address.of(batch.getTarget(index)) : null;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof InstructionView view && view.batch == batch && view.index == index;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(batch.getAddress(index));
+    }
+
+    @Override
+    public String toString() {
+        return getAddress() + " " + getFullText();
+    }
+}
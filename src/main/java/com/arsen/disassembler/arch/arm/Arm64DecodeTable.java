@@ -0,0 +1,394 @@
+package com.arsen.disassembler.arch.arm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class Arm64DecodeTable {
+    static final int FLOW_NORMAL = 0;
+    static final int FLOW_JUMP = 1;
+    static final int FLOW_CONDITIONAL = 2;
+    static final int FLOW_CALL = 3;
+    static final int FLOW_RETURN = 4;
+    static final int FLOW_SYSTEM = 5;
+    static final int FLOW_NOP = 6;
+
+    static final int TARGET_NONE = 0;
+    static final int TARGET_IMM26 = 1;
+    static final int TARGET_IMM19 = 2;
+    static final int TARGET_IMM14 = 3;
+
+    private static final int BRANCH_GROUP_MASK = 0x1C000000;
+    private static final int BRANCH_GROUP_MATCH = 0x14000000;
+
+    private static final String BRANCHES = """
+            FC000000 14000000 j b J26
+            FC000000 94000000 c bl J26
+            FF000010 54000000 cj b.C J19
+            FF000010 54000010 cj bc.C J19
+            7F000000 34000000 cj cbz Rt,J19
+            7F000000 35000000 cj cbnz Rt,J19
+            7F000000 36000000 cj tbz Rt,TB,J14
+            7F000000 37000000 cj tbnz Rt,TB,J14
+            FFFFFFFF D65F0BFF r retaa
+            FFFFFFFF D65F0FFF r retab
+            FFFFFC1F D65F0000 r ret Xn
+            FFFFFC1F D61F0000 j br Xn
+            FFFFFC1F D63F0000 c blr Xn
+            FFFFFC1F D61F081F j braaz Xn
+            FFFFFC1F D61F0C1F j brabz Xn
+            FFFFFC1F D63F081F c blraaz Xn
+            FFFFFC1F D63F0C1F c blrabz Xn
+            FFFFFC00 D71F0800 j braa Xn,Xm_sp
+            FFFFFC00 D71F0C00 j brab Xn,Xm_sp
+            FFFFFC00 D73F0800 c blraa Xn,Xm_sp
+            FFFFFC00 D73F0C00 c blrab Xn,Xm_sp
+            FFFFFFFF D69F03E0 r eret
+            FFFFFFFF D69F0BFF r eretaa
+            FFFFFFFF D69F0FFF r eretab
+            FFFFFFFF D6BF03E0 r drps
+            FFE0001F D4000001 s svc I16
+            FFE0001F D4000002 s hvc I16
+            FFE0001F D4000003 s smc I16
+            FFE0001F D4200000 s brk I16
+            FFE0001F D4400000 s hlt I16
+            FFE0001F D4A00001 s dcps1 I16
+            FFE0001F D4A00002 s dcps2 I16
+            FFE0001F D4A00003 s dcps3 I16
+            FFFFFFFF D503201F n nop
+            FFFFFFFF D503203F - yield
+            FFFFFFFF D503205F - wfe
+            FFFFFFFF D503207F - wfi
+            FFFFFFFF D503209F - sev
+            FFFFFFFF D50320BF - sevl
+            FFFFFFFF D50320FF - xpaclri
+            FFFFFFFF D503229F - csdb
+            FFFFFFFF D503231F - paciaz
+            FFFFFFFF D503233F - paciasp
+            FFFFFFFF D503235F - pacibz
+            FFFFFFFF D503237F - pacibsp
+            FFFFFFFF D503239F - autiaz
+            FFFFFFFF D50323BF - autiasp
+            FFFFFFFF D50323DF - autibz
+            FFFFFFFF D50323FF - autibsp
+            FFFFFFFF D503241F - bti
+            FFFFFFFF D503245F - bti c
+            FFFFFFFF D503249F - bti j
+            FFFFFFFF D50324DF - bti jc
+            FFFFF01F D503201F - hint HINT
+            FFFFF0FF D503305F - clrex
+            FFFFF0FF D503309F - dsb BAR
+            FFFFF0FF D50330BF - dmb BAR
+            FFFFF0FF D50330DF - isb
+            FFFFF0FF D50330FF - sb
+            FFF8F01F D500401F - msr PS,CRM
+            FFF80000 D5080000 - sys SYSOP
+            FFF80000 D5280000 - sysl Xt,SYSOP
+            FFF00000 D5100000 - msr SYS,Xt
+            FFF00000 D5300000 - mrs Xt,SYS
+            FFFF0000 00000000 s udf I16L
+            """;
+
+    private static final String DATA_PROCESSING = """
+            9F000000 10000000 - adr Xd,ADR
+            9F000000 90000000 - adrp Xd,ADRP
+            7F800000 11000000 - add Rd_sp,Rn_sp,AI
+            7F800000 31000000 - adds Rd,Rn_sp,AI
+            7F800000 51000000 - sub Rd_sp,Rn_sp,AI
+            7F800000 71000000 - subs Rd,Rn_sp,AI
+            7F800000 12000000 - and Rd_sp,Rn,LI
+            7F800000 32000000 - orr Rd_sp,Rn,LI
+            7F800000 52000000 - eor Rd_sp,Rn,LI
+            7F800000 72000000 - ands Rd,Rn,LI
+            7F800000 12800000 - movn Rd,MW
+            7F800000 52800000 - movz Rd,MW
+            7F800000 72800000 - movk Rd,MW
+            7F800000 13000000 - sbfm Rd,Rn,BF
+            7F800000 33000000 - bfm Rd,Rn,BF
+            7F800000 53000000 - ubfm Rd,Rn,BF
+            7FA00000 13800000 - extr Rd,Rn,Rm,EX
+            7F200000 0A000000 - and Rd,Rn,Rm,SH
+            7F200000 0A200000 - bic Rd,Rn,Rm,SH
+            7F200000 2A000000 - orr Rd,Rn,Rm,SH
+            7F200000 2A200000 - orn Rd,Rn,Rm,SH
+            7F200000 4A000000 - eor Rd,Rn,Rm,SH
+            7F200000 4A200000 - eon Rd,Rn,Rm,SH
+            7F200000 6A000000 - ands Rd,Rn,Rm,SH
+            7F200000 6A200000 - bics Rd,Rn,Rm,SH
+            7FE00000 0B200000 - add Rd_sp,Rn_sp,EXT
+            7FE00000 2B200000 - adds Rd,Rn_sp,EXT
+            7FE00000 4B200000 - sub Rd_sp,Rn_sp,EXT
+            7FE00000 6B200000 - subs Rd,Rn_sp,EXT
+            7F200000 0B000000 - add Rd,Rn,Rm,SH
+            7F200000 2B000000 - adds Rd,Rn,Rm,SH
+            7F200000 4B000000 - sub Rd,Rn,Rm,SH
+            7F200000 6B000000 - subs Rd,Rn,Rm,SH
+            7FE0FC00 1A000000 - adc Rd,Rn,Rm
+            7FE0FC00 3A000000 - adcs Rd,Rn,Rm
+            7FE0FC00 5A000000 - sbc Rd,Rn,Rm
+            7FE0FC00 7A000000 - sbcs Rd,Rn,Rm
+            7FE00C10 3A400000 - ccmn Rn,Rm,NZCV,C
+            7FE00C10 7A400000 - ccmp Rn,Rm,NZCV,C
+            7FE00C10 3A400800 - ccmn Rn,I5,NZCV,C
+            7FE00C10 7A400800 - ccmp Rn,I5,NZCV,C
+            7FE00C00 1A800000 - csel Rd,Rn,Rm,C
+            7FE00C00 1A800400 - csinc Rd,Rn,Rm,C
+            7FE00C00 5A800000 - csinv Rd,Rn,Rm,C
+            7FE00C00 5A800400 - csneg Rd,Rn,Rm,C
+            7FE08000 1B000000 - madd Rd,Rn,Rm,Ra
+            7FE08000 1B008000 - msub Rd,Rn,Rm,Ra
+            FFE08000 9B200000 - smaddl Xd,Wn,Wm,Xa
+            FFE08000 9B208000 - smsubl Xd,Wn,Wm,Xa
+            FFE08000 9BA00000 - umaddl Xd,Wn,Wm,Xa
+            FFE08000 9BA08000 - umsubl Xd,Wn,Wm,Xa
+            FFE08000 9B400000 - smulh Xd,Xn,Xm
+            FFE08000 9BC00000 - umulh Xd,Xn,Xm
+            7FE0FC00 1AC00800 - udiv Rd,Rn,Rm
+            7FE0FC00 1AC00C00 - sdiv Rd,Rn,Rm
+            7FE0FC00 1AC02000 - lslv Rd,Rn,Rm
+            7FE0FC00 1AC02400 - lsrv Rd,Rn,Rm
+            7FE0FC00 1AC02800 - asrv Rd,Rn,Rm
+            7FE0FC00 1AC02C00 - rorv Rd,Rn,Rm
+            FFE0F000 1AC04000 - crc32 Wd,Wn,Rm
+            FFE0F000 1AC05000 - crc32c Wd,Wn,Rm
+            7FFFFC00 5AC00000 - rbit Rd,Rn
+            7FFFFC00 5AC00400 - rev16 Rd,Rn
+            FFFFFC00 5AC00800 - rev Wd,Wn
+            FFFFFC00 DAC00800 - rev32 Xd,Xn
+            FFFFFC00 DAC00C00 - rev Xd,Xn
+            7FFFFC00 5AC01000 - clz Rd,Rn
+            7FFFFC00 5AC01400 - cls Rd,Rn
+            FFFFDC00 DAC10000 - pacia Xd,Xn_sp
+            FFFFDC00 DAC10400 - pacib Xd,Xn_sp
+            FFFFDC00 DAC11000 - autia Xd,Xn_sp
+            FFFFDC00 DAC11400 - autib Xd,Xn_sp
+            """;
+
+    private static final String FLOATING_POINT = """
+            FFFFFC00 1E260000 - fmov Wd,Sn
+            FFFFFC00 1E270000 - fmov Sd,Wn
+            FFFFFC00 9E660000 - fmov Xd,Dn
+            FFFFFC00 9E670000 - fmov Dd,Xn
+            FF3FFC00 1E204000 - fmov Fd,Fn
+            FF201FE0 1E201000 - fmov Fd,FI
+            FF3FFC00 1E20C000 - fabs Fd,Fn
+            FF3FFC00 1E214000 - fneg Fd,Fn
+            FF3FFC00 1E21C000 - fsqrt Fd,Fn
+            FFFFFC00 1E22C000 - fcvt Dd,Sn
+            FFFFFC00 1E624000 - fcvt Sd,Dn
+            FF20FC00 1E200800 - fmul Fd,Fn,Fm
+            FF20FC00 1E201800 - fdiv Fd,Fn,Fm
+            FF20FC00 1E202800 - fadd Fd,Fn,Fm
+            FF20FC00 1E203800 - fsub Fd,Fn,Fm
+            FF20FC00 1E204800 - fmax Fd,Fn,Fm
+            FF20FC00 1E205800 - fmin Fd,Fn,Fm
+            FF20FC00 1E208800 - fnmul Fd,Fn,Fm
+            FF20FC1F 1E202000 - fcmp Fn,Fm
+            FF20FC1F 1E202008 - fcmp Fn,F0
+            FF20FC1F 1E202010 - fcmpe Fn,Fm
+            FF20FC1F 1E202018 - fcmpe Fn,F0
+            FF200C00 1E200C00 - fcsel Fd,Fn,Fm,C
+            7F3FFC00 1E220000 - scvtf Fd,Rn
+            7F3FFC00 1E230000 - ucvtf Fd,Rn
+            7F3FFC00 1E200000 - fcvtns Rd,Fn
+            7F3FFC00 1E210000 - fcvtnu Rd,Fn
+            7F3FFC00 1E240000 - fcvtas Rd,Fn
+            7F3FFC00 1E250000 - fcvtau Rd,Fn
+            7F3FFC00 1E280000 - fcvtps Rd,Fn
+            7F3FFC00 1E290000 - fcvtpu Rd,Fn
+            7F3FFC00 1E300000 - fcvtms Rd,Fn
+            7F3FFC00 1E310000 - fcvtmu Rd,Fn
+            7F3FFC00 1E380000 - fcvtzs Rd,Fn
+            7F3FFC00 1E390000 - fcvtzu Rd,Fn
+            FF208000 1F000000 - fmadd Fd,Fn,Fm,Fa
+            FF208000 1F008000 - fmsub Fd,Fn,Fm,Fa
+            FF208000 1F200000 - fnmadd Fd,Fn,Fm,Fa
+            FF208000 1F208000 - fnmsub Fd,Fn,Fm,Fa
+            """;
+
+    private static final String ATOMICS = """
+            3FE08000 08000000 - stxr Ws,Rt,M0
+            3FE08000 08008000 - stlxr Ws,Rt,M0
+            3FE08000 08400000 - ldxr Rt,M0
+            3FE08000 08408000 - ldaxr Rt,M0
+            3FE08000 08800000 - stllr Rt,M0
+            3FE08000 08808000 - stlr Rt,M0
+            3FE08000 08C00000 - ldlar Rt,M0
+            3FE08000 08C08000 - ldar Rt,M0
+            3FE08000 08200000 - stxp Ws,Rt,Rt2,M0
+            3FE08000 08208000 - stlxp Ws,Rt,Rt2,M0
+            3FE08000 08600000 - ldxp Rt,Rt2,M0
+            3FE08000 08608000 - ldaxp Rt,Rt2,M0
+            3FA07C00 08A07C00 - cas Rs,Rt,M0
+            3F208C00 38200000 - ldadd Rs,Rt,M0
+            3F208C00 38201000 - ldclr Rs,Rt,M0
+            3F208C00 38202000 - ldeor Rs,Rt,M0
+            3F208C00 38203000 - ldset Rs,Rt,M0
+            3F208C00 38204000 - ldsmax Rs,Rt,M0
+            3F208C00 38205000 - ldsmin Rs,Rt,M0
+            3F208C00 38206000 - ldumax Rs,Rt,M0
+            3F208C00 38207000 - ldumin Rs,Rt,M0
+            3F20FC00 38208000 - swp Rs,Rt,M0
+            3FFFFC00 38BFC000 - ldapr Rt,M0
+            """;
+
+    private static final String[][] LOAD_STORE_FORMS = {
+            {"39000000", "strb", "Wt", "1"}, {"39400000", "ldrb", "Wt", "1"}, {"39800000", "ldrsb", "Xt", "1"}, {"39C00000", "ldrsb", "Wt", "1"},
+            {"79000000", "strh", "Wt", "2"}, {"79400000", "ldrh", "Wt", "2"}, {"79800000", "ldrsh", "Xt", "2"}, {"79C00000", "ldrsh", "Wt", "2"},
+            {"B9000000", "str", "Wt", "4"}, {"B9400000", "ldr", "Wt", "4"}, {"B9800000", "ldrsw", "Xt", "4"},
+            {"F9000000", "str", "Xt", "8"}, {"F9400000", "ldr", "Xt", "8"}, {"F9800000", "prfm", "PRF", "8"},
+            {"3D000000", "str", "Bt", "1"}, {"3D400000", "ldr", "Bt", "1"}, {"3D800000", "str", "Qt", "16"}, {"3DC00000", "ldr", "Qt", "16"},
+            {"7D000000", "str", "Ht", "2"}, {"7D400000", "ldr", "Ht", "2"}, {"BD000000", "str", "St", "4"}, {"BD400000", "ldr", "St", "4"},
+            {"FD000000", "str", "Dt", "8"}, {"FD400000", "ldr", "Dt", "8"}};
+
+    private static final String[][] PAIR_FORMS = {
+            {"28000000", "stp", "Wt,Wt2", "4"}, {"28400000", "ldp", "Wt,Wt2", "4"}, {"68400000", "ldpsw", "Xt,Xt2", "4"},
+            {"A8000000", "stp", "Xt,Xt2", "8"}, {"A8400000", "ldp", "Xt,Xt2", "8"},
+            {"2C000000", "stp", "St,St2", "4"}, {"2C400000", "ldp", "St,St2", "4"}, {"6C000000", "stp", "Dt,Dt2", "8"},
+            {"6C400000", "ldp", "Dt,Dt2", "8"}, {"AC000000", "stp", "Qt,Qt2", "16"}, {"AC400000", "ldp", "Qt,Qt2", "16"}};
+
+    private static final String[][] LITERAL_FORMS = {
+            {"18000000", "ldr", "Wt"}, {"58000000", "ldr", "Xt"}, {"98000000", "ldrsw", "Xt"}, {"D8000000", "prfm", "PRF"},
+            {"1C000000", "ldr", "St"}, {"5C000000", "ldr", "Dt"}, {"9C000000", "ldr", "Qt"}};
+
+    static final List<Entry> ENTRIES = new ArrayList<>();
+    private static final Entry[][] GROUPS = new Entry[16][];
+    private static final EncodingIndex KNOWN;
+
+    private static final int[] FLOW_MASKS;
+    private static final int[] FLOW_MATCHES;
+    private static final byte[] FLOW_TYPES;
+    private static final byte[] FLOW_TARGETS;
+
+    static {
+        parse(BRANCHES);
+        parse(DATA_PROCESSING);
+        parse(FLOATING_POINT);
+        parse(ATOMICS);
+        addLoadStores();
+
+        for (int group = 0; group < 16; group++) {
+            int bits = group << 25;
+            GROUPS[group] = ENTRIES.stream().filter(entry -> ((entry.match() ^ bits) & entry.mask() & 0x1E000000) == 0).toArray(Entry[]::new);
+        }
+
+        List<Entry> flow = ENTRIES.stream().filter(entry -> (entry.match() & BRANCH_GROUP_MASK) == BRANCH_GROUP_MATCH).toList();
+        FLOW_MASKS = new int[flow.size()];
+        FLOW_MATCHES = new int[flow.size()];
+        FLOW_TYPES = new byte[flow.size()];
+        FLOW_TARGETS = new byte[flow.size()];
+        for (int i = 0; i < flow.size(); i++) {
+            FLOW_MASKS[i] = flow.get(i).mask();
+            FLOW_MATCHES[i] = flow.get(i).match();
+            FLOW_TYPES[i] = (byte) flow.get(i).flow();
+            FLOW_TARGETS[i] = (byte) flow.get(i).target();
+        }
+
+        KNOWN = new EncodingIndex(ENTRIES.stream().mapToInt(Entry::mask).toArray(), ENTRIES.stream().mapToInt(Entry::match).toArray(), 20, 12);
+    }
+
+    private Arm64DecodeTable() {
+    }
+
+    static Entry find(int word) {
+        for (Entry entry : GROUPS[(word >>> 25) & 0xF]) {
+            if ((word & entry.mask()) == entry.match()) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    static boolean isKnown(int word) {
+        return KNOWN.contains(word);
+    }
+
+    static int classify(int word) {
+        if ((word & BRANCH_GROUP_MASK) != BRANCH_GROUP_MATCH) {
+            return (word & 0xFFFF0000) == 0 ? FLOW_SYSTEM : FLOW_NORMAL;
+        }
+        for (int i = 0; i < FLOW_MASKS.length; i++) {
+            if ((word & FLOW_MASKS[i]) == FLOW_MATCHES[i]) {
+                return FLOW_TYPES[i] | FLOW_TARGETS[i] << 4;
+            }
+        }
+        return FLOW_NORMAL;
+    }
+
+    static long target(int word, int targetKind, long address) {
+        return switch (targetKind) {
+            case TARGET_IMM26 -> address + ((long) (word << 6 >> 6) << 2);
+            case TARGET_IMM19 -> address + ((long) (word << 8 >> 13) << 2);
+            case TARGET_IMM14 -> address + ((long) (word << 13 >> 18) << 2);
+            default -> -1L;
+        };
+    }
+
+    private static void parse(String table) {
+        for (String line : table.strip().split("\n")) {
+            String[] parts = line.strip().split(" ", 5);
+            add(Integer.parseUnsignedInt(parts[0], 16), Integer.parseUnsignedInt(parts[1], 16), parts[2], parts[3], parts.length > 4 ? parts[4] : "");
+        }
+    }
+
+    private static void addLoadStores() {
+        String[] memoryForms = {"M9", "M9post", "M9T", "M9pre"};
+        for (String[] form : LOAD_STORE_FORMS) {
+            int base = Integer.parseUnsignedInt(form[0], 16);
+            String name = form[1];
+            String register = form[2];
+            add(0xFFC00000, base, "-", name, register + ",MU" + form[3]);
+            add(0xFFE00C00, (base & ~0x01000000) | 0x00200800, "-", name, register + ",MR" + form[3]);
+            for (int index = 0; index < 4; index++) {
+                String variant = switch (index) {
+                    case 0 -> name.equals("prfm") ? "prfum" : name.substring(0, 2) + "u" + name.substring(2);
+                    case 2 -> name.substring(0, 2) + "t" + name.substring(2);
+                    default -> name;
+                };
+                if (name.equals("prfm") && index != 0 || register.charAt(0) != 'W' && register.charAt(0) != 'X' && index == 2) {
+                    continue;
+                }
+                add(0xFFE00C00, (base & ~0x01000000) | (index << 10), "-", variant, register + "," + memoryForms[index]);
+            }
+        }
+        String[] pairForms = {"MP", "MPpost", "MP", "MPpre"};
+        for (String[] form : PAIR_FORMS) {
+            int base = Integer.parseUnsignedInt(form[0], 16);
+            for (int index = 0; index < 4; index++) {
+                String name = index == 0 ? form[1].replace("p", "np") : form[1];
+                if (index == 0 && form[1].equals("ldpsw")) {
+                    continue;
+                }
+                add(0xFFC00000, base | (index << 23), "-", name, form[2] + "," + pairForms[index] + form[3]);
+            }
+        }
+        for (String[] form : LITERAL_FORMS) {
+            add(0xFF000000, Integer.parseUnsignedInt(form[0], 16), "-", form[1], form[2] + ",LIT");
+        }
+    }
+
+    private static void add(int mask, int match, String flow, String mnemonic, String operands) {
+        int flowType = switch (flow) {
+            case "j" -> FLOW_JUMP;
+            case "c" -> FLOW_CALL;
+            case "cj" -> FLOW_CONDITIONAL;
+            case "r" -> FLOW_RETURN;
+            case "s" -> FLOW_SYSTEM;
+            case "n" -> FLOW_NOP;
+            default -> FLOW_NORMAL;
+        };
+        String[] tokens = operands.isEmpty() ? new String[0] : operands.split(",");
+        int target = TARGET_NONE;
+        for (String token : tokens) {
+            target = switch (token) {
+                case "J26" -> TARGET_IMM26;
+                case "J19" -> TARGET_IMM19;
+                case "J14" -> TARGET_IMM14;
+                default -> target;
+            };
+        }
+        ENTRIES.add(new Entry(mask, match, flowType, target, mnemonic, tokens));
+    }
+
+    record Entry(int mask, int match, int flow, int target, String mnemonic, String[] operands) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.arsen.disassembler.arch.arm;
+
+import com.arsen.disassembler.DecodeBatch;
+import com.arsen.disassembler.IDisassembler;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Architecture;
+import com.arsen.model.disassembly.Instruction;
+import com.arsen.model.disassembly.InstructionType;
+
+import java.util.Arrays;
+
+public record Arm64Disassembler(Architecture architecture) implements IDisassembler {
+    private static final InstructionType[] FLOW_TYPES = {InstructionType.NORMAL, InstructionType.JUMP, InstructionType.CONDITIONAL_JUMP, InstructionType.CALL, InstructionType.RETURN, InstructionType.SYSTEM, InstructionType.NOP};
+
+    @Override
+    public Instruction disassemble(Address address, byte[] data, int offset) {
+        if (offset + 4 > data.length) {
+            return createInvalidInstruction(address);
+        }
+
+        int word = readWord(data, offset);
+        int flow = Arm64DecodeTable.classify(word);
+        long target = Arm64DecodeTable.target(word, flow >>> 4, address.value());
+        Arm64InstructionFormatter formatter = new Arm64InstructionFormatter(word, address.value());
+
+        return Instruction.builder().address(address).bytes(Arrays.copyOfRange(data, offset, offset + 4)).mnemonic(formatter.mnemonic()).operands(formatter.operands()).size(4).type(FLOW_TYPES[flow & 0xF]).targetAddress(target == -1L ? null : Address.of(target)).build();
+    }
+
+    @Override
+    public int decode(byte[] data, int offset, int limit, long address, DecodeBatch batch) {
+        if (offset + 4 > limit) {
+            batch.add(address, 4, InstructionType.NORMAL, DecodeBatch.NO_TARGET, DecodeBatch.STATUS_TRUNCATED);
+            return 4;
+        }
+
+        addFlow(batch, readWord(data, offset), address);
+        return 4;
+    }
+
+    @Override
+    public DecodeBatch decodeRange(Address start, ByteSource source) {
+        long size = Math.min(source.size(), Integer.MAX_VALUE) & ~3L;
+        DecodeBatch batch = new DecodeBatch(this, source, start.value(), (int) (size / 4));
+        byte[] window = new byte[DECODE_WINDOW_SIZE];
+
+        for (long offset = 0; offset < size; ) {
+            int length = source.read(offset, window, 0, (int) Math.min(window.length, size - offset)) & ~3;
+            if (length <= 0) {
+                break;
+            }
+            long address = start.value() + offset;
+            for (int position = 0; position < length; position += 4) {
+                addFlow(batch, readWord(window, position), address + position);
+            }
+            offset += length;
+        }
+
+        return batch;
+    }
+
+    private static void addFlow(DecodeBatch batch, int word, long address) {
+        int flow = Arm64DecodeTable.classify(word);
+        batch.add(address, 4, FLOW_TYPES[flow & 0xF], flow >>> 4 == Arm64DecodeTable.TARGET_NONE ? DecodeBatch.NO_TARGET : Arm64DecodeTable.target(word, flow >>> 4, address), Arm64DecodeTable.isKnown(word) ? DecodeBatch.STATUS_OK : DecodeBatch.STATUS_UNKNOWN);
+    }
+
+    private static int readWord(byte[] data, int offset) {
+        return ((data[offset + 3] & 0xFF) << 24) | ((data[offset + 2] & 0xFF) << 16) | ((data[offset + 1] & 0xFF) << 8) | (data[offset] & 0xFF);
+    }
+
+    private Instruction createInvalidInstruction(Address address) {
+        return Instruction.builder().address(address).bytes(new byte[]{0, 0, 0, 0}).mnemonic("invalid").size(4).type(InstructionType.NORMAL).build();
+    }
+
+    @Override
+    public int getMaxInstructionSize() {
+        return 4;
+    }
+}
@@ -0,0 +1,481 @@
+package com.arsen.disassembler.arch.arm;
+
+import com.arsen.model.Address;
+import com.arsen.model.disassembly.Operand;
+import com.arsen.model.disassembly.OperandType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+final class Arm64InstructionFormatter {
+    private static final String[] CONDITIONS = {"eq", "ne", "hs", "lo", "mi", "pl", "vs", "vc", "hi", "ls", "ge", "lt", "gt", "le", "al", "nv"};
+    private static final String[] SHIFTS = {"lsl", "lsr", "asr", "ror"};
+    private static final String[] EXTENDS = {"uxtb", "uxth", "uxtw", "uxtx", "sxtb", "sxth", "sxtw", "sxtx"};
+    private static final String[] BARRIERS = {"#0x0", "oshld", "oshst", "osh", "#0x4", "nshld", "nshst", "nsh", "#0x8", "ishld", "ishst", "ish", "#0xc", "ld", "st", "sy"};
+    private static final String[] FP_REGISTER_PREFIXES = {"s", "d", "q", "h"};
+    private static final String[] PREFETCH_TYPES = {"pld", "pli", "pst"};
+    private static final Map<Integer, String> SYSTEM_REGISTERS = Map.ofEntries(
+            Map.entry(systemRegister(3, 3, 13, 0, 2), "tpidr_el0"), Map.entry(systemRegister(3, 3, 13, 0, 3), "tpidrro_el0"), Map.entry(systemRegister(3, 0, 13, 0, 4), "tpidr_el1"),
+            Map.entry(systemRegister(3, 3, 4, 2, 0), "nzcv"), Map.entry(systemRegister(3, 3, 4, 2, 1), "daif"), Map.entry(systemRegister(3, 3, 4, 4, 0), "fpcr"),
+            Map.entry(systemRegister(3, 3, 4, 4, 1), "fpsr"), Map.entry(systemRegister(3, 3, 0, 0, 1), "ctr_el0"), Map.entry(systemRegister(3, 3, 0, 0, 7), "dczid_el0"),
+            Map.entry(systemRegister(3, 3, 14, 0, 0), "cntfrq_el0"), Map.entry(systemRegister(3, 3, 14, 0, 1), "cntpct_el0"), Map.entry(systemRegister(3, 3, 14, 0, 2), "cntvct_el0"),
+            Map.entry(systemRegister(3, 0, 0, 0, 0), "midr_el1"), Map.entry(systemRegister(3, 0, 0, 0, 5), "mpidr_el1"), Map.entry(systemRegister(3, 0, 4, 2, 2), "currentel"),
+            Map.entry(systemRegister(3, 0, 4, 0, 0), "spsr_el1"), Map.entry(systemRegister(3, 0, 4, 0, 1), "elr_el1"), Map.entry(systemRegister(3, 0, 4, 1, 0), "sp_el0"),
+            Map.entry(systemRegister(3, 0, 1, 0, 0), "sctlr_el1"), Map.entry(systemRegister(3, 0, 12, 0, 0), "vbar_el1"), Map.entry(systemRegister(3, 0, 5, 2, 0), "esr_el1"),
+            Map.entry(systemRegister(3, 0, 6, 0, 0), "far_el1"), Map.entry(systemRegister(3, 0, 2, 0, 0), "ttbr0_el1"), Map.entry(systemRegister(3, 0, 2, 0, 1), "ttbr1_el1"));
+    private static final Map<Integer, String> SYSTEM_OPERATIONS = Map.of(
+            systemOperation(0, 7, 5, 0), "ic iallu", systemOperation(0, 7, 1, 0), "ic ialluis", systemOperation(3, 7, 5, 1), "ic ivau", systemOperation(3, 7, 4, 1), "dc zva",
+            systemOperation(3, 7, 10, 1), "dc cvac", systemOperation(3, 7, 11, 1), "dc cvau", systemOperation(3, 7, 14, 1), "dc civac", systemOperation(0, 7, 6, 1), "dc ivac");
+    private static final Map<Integer, String> PSTATE_FIELDS = Map.of(5, "spsel", 30, "daifset", 31, "daifclr", 3, "uao", 4, "pan", 26, "dit", 25, "ssbs", 28, "tco");
+
+    private final int word;
+    private final long address;
+    private final boolean wide;
+
+    private String mnemonic;
+    private String[] tokens;
+
+    Arm64InstructionFormatter(int word, long address) {
+        this.word = word;
+        this.address = address;
+
+        Arm64DecodeTable.Entry entry = Arm64DecodeTable.find(word);
+        boolean atomic = entry != null && ((entry.match() & 0x3F000000) == 0x08000000 || (entry.match() & 0x3F000000) == 0x38000000 && entry.operands()[entry.operands().length - 1].equals("M0"));
+        this.wide = atomic ? (word >>> 30) == 3 : word < 0;
+        if (entry == null || !valid(entry)) {
+            this.mnemonic = ".word";
+            this.tokens = new String[]{"WORD"};
+            return;
+        }
+
+        this.mnemonic = entry.mnemonic().endsWith(".C") ? entry.mnemonic().replace("C", CONDITIONS[word & 0xF]) : entry.mnemonic();
+        this.tokens = entry.operands();
+        if (atomic) {
+            applyAtomicSuffix();
+        }
+        applyAlias();
+    }
+
+    String mnemonic() {
+        return mnemonic;
+    }
+
+    List<Operand> operands() {
+        List<Operand> operands = new ArrayList<>(tokens.length + 1);
+        for (String token : tokens) {
+            operand(token, operands);
+        }
+        return operands;
+    }
+
+    private boolean valid(Arm64DecodeTable.Entry entry) {
+        String[] operands = entry.operands();
+        for (String token : operands) {
+            if (token.equals("LI") && (!wide && bit(22) != 0 || bitMask() == 0)) {
+                return false;
+            }
+            if (token.equals("BF") && (!wide && (bit(22) != 0 || bit(21) != 0 || bit(15) != 0) || wide && bit(22) == 0)) {
+                return false;
+            }
+            if (token.equals("MW") && !wide && bit(22) != 0) {
+                return false;
+            }
+            if (token.startsWith("F") && token.length() == 2 && "dnma".indexOf(token.charAt(1)) >= 0 && field(22, 2) == 2) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void applyAtomicSuffix() {
+        int size = word >>> 30;
+        String base = mnemonic;
+        boolean pair = tokens.length > 2 && tokens[tokens.length - 2].equals("Rt2");
+        if (tokens[0].equals("Rs")) {
+            boolean acquire = base.equals("cas") ? bit(22) != 0 : bit(23) != 0;
+            boolean release = base.equals("cas") ? bit(15) != 0 : bit(22) != 0;
+            base = base + (acquire ? "a" : "") + (release ? "l" : "");
+        }
+        if (!pair && size < 2) {
+            base = base + (size == 0 ? "b" : "h");
+        }
+        mnemonic = base;
+    }
+
+    private void applyAlias() {
+        int rd = field(0, 5);
+        int rn = field(5, 5);
+        int rm = field(16, 5);
+        int ra = field(10, 5);
+        int width = wide ? 64 : 32;
+        int immr = field(16, 6);
+        int imms = field(10, 6);
+        boolean shifted = tokens.length > 0 && tokens[tokens.length - 1].equals("SH");
+        boolean extended = tokens.length > 0 && tokens[tokens.length - 1].equals("EXT");
+        boolean immediate = tokens.length > 0 && tokens[tokens.length - 1].equals("AI");
+
+        switch (mnemonic) {
+            case "add" -> {
+                if (immediate && field(10, 13) == 0 && (rd == 31 || rn == 31)) {
+                    alias("mov", "Rd_sp", "Rn_sp");
+                }
+            }
+            case "adds" -> {
+                if (rd == 31) {
+                    alias("cmn", immediate ? new String[]{"Rn_sp", "AI"} : extended ? new String[]{"Rn_sp", "EXT"} : new String[]{"Rn", "Rm", "SH"});
+                }
+            }
+            case "sub" -> {
+                if (shifted && rn == 31) {
+                    alias("neg", "Rd", "Rm", "SH");
+                }
+            }
+            case "subs" -> {
+                if (rd == 31) {
+                    alias("cmp", immediate ? new String[]{"Rn_sp", "AI"} : extended ? new String[]{"Rn_sp", "EXT"} : new String[]{"Rn", "Rm", "SH"});
+                } else if (shifted && rn == 31) {
+                    alias("negs", "Rd", "Rm", "SH");
+                }
+            }
+            case "orr" -> {
+                if (rn == 31 && (!shifted || field(10, 6) == 0 && field(22, 2) == 0)) {
+                    alias("mov", shifted ? new String[]{"Rd", "Rm"} : new String[]{"Rd_sp", "LI"});
+                }
+            }
+            case "orn" -> {
+                if (rn == 31) {
+                    alias("mvn", "Rd", "Rm", "SH");
+                }
+            }
+            case "ands" -> {
+                if (rd == 31) {
+                    alias("tst", shifted ? new String[]{"Rn", "Rm", "SH"} : new String[]{"Rn", "LI"});
+                }
+            }
+            case "movz" -> {
+                if (field(5, 16) != 0 || field(21, 2) == 0) {
+                    alias("mov", "Rd", "MZ");
+                }
+            }
+            case "movn" -> {
+                if ((field(5, 16) != 0 || field(21, 2) == 0) && (wide || field(5, 16) != 0xFFFF)) {
+                    alias("mov", "Rd", "MN");
+                }
+            }
+            case "ubfm" -> {
+                if (imms == width - 1) {
+                    alias("lsr", "Rd", "Rn", "#" + immr);
+                } else if (imms + 1 == immr) {
+                    alias("lsl", "Rd", "Rn", "#" + (width - 1 - imms));
+                } else if (!wide && immr == 0 && (imms == 7 || imms == 15)) {
+                    alias(imms == 7 ? "uxtb" : "uxth", "Rd", "Rn");
+                } else {
+                    bitfieldAlias("ubfiz", "ubfx", width, immr, imms);
+                }
+            }
+            case "sbfm" -> {
+                if (imms == width - 1) {
+                    alias("asr", "Rd", "Rn", "#" + immr);
+                } else if (immr == 0 && (imms == 7 || imms == 15 || imms == 31 && wide)) {
+                    alias(imms == 7 ? "sxtb" : imms == 15 ? "sxth" : "sxtw", "Rd", "Wn");
+                } else {
+                    bitfieldAlias("sbfiz", "sbfx", width, immr, imms);
+                }
+            }
+            case "bfm" -> bitfieldAlias("bfi", "bfxil", width, immr, imms);
+            case "extr" -> {
+                if (rn == rm) {
+                    alias("ror", "Rd", "Rn", "EX");
+                }
+            }
+            case "sbc", "sbcs" -> {
+                if (rn == 31) {
+                    alias(mnemonic.equals("sbc") ? "ngc" : "ngcs", "Rd", "Rm");
+                }
+            }
+            case "csinc", "csinv", "csneg" -> {
+                if (rn == rm && field(12, 4) < 14) {
+                    if (rn == 31 && !mnemonic.equals("csneg")) {
+                        alias(mnemonic.equals("csinc") ? "cset" : "csetm", "Rd", "IC");
+                    } else {
+                        alias(mnemonic.equals("csinc") ? "cinc" : mnemonic.equals("csinv") ? "cinv" : "cneg", "Rd", "Rn", "IC");
+                    }
+                }
+            }
+            case "madd", "msub" -> {
+                if (ra == 31) {
+                    alias(mnemonic.equals("madd") ? "mul" : "mneg", "Rd", "Rn", "Rm");
+                }
+            }
+            case "smaddl", "smsubl", "umaddl", "umsubl" -> {
+                if (ra == 31) {
+                    alias(mnemonic.charAt(0) + (mnemonic.contains("add") ? "mull" : "negl"), "Xd", "Wn", "Wm");
+                }
+            }
+            case "lslv", "lsrv", "asrv", "rorv" -> alias(mnemonic.substring(0, 3), tokens);
+            case "sys" -> {
+                String operation = SYSTEM_OPERATIONS.get(systemOperation(field(16, 3), field(12, 4), field(8, 4), field(5, 3)));
+                if (operation != null) {
+                    String[] parts = operation.split(" ");
+                    alias(parts[0], rd == 31 ? new String[]{parts[1]} : new String[]{parts[1], "Xt"});
+                }
+            }
+            case "ret" -> {
+                if (rn == 30) {
+                    alias("ret");
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void bitfieldAlias(String insert, String extract, int width, int immr, int imms) {
+        if (imms < immr) {
+            alias(insert, "Rd", "Rn", "#" + (width - immr), "#" + (imms + 1));
+        } else {
+            alias(extract, "Rd", "Rn", "#" + immr, "#" + (imms - immr + 1));
+        }
+    }
+
+    private void alias(String name, String... operands) {
+        this.mnemonic = name;
+        this.tokens = operands;
+    }
+
+    private void operand(String token, List<Operand> operands) {
+        switch (token) {
+            case "WORD" -> operands.add(immediate(String.format("0x%08x", word), word & 0xFFFFFFFFL));
+            case "J26", "J19", "J14" -> {
+                Address target = Address.of(Arm64DecodeTable.target(word, token.equals("J26") ? Arm64DecodeTable.TARGET_IMM26 : token.equals("J19") ? Arm64DecodeTable.TARGET_IMM19 : Arm64DecodeTable.TARGET_IMM14, address));
+                operands.add(immediate(target.toString(), target.value()));
+            }
+            case "ADR" -> {
+                Address target = Address.of(address + adrOffset());
+                operands.add(immediate(target.toString(), target.value()));
+            }
+            case "ADRP" -> {
+                Address target = Address.of((address & ~0xFFFL) + (adrOffset() << 12));
+                operands.add(immediate(target.toString(), target.value()));
+            }
+            case "LIT" -> {
+                Address target = Address.of(Arm64DecodeTable.target(word, Arm64DecodeTable.TARGET_IMM19, address));
+                operands.add(Operand.builder().type(OperandType.MEMORY).text(target.toString()).value(target.value()).build());
+            }
+            case "AI" -> operands.add(hexImmediate((long) field(10, 12) << (bit(22) * 12)));
+            case "LI" -> operands.add(hexImmediate(bitMask()));
+            case "MW" -> {
+                operands.add(hexImmediate(field(5, 16)));
+                if (field(21, 2) != 0) {
+                    operands.add(immediate("lsl #" + field(21, 2) * 16, field(21, 2) * 16));
+                }
+            }
+            case "MZ", "MN" -> {
+                long value = (long) field(5, 16) << (field(21, 2) * 16);
+                value = token.equals("MN") ? ~value : value;
+                operands.add(hexImmediate(wide ? value : value & 0xFFFFFFFFL));
+            }
+            case "BF" -> {
+                operands.add(decimal(field(16, 6)));
+                operands.add(decimal(field(10, 6)));
+            }
+            case "EX" -> operands.add(decimal(field(10, 6)));
+            case "TB" -> operands.add(decimal(bit(31) << 5 | field(19, 5)));
+            case "SH" -> {
+                if (field(10, 6) != 0) {
+                    operands.add(immediate(SHIFTS[field(22, 2)] + " #" + field(10, 6), field(10, 6)));
+                }
+            }
+            case "EXT" -> extendedRegister(operands);
+            case "C" -> operands.add(Operand.builder().type(OperandType.IMMEDIATE).text(CONDITIONS[field(12, 4)]).value(field(12, 4)).build());
+            case "IC" -> operands.add(Operand.builder().type(OperandType.IMMEDIATE).text(CONDITIONS[field(12, 4) ^ 1]).value(field(12, 4) ^ 1).build());
+            case "NZCV" -> operands.add(hexImmediate(field(0, 4)));
+            case "I5" -> operands.add(hexImmediate(field(16, 5)));
+            case "I16" -> operands.add(hexImmediate(field(5, 16)));
+            case "I16L" -> operands.add(decimal(field(0, 16)));
+            case "HINT" -> operands.add(hexImmediate(field(5, 7)));
+            case "BAR" -> operands.add(Operand.builder().type(OperandType.IMMEDIATE).text(BARRIERS[field(8, 4)]).value(field(8, 4)).build());
+            case "CRM" -> operands.add(hexImmediate(field(8, 4)));
+            case "PS" -> operands.add(register(PSTATE_FIELDS.getOrDefault(field(16, 3) << 3 | field(5, 3), "pstate")));
+            case "SYS" -> operands.add(register(SYSTEM_REGISTERS.getOrDefault(field(5, 16), String.format("s%d_%d_c%d_c%d_%d", 2 + bit(19), field(16, 3), field(12, 4), field(8, 4), field(5, 3)))));
+            case "SYSOP" -> systemOperation(operands);
+            case "FI" -> operands.add(Operand.builder().type(OperandType.IMMEDIATE).text("#" + floatImmediate()).value(field(13, 8)).build());
+            case "F0" -> operands.add(Operand.builder().type(OperandType.IMMEDIATE).text("#0.0").value(0).build());
+            case "PRF" -> operands.add(prefetchOperation());
+            case "M0" -> operands.add(memory("[" + registerName('X', field(5, 5), true) + "]", 0));
+            default -> {
+                if (token.startsWith("#")) {
+                    operands.add(decimal(Long.parseLong(token.substring(1))));
+                } else if (token.startsWith("M")) {
+                    operands.add(memoryOperand(token));
+                } else if (registerToken(token)) {
+                    operands.add(register(registerOperand(token)));
+                } else {
+                    operands.add(register(token));
+                }
+            }
+        }
+    }
+
+    private Operand memoryOperand(String token) {
+        String base = registerName('X', field(5, 5), true);
+        if (token.startsWith("MU")) {
+            long offset = (long) field(10, 12) * Integer.parseInt(token.substring(2));
+            return memory(offset == 0 ? "[" + base + "]" : "[" + base + ", #" + offset + "]", offset);
+        }
+        if (token.startsWith("MR")) {
+            int option = field(13, 3);
+            int amount = bit(12) != 0 ? Integer.numberOfTrailingZeros(Integer.parseInt(token.substring(2))) : 0;
+            String index = registerName((option & 1) != 0 ? 'X' : 'W', field(16, 5), false);
+            String extend = option == 3 ? (bit(12) != 0 ? ", lsl #" + amount : "") : ", " + EXTENDS[option] + (bit(12) != 0 ? " #" + amount : "");
+            return memory("[" + base + ", " + index + extend + "]", 0);
+        }
+        if (token.startsWith("M9")) {
+            long offset = word << 11 >> 23;
+            return switch (token) {
+                case "M9pre" -> memory("[" + base + ", #" + offset + "]!", offset);
+                case "M9post" -> memory("[" + base + "], #" + offset, offset);
+                default -> memory(offset == 0 ? "[" + base + "]" : "[" + base + ", #" + offset + "]", offset);
+            };
+        }
+        String variant = token.startsWith("MPpre") ? "pre" : token.startsWith("MPpost") ? "post" : "";
+        long offset = (long) (word << 10 >> 25) * Integer.parseInt(token.substring(2 + variant.length()));
+        return switch (variant) {
+            case "pre" -> memory("[" + base + ", #" + offset + "]!", offset);
+            case "post" -> memory("[" + base + "], #" + offset, offset);
+            default -> memory(offset == 0 ? "[" + base + "]" : "[" + base + ", #" + offset + "]", offset);
+        };
+    }
+
+    private void extendedRegister(List<Operand> operands) {
+        int option = field(13, 3);
+        int amount = field(10, 3);
+        operands.add(register(registerName((option & 3) == 3 ? 'X' : 'W', field(16, 5), false)));
+        boolean stackPointer = field(5, 5) == 31 || field(0, 5) == 31 && bit(29) == 0;
+        if (stackPointer && option == (wide ? 3 : 2)) {
+            if (amount != 0) {
+                operands.add(immediate("lsl #" + amount, amount));
+            }
+        } else {
+            operands.add(immediate(amount == 0 ? EXTENDS[option] : EXTENDS[option] + " #" + amount, amount));
+        }
+    }
+
+    private void systemOperation(List<Operand> operands) {
+        operands.add(decimal(field(16, 3)));
+        operands.add(register("c" + field(12, 4)));
+        operands.add(register("c" + field(8, 4)));
+        operands.add(decimal(field(5, 3)));
+        if (mnemonic.equals("sys") && field(0, 5) != 31) {
+            operands.add(register(registerName('X', field(0, 5), false)));
+        }
+    }
+
+    private Operand prefetchOperation() {
+        int operation = field(0, 5);
+        int type = operation >> 3;
+        int target = (operation >> 1) & 3;
+        if (type > 2 || target > 2) {
+            return hexImmediate(operation);
+        }
+        return register(PREFETCH_TYPES[type] + "l" + (target + 1) + ((operation & 1) == 0 ? "keep" : "strm"));
+    }
+
+    private boolean registerToken(String token) {
+        return token.length() >= 2 && "RWXBHSDQF".indexOf(token.charAt(0)) >= 0 && "dnmtas".indexOf(token.charAt(1)) >= 0;
+    }
+
+    private String registerOperand(String token) {
+        int number = switch (token.charAt(1)) {
+            case 'n' -> field(5, 5);
+            case 'm', 's' -> field(16, 5);
+            case 'a' -> field(10, 5);
+            default -> token.startsWith("t2", 1) ? field(10, 5) : field(0, 5);
+        };
+        char kind = switch (token.charAt(0)) {
+            case 'R' -> wide ? 'X' : 'W';
+            case 'F' -> FP_REGISTER_PREFIXES[field(22, 2)].toUpperCase().charAt(0);
+            default -> token.charAt(0);
+        };
+        return registerName(kind, number, token.endsWith("_sp"));
+    }
+
+    private static String registerName(char kind, int number, boolean stackPointer) {
+        return switch (kind) {
+            case 'X' -> number == 31 ? (stackPointer ? "sp" : "xzr") : "x" + number;
+            case 'W' -> number == 31 ? (stackPointer ? "wsp" : "wzr") : "w" + number;
+            default -> Character.toLowerCase(kind) + Integer.toString(number);
+        };
+    }
+
+    private long adrOffset() {
+        return (long) (word << 8 >> 13) << 2 | field(29, 2);
+    }
+
+    private long bitMask() {
+        int n = bit(22);
+        int immr = field(16, 6);
+        int imms = field(10, 6);
+        int length = 31 - Integer.numberOfLeadingZeros(n << 6 | (~imms & 0x3F));
+        if (length < 1) {
+            return 0;
+        }
+        int size = 1 << length;
+        int levels = size - 1;
+        int s = imms & levels;
+        int r = immr & levels;
+        if (s == levels) {
+            return 0;
+        }
+        long element = (1L << (s + 1)) - 1;
+        long sizeMask = size == 64 ? -1L : (1L << size) - 1;
+        element = r == 0 ? element : ((element >>> r) | (element << (size - r))) & sizeMask;
+        for (int i = size; i < 64; i *= 2) {
+            element |= element << i;
+        }
+        return wide ? element : element & 0xFFFFFFFFL;
+    }
+
+    private String floatImmediate() {
+        int imm8 = field(13, 8);
+        double value = (16 + (imm8 & 0xF)) / 16.0 * Math.pow(2, (((imm8 >> 4) & 7) ^ 4) - 3);
+        return Double.toString((imm8 & 0x80) != 0 ? -value : value);
+    }
+
+    private int field(int shift, int width) {
+        return (word >>> shift) & ((1 << width) - 1);
+    }
+
+    private int bit(int position) {
+        return (word >>> position) & 1;
+    }
+
+    private static Operand register(String name) {
+        return Operand.builder().type(OperandType.REGISTER).text(name).build();
+    }
+
+    private static Operand memory(String text, long value) {
+        return Operand.builder().type(OperandType.MEMORY).text(text).value(value).build();
+    }
+
+    private static Operand immediate(String text, long value) {
+        return Operand.builder().type(OperandType.IMMEDIATE).text(text).value(value).build();
+    }
+
+    private static Operand hexImmediate(long value) {
+        return immediate("#0x" + Long.toHexString(value), value);
+    }
+
+    private static Operand decimal(long value) {
+        return immediate("#" + value, value);
+    }
+
+    private static int systemRegister(int op0, int op1, int crn, int crm, int op2) {
+        return (op0 & 1) << 14 | 1 << 15 | op1 << 11 | crn << 7 | crm << 3 | op2;
+    }
+
+    private static int systemOperation(int op1, int crn, int crm, int op2) {
+        return op1 << 11 | crn << 7 | crm << 3 | op2;
+    }
+}
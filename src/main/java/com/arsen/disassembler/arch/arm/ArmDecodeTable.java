@@ -0,0 +1,480 @@
+package com.arsen.disassembler.arch.arm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class ArmDecodeTable {
+    static final int FLOW_NORMAL = 0;
+    static final int FLOW_JUMP = 1;
+    static final int FLOW_CONDITIONAL = 2;
+    static final int FLOW_CALL = 3;
+    static final int FLOW_RETURN = 4;
+    static final int FLOW_SYSTEM = 5;
+    static final int FLOW_NOP = 6;
+    private static final int FLOW_PC_DESTINATION = 8;
+    private static final int FLOW_PC_LOAD = 9;
+    private static final int FLOW_PC_LIST = 10;
+    private static final int FLOW_PC_HIGH_REGISTER = 11;
+    private static final int FLOW_PC_SHORT_LIST = 12;
+
+    static final int TARGET_NONE = 0;
+    static final int TARGET_A32_BRANCH = 1;
+    static final int TARGET_A32_EXCHANGE = 2;
+    static final int TARGET_T16_CONDITIONAL = 3;
+    static final int TARGET_T16_BRANCH = 4;
+    static final int TARGET_T16_COMPARE = 5;
+    static final int TARGET_T32_CONDITIONAL = 6;
+    static final int TARGET_T32_BRANCH = 7;
+    static final int TARGET_T32_EXCHANGE = 8;
+
+    static final int ISA_A32 = 0;
+    static final int ISA_T16 = 1;
+    static final int ISA_T32 = 2;
+
+    private static final String A32_UNCONDITIONAL = """
+            FE000000 FA000000 c blx A32X
+            FFFFFFF0 F57FF050 - dmb OPT
+            FFFFFFF0 F57FF040 - dsb OPT
+            FFFFFFF0 F57FF060 - isb OPT
+            FFFFFFFF F57FF01F - clrex
+            FD70F000 F550F000 - pld MA
+            """;
+
+    private static final String A32 = """
+            0FFFFFFF 012FFF1E r bx{c} lr
+            0FFFFFF0 012FFF10 j bx{c} r0
+            0FFFFFF0 012FFF30 c blx{c} r0
+            0FFFFFFF 0320F000 n nop{c}
+            FFFFFFFF E1A00000 n nop
+            0FFFFFFF 0320F001 - yield{c}
+            0FFFFFFF 0320F002 - wfe{c}
+            0FFFFFFF 0320F003 - wfi{c}
+            0FFFFFFF 0320F004 - sev{c}
+            0FFF0FF0 016F0F10 - clz{c} r12,r0
+            0FF000F0 01200070 s bkpt BK
+            FFF000F0 E7F000F0 s udf BK
+            0FBF0FFF 010F0000 - mrs{c} r12,PSR
+            0FB0FFF0 0120F000 - msr{c} MSRF,r0
+            0FB0F000 0320F000 - msr{c} MSRF,AR
+            0FE000F0 00000090 - mul{s}{c} r16,r0,r8
+            0FE000F0 00200090 - mla{s}{c} r16,r0,r8,r12
+            0FF000F0 00600090 - mls{c} r16,r0,r8,r12
+            0FE000F0 00800090 - umull{s}{c} r12,r16,r0,r8
+            0FE000F0 00A00090 - umlal{s}{c} r12,r16,r0,r8
+            0FE000F0 00C00090 - smull{s}{c} r12,r16,r0,r8
+            0FE000F0 00E00090 - smlal{s}{c} r12,r16,r0,r8
+            0FF00FFF 01900F9F - ldrex{c} r12,X16
+            0FF00FFF 01D00F9F - ldrexb{c} r12,X16
+            0FF00FFF 01F00F9F - ldrexh{c} r12,X16
+            0FF00FFF 01B00F9F - ldrexd{c} r12,r12+,X16
+            0FF00FF0 01800F90 - strex{c} r12,r0,X16
+            0FF00FF0 01C00F90 - strexb{c} r12,r0,X16
+            0FF00FF0 01E00F90 - strexh{c} r12,r0,X16
+            0FF00FF0 01A00F90 - strexd{c} r12,r0,r0+,X16
+            0E1000F0 000000B0 - strh{c} r12,MH
+            0E1000F0 001000B0 - ldrh{c} r12,MH
+            0E1000F0 001000D0 - ldrsb{c} r12,MH
+            0E1000F0 001000F0 - ldrsh{c} r12,MH
+            0E1000F0 000000D0 - ldrd{c} r12,r12+,MH
+            0E1000F0 000000F0 - strd{c} r12,r12+,MH
+            0FF00000 03000000 - movw{c} r12,W16A
+            0FF00000 03400000 - movt{c} r12,W16A
+            0FFF03F0 06AF0070 - sxtb{c} r12,r0,ROTA
+            0FFF03F0 06BF0070 - sxth{c} r12,r0,ROTA
+            0FFF03F0 06EF0070 - uxtb{c} r12,r0,ROTA
+            0FFF03F0 06FF0070 - uxth{c} r12,r0,ROTA
+            0FF003F0 06A00070 - sxtab{c} r12,r16,r0,ROTA
+            0FF003F0 06B00070 - sxtah{c} r12,r16,r0,ROTA
+            0FF003F0 06E00070 - uxtab{c} r12,r16,r0,ROTA
+            0FF003F0 06F00070 - uxtah{c} r12,r16,r0,ROTA
+            0FFF0FF0 06BF0F30 - rev{c} r12,r0
+            0FFF0FF0 06BF0FB0 - rev16{c} r12,r0
+            0FFF0FF0 06FF0FB0 - revsh{c} r12,r0
+            0FFF0FF0 06FF0F30 - rbit{c} r12,r0
+            0FE00070 07A00050 - sbfx{c} r12,r0,BFXA
+            0FE00070 07E00050 - ubfx{c} r12,r0,BFXA
+            0FE0007F 07C0001F - bfc{c} r12,BFIA
+            0FE00070 07C00010 - bfi{c} r12,r0,BFIA
+            0FF0F0F0 0710F010 - sdiv{c} r16,r0,r8
+            0FF0F0F0 0730F010 - udiv{c} r16,r0,r8
+            0FBF0F00 0D2D0B00 - vpush{c} DL
+            0FBF0F00 0CBD0B00 - vpop{c} DL
+            0FBF0F00 0D2D0A00 - vpush{c} SL
+            0FBF0F00 0CBD0A00 - vpop{c} SL
+            0F300F00 0D100B00 - vldr{c} D12,MV
+            0F300F00 0D000B00 - vstr{c} D12,MV
+            0F300F00 0D100A00 - vldr{c} S12,MV
+            0F300F00 0D000A00 - vstr{c} S12,MV
+            0FF00F7F 0E000A10 - vmov{c} S16,r12
+            0FF00F7F 0E100A10 - vmov{c} r12,S16
+            0FFFFFFF 0EF1FA10 - vmrs{c} apsr_nzcv,fpscr
+            0FFF0FFF 0EF10A10 - vmrs{c} r12,fpscr
+            0FFF0FFF 0EE10A10 - vmsr{c} fpscr,r12
+            0F000000 0F000000 s svc{c} U0.24
+            0E500000 04000000 - str{c} r12,MA
+            0E500000 04100000 L ldr{c} r12,MA
+            0E500000 04400000 - strb{c} r12,MA
+            0E500000 04500000 - ldrb{c} r12,MA
+            0E500010 06000000 - str{c} r12,MA
+            0E500010 06100000 L ldr{c} r12,MA
+            0E500010 06400000 - strb{c} r12,MA
+            0E500010 06500000 - ldrb{c} r12,MA
+            0E100000 08000000 - stm{am}{c} r16!,RL
+            0E100000 08100000 P ldm{am}{c} r16!,RL
+            0F000000 0A000000 j b{c} A32B
+            0F000000 0B000000 c bl{c} A32B
+            """;
+
+    private static final String T16 = """
+            FFFF BF00 n nop
+            FFFF BF10 - yield
+            FFFF BF20 - wfe
+            FFFF BF30 - wfi
+            FFFF BF40 - sev
+            FF00 BF00 - it IT
+            FFFF 4770 r bx lr
+            FF87 4700 j bx H3
+            FF87 4780 c blx H3
+            FFFF 46C0 n nop
+            FF00 4600 H mov HD,H3
+            FF00 4400 H add HD,H3
+            FF00 4500 - cmp HD,H3
+            FFC0 0000 - movs l0,l3
+            F800 0000 - lsls l0,l3,U6.5
+            F800 0800 - lsrs l0,l3,SH6
+            F800 1000 - asrs l0,l3,SH6
+            FE00 1800 - adds l0,l3,l6
+            FE00 1A00 - subs l0,l3,l6
+            FE00 1C00 - adds l0,l3,U6.3
+            FE00 1E00 - subs l0,l3,U6.3
+            F800 2000 - movs l8,U0.8
+            F800 2800 - cmp l8,U0.8
+            F800 3000 - adds l8,U0.8
+            F800 3800 - subs l8,U0.8
+            FFC0 4000 - ands l0,l3
+            FFC0 4040 - eors l0,l3
+            FFC0 4080 - lsls l0,l3
+            FFC0 40C0 - lsrs l0,l3
+            FFC0 4100 - asrs l0,l3
+            FFC0 4140 - adcs l0,l3
+            FFC0 4180 - sbcs l0,l3
+            FFC0 41C0 - rors l0,l3
+            FFC0 4200 - tst l0,l3
+            FFC0 4240 - negs l0,l3
+            FFC0 4280 - cmp l0,l3
+            FFC0 42C0 - cmn l0,l3
+            FFC0 4300 - orrs l0,l3
+            FFC0 4340 - muls l0,l3,l0
+            FFC0 4380 - bics l0,l3
+            FFC0 43C0 - mvns l0,l3
+            F800 4800 - ldr l8,LIT8
+            FE00 5000 - str l0,[l3,l6]
+            FE00 5200 - strh l0,[l3,l6]
+            FE00 5400 - strb l0,[l3,l6]
+            FE00 5600 - ldrsb l0,[l3,l6]
+            FE00 5800 - ldr l0,[l3,l6]
+            FE00 5A00 - ldrh l0,[l3,l6]
+            FE00 5C00 - ldrb l0,[l3,l6]
+            FE00 5E00 - ldrsh l0,[l3,l6]
+            F800 6000 - str l0,[l3,U6.5*4]
+            F800 6800 - ldr l0,[l3,U6.5*4]
+            F800 7000 - strb l0,[l3,U6.5]
+            F800 7800 - ldrb l0,[l3,U6.5]
+            F800 8000 - strh l0,[l3,U6.5*2]
+            F800 8800 - ldrh l0,[l3,U6.5*2]
+            F800 9000 - str l8,[sp,U0.8*4]
+            F800 9800 - ldr l8,[sp,U0.8*4]
+            F800 A000 - adr l8,ADR8
+            F800 A800 - add l8,sp,U0.8*4
+            FF80 B000 - add sp,sp,U0.7*4
+            FF80 B080 - sub sp,sp,U0.7*4
+            FD00 B100 cj cbz l0,T16Z
+            FD00 B900 cj cbnz l0,T16Z
+            FFC0 B200 - sxth l0,l3
+            FFC0 B240 - sxtb l0,l3
+            FFC0 B280 - uxth l0,l3
+            FFC0 B2C0 - uxtb l0,l3
+            FE00 B400 - push RL8
+            FE00 BC00 p pop RL8
+            FFC0 BA00 - rev l0,l3
+            FFC0 BA40 - rev16 l0,l3
+            FFC0 BAC0 - revsh l0,l3
+            FF00 BE00 s bkpt U0.8
+            FFFF B662 - cpsie i
+            FFFF B672 - cpsid i
+            FFFF B661 - cpsie f
+            FFFF B671 - cpsid f
+            F800 C000 - stm l8!,RL8
+            F800 C800 - ldm l8!,RL8
+            FF00 DE00 s udf U0.8
+            FF00 DF00 s svc U0.8
+            F000 D000 cj b{c8} T16C
+            F800 E000 j b T16B
+            """;
+
+    private static final String T32 = """
+            F800D000 F000D000 c bl T32B
+            F800D001 F000C000 c blx T32X
+            F800D000 F0009000 j b.w T32B
+            FFFFFFFF F3AF8000 n nop.w
+            FFFFFFF0 F3BF8F50 - dmb OPT
+            FFFFFFF0 F3BF8F40 - dsb OPT
+            FFFFFFF0 F3BF8F60 - isb OPT
+            FFFFF000 F3EF8000 - mrs r8,SYSM
+            FFF0FF00 F3808800 - msr SYSM,r16
+            FFF0F000 F7F0A000 s udf.w U0.16
+            FB80D000 F3808000 - .word WORD
+            F800D000 F0008000 cj b{c22}.w T32C
+            FFFF0000 E8BD0000 P pop.w RL
+            FFFF0000 E92D0000 - push.w RL
+            FFD00000 E8900000 P ldm.w r16!,RL
+            FFD00000 E9100000 P ldmdb r16!,RL
+            FFD00000 E8800000 - stm.w r16!,RL
+            FFD00000 E9000000 - stmdb r16!,RL
+            FFF0FFF0 E8D0F000 j tbb [r16,r0]
+            FFF0FFF0 E8D0F010 j tbh [r16,r0,LSL1]
+            FFF00F00 E8500F00 - ldrex r12,[r16,U0.8*4]
+            FFF00000 E8400000 - strex r8,r12,[r16,U0.8*4]
+            FE500000 E8500000 - ldrd r12,r8,MD
+            FE500000 E8400000 - strd r12,r8,MD
+            FF7F0000 F85F0000 L ldr.w r12,LIT12
+            FFF0F000 F890F000 - pld [r16,U0.12]
+            FFF00000 F8C00000 - str.w r12,[r16,U0.12]
+            FFF00000 F8D00000 L ldr.w r12,[r16,U0.12]
+            FFF00000 F8800000 - strb.w r12,[r16,U0.12]
+            FFF00000 F8900000 - ldrb.w r12,[r16,U0.12]
+            FFF00000 F8A00000 - strh.w r12,[r16,U0.12]
+            FFF00000 F8B00000 - ldrh.w r12,[r16,U0.12]
+            FFF00000 F9900000 - ldrsb.w r12,[r16,U0.12]
+            FFF00000 F9B00000 - ldrsh.w r12,[r16,U0.12]
+            FFF00800 F8400800 - str r12,M8
+            FFF00800 F8500800 L ldr r12,M8
+            FFF00800 F8000800 - strb r12,M8
+            FFF00800 F8100800 - ldrb r12,M8
+            FFF00800 F8200800 - strh r12,M8
+            FFF00800 F8300800 - ldrh r12,M8
+            FFF00800 F9100800 - ldrsb r12,M8
+            FFF00800 F9300800 - ldrsh r12,M8
+            FFF00FC0 F8400000 - str.w r12,MR
+            FFF00FC0 F8500000 L ldr.w r12,MR
+            FFF00FC0 F8000000 - strb.w r12,MR
+            FFF00FC0 F8100000 - ldrb.w r12,MR
+            FFF00FC0 F8200000 - strh.w r12,MR
+            FFF00FC0 F8300000 - ldrh.w r12,MR
+            FFF00FC0 F9100000 - ldrsb.w r12,MR
+            FFF00FC0 F9300000 - ldrsh.w r12,MR
+            FBF08000 F2000000 - addw r8,r16,U12T
+            FBF08000 F2A00000 - subw r8,r16,U12T
+            FBF08000 F2400000 - movw r8,W16T
+            FBF08000 F2C00000 - movt r8,W16T
+            FFF08020 F3400000 - sbfx r8,r16,BFXT
+            FFF08020 F3C00000 - ubfx r8,r16,BFXT
+            FFF08020 F3600000 - bfi r8,r16,BFIT
+            FFE0F0F0 FA00F000 - lsl{s}.w r8,r16,r0
+            FFE0F0F0 FA20F000 - lsr{s}.w r8,r16,r0
+            FFE0F0F0 FA40F000 - asr{s}.w r8,r16,r0
+            FFE0F0F0 FA60F000 - ror{s}.w r8,r16,r0
+            FFFFF0C0 FA0FF080 - sxth.w r8,r0,ROTT
+            FFFFF0C0 FA1FF080 - uxth.w r8,r0,ROTT
+            FFFFF0C0 FA4FF080 - sxtb.w r8,r0,ROTT
+            FFFFF0C0 FA5FF080 - uxtb.w r8,r0,ROTT
+            FFF0F0C0 FA00F080 - sxtah r8,r16,r0,ROTT
+            FFF0F0C0 FA10F080 - uxtah r8,r16,r0,ROTT
+            FFF0F0C0 FA40F080 - sxtab r8,r16,r0,ROTT
+            FFF0F0C0 FA50F080 - uxtab r8,r16,r0,ROTT
+            FFF0F0F0 FA90F080 - rev.w r8,r0
+            FFF0F0F0 FA90F090 - rev16.w r8,r0
+            FFF0F0F0 FA90F0A0 - rbit r8,r0
+            FFF0F0F0 FA90F0B0 - revsh.w r8,r0
+            FFF0F0F0 FAB0F080 - clz r8,r0
+            FFF0F0F0 FB00F000 - mul r8,r16,r0
+            FFF000F0 FB000000 - mla r8,r16,r0,r12
+            FFF000F0 FB000010 - mls r8,r16,r0,r12
+            FFF000F0 FB800000 - smull r12,r8,r16,r0
+            FFF000F0 FBA00000 - umull r12,r8,r16,r0
+            FFF000F0 FBC00000 - smlal r12,r8,r16,r0
+            FFF000F0 FBE00000 - umlal r12,r8,r16,r0
+            FFF0F0F0 FB90F0F0 - sdiv r8,r16,r0
+            FFF0F0F0 FBB0F0F0 - udiv r8,r16,r0
+            FFBF0F00 ED2D0B00 - vpush DL
+            FFBF0F00 ECBD0B00 - vpop DL
+            FFBF0F00 ED2D0A00 - vpush SL
+            FFBF0F00 ECBD0A00 - vpop SL
+            FF300F00 ED100B00 - vldr D12,MV
+            FF300F00 ED000B00 - vstr D12,MV
+            FF300F00 ED100A00 - vldr S12,MV
+            FF300F00 ED000A00 - vstr S12,MV
+            FFF00F7F EE000A10 - vmov S16,r12
+            FFF00F7F EE100A10 - vmov r12,S16
+            FFFFFFFF EEF1FA10 - vmrs apsr_nzcv,fpscr
+            FFFF0FFF EEF10A10 - vmrs r12,fpscr
+            FFFF0FFF EEE10A10 - vmsr fpscr,r12
+            """;
+
+    private static final String[] DATA_PROCESSING = {"and", "eor", "sub", "rsb", "add", "adc", "sbc", "rsc", "tst", "teq", "cmp", "cmn", "orr", "mov", "bic", "mvn"};
+    private static final String[] THUMB_DATA_PROCESSING = {"and", "bic", "orr", "orn", "eor", null, null, null, "add", null, "adc", "sbc", null, "sub", "rsb", null};
+
+    static final ArmDecodeTable A32_UNCONDITIONAL_TABLE = new ArmDecodeTable(A32_UNCONDITIONAL);
+    static final ArmDecodeTable A32_TABLE = new ArmDecodeTable(A32);
+    static final ArmDecodeTable T16_TABLE = new ArmDecodeTable(T16);
+    static final ArmDecodeTable T32_TABLE = new ArmDecodeTable(T32);
+
+    static {
+        for (int op = 0; op < 16; op++) {
+            boolean compare = op >= 8 && op <= 11;
+            boolean move = op == 13 || op == 15;
+            String mnemonic = DATA_PROCESSING[op] + (compare ? "{c}" : "{s}{c}");
+            String operands = compare ? "r16," : move ? "r12," : "r12,r16,";
+            String flow = compare ? "-" : "D";
+            int compareMask = compare ? 0x00100000 : 0;
+            A32_TABLE.add(0x0FE00000 | compareMask, 0x02000000 | op << 21 | compareMask, flow, mnemonic, operands + "AR");
+            A32_TABLE.add(0x0FE00010 | compareMask, op << 21 | compareMask, flow, mnemonic, operands + "SH");
+            A32_TABLE.add(0x0FE00090 | compareMask, 0x00000010 | op << 21 | compareMask, flow, mnemonic, operands + "SH");
+        }
+        for (int op = 0; op < 16; op++) {
+            if (THUMB_DATA_PROCESSING[op] != null) {
+                T32_TABLE.add(0xFBE08000, 0xF0000000 | op << 21, "-", THUMB_DATA_PROCESSING[op] + "{s}.w", "r8,r16,TM");
+                T32_TABLE.add(0xFFE08000, 0xEA000000 | op << 21, "-", THUMB_DATA_PROCESSING[op] + "{s}.w", "r8,r16,TS");
+            }
+        }
+        A32_UNCONDITIONAL_TABLE.index(20, 12);
+        A32_TABLE.index(20, 12);
+        T16_TABLE.index(6, 10);
+        T32_TABLE.index(20, 12);
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+    private int[] masks = new int[0];
+    private int[] matches = new int[0];
+    private byte[] flows = new byte[0];
+    private byte[] targets = new byte[0];
+    private EncodingIndex known;
+
+    private ArmDecodeTable(String specification) {
+        for (String line : specification.strip().split("\n")) {
+            String[] parts = line.strip().split(" ", 5);
+            add(Integer.parseUnsignedInt(parts[0], 16), Integer.parseUnsignedInt(parts[1], 16), parts[2], parts[3], parts.length > 4 ? parts[4] : "");
+        }
+    }
+
+    Entry find(int word) {
+        for (int i = 0; i < masks.length; i++) {
+            if ((word & masks[i]) == matches[i]) {
+                return entries.get(i);
+            }
+        }
+        return null;
+    }
+
+    boolean isKnown(int word) {
+        return known.contains(word);
+    }
+
+    private void index(int shift, int bits) {
+        known = new EncodingIndex(masks, matches, shift, bits);
+    }
+
+    int classify(int word) {
+        for (int i = 0; i < masks.length; i++) {
+            if ((word & masks[i]) == matches[i]) {
+                return resolveFlow(flows[i], word) | targets[i] << 4;
+            }
+        }
+        return FLOW_NORMAL;
+    }
+
+    static boolean isWide(int halfword) {
+        return (halfword & 0xF800) >= 0xE800;
+    }
+
+    static long target(int word, int targetKind, long address) {
+        return switch (targetKind) {
+            case TARGET_A32_BRANCH -> address + 8 + ((long) (word << 8 >> 8) << 2);
+            case TARGET_A32_EXCHANGE -> address + 8 + ((long) (word << 8 >> 8) << 2 | ((word >>> 24) & 1) << 1);
+            case TARGET_T16_CONDITIONAL -> address + 4 + ((long) (word << 24 >> 24) << 1);
+            case TARGET_T16_BRANCH -> address + 4 + ((long) (word << 21 >> 21) << 1);
+            case TARGET_T16_COMPARE -> address + 4 + (((word >>> 9) & 1) << 6 | ((word >>> 3) & 0x1F) << 1);
+            case TARGET_T32_CONDITIONAL -> address + 4 + ((long) (((word >> 26) & 1) << 20 | ((word >>> 11) & 1) << 19 | ((word >>> 13) & 1) << 18 | ((word >>> 16) & 0x3F) << 12 | (word & 0x7FF) << 1) << 43 >> 43);
+            case TARGET_T32_BRANCH -> address + 4 + longBranchOffset(word);
+            case TARGET_T32_EXCHANGE -> ((address + 4) & ~3L) + (longBranchOffset(word) & ~3L);
+            default -> -1L;
+        };
+    }
+
+    static boolean switchesMode(int targetKind) {
+        return targetKind == TARGET_A32_EXCHANGE || targetKind == TARGET_T32_EXCHANGE;
+    }
+
+    private static long longBranchOffset(int word) {
+        int sign = (word >>> 26) & 1;
+        int i1 = ~((word >>> 13) ^ sign) & 1;
+        int i2 = ~((word >>> 11) ^ sign) & 1;
+        long offset = (long) sign << 24 | (long) i1 << 23 | (long) i2 << 22 | (long) ((word >>> 16) & 0x3FF) << 12 | (long) (word & 0x7FF) << 1;
+        return offset << 39 >> 39;
+    }
+
+    private static int resolveFlow(int flow, int word) {
+        return switch (flow) {
+            case FLOW_PC_DESTINATION -> ((word >>> 12) & 0xF) != 15 ? FLOW_NORMAL : (word & 0x0FE00000) == 0x01A00000 && (word & 0xFFF) == 14 || ((word >>> 16) & 0xF) == 14 ? FLOW_RETURN : FLOW_JUMP;
+            case FLOW_PC_LOAD -> ((word >>> 12) & 0xF) != 15 ? FLOW_NORMAL : ((word >>> 16) & 0xF) == 13 ? FLOW_RETURN : FLOW_JUMP;
+            case FLOW_PC_LIST -> (word & 0x8000) != 0 ? FLOW_RETURN : FLOW_NORMAL;
+            case FLOW_PC_SHORT_LIST -> (word & 0x100) != 0 ? FLOW_RETURN : FLOW_NORMAL;
+            case FLOW_PC_HIGH_REGISTER -> (word & 0x87) != 0x87 ? FLOW_NORMAL : (word & 0xFF00) == 0x4600 && ((word >>> 3) & 0xF) == 14 ? FLOW_RETURN : FLOW_JUMP;
+            default -> flow;
+        };
+    }
+
+    private void add(int mask, int match, String flow, String mnemonic, String operands) {
+        int flowType = switch (flow) {
+            case "j" -> FLOW_JUMP;
+            case "c" -> FLOW_CALL;
+            case "cj" -> FLOW_CONDITIONAL;
+            case "r" -> FLOW_RETURN;
+            case "s" -> FLOW_SYSTEM;
+            case "n" -> FLOW_NOP;
+            case "D" -> FLOW_PC_DESTINATION;
+            case "L" -> FLOW_PC_LOAD;
+            case "P" -> FLOW_PC_LIST;
+            case "p" -> FLOW_PC_SHORT_LIST;
+            case "H" -> FLOW_PC_HIGH_REGISTER;
+            default -> FLOW_NORMAL;
+        };
+        String[] tokens = operands.isEmpty() ? new String[0] : operands.split(",(?![^\\[]*])");
+        int target = TARGET_NONE;
+        for (String token : tokens) {
+            target = switch (token) {
+                case "A32B" -> TARGET_A32_BRANCH;
+                case "A32X" -> TARGET_A32_EXCHANGE;
+                case "T16C" -> TARGET_T16_CONDITIONAL;
+                case "T16B" -> TARGET_T16_BRANCH;
+                case "T16Z" -> TARGET_T16_COMPARE;
+                case "T32C" -> TARGET_T32_CONDITIONAL;
+                case "T32B" -> TARGET_T32_BRANCH;
+                case "T32X" -> TARGET_T32_EXCHANGE;
+                default -> target;
+            };
+        }
+
+        entries.add(new Entry(mask, match, flowType, target, mnemonic, tokens));
+        masks = append(masks, mask);
+        matches = append(matches, match);
+        flows = append(flows, (byte) flowType);
+        targets = append(targets, (byte) target);
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    private static byte[] append(byte[] values, byte value) {
+        byte[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    record Entry(int mask, int match, int flow, int target, String mnemonic, String[] operands) {
+    }
+}
@@ -1,37 +1,343 @@
 package com.arsen.disassembler.arch.arm;
 
+import com.arsen.disassembler.DecodeBatch;
 import com.arsen.disassembler.IDisassembler;
+import com.arsen.loader.io.ByteSource;
 import com.arsen.model.Address;
 import com.arsen.model.Architecture;
 import com.arsen.model.disassembly.Instruction;
 import com.arsen.model.disassembly.InstructionType;
 
-public record ArmDisassembler(Architecture architecture) implements IDisassembler {
+import java.util.Arrays;
+
+public record ArmDisassembler(Architecture architecture, ArmModeMap modes) implements IDisassembler {
+    private static final InstructionType[] FLOW_TYPES = {InstructionType.NORMAL, InstructionType.JUMP, InstructionType.CONDITIONAL_JUMP, InstructionType.CALL, InstructionType.RETURN, InstructionType.SYSTEM, InstructionType.NOP};
+    private static final int MAX_SWEEP_PASSES = 3;
+    private static final int SNIFF_SIZE = 64 * 1024;
+    private static final double ARM_CONDITION_RATIO = 0.35;
+
+    public ArmDisassembler(Architecture architecture) {
+        this(architecture, new ArmModeMap());
+    }
+
+    @Override
+    public Address normalizeEntry(Address address) {
+        if ((address.value() & 1) != 0) {
+            Address entry = Address.of(address.value() & ~1L);
+            modes.mark(entry.value(), true);
+            return entry;
+        }
+        modes.suggestArm(address.value());
+        return address;
+    }
 
     @Override
     public Instruction disassemble(Address address, byte[] data, int offset) {
-        if (offset + 4 > data.length) {
-            return createInvalidInstruction(address);
+        boolean thumb = modes.isThumb(address.value());
+        if (offset + (thumb ? 2 : 4) > data.length) {
+            return createInvalidInstruction(address, thumb ? 2 : 4);
+        }
+
+        int isa = ArmDecodeTable.ISA_A32;
+        int length = 4;
+        int word;
+        if (!thumb) {
+            word = readWord(data, offset);
+        } else if (ArmDecodeTable.isWide(readHalfword(data, offset)) && offset + 4 <= data.length) {
+            word = readHalfword(data, offset) << 16 | readHalfword(data, offset + 2);
+            isa = ArmDecodeTable.ISA_T32;
+        } else {
+            word = readHalfword(data, offset);
+            isa = ArmDecodeTable.ISA_T16;
+            length = 2;
         }
 
-        int instrWord = ((data[offset + 3] & 0xFF) << 24) | ((data[offset + 2] & 0xFF) << 16) | ((data[offset + 1] & 0xFF) << 8) | (data[offset] & 0xFF);
+        int flow = classify(word, isa);
+        long target = (flow >>> 4) == ArmDecodeTable.TARGET_NONE ? -1L : ArmDecodeTable.target(word, flow >>> 4, address.value());
+        ArmInstructionFormatter formatter = new ArmInstructionFormatter(word, address.value(), isa);
 
-        byte[] instrBytes = new byte[4];
-        System.arraycopy(data, offset, instrBytes, 0, 4);
+        return Instruction.builder().address(address).bytes(Arrays.copyOfRange(data, offset, offset + length)).mnemonic(formatter.mnemonic()).operands(formatter.operands()).size(length).type(flowType(flow, word, isa, false)).targetAddress(target == -1L ? null : Address.of(target)).build();
+    }
 
-        if (instrWord == 0xE1A00000) {
-            return Instruction.builder().address(address).bytes(instrBytes).mnemonic("nop").size(4).type(InstructionType.NOP).build();
+    @Override
+    public int decode(byte[] data, int offset, int limit, long address, DecodeBatch batch) {
+        boolean thumb = modes.isThumb(address);
+        if (offset + (thumb ? 2 : 4) > limit) {
+            batch.add(address, thumb ? 2 : 4, InstructionType.NORMAL, DecodeBatch.NO_TARGET, DecodeBatch.STATUS_TRUNCATED);
+            return thumb ? 2 : 4;
         }
 
-        return Instruction.builder().address(address).bytes(instrBytes).mnemonic(String.format(".word 0x%08X", instrWord)).size(4).type(InstructionType.NORMAL).build();
+        int isa = !thumb ? ArmDecodeTable.ISA_A32 : ArmDecodeTable.isWide(readHalfword(data, offset)) && offset + 4 <= limit ? ArmDecodeTable.ISA_T32 : ArmDecodeTable.ISA_T16;
+        int word = isa == ArmDecodeTable.ISA_A32 ? readWord(data, offset) : isa == ArmDecodeTable.ISA_T32 ? readHalfword(data, offset) << 16 | readHalfword(data, offset + 2) : readHalfword(data, offset);
+        int flow = classify(word, isa);
+        int length = isa == ArmDecodeTable.ISA_T16 ? 2 : 4;
+        int status = isa == ArmDecodeTable.ISA_T16 && ArmDecodeTable.isWide(word) ? DecodeBatch.STATUS_TRUNCATED : status(word, isa);
+        batch.add(address, length, flowType(flow, word, isa, false), (flow >>> 4) == ArmDecodeTable.TARGET_NONE ? DecodeBatch.NO_TARGET : ArmDecodeTable.target(word, flow >>> 4, address), status);
+        return length;
     }
 
-    private Instruction createInvalidInstruction(Address address) {
-        return Instruction.builder().address(address).bytes(new byte[]{0, 0, 0, 0}).mnemonic("invalid").size(4).type(InstructionType.NORMAL).build();
+    @Override
+    public DecodeBatch decodeRange(Address start, ByteSource source) {
+        long size = Math.min(source.size(), Integer.MAX_VALUE) & ~1L;
+        modes.resolve(start.value(), start.value() + size, sniffThumb(source, size));
+
+        for (int pass = 0; pass < MAX_SWEEP_PASSES; pass++) {
+            if (!new Sweep(start.value(), source, size, null).run()) {
+                break;
+            }
+        }
+
+        DecodeBatch batch = new DecodeBatch(this, source, start.value(), (int) (size / 3));
+        new Sweep(start.value(), source, size, batch).run();
+        return batch;
+    }
+
+    private static boolean sniffThumb(ByteSource source, long size) {
+        byte[] sample = new byte[(int) Math.min(size, SNIFF_SIZE) & ~3];
+        int length = source.read(0, sample, 0, sample.length) & ~3;
+        int words = 0;
+        int always = 0;
+        for (int position = 0; position < length; position += 4) {
+            int word = readWord(sample, position);
+            if (word != 0) {
+                words++;
+                always += (word >>> 28) == 0xE ? 1 : 0;
+            }
+        }
+        return words > 0 && always < words * ARM_CONDITION_RATIO;
+    }
+
+    private static int classify(int word, int isa) {
+        return switch (isa) {
+            case ArmDecodeTable.ISA_T16 -> ArmDecodeTable.T16_TABLE.classify(word);
+            case ArmDecodeTable.ISA_T32 -> ArmDecodeTable.T32_TABLE.classify(word);
+            default -> (word >>> 28) == 0xF ? ArmDecodeTable.A32_UNCONDITIONAL_TABLE.classify(word) : ArmDecodeTable.A32_TABLE.classify(word);
+        };
+    }
+
+    private static int status(int word, int isa) {
+        boolean known = switch (isa) {
+            case ArmDecodeTable.ISA_T16 -> ArmDecodeTable.T16_TABLE.isKnown(word);
+            case ArmDecodeTable.ISA_T32 -> ArmDecodeTable.T32_TABLE.isKnown(word);
+            default -> (word >>> 28) == 0xF ? ArmDecodeTable.A32_UNCONDITIONAL_TABLE.isKnown(word) : ArmDecodeTable.A32_TABLE.isKnown(word);
+        };
+        return known ? DecodeBatch.STATUS_OK : DecodeBatch.STATUS_UNKNOWN;
+    }
+
+    private static InstructionType flowType(int flow, int word, int isa, boolean insideIfThen) {
+        InstructionType type = FLOW_TYPES[flow & 0xF];
+        boolean conditional = isa == ArmDecodeTable.ISA_A32 ? (word >>> 28) < 0xE : insideIfThen;
+        return conditional && (type == InstructionType.JUMP || type == InstructionType.RETURN) ? InstructionType.CONDITIONAL_JUMP : type;
+    }
+
+    private static int readWord(byte[] data, int offset) {
+        return ((data[offset + 3] & 0xFF) << 24) | ((data[offset + 2] & 0xFF) << 16) | ((data[offset + 1] & 0xFF) << 8) | (data[offset] & 0xFF);
+    }
+
+    private static int readHalfword(byte[] data, int offset) {
+        return ((data[offset + 1] & 0xFF) << 8) | (data[offset] & 0xFF);
+    }
+
+    private Instruction createInvalidInstruction(Address address, int size) {
+        return Instruction.builder().address(address).bytes(new byte[size]).mnemonic("invalid").size(size).type(InstructionType.NORMAL).build();
+    }
+
+    @Override
+    public int decodeMode(long address) {
+        return architecture.ordinal() | (modes.isThumb(address) ? (1 | (int) (address & 2)) << 8 : 0);
     }
 
     @Override
     public int getMaxInstructionSize() {
         return 4;
     }
+
+    private final class Sweep {
+        private final long base;
+        private final ByteSource source;
+        private final long size;
+        private final DecodeBatch batch;
+        private final byte[] window = new byte[DECODE_WINDOW_SIZE + 4];
+        private final byte[] literal = new byte[4];
+        private final long[] constants = new long[16];
+        private int knownConstants;
+        private int ifThenRemaining;
+        private long cursor;
+        private long nextTransition;
+        private boolean changed;
+
+        Sweep(long base, ByteSource source, long size, DecodeBatch batch) {
+            this.base = base;
+            this.source = source;
+            this.size = size;
+            this.batch = batch;
+        }
+
+        boolean run() {
+            long windowStart = 0;
+            int windowLength = 0;
+            boolean thumb = modes.isThumb(base);
+            nextTransition = modes.nextTransition(base);
+
+            for (long offset = 0; offset < size; ) {
+                cursor = base + offset;
+                if (cursor >= nextTransition) {
+                    thumb = modes.isThumb(cursor);
+                    nextTransition = modes.nextTransition(cursor);
+                    knownConstants = 0;
+                    ifThenRemaining = 0;
+                }
+
+                int position = (int) (offset - windowStart);
+                if (offset >= windowStart + windowLength || (position + 4 > windowLength && windowStart + windowLength < size)) {
+                    windowStart = offset;
+                    windowLength = source.read(offset, window, 0, (int) Math.min(window.length, size - offset));
+                    position = 0;
+                    if (windowLength <= 0) {
+                        break;
+                    }
+                }
+
+                offset += thumb ? decodeThumb(position, windowLength) : decodeArm(position, windowLength);
+            }
+
+            return changed;
+        }
+
+        private int decodeArm(int position, int limit) {
+            if (position + 4 > limit || (cursor & 3) != 0) {
+                add(2, InstructionType.NORMAL, DecodeBatch.NO_TARGET, position + 4 > limit ? DecodeBatch.STATUS_TRUNCATED : DecodeBatch.STATUS_INVALID);
+                return 2;
+            }
+
+            int word = readWord(window, position);
+            int flow = classify(word, ArmDecodeTable.ISA_A32);
+            InstructionType type = flowType(flow, word, ArmDecodeTable.ISA_A32, false);
+            long target = resolveTarget(word, flow, ArmDecodeTable.ISA_A32, type, false);
+            trackArmConstant(word);
+            add(4, type, target, batch == null ? DecodeBatch.STATUS_OK : status(word, ArmDecodeTable.ISA_A32));
+            return 4;
+        }
+
+        private int decodeThumb(int position, int limit) {
+            int first = readHalfword(window, position);
+            boolean wide = ArmDecodeTable.isWide(first) && position + 4 <= limit;
+            int isa = wide ? ArmDecodeTable.ISA_T32 : ArmDecodeTable.ISA_T16;
+            int word = wide ? first << 16 | readHalfword(window, position + 2) : first;
+
+            boolean insideIfThen = ifThenRemaining > 0;
+            if (insideIfThen) {
+                ifThenRemaining--;
+            }
+
+            int flow = classify(word, isa);
+            InstructionType type = flowType(flow, word, isa, insideIfThen);
+            long target = resolveTarget(word, flow, isa, type, true);
+            trackThumbConstant(word, wide);
+            if (!wide && (word & 0xFF00) == 0xBF00 && (word & 0xF) != 0) {
+                ifThenRemaining = 4 - Integer.numberOfTrailingZeros(word & 0xF);
+            }
+
+            add(wide ? 4 : 2, type, target, batch == null ? DecodeBatch.STATUS_OK : !wide && ArmDecodeTable.isWide(first) ? DecodeBatch.STATUS_TRUNCATED : status(word, isa));
+            return wide ? 4 : 2;
+        }
+
+        private long resolveTarget(int word, int flow, int isa, InstructionType type, boolean thumb) {
+            int kind = flow >>> 4;
+            if (kind != ArmDecodeTable.TARGET_NONE) {
+                long target = ArmDecodeTable.target(word, kind, cursor);
+                if (type == InstructionType.CALL) {
+                    markMode(target, ArmDecodeTable.switchesMode(kind) != thumb);
+                }
+                return target;
+            }
+
+            int register = exchangeRegister(word, isa);
+            if (register < 0 || (knownConstants & (1 << register)) == 0) {
+                return DecodeBatch.NO_TARGET;
+            }
+            long value = constants[register];
+            markMode(value & ~1L, (value & 1) != 0);
+            return value & ~1L;
+        }
+
+        private void trackArmConstant(int word) {
+            int register = (word >>> 12) & 0xF;
+            if ((word & 0x0F7F0000) == 0x051F0000 && (word >>> 28) == 0xE) {
+                long offset = word & 0xFFF;
+                setConstant(register, readLiteral(cursor + 8 + ((word & 0x00800000) != 0 ? offset : -offset)));
+            } else if ((word & 0xFFF00000) == 0xE3000000) {
+                setConstant(register, (word >>> 4) & 0xF000 | word & 0xFFF);
+            } else if ((word & 0xFFF00000) == 0xE3400000 && (knownConstants & (1 << register)) != 0) {
+                setConstant(register, constants[register] & 0xFFFF | ((long) ((word >>> 4) & 0xF000 | word & 0xFFF) << 16));
+            } else {
+                knownConstants = 0;
+            }
+        }
+
+        private void trackThumbConstant(int word, boolean wide) {
+            long aligned = (cursor + 4) & ~3L;
+            int register = (word >>> 8) & 0xF;
+            if (!wide && (word & 0xF800) == 0x4800) {
+                setConstant((word >>> 8) & 7, readLiteral(aligned + (word & 0xFF) * 4L));
+            } else if (wide && (word & 0xFF7F0000) == 0xF85F0000) {
+                long offset = word & 0xFFF;
+                setConstant((word >>> 12) & 0xF, readLiteral(aligned + ((word & 0x00800000) != 0 ? offset : -offset)));
+            } else if (wide && (word & 0xFBF08000) == 0xF2400000) {
+                setConstant(register, thumbImmediate16(word));
+            } else if (wide && (word & 0xFBF08000) == 0xF2C00000 && (knownConstants & (1 << register)) != 0) {
+                setConstant(register, constants[register] & 0xFFFF | thumbImmediate16(word) << 16);
+            } else if (!wide && (word & 0xFF00) == 0xBF00) {
+                return;
+            } else {
+                knownConstants = 0;
+            }
+        }
+
+        private void setConstant(int register, long value) {
+            if (value < 0) {
+                knownConstants &= ~(1 << register);
+                return;
+            }
+            constants[register] = value;
+            knownConstants |= 1 << register;
+        }
+
+        private long readLiteral(long address) {
+            long offset = address - base;
+            if (offset < 0 || offset + 4 > size || source.read(offset, literal, 0, 4) < 4) {
+                return -1L;
+            }
+            return readWord(literal, 0) & 0xFFFFFFFFL;
+        }
+
+        private void markMode(long address, boolean thumb) {
+            if (address < base || address >= base + size || (!thumb && (address & 3) != 0) || modes.isThumb(address) == thumb || !modes.markIfAbsent(address, thumb)) {
+                return;
+            }
+            if (address <= cursor) {
+                changed = true;
+            } else {
+                nextTransition = Math.min(nextTransition, address);
+            }
+        }
+
+        private void add(int length, InstructionType type, long target, int status) {
+            if (batch != null) {
+                batch.add(cursor, length, type, target, status);
+            }
+        }
+
+        private static int exchangeRegister(int word, int isa) {
+            return switch (isa) {
+                case ArmDecodeTable.ISA_A32 -> (word & 0x0FFFFFD0) == 0x012FFF10 ? word & 0xF : -1;
+                case ArmDecodeTable.ISA_T16 -> (word & 0xFF07) == 0x4700 ? (word >>> 3) & 0xF : -1;
+                default -> -1;
+            };
+        }
+
+        private static long thumbImmediate16(int word) {
+            return (word >>> 4) & 0xF000 | (word >>> 15) & 0x0800 | (word >>> 4) & 0x0700 | word & 0xFF;
+        }
+    }
 }
@@ -0,0 +1,435 @@
+package com.arsen.disassembler.arch.arm;
+
+import com.arsen.model.Address;
+import com.arsen.model.disassembly.Operand;
+import com.arsen.model.disassembly.OperandType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+final class ArmInstructionFormatter {
+    private static final String[] CONDITIONS = {"eq", "ne", "cs", "cc", "mi", "pl", "vs", "vc", "hi", "ls", "ge", "lt", "gt", "le", "", ""};
+    private static final String[] SHIFTS = {"lsl", "lsr", "asr", "ror"};
+    private static final String[] REGISTERS = {"r0", "r1", "r2", "r3", "r4", "r5", "r6", "r7", "r8", "r9", "r10", "r11", "r12", "sp", "lr", "pc"};
+    private static final String[] BARRIERS = {"#0", "#1", "oshst", "osh", "#4", "#5", "nshst", "nsh", "#8", "#9", "ishst", "ish", "#12", "#13", "st", "sy"};
+    private static final String[] MULTIPLE_MODES = {"da", "", "db", "ib"};
+    private static final Map<Integer, String> SPECIAL_REGISTERS = Map.of(0, "apsr", 1, "iapsr", 2, "eapsr", 3, "xpsr", 5, "ipsr", 8, "msp", 9, "psp", 16, "primask", 17, "basepri", 20, "control");
+
+    private final int word;
+    private final long address;
+    private final int isa;
+
+    private String mnemonic;
+    private String[] tokens;
+
+    ArmInstructionFormatter(int word, long address, int isa) {
+        this.word = word;
+        this.address = address;
+        this.isa = isa;
+
+        ArmDecodeTable.Entry entry = find(word, isa);
+        if (entry == null) {
+            this.mnemonic = isa == ArmDecodeTable.ISA_T16 ? ".short" : ".word";
+            this.tokens = new String[]{"WORD"};
+            return;
+        }
+
+        this.mnemonic = entry.mnemonic();
+        this.tokens = entry.operands();
+        applyAlias();
+        this.mnemonic = expand(mnemonic);
+    }
+
+    static ArmDecodeTable.Entry find(int word, int isa) {
+        return switch (isa) {
+            case ArmDecodeTable.ISA_T16 -> ArmDecodeTable.T16_TABLE.find(word);
+            case ArmDecodeTable.ISA_T32 -> ArmDecodeTable.T32_TABLE.find(word);
+            default -> (word >>> 28) == 0xF ? ArmDecodeTable.A32_UNCONDITIONAL_TABLE.find(word) : ArmDecodeTable.A32_TABLE.find(word);
+        };
+    }
+
+    String mnemonic() {
+        return mnemonic;
+    }
+
+    List<Operand> operands() {
+        List<Operand> operands = new ArrayList<>(tokens.length + 1);
+        for (String token : tokens) {
+            operand(token, operands);
+        }
+        return operands;
+    }
+
+    private void applyAlias() {
+        int rd = field(12, 4);
+        int rn = field(16, 4);
+        String last = tokens.length > 0 ? tokens[tokens.length - 1] : "";
+
+        if (isa == ArmDecodeTable.ISA_A32) {
+            if (mnemonic.startsWith("mov{s}") && last.equals("SH") && shiftName().equals("rrx")) {
+                alias("rrx{s}{c}", "r12", "r0");
+            } else if (mnemonic.startsWith("mov{s}") && last.equals("SH") && field(4, 8) != 0) {
+                alias(shiftName() + "{s}{c}", "r12", "r0", "SHA");
+            } else if ((mnemonic.startsWith("stm") || mnemonic.startsWith("ldm")) && rn == 13 && bit(21) != 0 && field(23, 2) == (mnemonic.startsWith("stm") ? 2 : 1) && Integer.bitCount(field(0, 16)) > 1) {
+                alias(mnemonic.startsWith("stm") ? "push{c}" : "pop{c}", "RL");
+            } else if ((word & 0x0FFF0FFF) == 0x052D0004 || (word & 0x0FFF0FFF) == 0x049D0004) {
+                alias(bit(20) == 0 ? "push{c}" : "pop{c}", "RL1");
+            } else if ((mnemonic.startsWith("add{s}") || mnemonic.startsWith("sub{s}")) && last.equals("AR") && rn == 15 && bit(20) == 0) {
+                alias("adr{c}", "r12", "ADRA");
+            }
+            return;
+        }
+
+        if (isa == ArmDecodeTable.ISA_T32) {
+            int destination = field(8, 4);
+            boolean shifted = last.equals("TS");
+            boolean flags = bit(20) != 0;
+            if (mnemonic.startsWith("orr") && rn == 15) {
+                if (shifted && field(4, 2) == 3 && (field(12, 3) << 2 | field(6, 2)) == 0) {
+                    alias("rrx{s}.w", "r8", "r0");
+                } else if (shifted && field(4, 2) + (field(12, 3) << 2 | field(6, 2)) != 0) {
+                    alias(SHIFTS[field(4, 2)] + "{s}.w", "r8", "r0", "TSA");
+                } else {
+                    alias("mov{s}.w", "r8", last);
+                }
+            } else if (mnemonic.startsWith("orn") && rn == 15) {
+                alias("mvn{s}.w", "r8", last);
+            } else if (flags && destination == 15 && (mnemonic.startsWith("and") || mnemonic.startsWith("eor") || mnemonic.startsWith("add") || mnemonic.startsWith("sub"))) {
+                String test = switch (mnemonic.substring(0, 3)) {
+                    case "and" -> "tst.w";
+                    case "eor" -> "teq.w";
+                    case "add" -> "cmn.w";
+                    default -> "cmp.w";
+                };
+                alias(test, "r16", last);
+            } else if ((mnemonic.equals("addw") || mnemonic.equals("subw")) && rn == 15) {
+                alias("adr.w", "r8", "ADRW");
+            } else if (mnemonic.equals("bfi") && rn == 15) {
+                alias("bfc", "r8", "BFIT");
+            } else if ((word & 0xFFFF0FFF) == 0xF85D0B04 || (word & 0xFFFF0FFF) == 0xF84D0D04) {
+                alias(bit(20) != 0 ? "pop.w" : "push.w", "RL1");
+            }
+        }
+    }
+
+    private void alias(String name, String... operands) {
+        this.mnemonic = name;
+        this.tokens = operands;
+    }
+
+    private String expand(String name) {
+        if (name.indexOf('{') < 0) {
+            return name.equals("it") ? itMnemonic() : name;
+        }
+        return name.replace("{s}", bit(20) != 0 ? "s" : "").replace("{c}", CONDITIONS[field(28, 4)]).replace("{c8}", CONDITIONS[field(8, 4)]).replace("{c22}", CONDITIONS[field(22, 4)]).replace("{am}", MULTIPLE_MODES[field(23, 2)]);
+    }
+
+    private String itMnemonic() {
+        int condition = field(4, 4);
+        int mask = field(0, 4);
+        StringBuilder name = new StringBuilder("it");
+        for (int position = 3; position > Integer.numberOfTrailingZeros(mask); position--) {
+            name.append(((mask >>> position) & 1) == (condition & 1) ? 't' : 'e');
+        }
+        return name.toString();
+    }
+
+    private void operand(String token, List<Operand> operands) {
+        switch (token) {
+            case "WORD" -> operands.add(immediate(isa == ArmDecodeTable.ISA_T16 ? String.format("0x%04x", word & 0xFFFF) : String.format("0x%08x", word), word & 0xFFFFFFFFL));
+            case "A32B" -> operands.add(target(ArmDecodeTable.TARGET_A32_BRANCH));
+            case "A32X" -> operands.add(target(ArmDecodeTable.TARGET_A32_EXCHANGE));
+            case "T16C" -> operands.add(target(ArmDecodeTable.TARGET_T16_CONDITIONAL));
+            case "T16B" -> operands.add(target(ArmDecodeTable.TARGET_T16_BRANCH));
+            case "T16Z" -> operands.add(target(ArmDecodeTable.TARGET_T16_COMPARE));
+            case "T32C" -> operands.add(target(ArmDecodeTable.TARGET_T32_CONDITIONAL));
+            case "T32B" -> operands.add(target(ArmDecodeTable.TARGET_T32_BRANCH));
+            case "T32X" -> operands.add(target(ArmDecodeTable.TARGET_T32_EXCHANGE));
+            case "ADRA" -> operands.add(address(address + 8 + (field(21, 4) == 2 ? -rotatedImmediate() : rotatedImmediate())));
+            case "ADRW" -> operands.add(address(alignedPc() + (bit(23) != 0 ? -thumbImmediate12() : thumbImmediate12())));
+            case "ADR8" -> operands.add(address(alignedPc() + field(0, 8) * 4L));
+            case "LIT8" -> operands.add(literal(alignedPc() + field(0, 8) * 4L));
+            case "LIT12" -> operands.add(literal(alignedPc() + (bit(23) != 0 ? field(0, 12) : -field(0, 12))));
+            case "AR" -> operands.add(constant(rotatedImmediate()));
+            case "TM" -> operands.add(constant(thumbExpandImmediate()));
+            case "U12T" -> operands.add(constant(thumbImmediate12()));
+            case "W16A" -> operands.add(constant(field(16, 4) << 12 | field(0, 12)));
+            case "W16T" -> operands.add(constant(field(16, 4) << 12 | bit(26) << 11 | field(12, 3) << 8 | field(0, 8)));
+            case "SH6" -> operands.add(decimal(field(6, 5) == 0 ? 32 : field(6, 5)));
+            case "SH" -> shiftedRegister(operands);
+            case "SHA" -> operands.add(bit(4) != 0 ? register(field(8, 4)) : decimal(shiftAmount()));
+            case "TS" -> {
+                operands.add(register(field(0, 4)));
+                int amount = field(12, 3) << 2 | field(6, 2);
+                if (amount != 0 || field(4, 2) != 0) {
+                    operands.add(immediate(amount == 0 && field(4, 2) == 3 ? "rrx" : SHIFTS[field(4, 2)] + " #" + (amount == 0 ? 32 : amount), amount));
+                }
+            }
+            case "TSA" -> {
+                int amount = field(12, 3) << 2 | field(6, 2);
+                operands.add(decimal(amount == 0 ? 32 : amount));
+            }
+            case "MA" -> operands.add(singleTransfer());
+            case "MH" -> operands.add(extraTransfer());
+            case "MD" -> operands.add(indexed(field(16, 4), field(0, 8) * 4L, bit(24) != 0, bit(23) != 0, bit(21) != 0));
+            case "M8" -> operands.add(indexed(field(16, 4), field(0, 8), bit(10) != 0, bit(9) != 0, bit(8) != 0));
+            case "MR" -> operands.add(memory("[" + REGISTERS[field(16, 4)] + ", " + REGISTERS[field(0, 4)] + (field(4, 2) != 0 ? ", lsl #" + field(4, 2) : "") + "]", 0));
+            case "MV" -> vectorTransfer(operands);
+            case "X16" -> operands.add(memory("[" + REGISTERS[field(16, 4)] + "]", 0));
+            case "RL" -> operands.add(registerList(field(0, 16)));
+            case "RL1" -> operands.add(registerList(1 << field(12, 4)));
+            case "RL8" -> operands.add(registerList(field(0, 8) | (bit(8) != 0 ? 1 << (mnemonic.startsWith("push") ? 14 : 15) : 0)));
+            case "BFXA" -> {
+                operands.add(decimal(field(7, 5)));
+                operands.add(decimal(field(16, 5) + 1));
+            }
+            case "BFIA" -> {
+                operands.add(decimal(field(7, 5)));
+                operands.add(decimal(field(16, 5) - field(7, 5) + 1));
+            }
+            case "BFXT" -> {
+                operands.add(decimal(field(12, 3) << 2 | field(6, 2)));
+                operands.add(decimal(field(0, 5) + 1));
+            }
+            case "BFIT" -> {
+                int lsb = field(12, 3) << 2 | field(6, 2);
+                operands.add(decimal(lsb));
+                operands.add(decimal(field(0, 5) - lsb + 1));
+            }
+            case "ROTA", "ROTT" -> {
+                int rotation = token.equals("ROTA") ? field(10, 2) : field(4, 2);
+                if (rotation != 0) {
+                    operands.add(immediate("ror #" + rotation * 8, rotation * 8L));
+                }
+            }
+            case "OPT" -> operands.add(named(BARRIERS[field(0, 4)], field(0, 4)));
+            case "IT" -> operands.add(named(CONDITIONS[field(4, 4)].isEmpty() ? "al" : CONDITIONS[field(4, 4)], field(4, 4)));
+            case "PSR" -> operands.add(named(bit(22) != 0 ? "spsr" : "apsr", bit(22)));
+            case "MSRF" -> operands.add(named((bit(22) != 0 ? "spsr_" : "cpsr_") + (bit(19) != 0 ? "f" : "") + (bit(18) != 0 ? "s" : "") + (bit(17) != 0 ? "x" : "") + (bit(16) != 0 ? "c" : ""), field(16, 4)));
+            case "SYSM" -> operands.add(named(SPECIAL_REGISTERS.getOrDefault(field(0, 8), "#" + field(0, 8)), field(0, 8)));
+            case "DL" -> operands.add(vectorList('d', bit(22) << 4 | field(12, 4), field(0, 8) / 2));
+            case "SL" -> operands.add(vectorList('s', field(12, 4) << 1 | bit(22), field(0, 8)));
+            case "D12" -> operands.add(named("d" + (bit(22) << 4 | field(12, 4)), 0));
+            case "S12" -> operands.add(named("s" + (field(12, 4) << 1 | bit(22)), 0));
+            case "S16" -> operands.add(named("s" + (field(16, 4) << 1 | bit(7)), 0));
+            case "BK" -> operands.add(decimal(field(8, 12) << 4 | field(0, 4)));
+            case "HD" -> operands.add(register(bit(7) << 3 | field(0, 3)));
+            case "H3" -> operands.add(register(field(3, 4)));
+            case "r16!", "l8!" -> operands.add(writebackRegister(token));
+            default -> {
+                if (token.startsWith("[")) {
+                    operands.add(bracketed(token));
+                } else if (token.startsWith("U")) {
+                    operands.add(decimal(unsigned(token)));
+                } else if (token.startsWith("r") && token.length() > 1 && Character.isDigit(token.charAt(1))) {
+                    boolean next = token.endsWith("+");
+                    operands.add(register((field(Integer.parseInt(token.substring(1, next ? token.length() - 1 : token.length())), 4) + (next ? 1 : 0)) & 0xF));
+                } else if (token.startsWith("l") && token.length() == 2 && Character.isDigit(token.charAt(1))) {
+                    operands.add(register(field(token.charAt(1) - '0', 3)));
+                } else {
+                    operands.add(named(token, 0));
+                }
+            }
+        }
+    }
+
+    private Operand bracketed(String token) {
+        StringJoiner text = new StringJoiner(", ", "[", "]");
+        long value = 0;
+        for (String part : token.substring(1, token.length() - 1).split(",")) {
+            if (part.startsWith("U")) {
+                value = unsigned(part);
+                if (value != 0) {
+                    text.add("#" + value);
+                }
+            } else if (part.equals("LSL1")) {
+                text.add("lsl #1");
+            } else if (part.startsWith("l")) {
+                text.add(REGISTERS[field(part.charAt(1) - '0', 3)]);
+            } else if (part.startsWith("r")) {
+                text.add(REGISTERS[field(Integer.parseInt(part.substring(1)), 4)]);
+            } else {
+                text.add(part);
+            }
+        }
+        return memory(text.toString(), value);
+    }
+
+    private long unsigned(String token) {
+        int dot = token.indexOf('.');
+        int star = token.indexOf('*');
+        int position = Integer.parseInt(token.substring(1, dot));
+        int width = Integer.parseInt(token.substring(dot + 1, star < 0 ? token.length() : star));
+        int scale = star < 0 ? 1 : Integer.parseInt(token.substring(star + 1));
+        return (long) field(position, width) * scale;
+    }
+
+    private Operand writebackRegister(String token) {
+        if (token.equals("r16!")) {
+            return named(REGISTERS[field(16, 4)] + (bit(21) != 0 ? "!" : ""), field(16, 4));
+        }
+        int base = field(8, 3);
+        boolean writeback = mnemonic.startsWith("stm") || (field(0, 8) & (1 << base)) == 0;
+        return named(REGISTERS[base] + (writeback ? "!" : ""), base);
+    }
+
+    private void shiftedRegister(List<Operand> operands) {
+        operands.add(register(field(0, 4)));
+        if (bit(4) != 0) {
+            operands.add(named(shiftName() + " " + REGISTERS[field(8, 4)], field(8, 4)));
+        } else if (field(5, 7) != 0) {
+            operands.add(immediate(shiftName().equals("rrx") ? "rrx" : shiftName() + " #" + shiftAmount(), shiftAmount()));
+        }
+    }
+
+    private String shiftName() {
+        return bit(4) == 0 && field(5, 2) == 3 && field(7, 5) == 0 ? "rrx" : SHIFTS[field(5, 2)];
+    }
+
+    private int shiftAmount() {
+        return field(7, 5) == 0 && field(5, 2) != 0 ? 32 : field(7, 5);
+    }
+
+    private Operand singleTransfer() {
+        int base = field(16, 4);
+        boolean pre = bit(24) != 0;
+        boolean up = bit(23) != 0;
+        if (bit(25) == 0) {
+            long offset = field(0, 12);
+            if (base == 15 && pre && bit(21) == 0) {
+                return literal(address + 8 + (up ? offset : -offset));
+            }
+            return indexed(base, offset, pre, up, bit(21) != 0);
+        }
+        String index = (up ? "" : "-") + REGISTERS[field(0, 4)] + (field(5, 7) != 0 ? ", " + (shiftName().equals("rrx") ? "rrx" : shiftName() + " #" + shiftAmount()) : "");
+        String text = pre ? "[" + REGISTERS[base] + ", " + index + "]" + (bit(21) != 0 ? "!" : "") : "[" + REGISTERS[base] + "], " + index;
+        return memory(text, 0);
+    }
+
+    private Operand extraTransfer() {
+        int base = field(16, 4);
+        boolean pre = bit(24) != 0;
+        boolean up = bit(23) != 0;
+        if (bit(22) != 0) {
+            long offset = field(8, 4) << 4 | field(0, 4);
+            if (base == 15 && pre && bit(21) == 0) {
+                return literal(address + 8 + (up ? offset : -offset));
+            }
+            return indexed(base, offset, pre, up, bit(21) != 0);
+        }
+        String index = (up ? "" : "-") + REGISTERS[field(0, 4)];
+        String text = pre ? "[" + REGISTERS[base] + ", " + index + "]" + (bit(21) != 0 ? "!" : "") : "[" + REGISTERS[base] + "], " + index;
+        return memory(text, 0);
+    }
+
+    private void vectorTransfer(List<Operand> operands) {
+        long offset = field(0, 8) * 4L;
+        if (field(16, 4) == 15) {
+            long pc = isa == ArmDecodeTable.ISA_A32 ? address + 8 : alignedPc();
+            operands.add(literal(pc + (bit(23) != 0 ? offset : -offset)));
+            return;
+        }
+        operands.add(indexed(field(16, 4), offset, true, bit(23) != 0, false));
+    }
+
+    private Operand indexed(int base, long offset, boolean pre, boolean up, boolean writeback) {
+        long signed = up ? offset : -offset;
+        String name = REGISTERS[base];
+        if (!pre) {
+            return memory("[" + name + "], #" + signed, signed);
+        }
+        String text = offset == 0 && up ? "[" + name + "]" : "[" + name + ", #" + signed + "]";
+        return memory(writeback ? text + "!" : text, signed);
+    }
+
+    private Operand registerList(int mask) {
+        StringJoiner text = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < 16; i++) {
+            if ((mask & (1 << i)) != 0) {
+                text.add(REGISTERS[i]);
+            }
+        }
+        return named(text.toString(), mask);
+    }
+
+    private Operand vectorList(char prefix, int first, int count) {
+        String text = count <= 1 ? "{" + prefix + first + "}" : "{" + prefix + first + "-" + prefix + (first + count - 1) + "}";
+        return named(text, count);
+    }
+
+    private long rotatedImmediate() {
+        int rotation = field(8, 4) * 2;
+        return Integer.rotateRight(field(0, 8), rotation) & 0xFFFFFFFFL;
+    }
+
+    private long thumbImmediate12() {
+        return bit(26) << 11 | field(12, 3) << 8 | field(0, 8);
+    }
+
+    private long thumbExpandImmediate() {
+        int imm12 = (int) thumbImmediate12();
+        int imm8 = imm12 & 0xFF;
+        if ((imm12 >>> 10) == 0) {
+            return switch ((imm12 >>> 8) & 3) {
+                case 0 -> imm8;
+                case 1 -> (long) imm8 << 16 | imm8;
+                case 2 -> ((long) imm8 << 24 | (long) imm8 << 8) & 0xFFFFFFFFL;
+                default -> ((long) imm8 << 24 | (long) imm8 << 16 | (long) imm8 << 8 | imm8) & 0xFFFFFFFFL;
+            };
+        }
+        return Integer.rotateRight(0x80 | (imm12 & 0x7F), imm12 >>> 7) & 0xFFFFFFFFL;
+    }
+
+    private long alignedPc() {
+        return (address + 4) & ~3L;
+    }
+
+    private Operand target(int kind) {
+        Address target = Address.of(ArmDecodeTable.target(word, kind, address));
+        return immediate(target.toString(), target.value());
+    }
+
+    private Operand address(long value) {
+        Address target = Address.of(value);
+        return immediate(target.toString(), target.value());
+    }
+
+    private Operand literal(long value) {
+        Address target = Address.of(value);
+        return memory(target.toString(), target.value());
+    }
+
+    private int field(int shift, int width) {
+        return (word >>> shift) & ((1 << width) - 1);
+    }
+
+    private int bit(int position) {
+        return (word >>> position) & 1;
+    }
+
+    private static Operand register(int number) {
+        return Operand.builder().type(OperandType.REGISTER).text(REGISTERS[number]).build();
+    }
+
+    private static Operand named(String text, long value) {
+        return Operand.builder().type(OperandType.REGISTER).text(text).value(value).build();
+    }
+
+    private static Operand memory(String text, long value) {
+        return Operand.builder().type(OperandType.MEMORY).text(text).value(value).build();
+    }
+
+    private static Operand immediate(String text, long value) {
+        return Operand.builder().type(OperandType.IMMEDIATE).text(text).value(value).build();
+    }
+
+    private static Operand decimal(long value) {
+        return immediate("#" + value, value);
+    }
+
+    private static Operand constant(long value) {
+        return immediate(value > 0xFF ? "#0x" + Long.toHexString(value) : "#" + value, value);
+    }
+}
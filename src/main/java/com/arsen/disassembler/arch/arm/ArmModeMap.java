@@ -0,0 +1,43 @@
+package com.arsen.disassembler.arch.arm;
+
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+public final class ArmModeMap {
+    private final ConcurrentSkipListMap<Long, Boolean> transitions = new ConcurrentSkipListMap<>();
+    private final NavigableSet<Long> armCandidates = new ConcurrentSkipListSet<>();
+
+    public boolean isThumb(long address) {
+        Map.Entry<Long, Boolean> transition = transitions.floorEntry(address);
+        return transition != null && transition.getValue();
+    }
+
+    public void mark(long address, boolean thumb) {
+        transitions.put(address, thumb);
+    }
+
+    public boolean markIfAbsent(long address, boolean thumb) {
+        return transitions.putIfAbsent(address, thumb) == null;
+    }
+
+    public void suggestArm(long address) {
+        armCandidates.add(address);
+    }
+
+    public long nextTransition(long address) {
+        Long next = transitions.higherKey(address);
+        return next == null ? Long.MAX_VALUE : next;
+    }
+
+    void resolve(long start, long end, boolean thumb) {
+        markIfAbsent(start, thumb);
+        if (thumb) {
+            return;
+        }
+        for (long candidate : armCandidates.subSet(start, end)) {
+            markIfAbsent(candidate, false);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.arsen.disassembler.arch.arm;
+
+import java.util.Arrays;
+
+final class EncodingIndex {
+    private static final int[] NONE = new int[0];
+
+    private final int shift;
+    private final int bucketMask;
+    private final boolean[] complete;
+    private final int[][] masks;
+    private final int[][] matches;
+
+    EncodingIndex(int[] masks, int[] matches, int shift, int bits) {
+        int buckets = 1 << bits;
+        int field = (buckets - 1) << shift;
+        this.shift = shift;
+        this.bucketMask = buckets - 1;
+        this.complete = new boolean[buckets];
+        this.masks = new int[buckets][];
+        this.matches = new int[buckets][];
+
+        int[] bucketMasks = new int[masks.length];
+        int[] bucketMatches = new int[masks.length];
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int value = bucket << shift;
+            int count = 0;
+            for (int i = 0; i < masks.length && !complete[bucket]; i++) {
+                if (((matches[i] ^ value) & masks[i] & field) != 0) {
+                    continue;
+                }
+                complete[bucket] = (masks[i] & ~field) == 0;
+                bucketMasks[count] = masks[i];
+                bucketMatches[count++] = matches[i];
+            }
+            this.masks[bucket] = complete[bucket] || count == 0 ? NONE : Arrays.copyOf(bucketMasks, count);
+            this.matches[bucket] = complete[bucket] || count == 0 ? NONE : Arrays.copyOf(bucketMatches, count);
+        }
+    }
+
+    boolean contains(int word) {
+        int bucket = (word >>> shift) & bucketMask;
+        if (complete[bucket]) {
+            return true;
+        }
+        int[] bucketMasks = masks[bucket];
+        int[] bucketMatches = matches[bucket];
+        for (int i = 0; i < bucketMasks.length; i++) {
+            if ((word & bucketMasks[i]) == bucketMatches[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,344 @@
+package com.arsen.disassembler.arch.mips;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class MipsDecodeTable {
+    static final int FLOW_NORMAL = 0;
+    static final int FLOW_JUMP = 1;
+    static final int FLOW_CONDITIONAL = 2;
+    static final int FLOW_CALL = 3;
+    static final int FLOW_RETURN = 4;
+    static final int FLOW_SYSTEM = 5;
+    static final int FLOW_NOP = 6;
+
+    static final int TARGET_NONE = 0;
+    static final int TARGET_BRANCH = 1;
+    static final int TARGET_REGION = 2;
+
+    private static final String SPECIAL = """
+            FFFFFFFF 00000000 n nop
+            FFFFFFFF 00000040 n ssnop
+            FFFFFFFF 000000C0 n ehb
+            FFE0003F 00000000 - sll rd,rt,SA
+            FFE0003F 00000002 - srl rd,rt,SA
+            FFE0003F 00200002 - rotr rd,rt,SA
+            FFE0003F 00000003 - sra rd,rt,SA
+            FC0007FF 00000004 - sllv rd,rt,rs
+            FC0007FF 00000006 - srlv rd,rt,rs
+            FC0007FF 00000046 - rotrv rd,rt,rs
+            FC0007FF 00000007 - srav rd,rt,rs
+            FFFFF83F 03E00008 r jr ra
+            FC1FF83F 00000008 j jr rs
+            FC1F003F 00000009 c jalr rd,rs
+            FC0007FF 0000000A - movz rd,rs,rt
+            FC0007FF 0000000B - movn rd,rs,rt
+            FC00003F 0000000C s syscall CODE
+            FC00003F 0000000D s break CODE
+            FFFFF83F 0000000F - sync
+            FFFF07FF 00000010 - mfhi rd
+            FC1FFFFF 00000011 - mthi rs
+            FFFF07FF 00000012 - mflo rd
+            FC1FFFFF 00000013 - mtlo rs
+            FC0007FF 00000014 - dsllv rd,rt,rs
+            FC0007FF 00000016 - dsrlv rd,rt,rs
+            FC0007FF 00000017 - dsrav rd,rt,rs
+            FC00FFFF 00000018 - mult rs,rt
+            FC00FFFF 00000019 - multu rs,rt
+            FC00FFFF 0000001A - div zero,rs,rt
+            FC00FFFF 0000001B - divu zero,rs,rt
+            FC00FFFF 0000001C - dmult rs,rt
+            FC00FFFF 0000001D - dmultu rs,rt
+            FC00FFFF 0000001E - ddiv zero,rs,rt
+            FC00FFFF 0000001F - ddivu zero,rs,rt
+            FC0007FF 00000020 - add rd,rs,rt
+            FC0007FF 00000021 - addu rd,rs,rt
+            FC0007FF 00000022 - sub rd,rs,rt
+            FC0007FF 00000023 - subu rd,rs,rt
+            FC0007FF 00000024 - and rd,rs,rt
+            FC0007FF 00000025 - or rd,rs,rt
+            FC0007FF 00000026 - xor rd,rs,rt
+            FC0007FF 00000027 - nor rd,rs,rt
+            FC0007FF 0000002A - slt rd,rs,rt
+            FC0007FF 0000002B - sltu rd,rs,rt
+            FC0007FF 0000002C - dadd rd,rs,rt
+            FC0007FF 0000002D - daddu rd,rs,rt
+            FC0007FF 0000002E - dsub rd,rs,rt
+            FC0007FF 0000002F - dsubu rd,rs,rt
+            FC00003F 00000030 - tge rs,rt
+            FC00003F 00000031 - tgeu rs,rt
+            FC00003F 00000032 - tlt rs,rt
+            FC00003F 00000033 - tltu rs,rt
+            FC00003F 00000034 - teq rs,rt
+            FC00003F 00000036 - tne rs,rt
+            FFE0003F 00000038 - dsll rd,rt,SA
+            FFE0003F 0000003A - dsrl rd,rt,SA
+            FFE0003F 0000003B - dsra rd,rt,SA
+            FFE0003F 0000003C - dsll32 rd,rt,SA
+            FFE0003F 0000003E - dsrl32 rd,rt,SA
+            FFE0003F 0000003F - dsra32 rd,rt,SA
+            """;
+
+    private static final String BRANCHES = """
+            FFFF0000 04010000 j b B16
+            FFFF0000 04110000 c bal B16
+            FC1F0000 04000000 cj bltz rs,B16
+            FC1F0000 04010000 cj bgez rs,B16
+            FC1F0000 04020000 cj bltzl rs,B16
+            FC1F0000 04030000 cj bgezl rs,B16
+            FC1F0000 04100000 c bltzal rs,B16
+            FC1F0000 04110000 c bgezal rs,B16
+            FC1F0000 04120000 c bltzall rs,B16
+            FC1F0000 04130000 c bgezall rs,B16
+            FC1F0000 040C0000 - teqi rs,I16
+            FC1F0000 040E0000 - tnei rs,I16
+            FC1F0000 041F0000 - synci MEM
+            FC000000 08000000 j j J26
+            FC000000 0C000000 c jal J26
+            FFFF0000 10000000 j b B16
+            FC1F0000 10000000 cj beqz rs,B16
+            FC000000 10000000 cj beq rs,rt,B16
+            FC1F0000 14000000 cj bnez rs,B16
+            FC000000 14000000 cj bne rs,rt,B16
+            FC1F0000 18000000 cj blez rs,B16
+            FC1F0000 1C000000 cj bgtz rs,B16
+            FC1F0000 50000000 cj beqzl rs,B16
+            FC000000 50000000 cj beql rs,rt,B16
+            FC1F0000 54000000 cj bnezl rs,B16
+            FC000000 54000000 cj bnel rs,rt,B16
+            FC1F0000 58000000 cj blezl rs,B16
+            FC1F0000 5C000000 cj bgtzl rs,B16
+            FFE30000 45000000 cj bc1f B16
+            FFE30000 45010000 cj bc1t B16
+            FFE30000 45020000 cj bc1fl B16
+            FFE30000 45030000 cj bc1tl B16
+            """;
+
+    private static final String IMMEDIATES = """
+            FFE00000 24000000 - li rt,I16
+            FFE00000 34000000 - li rt,X16
+            FC000000 20000000 - addi rt,rs,I16
+            FC000000 24000000 - addiu rt,rs,I16
+            FC000000 28000000 - slti rt,rs,I16
+            FC000000 2C000000 - sltiu rt,rs,I16
+            FC000000 30000000 - andi rt,rs,X16
+            FC000000 34000000 - ori rt,rs,X16
+            FC000000 38000000 - xori rt,rs,X16
+            FFE00000 3C000000 - lui rt,X16
+            FC000000 60000000 - daddi rt,rs,I16
+            FC000000 64000000 - daddiu rt,rs,I16
+            FC00FFFF 70000000 - madd rs,rt
+            FC00FFFF 70000001 - maddu rs,rt
+            FC0007FF 70000002 - mul rd,rs,rt
+            FC00FFFF 70000004 - msub rs,rt
+            FC00FFFF 70000005 - msubu rs,rt
+            FC0007FF 70000020 - clz rd,rs
+            FC0007FF 70000021 - clo rd,rs
+            FC0007FF 70000024 - dclz rd,rs
+            FC0007FF 70000025 - dclo rd,rs
+            FC00003F 7000003F s sdbbp CODE
+            FC00003F 7C000000 - ext rt,rs,POS,SIZE
+            FC00003F 7C000004 - ins rt,rs,POS,MSB
+            FC00003F 7C000003 - dext rt,rs,POS,SIZE
+            FC00003F 7C000007 - dins rt,rs,POS,MSB
+            FC00003F 7C000002 - dextm rt,rs,POS,SIZE32
+            FC00003F 7C000001 - dextu rt,rs,POS32,SIZE
+            FC00003F 7C000005 - dinsm rt,rs,POS,MSB32
+            FC00003F 7C000006 - dinsu rt,rs,POS32,MSB
+            FFE007FF 7C000420 - seb rd,rt
+            FFE007FF 7C000620 - seh rd,rt
+            FFE007FF 7C0000A0 - wsbh rd,rt
+            FFE007FF 7C0000A4 - dsbh rd,rt
+            FFE0FFFF 7C00003B - rdhwr rt,HW
+            """;
+
+    private static final String MEMORY = """
+            FC000000 80000000 - lb rt,MEM
+            FC000000 84000000 - lh rt,MEM
+            FC000000 88000000 - lwl rt,MEM
+            FC000000 8C000000 - lw rt,MEM
+            FC000000 90000000 - lbu rt,MEM
+            FC000000 94000000 - lhu rt,MEM
+            FC000000 98000000 - lwr rt,MEM
+            FC000000 9C000000 - lwu rt,MEM
+            FC000000 A0000000 - sb rt,MEM
+            FC000000 A4000000 - sh rt,MEM
+            FC000000 A8000000 - swl rt,MEM
+            FC000000 AC000000 - sw rt,MEM
+            FC000000 B0000000 - sdl rt,MEM
+            FC000000 B4000000 - sdr rt,MEM
+            FC000000 B8000000 - swr rt,MEM
+            FC000000 BC000000 - cache HINT,MEM
+            FC000000 C0000000 - ll rt,MEM
+            FC000000 C4000000 - lwc1 ft,MEM
+            FC000000 CC000000 - pref HINT,MEM
+            FC000000 D0000000 - lld rt,MEM
+            FC000000 D4000000 - ldc1 ft,MEM
+            FC000000 DC000000 - ld rt,MEM
+            FC000000 E0000000 - sc rt,MEM
+            FC000000 E4000000 - swc1 ft,MEM
+            FC000000 F0000000 - scd rt,MEM
+            FC000000 F4000000 - sdc1 ft,MEM
+            FC000000 FC000000 - sd rt,MEM
+            FC000000 68000000 - ldl rt,MEM
+            FC000000 6C000000 - ldr rt,MEM
+            """;
+
+    private static final String COPROCESSOR = """
+            FFFFFFFF 42000018 r eret
+            FFFFFFFF 4200001F r deret
+            FE00003F 42000020 - wait
+            FFFFFFFF 42000001 - tlbr
+            FFFFFFFF 42000002 - tlbwi
+            FFFFFFFF 42000006 - tlbwr
+            FFFFFFFF 42000008 - tlbp
+            FFFFFFFF 41606000 - di
+            FFFFFFFF 41606020 - ei
+            FFE007F8 40000000 - mfc0 rt,C0
+            FFE007F8 40200000 - dmfc0 rt,C0
+            FFE007F8 40800000 - mtc0 rt,C0
+            FFE007F8 40A00000 - dmtc0 rt,C0
+            FFE007FF 44000000 - mfc1 rt,fs
+            FFE007FF 44200000 - dmfc1 rt,fs
+            FFE007FF 44400000 - cfc1 rt,HW
+            FFE007FF 44600000 - mfhc1 rt,fs
+            FFE007FF 44800000 - mtc1 rt,fs
+            FFE007FF 44A00000 - dmtc1 rt,fs
+            FFE007FF 44C00000 - ctc1 rt,HW
+            FFE007FF 44E00000 - mthc1 rt,fs
+            """;
+
+    private static final String[] FLOATING_OPERATIONS = {
+            "0 add fd,fs,ft", "1 sub fd,fs,ft", "2 mul fd,fs,ft", "3 div fd,fs,ft", "4 sqrt fd,fs", "5 abs fd,fs", "6 mov fd,fs", "7 neg fd,fs",
+            "8 round.l fd,fs", "9 trunc.l fd,fs", "A ceil.l fd,fs", "B floor.l fd,fs", "C round.w fd,fs", "D trunc.w fd,fs", "E ceil.w fd,fs", "F floor.w fd,fs"
+    };
+    private static final String[] FLOATING_CONDITIONS = {"f", "un", "eq", "ueq", "olt", "ult", "ole", "ule", "sf", "ngle", "seq", "ngl", "lt", "nge", "le", "ngt"};
+    private static final String[] FLOATING_FORMATS = {"s", "d", null, null, "w", "l"};
+
+    static final List<Entry> ENTRIES = new ArrayList<>();
+    private static final Entry[][] GROUPS = new Entry[64][];
+    private static final boolean[] COMPLETE = new boolean[64];
+
+    private static final int[][] FLOW_MASKS = new int[64][];
+    private static final int[][] FLOW_MATCHES = new int[64][];
+    private static final byte[][] FLOW_VALUES = new byte[64][];
+
+    static {
+        parse(SPECIAL);
+        parse(BRANCHES);
+        parse(IMMEDIATES);
+        parse(MEMORY);
+        parse(COPROCESSOR);
+        addFloatingPoint();
+
+        for (int opcode = 0; opcode < 64; opcode++) {
+            int bits = opcode << 26;
+            GROUPS[opcode] = ENTRIES.stream().filter(entry -> ((entry.match() ^ bits) & entry.mask() & 0xFC000000) == 0).toArray(Entry[]::new);
+            COMPLETE[opcode] = ENTRIES.stream().anyMatch(entry -> entry.match() == bits && entry.mask() == 0xFC000000);
+
+            Entry[] flow = ENTRIES.stream().filter(entry -> (entry.match() & 0xFC000000) == bits && entry.flow() != FLOW_NORMAL).toArray(Entry[]::new);
+            FLOW_MASKS[opcode] = new int[flow.length];
+            FLOW_MATCHES[opcode] = new int[flow.length];
+            FLOW_VALUES[opcode] = new byte[flow.length];
+            for (int i = 0; i < flow.length; i++) {
+                FLOW_MASKS[opcode][i] = flow[i].mask();
+                FLOW_MATCHES[opcode][i] = flow[i].match();
+                FLOW_VALUES[opcode][i] = (byte) (flow[i].flow() | flow[i].target() << 4);
+            }
+        }
+    }
+
+    private MipsDecodeTable() {
+    }
+
+    static Entry find(int word) {
+        for (Entry entry : GROUPS[word >>> 26]) {
+            if ((word & entry.mask()) == entry.match()) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    static boolean isKnown(int word) {
+        return COMPLETE[word >>> 26] || find(word) != null;
+    }
+
+    static int classify(int word) {
+        int opcode = word >>> 26;
+        int[] masks = FLOW_MASKS[opcode];
+        for (int i = 0; i < masks.length; i++) {
+            if ((word & masks[i]) == FLOW_MATCHES[opcode][i]) {
+                return FLOW_VALUES[opcode][i];
+            }
+        }
+        return FLOW_NORMAL;
+    }
+
+    static long target(int word, int targetKind, long address) {
+        return switch (targetKind) {
+            case TARGET_BRANCH -> address + 4 + ((long) (short) word << 2);
+            case TARGET_REGION -> ((address + 4) & ~0x0FFFFFFFL) | (long) (word & 0x03FFFFFF) << 2;
+            default -> -1L;
+        };
+    }
+
+    private static void parse(String table) {
+        for (String line : table.strip().split("\n")) {
+            String[] parts = line.strip().split(" ", 5);
+            add(Integer.parseUnsignedInt(parts[0], 16), Integer.parseUnsignedInt(parts[1], 16), parts[2], parts[3], parts.length > 4 ? parts[4] : "");
+        }
+    }
+
+    private static void addFloatingPoint() {
+        for (int format = 0; format < FLOATING_FORMATS.length; format++) {
+            String suffix = FLOATING_FORMATS[format];
+            if (suffix == null) {
+                continue;
+            }
+            int base = 0x46000000 | format << 21;
+            if (format < 2) {
+                for (String operation : FLOATING_OPERATIONS) {
+                    String[] parts = operation.split(" ");
+                    add(0xFFE0003F, base | Integer.parseInt(parts[0], 16), "-", parts[1] + "." + suffix, parts[2]);
+                }
+                for (int condition = 0; condition < 16; condition++) {
+                    add(0xFFE000FF, base | 0x30 | condition, "-", "c." + FLOATING_CONDITIONS[condition] + "." + suffix, "fs,ft");
+                }
+                add(0xFFE0003F, base | 0x24, "-", "cvt.w." + suffix, "fd,fs");
+                add(0xFFE0003F, base | 0x25, "-", "cvt.l." + suffix, "fd,fs");
+            }
+            if (format != 0) {
+                add(0xFFE0003F, base | 0x20, "-", "cvt.s." + suffix, "fd,fs");
+            }
+            if (format != 1) {
+                add(0xFFE0003F, base | 0x21, "-", "cvt.d." + suffix, "fd,fs");
+            }
+        }
+    }
+
+    private static void add(int mask, int match, String flow, String mnemonic, String operands) {
+        int flowType = switch (flow) {
+            case "j" -> FLOW_JUMP;
+            case "c" -> FLOW_CALL;
+            case "cj" -> FLOW_CONDITIONAL;
+            case "r" -> FLOW_RETURN;
+            case "s" -> FLOW_SYSTEM;
+            case "n" -> FLOW_NOP;
+            default -> FLOW_NORMAL;
+        };
+        String[] tokens = operands.isEmpty() ? new String[0] : operands.split(",");
+        int target = TARGET_NONE;
+        for (String token : tokens) {
+            target = switch (token) {
+                case "B16" -> TARGET_BRANCH;
+                case "J26" -> TARGET_REGION;
+                default -> target;
+            };
+        }
+        ENTRIES.add(new Entry(mask, match, flowType, target, mnemonic, tokens));
+    }
+
+    record Entry(int mask, int match, int flow, int target, String mnemonic, String[] operands) {
+    }
+}
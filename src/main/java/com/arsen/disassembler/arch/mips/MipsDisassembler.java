@@ -1,12 +1,22 @@
 package com.arsen.disassembler.arch.mips;
 
+import com.arsen.disassembler.DecodeBatch;
 import com.arsen.disassembler.IDisassembler;
+import com.arsen.loader.io.ByteSource;
 import com.arsen.model.Address;
 import com.arsen.model.Architecture;
+import com.arsen.model.Endianness;
 import com.arsen.model.disassembly.Instruction;
 import com.arsen.model.disassembly.InstructionType;
 
-public record MipsDisassembler(Architecture architecture) implements IDisassembler {
+import java.util.Arrays;
+
+public record MipsDisassembler(Architecture architecture, Endianness endianness) implements IDisassembler {
+    private static final InstructionType[] FLOW_TYPES = {InstructionType.NORMAL, InstructionType.JUMP, InstructionType.CONDITIONAL_JUMP, InstructionType.CALL, InstructionType.RETURN, InstructionType.SYSTEM, InstructionType.NOP};
+
+    public MipsDisassembler(Architecture architecture) {
+        this(architecture, Endianness.LITTLE);
+    }
 
     @Override
     public Instruction disassemble(Address address, byte[] data, int offset) {
@@ -14,16 +24,85 @@ public record MipsDisassembler(Architecture architecture) implements IDisassembl
             return createInvalidInstruction(address);
         }
 
-        int instrWord = ((data[offset + 3] & 0xFF) << 24) | ((data[offset + 2] & 0xFF) << 16) | ((data[offset + 1] & 0xFF) << 8) | (data[offset] & 0xFF);
+        int word = readWord(data, offset);
+        int flow = MipsDecodeTable.classify(word);
+        long target = MipsDecodeTable.target(word, flow >>> 4, address.value());
+        MipsInstructionFormatter formatter = new MipsInstructionFormatter(word, address.value());
+
+        return Instruction.builder().address(address).bytes(Arrays.copyOfRange(data, offset, offset + 4)).mnemonic(formatter.mnemonic()).operands(formatter.operands()).size(4).type(FLOW_TYPES[flow & 0xF]).targetAddress(target == -1L ? null : Address.of(target)).build();
+    }
+
+    @Override
+    public int decode(byte[] data, int offset, int limit, long address, DecodeBatch batch) {
+        if (offset + 4 > limit) {
+            batch.add(address, 4, InstructionType.NORMAL, DecodeBatch.NO_TARGET, DecodeBatch.STATUS_TRUNCATED);
+            return 4;
+        }
+
+        int word = readWord(data, offset);
+        int flow = MipsDecodeTable.classify(word);
+        batch.add(address, 4, FLOW_TYPES[flow & 0xF], flow >>> 4 == MipsDecodeTable.TARGET_NONE ? DecodeBatch.NO_TARGET : MipsDecodeTable.target(word, flow >>> 4, address), MipsDecodeTable.isKnown(word) ? DecodeBatch.STATUS_OK : DecodeBatch.STATUS_UNKNOWN);
+        return 4;
+    }
+
+    @Override
+    public DecodeBatch decodeRange(Address start, ByteSource source) {
+        long size = Math.min(source.size(), Integer.MAX_VALUE) & ~3L;
+        DecodeBatch batch = new DecodeBatch(this, source, start.value(), (int) (size / 4));
+        byte[] window = new byte[DECODE_WINDOW_SIZE];
+        long[] constants = new long[32];
+        int known = 0;
+
+        for (long offset = 0; offset < size; ) {
+            int length = source.read(offset, window, 0, (int) Math.min(window.length, size - offset)) & ~3;
+            if (length <= 0) {
+                break;
+            }
+            long address = start.value() + offset;
+            for (int position = 0; position < length; position += 4) {
+                int word = readWord(window, position);
+                int flow = MipsDecodeTable.classify(word);
+                long target = flow >>> 4 == MipsDecodeTable.TARGET_NONE ? DecodeBatch.NO_TARGET : MipsDecodeTable.target(word, flow >>> 4, address + position);
+
+                int opcode = word >>> 26;
+                int rs = (word >>> 21) & 0x1F;
+                int rt = (word >>> 16) & 0x1F;
+                if (target == DecodeBatch.NO_TARGET && opcode == 0 && (word & 0x3E) == 0x08 && rs != 31 && (known & (1 << rs)) != 0) {
+                    target = constants[rs];
+                }
 
-        byte[] instrBytes = new byte[4];
-        System.arraycopy(data, offset, instrBytes, 0, 4);
+                if (opcode == 0x0F) {
+                    constants[rt] = (long) (word << 16) & 0xFFFFFFFFL;
+                    known |= 1 << rt;
+                } else if ((opcode == 0x09 || opcode == 0x19 || opcode == 0x0D) && rs == rt && (known & (1 << rs)) != 0) {
+                    constants[rt] = (opcode == 0x0D ? constants[rs] | (word & 0xFFFF) : constants[rs] + (short) word) & 0xFFFFFFFFL;
+                } else if (word != 0) {
+                    known = 0;
+                }
 
-        if (instrWord == 0x00000000) {
-            return Instruction.builder().address(address).bytes(instrBytes).mnemonic("nop").size(4).type(InstructionType.NOP).build();
+                batch.add(address + position, 4, FLOW_TYPES[flow & 0xF], target, MipsDecodeTable.isKnown(word) ? DecodeBatch.STATUS_OK : DecodeBatch.STATUS_UNKNOWN);
+            }
+            offset += length;
         }
 
-        return Instruction.builder().address(address).bytes(instrBytes).mnemonic(String.format(".word 0x%08X", instrWord)).size(4).type(InstructionType.NORMAL).build();
+        return batch;
+    }
+
+    @Override
+    public boolean hasDelaySlots() {
+        return true;
+    }
+
+    @Override
+    public int decodeMode(long address) {
+        return architecture.ordinal() | endianness.ordinal() << 8;
+    }
+
+    private int readWord(byte[] data, int offset) {
+        if (endianness == Endianness.BIG) {
+            return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16) | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+        }
+        return ((data[offset + 3] & 0xFF) << 24) | ((data[offset + 2] & 0xFF) << 16) | ((data[offset + 1] & 0xFF) << 8) | (data[offset] & 0xFF);
     }
 
     private Instruction createInvalidInstruction(Address address) {
@@ -0,0 +1,130 @@
+package com.arsen.disassembler.arch.mips;
+
+import com.arsen.model.Address;
+import com.arsen.model.disassembly.Operand;
+import com.arsen.model.disassembly.OperandType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class MipsInstructionFormatter {
+    private static final String[] REGISTERS = {"zero", "at", "v0", "v1", "a0", "a1", "a2", "a3", "t0", "t1", "t2", "t3", "t4", "t5", "t6", "t7", "s0", "s1", "s2", "s3", "s4", "s5", "s6", "s7", "t8", "t9", "k0", "k1", "gp", "sp", "fp", "ra"};
+
+    private final int word;
+    private final long address;
+
+    private String mnemonic;
+    private String[] tokens;
+
+    MipsInstructionFormatter(int word, long address) {
+        this.word = word;
+        this.address = address;
+
+        MipsDecodeTable.Entry entry = MipsDecodeTable.find(word);
+        if (entry == null) {
+            this.mnemonic = ".word";
+            this.tokens = new String[]{"WORD"};
+            return;
+        }
+
+        this.mnemonic = entry.mnemonic();
+        this.tokens = entry.operands();
+        applyAlias();
+    }
+
+    String mnemonic() {
+        return mnemonic;
+    }
+
+    List<Operand> operands() {
+        List<Operand> operands = new ArrayList<>(tokens.length);
+        for (String token : tokens) {
+            operands.add(operand(token));
+        }
+        return operands;
+    }
+
+    private void applyAlias() {
+        int rs = field(21, 5);
+        int rt = field(16, 5);
+        int rd = field(11, 5);
+
+        switch (mnemonic) {
+            case "addu", "daddu", "or" -> {
+                if (rt == 0) {
+                    alias("move", "rd", "rs");
+                } else if (rs == 0 && mnemonic.equals("or")) {
+                    alias("move", "rd", "rt");
+                }
+            }
+            case "subu", "dsubu" -> {
+                if (rs == 0) {
+                    alias(mnemonic.equals("subu") ? "negu" : "dnegu", "rd", "rt");
+                }
+            }
+            case "nor" -> {
+                if (rt == 0) {
+                    alias("not", "rd", "rs");
+                }
+            }
+            case "jalr" -> {
+                if (rd == 31) {
+                    alias("jalr", "rs");
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void alias(String name, String... operands) {
+        this.mnemonic = name;
+        this.tokens = operands;
+    }
+
+    private Operand operand(String token) {
+        return switch (token) {
+            case "rs" -> register(REGISTERS[field(21, 5)]);
+            case "rt" -> register(REGISTERS[field(16, 5)]);
+            case "rd" -> register(REGISTERS[field(11, 5)]);
+            case "zero" -> register("zero");
+            case "ra" -> register("ra");
+            case "fs" -> register("$f" + field(11, 5));
+            case "ft" -> register("$f" + field(16, 5));
+            case "fd" -> register("$f" + field(6, 5));
+            case "HW" -> register("$" + field(11, 5));
+            case "C0" -> register(field(0, 3) == 0 ? "$" + field(11, 5) : "$" + field(11, 5) + "," + field(0, 3));
+            case "SA", "POS", "HINT" -> immediate(token.equals("HINT") ? field(16, 5) : field(6, 5));
+            case "POS32" -> immediate(field(6, 5) + 32);
+            case "SIZE" -> immediate(field(11, 5) + 1);
+            case "SIZE32" -> immediate(field(11, 5) + 33);
+            case "MSB" -> immediate(field(11, 5) - field(6, 5) + 1);
+            case "MSB32" -> immediate(field(11, 5) + 32 - field(6, 5) + 1);
+            case "CODE" -> immediate(field(6, 20));
+            case "I16" -> immediate((short) word);
+            case "X16" -> {
+                int value = word & 0xFFFF;
+                yield Operand.builder().type(OperandType.IMMEDIATE).text(value > 9 ? "0x" + Integer.toHexString(value) : Integer.toString(value)).value(value).build();
+            }
+            case "MEM" -> Operand.builder().type(OperandType.MEMORY).text((short) word + "(" + REGISTERS[field(21, 5)] + ")").value((short) word).build();
+            case "B16", "J26" -> {
+                Address target = Address.of(MipsDecodeTable.target(word, token.equals("B16") ? MipsDecodeTable.TARGET_BRANCH : MipsDecodeTable.TARGET_REGION, address));
+                yield Operand.builder().type(OperandType.IMMEDIATE).text(target.toString()).value(target.value()).build();
+            }
+            case "WORD" -> Operand.builder().type(OperandType.IMMEDIATE).text(String.format("0x%08x", word)).value(word & 0xFFFFFFFFL).build();
+            default -> register(token);
+        };
+    }
+
+    private int field(int shift, int width) {
+        return (word >>> shift) & ((1 << width) - 1);
+    }
+
+    private static Operand register(String name) {
+        return Operand.builder().type(OperandType.REGISTER).text(name).build();
+    }
+
+    private static Operand immediate(long value) {
+        return Operand.builder().type(OperandType.IMMEDIATE).text(Long.toString(value)).value(value).build();
+    }
+}
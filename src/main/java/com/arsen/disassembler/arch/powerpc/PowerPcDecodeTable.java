@@ -0,0 +1,346 @@
+package com.arsen.disassembler.arch.powerpc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class PowerPcDecodeTable {
+    static final int FLOW_NORMAL = 0;
+    static final int FLOW_JUMP = 1;
+    static final int FLOW_CONDITIONAL = 2;
+    static final int FLOW_CALL = 3;
+    static final int FLOW_RETURN = 4;
+    static final int FLOW_SYSTEM = 5;
+    static final int FLOW_NOP = 6;
+    private static final int FLOW_BRANCH_CONDITIONAL = 8;
+    private static final int FLOW_BRANCH_LINK_REGISTER = 9;
+    private static final int FLOW_BRANCH_COUNT_REGISTER = 10;
+    private static final int FLOW_TRAP = 11;
+
+    static final int TARGET_NONE = 0;
+    static final int TARGET_LONG = 1;
+    static final int TARGET_CONDITIONAL = 2;
+
+    private static final String BRANCHES = """
+            FC000001 48000000 j b LI
+            FC000001 48000001 c bl LI
+            FC000000 40000000 B bc BD
+            FC0007FE 4C000020 L bclr BR
+            FC0007FE 4C000420 T bcctr BR
+            FFFFFFFF 44000002 s sc
+            FFFFFFFF 4C000064 r rfi
+            FFFFFFFF 4C000024 r rfid
+            FFFFFFFF 7FE00008 s trap
+            FC0007FE 7C000008 t tw TO,ra,rb
+            FC0007FE 7C000088 t td TO,ra,rb
+            FC000000 0C000000 - twi TO,ra,SI
+            FC000000 08000000 - tdi TO,ra,SI
+            FFFFFFFF 60000000 n nop
+            """;
+
+    private static final String IMMEDIATES = """
+            FC1F0000 38000000 - li rt,SI
+            FC1F0000 3C000000 - lis rt,UI
+            FC000000 38000000 - addi rt,ra,SI
+            FC000000 3C000000 - addis rt,ra,SI
+            FC000000 30000000 - addic rt,ra,SI
+            FC000000 34000000 - addic. rt,ra,SI
+            FC000000 20000000 - subfic rt,ra,SI
+            FC000000 1C000000 - mulli rt,ra,SI
+            FC200000 28000000 - cmplwi CRF,ra,UI
+            FC200000 28200000 - cmpldi CRF,ra,UI
+            FC200000 2C000000 - cmpwi CRF,ra,SI
+            FC200000 2C200000 - cmpdi CRF,ra,SI
+            FC000000 60000000 - ori ra,rs,UI
+            FC000000 64000000 - oris ra,rs,UI
+            FC000000 68000000 - xori ra,rs,UI
+            FC000000 6C000000 - xoris ra,rs,UI
+            FC000000 70000000 - andi. ra,rs,UI
+            FC000000 74000000 - andis. ra,rs,UI
+            FC000000 54000000 - rlwinm{.} ra,rs,SH,MB,ME
+            FC000000 50000000 - rlwimi{.} ra,rs,SH,MB,ME
+            FC000000 5C000000 - rlwnm{.} ra,rs,rb,MB,ME
+            FC00001C 78000000 - rldicl{.} ra,rs,SH6,MB6
+            FC00001C 78000004 - rldicr{.} ra,rs,SH6,MB6
+            FC00001C 78000008 - rldic{.} ra,rs,SH6,MB6
+            FC00001C 7800000C - rldimi{.} ra,rs,SH6,MB6
+            """;
+
+    private static final String MEMORY = """
+            FC000000 80000000 - lwz rt,D
+            FC000000 84000000 - lwzu rt,D
+            FC000000 88000000 - lbz rt,D
+            FC000000 8C000000 - lbzu rt,D
+            FC000000 90000000 - stw rt,D
+            FC000000 94000000 - stwu rt,D
+            FC000000 98000000 - stb rt,D
+            FC000000 9C000000 - stbu rt,D
+            FC000000 A0000000 - lhz rt,D
+            FC000000 A4000000 - lhzu rt,D
+            FC000000 A8000000 - lha rt,D
+            FC000000 AC000000 - lhau rt,D
+            FC000000 B0000000 - sth rt,D
+            FC000000 B4000000 - sthu rt,D
+            FC000000 B8000000 - lmw rt,D
+            FC000000 BC000000 - stmw rt,D
+            FC000000 C0000000 - lfs ft,D
+            FC000000 C4000000 - lfsu ft,D
+            FC000000 C8000000 - lfd ft,D
+            FC000000 CC000000 - lfdu ft,D
+            FC000000 D0000000 - stfs ft,D
+            FC000000 D4000000 - stfsu ft,D
+            FC000000 D8000000 - stfd ft,D
+            FC000000 DC000000 - stfdu ft,D
+            FC000003 E8000000 - ld rt,DS
+            FC000003 E8000001 - ldu rt,DS
+            FC000003 E8000002 - lwa rt,DS
+            FC000003 F8000000 - std rt,DS
+            FC000003 F8000001 - stdu rt,DS
+            """;
+
+    private static final String EXTENDED = """
+            FC1FFFFF 7C0802A6 - mflr rt
+            FC1FFFFF 7C0803A6 - mtlr rt
+            FC1FFFFF 7C0902A6 - mfctr rt
+            FC1FFFFF 7C0903A6 - mtctr rt
+            FC1FFFFF 7C0102A6 - mfxer rt
+            FC1FFFFF 7C0103A6 - mtxer rt
+            FC0007FE 7C0002A6 - mfspr rt,SPR
+            FC0007FE 7C0003A6 - mtspr SPR,rt
+            FC0007FE 7C0002E6 - mftb rt,SPR
+            FC1FFFFF 7C000026 - mfcr rt
+            FC100FFF 7C000120 - mtcrf CRM,rt
+            FC100FFF 7C100120 - mtocrf CRM,rt
+            FC100FFF 7C100026 - mfocrf rt,CRM
+            FC1FFFFF 7C0000A6 - mfmsr rt
+            FC1FFFFF 7C000124 - mtmsr rt
+            FC1FFFFF 7C000164 - mtmsrd rt
+            FFFFFFFF 7C0004AC - sync
+            FFFFFFFF 7C2004AC - lwsync
+            FFFFFFFF 7C0006AC - eieio
+            FFFFFFFF 4C00012C - isync
+            FC63FFFF 4C000000 - mcrf CRF,CRS
+            FC0007FE 4C000182 - crxor BT,BA,BB
+            FC0007FE 4C000382 - cror BT,BA,BB
+            FC0007FE 4C000242 - creqv BT,BA,BB
+            FC0007FE 4C000202 - crand BT,BA,BB
+            FC0007FE 4C000042 - crnor BT,BA,BB
+            FFE007FE 7C0007AC - icbi ra,rb
+            FFE007FE 7C0000AC - dcbf ra,rb
+            FFE007FE 7C00006C - dcbst ra,rb
+            FFE007FE 7C00022C - dcbt ra,rb
+            FFE007FE 7C0007EC - dcbz ra,rb
+            FC0003FE 7C000214 - add{o}{.} rt,ra,rb
+            FC0003FE 7C000050 - subf{o}{.} rt,ra,rb
+            FC0003FE 7C000010 - subfc{o}{.} rt,ra,rb
+            FC0003FE 7C000110 - subfe{o}{.} rt,ra,rb
+            FC0003FE 7C000014 - addc{o}{.} rt,ra,rb
+            FC0003FE 7C000114 - adde{o}{.} rt,ra,rb
+            FC00FBFE 7C000194 - addze{o}{.} rt,ra
+            FC00FBFE 7C0001D4 - addme{o}{.} rt,ra
+            FC00FBFE 7C000190 - subfze{o}{.} rt,ra
+            FC00FBFE 7C0001D0 - subfme{o}{.} rt,ra
+            FC00FBFE 7C0000D0 - neg{o}{.} rt,ra
+            FC0003FE 7C0001D6 - mullw{o}{.} rt,ra,rb
+            FC0003FE 7C0001D2 - mulld{o}{.} rt,ra,rb
+            FC0003FE 7C0003D6 - divw{o}{.} rt,ra,rb
+            FC0003FE 7C000396 - divwu{o}{.} rt,ra,rb
+            FC0003FE 7C0003D2 - divd{o}{.} rt,ra,rb
+            FC0003FE 7C000392 - divdu{o}{.} rt,ra,rb
+            FC0007FE 7C000096 - mulhw{.} rt,ra,rb
+            FC0007FE 7C000016 - mulhwu{.} rt,ra,rb
+            FC0007FE 7C000092 - mulhd{.} rt,ra,rb
+            FC0007FE 7C000012 - mulhdu{.} rt,ra,rb
+            FC0007FE 7C000038 - and{.} ra,rs,rb
+            FC0007FE 7C000078 - andc{.} ra,rs,rb
+            FC0007FE 7C000378 - or{.} ra,rs,rb
+            FC0007FE 7C0000F8 - nor{.} ra,rs,rb
+            FC0007FE 7C000278 - xor{.} ra,rs,rb
+            FC0007FE 7C0003B8 - nand{.} ra,rs,rb
+            FC0007FE 7C000238 - eqv{.} ra,rs,rb
+            FC0007FE 7C000338 - orc{.} ra,rs,rb
+            FC0007FE 7C000030 - slw{.} ra,rs,rb
+            FC0007FE 7C000430 - srw{.} ra,rs,rb
+            FC0007FE 7C000630 - sraw{.} ra,rs,rb
+            FC0007FE 7C000670 - srawi{.} ra,rs,SH
+            FC0007FE 7C000036 - sld{.} ra,rs,rb
+            FC0007FE 7C000436 - srd{.} ra,rs,rb
+            FC0007FE 7C000634 - srad{.} ra,rs,rb
+            FC0007FC 7C000674 - sradi{.} ra,rs,SH6
+            FC00FFFE 7C000034 - cntlzw{.} ra,rs
+            FC00FFFE 7C000074 - cntlzd{.} ra,rs
+            FC00FFFE 7C000734 - extsh{.} ra,rs
+            FC00FFFE 7C000774 - extsb{.} ra,rs
+            FC00FFFE 7C0007B4 - extsw{.} ra,rs
+            FC6007FF 7C000000 - cmpw CRF,ra,rb
+            FC6007FF 7C200000 - cmpd CRF,ra,rb
+            FC6007FF 7C000040 - cmplw CRF,ra,rb
+            FC6007FF 7C200040 - cmpld CRF,ra,rb
+            FC00003E 7C00001E - isel rt,ra,rb,BC
+            FC0007FF 7C000028 - lwarx rt,ra,rb
+            FC0007FF 7C00012D - stwcx. rt,ra,rb
+            FC0007FF 7C0000A8 - ldarx rt,ra,rb
+            FC0007FF 7C0001AD - stdcx. rt,ra,rb
+            FC0007FE 7C00002E - lwzx rt,ra,rb
+            FC0007FE 7C00006E - lwzux rt,ra,rb
+            FC0007FE 7C0000AE - lbzx rt,ra,rb
+            FC0007FE 7C00022E - lhzx rt,ra,rb
+            FC0007FE 7C0002AE - lhax rt,ra,rb
+            FC0007FE 7C0002AA - lwax rt,ra,rb
+            FC0007FE 7C00002A - ldx rt,ra,rb
+            FC0007FE 7C00006A - ldux rt,ra,rb
+            FC0007FE 7C00012E - stwx rt,ra,rb
+            FC0007FE 7C00016E - stwux rt,ra,rb
+            FC0007FE 7C0001AE - stbx rt,ra,rb
+            FC0007FE 7C00032E - sthx rt,ra,rb
+            FC0007FE 7C00012A - stdx rt,ra,rb
+            FC0007FE 7C00016A - stdux rt,ra,rb
+            FC0007FE 7C00042C - lwbrx rt,ra,rb
+            FC0007FE 7C00052C - stwbrx rt,ra,rb
+            FC0007FE 7C00042E - lfsx ft,ra,rb
+            FC0007FE 7C0004AE - lfdx ft,ra,rb
+            FC0007FE 7C00052E - stfsx ft,ra,rb
+            FC0007FE 7C0005AE - stfdx ft,ra,rb
+            FC0007FE 7C0000CE - lvx vt,ra,rb
+            FC0007FE 7C0001CE - stvx vt,ra,rb
+            FC00FFFE 7C000066 - mfvsrd ra,xt
+            FC00FFFE 7C000166 - mtvsrd xt,ra
+            FC1F07FE FC000090 - fmr{.} ft,fb
+            FC1F07FE FC000050 - fneg{.} ft,fb
+            FC1F07FE FC000210 - fabs{.} ft,fb
+            FC1F07FE FC000018 - frsp{.} ft,fb
+            FC1F07FE FC00001E - fctiwz{.} ft,fb
+            FC1F07FE FC00065E - fctidz{.} ft,fb
+            FC1F07FE FC00069C - fcfid{.} ft,fb
+            FC6007FF FC000000 - fcmpu CRF,fa,fb
+            FC6007FF FC000040 - fcmpo CRF,fa,fb
+            FC00003E FC00002A - fadd{.} ft,fa,fb
+            FC00003E FC000028 - fsub{.} ft,fa,fb
+            FC00003E FC000032 - fmul{.} ft,fa,fc
+            FC00003E FC000024 - fdiv{.} ft,fa,fb
+            FC00003E FC00003A - fmadd{.} ft,fa,fc,fb
+            FC00003E FC000038 - fmsub{.} ft,fa,fc,fb
+            FC00003E EC00002A - fadds{.} ft,fa,fb
+            FC00003E EC000028 - fsubs{.} ft,fa,fb
+            FC00003E EC000032 - fmuls{.} ft,fa,fc
+            FC00003E EC000024 - fdivs{.} ft,fa,fb
+            FC00003E EC00003A - fmadds{.} ft,fa,fc,fb
+            """;
+
+    static final List<Entry> ENTRIES = new ArrayList<>();
+    private static final Entry[][] GROUPS = new Entry[64][];
+    private static final boolean[] COMPLETE = new boolean[64];
+
+    private static final int[][] FLOW_MASKS = new int[64][];
+    private static final int[][] FLOW_MATCHES = new int[64][];
+    private static final byte[][] FLOW_VALUES = new byte[64][];
+
+    static {
+        parse(BRANCHES);
+        parse(IMMEDIATES);
+        parse(MEMORY);
+        parse(EXTENDED);
+
+        for (int opcode = 0; opcode < 64; opcode++) {
+            int bits = opcode << 26;
+            GROUPS[opcode] = ENTRIES.stream().filter(entry -> ((entry.match() ^ bits) & entry.mask() & 0xFC000000) == 0).toArray(Entry[]::new);
+            COMPLETE[opcode] = ENTRIES.stream().anyMatch(entry -> entry.match() == bits && entry.mask() == 0xFC000000);
+
+            Entry[] flow = ENTRIES.stream().filter(entry -> (entry.match() & 0xFC000000) == bits && entry.flow() != FLOW_NORMAL).toArray(Entry[]::new);
+            FLOW_MASKS[opcode] = new int[flow.length];
+            FLOW_MATCHES[opcode] = new int[flow.length];
+            FLOW_VALUES[opcode] = new byte[flow.length];
+            for (int i = 0; i < flow.length; i++) {
+                FLOW_MASKS[opcode][i] = flow[i].mask();
+                FLOW_MATCHES[opcode][i] = flow[i].match();
+                FLOW_VALUES[opcode][i] = (byte) (flow[i].flow() | flow[i].target() << 4);
+            }
+        }
+    }
+
+    private PowerPcDecodeTable() {
+    }
+
+    static Entry find(int word) {
+        for (Entry entry : GROUPS[word >>> 26]) {
+            if ((word & entry.mask()) == entry.match()) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    static boolean isKnown(int word) {
+        return COMPLETE[word >>> 26] || find(word) != null;
+    }
+
+    static int classify(int word) {
+        int opcode = word >>> 26;
+        int[] masks = FLOW_MASKS[opcode];
+        for (int i = 0; i < masks.length; i++) {
+            if ((word & masks[i]) == FLOW_MATCHES[opcode][i]) {
+                int value = FLOW_VALUES[opcode][i];
+                return resolveFlow(value & 0xF, word) | value & 0xF0;
+            }
+        }
+        return FLOW_NORMAL;
+    }
+
+    static long target(int word, int targetKind, long address) {
+        return switch (targetKind) {
+            case TARGET_LONG -> ((word & 2) != 0 ? 0 : address) + (word << 6 >> 6 & ~3);
+            case TARGET_CONDITIONAL -> ((word & 2) != 0 ? 0 : address) + ((short) word & ~3);
+            default -> -1L;
+        };
+    }
+
+    static boolean branchesAlways(int word) {
+        return (word & 0x02800000) == 0x02800000;
+    }
+
+    private static int resolveFlow(int flow, int word) {
+        boolean link = (word & 1) != 0;
+        return switch (flow) {
+            case FLOW_BRANCH_CONDITIONAL -> link ? (branchesAlways(word) && (word & 0xFFFF) == 5 ? FLOW_NORMAL : FLOW_CALL) : branchesAlways(word) ? FLOW_JUMP : FLOW_CONDITIONAL;
+            case FLOW_BRANCH_LINK_REGISTER -> link ? FLOW_CALL : branchesAlways(word) ? FLOW_RETURN : FLOW_CONDITIONAL;
+            case FLOW_BRANCH_COUNT_REGISTER -> link ? FLOW_CALL : branchesAlways(word) ? FLOW_JUMP : FLOW_CONDITIONAL;
+            case FLOW_TRAP -> ((word >>> 21) & 0x1F) == 0x1F ? FLOW_SYSTEM : FLOW_NORMAL;
+            default -> flow;
+        };
+    }
+
+    private static void parse(String table) {
+        for (String line : table.strip().split("\n")) {
+            String[] parts = line.strip().split(" ", 5);
+            add(Integer.parseUnsignedInt(parts[0], 16), Integer.parseUnsignedInt(parts[1], 16), parts[2], parts[3], parts.length > 4 ? parts[4] : "");
+        }
+    }
+
+    private static void add(int mask, int match, String flow, String mnemonic, String operands) {
+        int flowType = switch (flow) {
+            case "j" -> FLOW_JUMP;
+            case "c" -> FLOW_CALL;
+            case "cj" -> FLOW_CONDITIONAL;
+            case "r" -> FLOW_RETURN;
+            case "s" -> FLOW_SYSTEM;
+            case "n" -> FLOW_NOP;
+            case "B" -> FLOW_BRANCH_CONDITIONAL;
+            case "L" -> FLOW_BRANCH_LINK_REGISTER;
+            case "T" -> FLOW_BRANCH_COUNT_REGISTER;
+            case "t" -> FLOW_TRAP;
+            default -> FLOW_NORMAL;
+        };
+        String[] tokens = operands.isEmpty() ? new String[0] : operands.split(",");
+        int target = TARGET_NONE;
+        for (String token : tokens) {
+            target = switch (token) {
+                case "LI" -> TARGET_LONG;
+                case "BD" -> TARGET_CONDITIONAL;
+                default -> target;
+            };
+        }
+        ENTRIES.add(new Entry(mask, match, flowType, target, mnemonic, tokens));
+    }
+
+    record Entry(int mask, int match, int flow, int target, String mnemonic, String[] operands) {
+    }
+}
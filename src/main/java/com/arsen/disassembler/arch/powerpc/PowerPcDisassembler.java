@@ -1,12 +1,22 @@
 package com.arsen.disassembler.arch.powerpc;
 
+import com.arsen.disassembler.DecodeBatch;
 import com.arsen.disassembler.IDisassembler;
+import com.arsen.loader.io.ByteSource;
 import com.arsen.model.Address;
 import com.arsen.model.Architecture;
+import com.arsen.model.Endianness;
 import com.arsen.model.disassembly.Instruction;
 import com.arsen.model.disassembly.InstructionType;
 
-public record PowerPcDisassembler(Architecture architecture) implements IDisassembler {
+import java.util.Arrays;
+
+public record PowerPcDisassembler(Architecture architecture, Endianness endianness) implements IDisassembler {
+    private static final InstructionType[] FLOW_TYPES = {InstructionType.NORMAL, InstructionType.JUMP, InstructionType.CONDITIONAL_JUMP, InstructionType.CALL, InstructionType.RETURN, InstructionType.SYSTEM, InstructionType.NOP};
+
+    public PowerPcDisassembler(Architecture architecture) {
+        this(architecture, Endianness.BIG);
+    }
 
     @Override
     public Instruction disassemble(Address address, byte[] data, int offset) {
@@ -14,16 +24,88 @@ public record PowerPcDisassembler(Architecture architecture) implements IDisasse
             return createInvalidInstruction(address);
         }
 
-        int instrWord = ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16) | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+        int word = readWord(data, offset);
+        int flow = PowerPcDecodeTable.classify(word);
+        long target = PowerPcDecodeTable.target(word, flow >>> 4, address.value());
+        PowerPcInstructionFormatter formatter = new PowerPcInstructionFormatter(word, address.value());
 
-        byte[] instrBytes = new byte[4];
-        System.arraycopy(data, offset, instrBytes, 0, 4);
+        return Instruction.builder().address(address).bytes(Arrays.copyOfRange(data, offset, offset + 4)).mnemonic(formatter.mnemonic()).operands(formatter.operands()).size(4).type(FLOW_TYPES[flow & 0xF]).targetAddress(target == -1L ? null : Address.of(target)).build();
+    }
 
-        if (instrWord == 0x60000000) {
-            return Instruction.builder().address(address).bytes(instrBytes).mnemonic("nop").size(4).type(InstructionType.NOP).build();
+    @Override
+    public int decode(byte[] data, int offset, int limit, long address, DecodeBatch batch) {
+        if (offset + 4 > limit) {
+            batch.add(address, 4, InstructionType.NORMAL, DecodeBatch.NO_TARGET, DecodeBatch.STATUS_TRUNCATED);
+            return 4;
         }
 
-        return Instruction.builder().address(address).bytes(instrBytes).mnemonic(String.format(".long 0x%08X", instrWord)).size(4).type(InstructionType.NORMAL).build();
+        int word = readWord(data, offset);
+        int flow = PowerPcDecodeTable.classify(word);
+        batch.add(address, 4, FLOW_TYPES[flow & 0xF], flow >>> 4 == PowerPcDecodeTable.TARGET_NONE ? DecodeBatch.NO_TARGET : PowerPcDecodeTable.target(word, flow >>> 4, address), PowerPcDecodeTable.isKnown(word) ? DecodeBatch.STATUS_OK : DecodeBatch.STATUS_UNKNOWN);
+        return 4;
+    }
+
+    @Override
+    public DecodeBatch decodeRange(Address start, ByteSource source) {
+        long size = Math.min(source.size(), Integer.MAX_VALUE) & ~3L;
+        DecodeBatch batch = new DecodeBatch(this, source, start.value(), (int) (size / 4));
+        byte[] window = new byte[DECODE_WINDOW_SIZE];
+        long[] constants = new long[32];
+        int known = 0;
+        long counter = DecodeBatch.NO_TARGET;
+
+        for (long offset = 0; offset < size; ) {
+            int length = source.read(offset, window, 0, (int) Math.min(window.length, size - offset)) & ~3;
+            if (length <= 0) {
+                break;
+            }
+            long address = start.value() + offset;
+            for (int position = 0; position < length; position += 4) {
+                int word = readWord(window, position);
+                int flow = PowerPcDecodeTable.classify(word);
+                long target = flow >>> 4 == PowerPcDecodeTable.TARGET_NONE ? DecodeBatch.NO_TARGET : PowerPcDecodeTable.target(word, flow >>> 4, address + position);
+
+                int opcode = word >>> 26;
+                int rt = (word >>> 21) & 0x1F;
+                int ra = (word >>> 16) & 0x1F;
+                if ((word & 0xFC0007FE) == 0x4C000420 && (flow & 0xF) != PowerPcDecodeTable.FLOW_CONDITIONAL) {
+                    target = counter;
+                }
+
+                if (opcode == 0x0F && ra == 0) {
+                    constants[rt] = (long) (word << 16) & 0xFFFFFFFFL;
+                    known |= 1 << rt;
+                } else if (opcode == 0x0E && ra == rt && ra != 0 && (known & (1 << ra)) != 0) {
+                    constants[rt] = (constants[ra] + (short) word) & 0xFFFFFFFFL;
+                } else if (opcode == 0x18 && ra == rt && (known & (1 << ra)) != 0) {
+                    constants[ra] = constants[rt] | (word & 0xFFFF);
+                } else if ((word & 0xFC1FFFFF) == 0x7C0903A6) {
+                    counter = (known & (1 << rt)) != 0 ? constants[rt] : DecodeBatch.NO_TARGET;
+                } else if (word != 0x60000000) {
+                    known = 0;
+                }
+                if ((flow & 0xF) != PowerPcDecodeTable.FLOW_NORMAL && (flow & 0xF) != PowerPcDecodeTable.FLOW_NOP) {
+                    counter = DecodeBatch.NO_TARGET;
+                }
+
+                batch.add(address + position, 4, FLOW_TYPES[flow & 0xF], target, PowerPcDecodeTable.isKnown(word) ? DecodeBatch.STATUS_OK : DecodeBatch.STATUS_UNKNOWN);
+            }
+            offset += length;
+        }
+
+        return batch;
+    }
+
+    @Override
+    public int decodeMode(long address) {
+        return architecture.ordinal() | endianness.ordinal() << 8;
+    }
+
+    private int readWord(byte[] data, int offset) {
+        if (endianness == Endianness.LITTLE) {
+            return ((data[offset + 3] & 0xFF) << 24) | ((data[offset + 2] & 0xFF) << 16) | ((data[offset + 1] & 0xFF) << 8) | (data[offset] & 0xFF);
+        }
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16) | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
     }
 
     private Instruction createInvalidInstruction(Address address) {
@@ -0,0 +1,217 @@
+package com.arsen.disassembler.arch.powerpc;
+
+import com.arsen.model.Address;
+import com.arsen.model.disassembly.Operand;
+import com.arsen.model.disassembly.OperandType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class PowerPcInstructionFormatter {
+    private static final String[] CONDITION_TRUE = {"blt", "bgt", "beq", "bso"};
+    private static final String[] CONDITION_FALSE = {"bge", "ble", "bne", "bns"};
+
+    private final int word;
+    private final long address;
+
+    private String mnemonic;
+    private String[] tokens;
+
+    PowerPcInstructionFormatter(int word, long address) {
+        this.word = word;
+        this.address = address;
+
+        PowerPcDecodeTable.Entry entry = PowerPcDecodeTable.find(word);
+        if (entry == null) {
+            this.mnemonic = ".long";
+            this.tokens = new String[]{"WORD"};
+            return;
+        }
+
+        this.mnemonic = entry.mnemonic().replace("{o}", (word & 0x400) != 0 ? "o" : "").replace("{.}", (word & 1) != 0 ? "." : "");
+        this.tokens = entry.operands();
+        applyAlias();
+    }
+
+    String mnemonic() {
+        return mnemonic;
+    }
+
+    List<Operand> operands() {
+        List<Operand> operands = new ArrayList<>(tokens.length);
+        for (String token : tokens) {
+            Operand operand = operand(token);
+            if (operand != null) {
+                operands.add(operand);
+            }
+        }
+        return operands;
+    }
+
+    private void applyAlias() {
+        int rs = field(21, 5);
+        int ra = field(16, 5);
+        int rb = field(11, 5);
+        String record = (word & 1) != 0 ? "." : "";
+
+        switch (mnemonic) {
+            case "b", "bl" -> {
+                if ((word & 2) != 0) {
+                    mnemonic += "a";
+                }
+            }
+            case "bc" -> branch("", (word & 1) != 0 ? "l" : "", (word & 2) != 0 ? "a" : "", "BD");
+            case "bclr" -> branch("lr", (word & 1) != 0 ? "l" : "", "", null);
+            case "bcctr" -> branch("ctr", (word & 1) != 0 ? "l" : "", "", null);
+            case "or", "or." -> {
+                if (rs == rb) {
+                    alias("mr" + record, "ra", "rs");
+                }
+            }
+            case "nor", "nor." -> {
+                if (rs == rb) {
+                    alias("not" + record, "ra", "rs");
+                }
+            }
+            case "rlwinm", "rlwinm." -> {
+                int sh = rb;
+                int mb = field(6, 5);
+                int me = field(1, 5);
+                if (mb == 0 && me == 31) {
+                    alias("rotlwi" + record, "ra", "rs", "SH");
+                } else if (mb == 0 && me == 31 - sh) {
+                    alias("slwi" + record, "ra", "rs", "SH");
+                } else if (me == 31 && sh != 0 && sh + mb == 32) {
+                    alias("srwi" + record, "ra", "rs", "MB");
+                } else if (sh == 0 && me == 31) {
+                    alias("clrlwi" + record, "ra", "rs", "MB");
+                }
+            }
+            case "rldicl", "rldicl." -> {
+                int sh = field(11, 5) | field(1, 1) << 5;
+                int mb = field(6, 5) | field(5, 1) << 5;
+                if (sh == 0) {
+                    alias("clrldi" + record, "ra", "rs", "MB6");
+                } else if (mb == 0) {
+                    alias("rotldi" + record, "ra", "rs", "SH6");
+                } else if (sh + mb == 64) {
+                    alias("srdi" + record, "ra", "rs", "MB6");
+                }
+            }
+            case "rldicr", "rldicr." -> {
+                int sh = field(11, 5) | field(1, 1) << 5;
+                int me = field(6, 5) | field(5, 1) << 5;
+                if (me == 63 - sh) {
+                    alias("sldi" + record, "ra", "rs", "SH6");
+                }
+            }
+            case "mtcrf" -> {
+                if (field(12, 8) == 0xFF) {
+                    alias("mtcr", "rt");
+                }
+            }
+            case "crxor", "creqv" -> {
+                if (rs == ra && ra == rb) {
+                    alias(mnemonic.equals("crxor") ? "crclr" : "crset", "BT");
+                }
+            }
+            case "cror" -> {
+                if (ra == rb) {
+                    alias("crmove", "BT", "BA");
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void branch(String register, String link, String absolute, String target) {
+        int bo = field(21, 5);
+        int bi = field(16, 5);
+        String base;
+        boolean usesCondition = false;
+        if ((bo & 0x14) == 0x14 && target == null) {
+            base = "b";
+        } else if ((bo & 0x1C) == 0x04) {
+            base = CONDITION_FALSE[bi & 3];
+            usesCondition = true;
+        } else if ((bo & 0x1C) == 0x0C) {
+            base = CONDITION_TRUE[bi & 3];
+            usesCondition = true;
+        } else if ((bo & 0x16) == 0x10) {
+            base = "bdnz";
+        } else if ((bo & 0x16) == 0x12) {
+            base = "bdz";
+        } else {
+            alias("bc" + register + link + absolute, target == null ? new String[]{"BO", "BI"} : new String[]{"BO", "BI", target});
+            return;
+        }
+
+        List<String> operands = new ArrayList<>(2);
+        if (usesCondition) {
+            operands.add("CRB");
+        }
+        if (target != null) {
+            operands.add(target);
+        }
+        alias(base + register + link + absolute, operands.toArray(String[]::new));
+    }
+
+    private void alias(String name, String... operands) {
+        this.mnemonic = name;
+        this.tokens = operands;
+    }
+
+    private Operand operand(String token) {
+        return switch (token) {
+            case "rt", "rs" -> register("r" + field(21, 5));
+            case "ra" -> register("r" + field(16, 5));
+            case "rb" -> register("r" + field(11, 5));
+            case "ft" -> register("f" + field(21, 5));
+            case "fa" -> register("f" + field(16, 5));
+            case "fb" -> register("f" + field(11, 5));
+            case "fc" -> register("f" + field(6, 5));
+            case "vt" -> register("v" + field(21, 5));
+            case "xt" -> register("vs" + (field(21, 5) | field(0, 1) << 5));
+            case "CRF" -> field(23, 3) == 0 ? null : register("cr" + field(23, 3));
+            case "CRS" -> register("cr" + field(18, 3));
+            case "CRB" -> field(18, 3) == 0 ? null : register("cr" + field(18, 3));
+            case "SI" -> immediate((short) word);
+            case "UI" -> {
+                int value = word & 0xFFFF;
+                yield Operand.builder().type(OperandType.IMMEDIATE).text(value > 9 ? "0x" + Integer.toHexString(value) : Integer.toString(value)).value(value).build();
+            }
+            case "D", "DS" -> {
+                int displacement = token.equals("D") ? (short) word : (short) word & ~3;
+                yield Operand.builder().type(OperandType.MEMORY).text(displacement + "(r" + field(16, 5) + ")").value(displacement).build();
+            }
+            case "SH", "BB" -> immediate(field(11, 5));
+            case "MB", "BC" -> immediate(field(6, 5));
+            case "ME" -> immediate(field(1, 5));
+            case "SH6" -> immediate(field(11, 5) | field(1, 1) << 5);
+            case "MB6" -> immediate(field(6, 5) | field(5, 1) << 5);
+            case "TO", "BT", "BO" -> immediate(field(21, 5));
+            case "BA", "BI" -> immediate(field(16, 5));
+            case "CRM" -> immediate(field(12, 8));
+            case "SPR" -> immediate(field(11, 5) << 5 | field(16, 5));
+            case "LI", "BD" -> {
+                Address target = Address.of(PowerPcDecodeTable.target(word, token.equals("LI") ? PowerPcDecodeTable.TARGET_LONG : PowerPcDecodeTable.TARGET_CONDITIONAL, address));
+                yield Operand.builder().type(OperandType.IMMEDIATE).text(target.toString()).value(target.value()).build();
+            }
+            case "WORD" -> Operand.builder().type(OperandType.IMMEDIATE).text(String.format("0x%08x", word)).value(word & 0xFFFFFFFFL).build();
+            default -> register(token);
+        };
+    }
+
+    private int field(int shift, int width) {
+        return (word >>> shift) & ((1 << width) - 1);
+    }
+
+    private static Operand register(String name) {
+        return Operand.builder().type(OperandType.REGISTER).text(name).build();
+    }
+
+    private static Operand immediate(long value) {
+        return Operand.builder().type(OperandType.IMMEDIATE).text(Long.toString(value)).value(value).build();
+    }
+}
@@ -0,0 +1,471 @@
+package com.arsen.disassembler.arch.x86;
+
+import com.arsen.disassembler.arch.x86.X86OpcodeTable.Spec;
+import com.arsen.model.Address;
+import com.arsen.model.disassembly.Operand;
+import com.arsen.model.disassembly.OperandType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class X86InstructionFormatter {
+    private static final String[] REGISTERS_64 = {"rax", "rcx", "rdx", "rbx", "rsp", "rbp", "rsi", "rdi", "r8", "r9", "r10", "r11", "r12", "r13", "r14", "r15"};
+    private static final String[] REGISTERS_32 = {"eax", "ecx", "edx", "ebx", "esp", "ebp", "esi", "edi", "r8d", "r9d", "r10d", "r11d", "r12d", "r13d", "r14d", "r15d"};
+    private static final String[] REGISTERS_16 = {"ax", "cx", "dx", "bx", "sp", "bp", "si", "di", "r8w", "r9w", "r10w", "r11w", "r12w", "r13w", "r14w", "r15w"};
+    private static final String[] REGISTERS_8 = {"al", "cl", "dl", "bl", "ah", "ch", "dh", "bh", "r8b", "r9b", "r10b", "r11b", "r12b", "r13b", "r14b", "r15b"};
+    private static final String[] REGISTERS_8_REX = {"al", "cl", "dl", "bl", "spl", "bpl", "sil", "dil", "r8b", "r9b", "r10b", "r11b", "r12b", "r13b", "r14b", "r15b"};
+    private static final String[] SEGMENT_REGISTERS = {"es", "cs", "ss", "ds", "fs", "gs", "?", "?"};
+    private static final String[] ADDRESSING_16 = {"bx+si", "bx+di", "bp+si", "bp+di", "si", "di", "bp", "bx"};
+    private static final String[] SHADOW_STACK_AE = {"rdfsbase Ry", "rdgsbase Ry", "wrfsbase Ry", "wrgsbase Ry", null, "incsspd/incsspq Ry", null, null};
+    private static final String[] VECTOR_PREFIXES = {"xmm", "ymm", "zmm", "zmm"};
+
+    private final byte[] data;
+    private final int offset;
+    private final long descriptor;
+    private final long address;
+    private final boolean is64Bit;
+
+    private final int map;
+    private final int opcode;
+    private final int rex;
+    private final int encoding;
+    private final int modrm;
+    private int variant;
+    private int operandSize;
+    private final Spec spec;
+
+    X86InstructionFormatter(byte[] data, int offset, long descriptor, long address, boolean is64Bit) {
+        this.data = data;
+        this.offset = offset;
+        this.descriptor = descriptor;
+        this.address = address;
+        this.is64Bit = is64Bit;
+        this.map = X86InstructionScanner.map(descriptor);
+        this.opcode = X86InstructionScanner.opcode(descriptor);
+        this.rex = X86InstructionScanner.rex(descriptor);
+        this.encoding = X86InstructionScanner.encoding(descriptor);
+        this.modrm = X86InstructionScanner.hasModRm(descriptor) ? data[offset + X86InstructionScanner.modRmOffset(descriptor)] & 0xFF : 0;
+        this.spec = resolve();
+    }
+
+    String mnemonic() {
+        if (spec == null) {
+            return genericMnemonic();
+        }
+        String mnemonic = spec.mnemonic(variant);
+        if (mnemonic == null) {
+            return genericMnemonic();
+        }
+
+        if (map == X86OpcodeTable.MAP_PRIMARY && opcode == 0x90 && X86InstructionScanner.rep(descriptor) == X86InstructionScanner.REP_F3) {
+            return "pause";
+        }
+        if (map == X86OpcodeTable.MAP_0F && opcode == 0x1E && X86InstructionScanner.rep(descriptor) == X86InstructionScanner.REP_F3 && (modrm == 0xFA || modrm == 0xFB)) {
+            return modrm == 0xFA ? "endbr64" : "endbr32";
+        }
+        if (map == X86OpcodeTable.MAP_0F && opcode == 0x77 && encoding == X86InstructionScanner.ENCODING_VEX) {
+            return X86InstructionScanner.vectorLength(descriptor) == 0 ? "vzeroupper" : "vzeroall";
+        }
+        if (map == X86OpcodeTable.MAP_PRIMARY && is64Bit && ((opcode & 0xF8) == 0xB8 && (rex & 8) != 0 || opcode >= 0xA0 && opcode <= 0xA3 && !X86InstructionScanner.addressSizePrefix(descriptor))) {
+            mnemonic = "movabs";
+        }
+        if (map == X86OpcodeTable.MAP_PRIMARY && opcode == 0xE3) {
+            mnemonic = addressSize() == 64 ? "jrcxz" : addressSize() == 32 ? "jecxz" : "jcxz";
+        }
+
+        mnemonic = selectBySize(mnemonic);
+        if (encoding != X86InstructionScanner.ENCODING_LEGACY && isVectorSpec(spec.operandsFor(variant))) {
+            mnemonic = "v" + mnemonic;
+        }
+        return prefixText() + mnemonic;
+    }
+
+    List<Operand> operands() {
+        if (spec == null || spec.mnemonic(variant) == null || isSpecialWithoutOperands()) {
+            return List.of();
+        }
+        String[] tokens = spec.operandsFor(variant);
+        List<Operand> operands = new ArrayList<>(tokens.length);
+        for (String token : tokens) {
+            Operand operand = operand(token);
+            if (operand != null) {
+                operands.add(operand);
+            }
+        }
+        if (encoding == X86InstructionScanner.ENCODING_EVEX && !operands.isEmpty()) {
+            int p2 = data[offset + X86InstructionScanner.modRmOffset(descriptor) - 2] & 0xFF;
+            String mask = ((p2 & 7) != 0 ? "{k" + (p2 & 7) + "}" : "") + ((p2 & 0x80) != 0 ? "{z}" : "");
+            if (!mask.isEmpty()) {
+                Operand first = operands.getFirst();
+                operands.set(0, Operand.builder().type(first.getType()).text(first.getText() + mask).value(first.getValue()).build());
+            }
+        }
+        return operands;
+    }
+
+    private boolean isSpecialWithoutOperands() {
+        return map == X86OpcodeTable.MAP_PRIMARY && opcode == 0x90 && X86InstructionScanner.rep(descriptor) == X86InstructionScanner.REP_F3 || map == X86OpcodeTable.MAP_0F && opcode == 0x1E && X86InstructionScanner.rep(descriptor) == X86InstructionScanner.REP_F3 && (modrm == 0xFA || modrm == 0xFB);
+    }
+
+    private Spec resolve() {
+        int mode = is64Bit ? 1 : 0;
+        Spec spec = X86OpcodeTable.spec(mode, map, opcode);
+        if (map < X86OpcodeTable.MAP_XOP8 && encoding == X86InstructionScanner.ENCODING_VEX && X86OpcodeTable.VEX_SPECS[map][opcode] != null) {
+            spec = X86OpcodeTable.VEX_SPECS[map][opcode];
+        } else if (map < X86OpcodeTable.MAP_XOP8 && encoding == X86InstructionScanner.ENCODING_EVEX && X86OpcodeTable.EVEX_SPECS[map][opcode] != null) {
+            spec = X86OpcodeTable.EVEX_SPECS[map][opcode];
+        }
+        if (spec == null) {
+            return null;
+        }
+        variant = spec.variant(encoding, X86InstructionScanner.pp(descriptor), X86InstructionScanner.rep(descriptor), X86InstructionScanner.operandSizePrefix(descriptor));
+        operandSize = computeOperandSize((X86OpcodeTable.FLAGS[mode][map][opcode] & X86OpcodeTable.DEFAULT_64) != 0 || X86InstructionScanner.default64(descriptor));
+
+        if (map == X86OpcodeTable.MAP_PRIMARY && opcode == 0x90 && (rex & 1) != 0) {
+            variant = 0;
+            return Spec.parse("xchg Zv,rAX");
+        }
+        if (map == X86OpcodeTable.MAP_0F && opcode == 0x1E && X86InstructionScanner.rep(descriptor) == X86InstructionScanner.REP_F3 && (modrm & 0xF8) == 0xC8) {
+            variant = 0;
+            return Spec.parse("rdsspd/rdsspq Ry");
+        }
+        if (map == X86OpcodeTable.MAP_0F && (opcode == 0x12 || opcode == 0x16) && variant == 0 && (modrm & 0xC0) == 0xC0) {
+            return Spec.parse(opcode == 0x12 ? "movhlps V,H,U" : "movlhps V,H,U");
+        }
+        if (spec.group() == null) {
+            return spec;
+        }
+        if (spec.group().equals("x87")) {
+            variant = 0;
+            return X86OpcodeTable.x87(opcode, modrm);
+        }
+
+        int group = X86OpcodeTable.groupOf(X86OpcodeTable.FLAGS[mode][map][opcode]);
+        int reg = (modrm >> 3) & 7;
+        boolean register = (modrm & 0xC0) == 0xC0;
+        if (map == X86OpcodeTable.MAP_0F && opcode == 0x01 && register && X86OpcodeTable.systemName(modrm) != null) {
+            variant = 0;
+            return Spec.parse(X86OpcodeTable.systemName(modrm));
+        }
+        if (map == X86OpcodeTable.MAP_0F && opcode == 0xAE && register && X86InstructionScanner.rep(descriptor) == X86InstructionScanner.REP_F3 && SHADOW_STACK_AE[reg] != null) {
+            variant = 0;
+            return Spec.parse(SHADOW_STACK_AE[reg]);
+        }
+        Spec slot = register && X86OpcodeTable.GROUP_REGISTER_SPECS[group][reg] != null ? X86OpcodeTable.GROUP_REGISTER_SPECS[group][reg] : X86OpcodeTable.GROUP_SPECS[group][reg];
+        if (slot == null) {
+            return null;
+        }
+        variant = 0;
+        String[] slotOperands = slot.operandsFor(0);
+        String[] operands = slotOperands.length > 0 ? slotOperands : spec.operandsFor(0);
+        return new Spec(new String[]{slot.mnemonic(0), null, null, null}, new String[][]{operands, null, null, null}, null, slot.flags());
+    }
+
+    private int computeOperandSize(boolean default64) {
+        if ((rex & 8) != 0) {
+            return 64;
+        }
+        boolean operandSizePrefix = X86InstructionScanner.operandSizePrefix(descriptor) && variant != 1;
+        if (operandSizePrefix) {
+            return 16;
+        }
+        return is64Bit && default64 ? 64 : 32;
+    }
+
+    private int addressSize() {
+        if (is64Bit) {
+            return X86InstructionScanner.addressSizePrefix(descriptor) ? 32 : 64;
+        }
+        return X86InstructionScanner.addressSizePrefix(descriptor) ? 16 : 32;
+    }
+
+    private String selectBySize(String mnemonic) {
+        if (mnemonic.endsWith("*")) {
+            String base = mnemonic.substring(0, mnemonic.length() - 1);
+            return base + (operandSize == 64 ? "q" : operandSize == 16 ? "w" : "d");
+        }
+        int slash = mnemonic.indexOf('/');
+        if (slash < 0) {
+            return mnemonic;
+        }
+        String[] forms = mnemonic.split("/");
+        if (forms.length == 2) {
+            return forms[(rex & 8) != 0 ? 1 : 0];
+        }
+        return forms[operandSize == 64 ? 2 : operandSize == 16 ? 0 : 1];
+    }
+
+    private String prefixText() {
+        StringBuilder prefix = new StringBuilder();
+        if (X86InstructionScanner.lock(descriptor)) {
+            prefix.append("lock ");
+        }
+        boolean stringOperation = map == X86OpcodeTable.MAP_PRIMARY && (opcode >= 0xA4 && opcode <= 0xA7 || opcode >= 0xAA && opcode <= 0xAF || opcode >= 0x6C && opcode <= 0x6F);
+        if (stringOperation && X86InstructionScanner.rep(descriptor) != X86InstructionScanner.REP_NONE) {
+            boolean compare = opcode == 0xA6 || opcode == 0xA7 || opcode == 0xAE || opcode == 0xAF;
+            prefix.append(X86InstructionScanner.rep(descriptor) == X86InstructionScanner.REP_F3 ? (compare ? "repz " : "rep ") : "repnz ");
+        }
+        return prefix.toString();
+    }
+
+    private String genericMnemonic() {
+        String space = switch (map) {
+            case X86OpcodeTable.MAP_0F -> "0f";
+            case X86OpcodeTable.MAP_0F38 -> "0f38";
+            case X86OpcodeTable.MAP_0F3A -> "0f3a";
+            case X86OpcodeTable.MAP_XOP8 -> "xop8";
+            case X86OpcodeTable.MAP_XOP9 -> "xop9";
+            case X86OpcodeTable.MAP_XOPA -> "xopa";
+            case X86OpcodeTable.MAP_EVEX_EXTENDED -> "evex";
+            default -> "op";
+        };
+        return String.format("(%s %02x)", space, opcode);
+    }
+
+    private boolean isVectorSpec(String[] operands) {
+        if (operands == null) {
+            return false;
+        }
+        for (String operand : operands) {
+            char kind = operand.charAt(0);
+            if (kind == 'V' || kind == 'W' || kind == 'U' || kind == 'H' || kind == 'L' || kind == 'P' || kind == 'Q' || kind == 'N') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Operand operand(String token) {
+        return switch (token) {
+            case "AL" -> register("al");
+            case "CL" -> register("cl");
+            case "DX" -> register("dx");
+            case "AX" -> register("ax");
+            case "rAX" -> register(generalRegister(0, operandSize));
+            case "eAX" -> register(generalRegister(0, operandSize == 16 ? 16 : 32));
+            case "1" -> Operand.builder().type(OperandType.IMMEDIATE).text("1").value(1).build();
+            case "ES", "CS", "SS", "DS", "FS", "GS" -> register(token.toLowerCase());
+            case "XMM0" -> register("xmm0");
+            case "ST" -> register("st");
+            case "STi" -> register("st(" + (modrm & 7) + ")");
+            default -> typedOperand(token.charAt(0), token.length() > 1 ? token.charAt(1) : ' ');
+        };
+    }
+
+    private Operand typedOperand(char kind, char size) {
+        boolean promoted = X86InstructionScanner.operandSizePrefix(descriptor) || encoding != X86InstructionScanner.ENCODING_LEGACY;
+        int reg = ((modrm >> 3) & 7) | ((rex & 4) << 1);
+        int rm = (modrm & 7) | ((rex & 1) << 3);
+        boolean register = (modrm & 0xC0) == 0xC0;
+        int vectorReg = reg | (X86InstructionScanner.rPrime(descriptor) ? 16 : 0);
+        int vectorRm = rm | (encoding == X86InstructionScanner.ENCODING_EVEX && (rex & 2) != 0 ? 16 : 0);
+        return switch (kind) {
+            case 'E' -> register ? register(generalRegister(rm, sizeOf(size))) : memory(sizeOf(size));
+            case 'M' -> memory(size == ' ' ? 0 : sizeOf(size));
+            case 'G' -> register(generalRegister(reg, sizeOf(size)));
+            case 'R' -> register(generalRegister(rm, size == 'y' ? (is64Bit && (rex & 8) != 0 ? 64 : 32) : sizeOf(size)));
+            case 'B' -> register(generalRegister(X86InstructionScanner.vvvv(descriptor) & 0xF, sizeOf(size)));
+            case 'Z' -> register(generalRegister((opcode & 7) | ((rex & 1) << 3), sizeOf(size)));
+            case 'S' -> register(SEGMENT_REGISTERS[(modrm >> 3) & 7]);
+            case 'K' -> size == 'm' && !register ? memory(0) : register("k" + (size == 'v' ? X86InstructionScanner.vvvv(descriptor) & 7 : size == 'm' ? modrm & 7 : (modrm >> 3) & 7));
+            case 'C' -> register("cr" + reg);
+            case 'D' -> register("dr" + reg);
+            case 'I' -> immediate(size);
+            case 'J' -> branchTarget();
+            case 'O' -> absoluteMemory(sizeOf(size));
+            case 'A' -> farPointer();
+            case 'V' -> register(vectorRegister(vectorReg));
+            case 'U' -> size == ' ' ? register(vectorRegister(vectorRm)) : register ? register("xmm" + vectorRm) : memory(sizeOf(size));
+            case 'W' -> register ? register(vectorRegister(vectorRm)) : memory(size == ' ' ? vectorMemorySize() : sizeOf(size));
+            case 'H' -> encoding == X86InstructionScanner.ENCODING_LEGACY ? null : register(vectorRegister(X86InstructionScanner.vvvv(descriptor)));
+            case 'L' -> register(vectorRegister((data[offset + X86InstructionScanner.immediateOffset(descriptor)] >> 4) & 0xF));
+            case 'P' -> promoted ? register(vectorRegister(vectorReg)) : register("mm" + ((modrm >> 3) & 7));
+            case 'Q' -> promoted ? typedOperand('W', size) : register ? register("mm" + (modrm & 7)) : memory(64);
+            case 'N' -> promoted ? register(vectorRegister(vectorRm)) : register("mm" + (modrm & 7));
+            default -> null;
+        };
+    }
+
+    private int sizeOf(char size) {
+        return switch (size) {
+            case 'b' -> 8;
+            case 'w' -> 16;
+            case 'd' -> 32;
+            case 'q' -> 64;
+            case 'z' -> operandSize == 16 ? 16 : 32;
+            case 'y' -> (rex & 8) != 0 ? 64 : 32;
+            case 'p' -> operandSize == 16 ? 32 : operandSize == 64 ? 80 : 48;
+            case 't' -> 80;
+            case 'x' -> vectorMemorySize();
+            default -> operandSize;
+        };
+    }
+
+    private int vectorMemorySize() {
+        String mnemonic = spec == null || spec.mnemonic(variant) == null ? "" : spec.mnemonic(variant);
+        if (mnemonic.contains("ss2") || mnemonic.endsWith("ss")) {
+            return 32;
+        }
+        if (mnemonic.contains("sd2") || mnemonic.endsWith("sd")) {
+            return 64;
+        }
+        return 128 << Math.min(X86InstructionScanner.vectorLength(descriptor), 2);
+    }
+
+    private String vectorRegister(int index) {
+        return VECTOR_PREFIXES[encoding == X86InstructionScanner.ENCODING_LEGACY ? 0 : X86InstructionScanner.vectorLength(descriptor)] + index;
+    }
+
+    private String generalRegister(int index, int size) {
+        return switch (size) {
+            case 8 -> (X86InstructionScanner.hasRex(descriptor) || encoding != X86InstructionScanner.ENCODING_LEGACY ? REGISTERS_8_REX : REGISTERS_8)[index];
+            case 16 -> REGISTERS_16[index];
+            case 64 -> REGISTERS_64[index];
+            default -> REGISTERS_32[index];
+        };
+    }
+
+    private Operand register(String name) {
+        return Operand.builder().type(OperandType.REGISTER).text(name).build();
+    }
+
+    private Operand immediate(char size) {
+        int position = offset + X86InstructionScanner.immediateOffset(descriptor);
+        if (opcode == 0xC8 && map == X86OpcodeTable.MAP_PRIMARY && size == 'b') {
+            position += 2;
+        }
+        long value = switch (size) {
+            case 'b' -> data[position] & 0xFFL;
+            case 's' -> data[position];
+            case 'w' -> (data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8;
+            case 'v' -> operandSize == 64 ? readLong(position) : readSigned(position, operandSize == 16 ? 2 : 4);
+            default -> readSigned(position, operandSize == 16 ? 2 : 4);
+        };
+        long mask = size == 'b' || size == 'w' ? -1L : operandSize == 64 ? -1L : operandSize == 16 ? 0xFFFFL : 0xFFFFFFFFL;
+        return Operand.builder().type(OperandType.IMMEDIATE).text("0x" + Long.toHexString(value & mask)).value(value).build();
+    }
+
+    private Operand branchTarget() {
+        Address target = Address.of(X86InstructionScanner.relativeTarget(data, offset, descriptor, address, is64Bit));
+        return Operand.builder().type(OperandType.IMMEDIATE).text(target.toString()).value(target.value()).build();
+    }
+
+    private Operand farPointer() {
+        int position = offset + X86InstructionScanner.immediateOffset(descriptor);
+        int offsetSize = X86InstructionScanner.immediateSize(descriptor) - 2;
+        long target = readSigned(position, offsetSize) & (offsetSize == 2 ? 0xFFFFL : 0xFFFFFFFFL);
+        int selector = (data[position + offsetSize] & 0xFF) | (data[position + offsetSize + 1] & 0xFF) << 8;
+        return Operand.builder().type(OperandType.IMMEDIATE).text(String.format("0x%x:0x%x", selector, target)).value(target).build();
+    }
+
+    private Operand absoluteMemory(int size) {
+        int position = offset + X86InstructionScanner.immediateOffset(descriptor);
+        int width = X86InstructionScanner.immediateSize(descriptor);
+        long value = width == 8 ? readLong(position) : readSigned(position, width) & (width == 2 ? 0xFFFFL : 0xFFFFFFFFL);
+        return Operand.builder().type(OperandType.MEMORY).text(sizePrefix(size) + segmentPrefix() + "[0x" + Long.toHexString(value) + "]").value(value).build();
+    }
+
+    private Operand memory(int size) {
+        int position = offset + X86InstructionScanner.modRmOffset(descriptor) + 1;
+        int mod = modrm >> 6;
+        int rm = modrm & 7;
+        StringBuilder text = new StringBuilder();
+        long displacement;
+        long value;
+
+        if (addressSize() == 16) {
+            if (mod == 0 && rm == 6) {
+                displacement = readSigned(position, 2) & 0xFFFFL;
+                return Operand.builder().type(OperandType.MEMORY).text(sizePrefix(size) + segmentPrefix() + "[0x" + Long.toHexString(displacement) + "]").value(displacement).build();
+            }
+            text.append(ADDRESSING_16[rm]);
+            displacement = mod == 1 ? data[position] : mod == 2 ? readSigned(position, 2) : 0;
+            value = displacement;
+        } else {
+            String[] registers = addressSize() == 64 ? REGISTERS_64 : REGISTERS_32;
+            if (rm == 4) {
+                int sib = data[position++] & 0xFF;
+                int base = (sib & 7) | ((rex & 1) << 3);
+                int index = ((sib >> 3) & 7) | ((rex & 2) << 2);
+                boolean hasBase = !((sib & 7) == 5 && mod == 0);
+                if (hasBase) {
+                    text.append(registers[base]);
+                }
+                if (index != 4) {
+                    if (!text.isEmpty()) {
+                        text.append('+');
+                    }
+                    text.append(registers[index]).append('*').append(1 << (sib >> 6));
+                }
+                displacement = mod == 1 ? data[position] : mod == 2 || !hasBase ? readSigned(position, 4) : 0;
+                value = displacement;
+                if (text.isEmpty()) {
+                    return Operand.builder().type(OperandType.MEMORY).text(sizePrefix(size) + segmentPrefix() + "[0x" + Long.toHexString(displacement & 0xFFFFFFFFL) + "]").value(displacement & 0xFFFFFFFFL).build();
+                }
+            } else if (mod == 0 && rm == 5) {
+                displacement = readSigned(position, 4);
+                if (!is64Bit) {
+                    return Operand.builder().type(OperandType.MEMORY).text(sizePrefix(size) + segmentPrefix() + "[0x" + Long.toHexString(displacement & 0xFFFFFFFFL) + "]").value(displacement & 0xFFFFFFFFL).build();
+                }
+                text.append(addressSize() == 64 ? "rip" : "eip");
+                value = address + X86InstructionScanner.length(descriptor) + displacement;
+            } else {
+                text.append(registers[(modrm & 7) | ((rex & 1) << 3)]);
+                displacement = mod == 1 ? data[position] : mod == 2 ? readSigned(position, 4) : 0;
+                value = displacement;
+            }
+            if (mod == 1 && encoding == X86InstructionScanner.ENCODING_EVEX) {
+                displacement *= compressedDisplacementScale(size);
+                value = displacement;
+            }
+        }
+
+        if (displacement != 0) {
+            text.append(displacement < 0 ? "-0x" : "+0x").append(Long.toHexString(Math.abs(displacement)));
+        }
+        return Operand.builder().type(OperandType.MEMORY).text(sizePrefix(size) + segmentPrefix() + "[" + text + "]").value(value).build();
+    }
+
+    private int compressedDisplacementScale(int size) {
+        if (broadcast()) {
+            return (rex & 8) != 0 ? 8 : 4;
+        }
+        return size >= 8 ? size / 8 : 16 << Math.min(X86InstructionScanner.vectorLength(descriptor), 2);
+    }
+
+    private boolean broadcast() {
+        return encoding == X86InstructionScanner.ENCODING_EVEX && (data[offset + X86InstructionScanner.modRmOffset(descriptor) - 2] & 0x10) != 0 && (modrm & 0xC0) != 0xC0;
+    }
+
+    private String sizePrefix(int size) {
+        return switch (size) {
+            case 8 -> "byte ptr ";
+            case 16 -> "word ptr ";
+            case 32 -> "dword ptr ";
+            case 48 -> "fword ptr ";
+            case 64 -> "qword ptr ";
+            case 80 -> "tbyte ptr ";
+            case 128 -> "xmmword ptr ";
+            case 256 -> "ymmword ptr ";
+            case 512 -> "zmmword ptr ";
+            default -> "";
+        };
+    }
+
+    private String segmentPrefix() {
+        int segment = X86InstructionScanner.segment(descriptor);
+        return segment == X86InstructionScanner.SEGMENT_NONE ? "" : SEGMENT_REGISTERS[segment - 1] + ":";
+    }
+
+    private long readSigned(int position, int size) {
+        return switch (size) {
+            case 1 -> data[position];
+            case 2 -> (short) ((data[position] & 0xFF) | (data[position + 1] << 8));
+            default -> (data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8 | (data[position + 2] & 0xFF) << 16 | data[position + 3] << 24;
+        };
+    }
+
+    private long readLong(int position) {
+        return (readSigned(position, 4) & 0xFFFFFFFFL) | readSigned(position + 4, 4) << 32;
+    }
+}
@@ -0,0 +1,390 @@
+package com.arsen.disassembler.arch.x86;
+
+final class X86InstructionScanner {
+    static final long INVALID_DESCRIPTOR = -1L;
+    static final long TRUNCATED_DESCRIPTOR = -2L;
+    static final int MAX_LENGTH = 15;
+
+    static final int SEGMENT_NONE = 0;
+    static final int ENCODING_LEGACY = 0;
+    static final int ENCODING_VEX = 1;
+    static final int ENCODING_EVEX = 2;
+    static final int ENCODING_XOP = 3;
+    static final int REP_NONE = 0;
+    static final int REP_F3 = 1;
+    static final int REP_F2 = 2;
+
+    private static final int LENGTH_SHIFT = 0;
+    private static final int MAP_SHIFT = 4;
+    private static final int OPCODE_SHIFT = 7;
+    private static final int MODRM_OFFSET_SHIFT = 15;
+    private static final int HAS_MODRM_SHIFT = 19;
+    private static final int IMMEDIATE_OFFSET_SHIFT = 20;
+    private static final int IMMEDIATE_SIZE_SHIFT = 24;
+    private static final int OPERAND_SIZE_SHIFT = 28;
+    private static final int ADDRESS_SIZE_SHIFT = 29;
+    private static final int REX_SHIFT = 30;
+    private static final int HAS_REX_SHIFT = 34;
+    private static final int REP_SHIFT = 35;
+    private static final int LOCK_SHIFT = 37;
+    private static final int SEGMENT_SHIFT = 38;
+    private static final int ENCODING_SHIFT = 41;
+    private static final int VECTOR_LENGTH_SHIFT = 43;
+    private static final int VVVV_SHIFT = 45;
+    private static final int PP_SHIFT = 49;
+    private static final int R_PRIME_SHIFT = 51;
+    private static final int V_PRIME_SHIFT = 52;
+    private static final int FLOW_DESCRIPTOR_SHIFT = 53;
+    private static final int RELATIVE_SHIFT = 56;
+    private static final int DEFAULT_64_SHIFT = 57;
+
+    private static final int PREFIX_OPERAND_SIZE = 1;
+    private static final int PREFIX_ADDRESS_SIZE = 2;
+    private static final int PREFIX_REP = 3;
+    private static final int PREFIX_REPNE = 4;
+    private static final int PREFIX_LOCK = 5;
+    private static final int PREFIX_SEGMENT = 6;
+
+    private static final byte[] PREFIXES = new byte[256];
+    private static final byte[] SEGMENTS = new byte[256];
+    private static final byte[] DISPLACEMENTS = new byte[2 * 256];
+    private static final byte[] IMMEDIATE_SIZES = new byte[16 * 16];
+
+    static {
+        PREFIXES[0x66] = PREFIX_OPERAND_SIZE;
+        PREFIXES[0x67] = PREFIX_ADDRESS_SIZE;
+        PREFIXES[0xF3] = PREFIX_REP;
+        PREFIXES[0xF2] = PREFIX_REPNE;
+        PREFIXES[0xF0] = PREFIX_LOCK;
+        int[] segments = {0x26, 0x2E, 0x36, 0x3E, 0x64, 0x65};
+        for (int i = 0; i < segments.length; i++) {
+            PREFIXES[segments[i]] = PREFIX_SEGMENT;
+            SEGMENTS[segments[i]] = (byte) (i + 1);
+        }
+
+        for (int modrm = 0; modrm < 256; modrm++) {
+            int mod = modrm >> 6;
+            int rm = modrm & 7;
+            DISPLACEMENTS[modrm] = (byte) (mod == 3 ? 0 : (mod == 1 ? 1 : mod == 2 ? 4 : rm == 5 ? 4 : 0) | (rm == 4 ? 8 : 0));
+            DISPLACEMENTS[256 + modrm] = (byte) (mod == 3 ? 0 : mod == 1 ? 1 : mod == 2 ? 2 : rm == 6 ? 2 : 0);
+        }
+
+        for (int state = 0; state < 16; state++) {
+            boolean is64Bit = (state & 8) != 0;
+            boolean operandSize16 = (state & 4) != 0;
+            boolean addressSize = (state & 2) != 0;
+            boolean rexW = (state & 1) != 0;
+            int z = operandSize16 && !rexW ? 2 : 4;
+            IMMEDIATE_SIZES[(X86OpcodeTable.IMM_NONE << 4) | state] = 0;
+            IMMEDIATE_SIZES[(X86OpcodeTable.IMM_BYTE << 4) | state] = 1;
+            IMMEDIATE_SIZES[(X86OpcodeTable.IMM_WORD << 4) | state] = 2;
+            IMMEDIATE_SIZES[(X86OpcodeTable.IMM_Z << 4) | state] = (byte) z;
+            IMMEDIATE_SIZES[(X86OpcodeTable.IMM_V << 4) | state] = (byte) (rexW ? 8 : z);
+            IMMEDIATE_SIZES[(X86OpcodeTable.IMM_ENTER << 4) | state] = 3;
+            IMMEDIATE_SIZES[(X86OpcodeTable.IMM_MOFFS << 4) | state] = (byte) (is64Bit ? (addressSize ? 4 : 8) : (addressSize ? 2 : 4));
+            IMMEDIATE_SIZES[(X86OpcodeTable.IMM_FAR << 4) | state] = (byte) (z + 2);
+            IMMEDIATE_SIZES[(X86OpcodeTable.IMM_REL8 << 4) | state] = 1;
+            IMMEDIATE_SIZES[(X86OpcodeTable.IMM_RELZ << 4) | state] = (byte) (is64Bit ? 4 : z);
+            IMMEDIATE_SIZES[(X86OpcodeTable.IMM_DWORD << 4) | state] = 4;
+        }
+    }
+
+    private X86InstructionScanner() {
+    }
+
+    static boolean valid(long descriptor) {
+        return descriptor >= 0;
+    }
+
+    private static long exhausted(int offset, int end) {
+        return end - offset < MAX_LENGTH ? TRUNCATED_DESCRIPTOR : INVALID_DESCRIPTOR;
+    }
+
+    static long scan(byte[] data, int offset, int limit, boolean is64Bit) {
+        int end = Math.min(limit, offset + MAX_LENGTH);
+        int position = offset;
+        long descriptor = 0;
+        int rex = 0;
+        boolean operandSize = false;
+        boolean addressSize = false;
+
+        while (true) {
+            if (position >= end) {
+                return exhausted(offset, end);
+            }
+            int value = data[position] & 0xFF;
+            int prefix = PREFIXES[value];
+            if (prefix == 0) {
+                if (is64Bit && (value & 0xF0) == 0x40) {
+                    rex = value;
+                    position++;
+                    continue;
+                }
+                break;
+            }
+            rex = 0;
+            switch (prefix) {
+                case PREFIX_OPERAND_SIZE -> operandSize = true;
+                case PREFIX_ADDRESS_SIZE -> addressSize = true;
+                case PREFIX_REP -> descriptor = (descriptor & ~(3L << REP_SHIFT)) | ((long) REP_F3 << REP_SHIFT);
+                case PREFIX_REPNE -> descriptor = (descriptor & ~(3L << REP_SHIFT)) | ((long) REP_F2 << REP_SHIFT);
+                case PREFIX_LOCK -> descriptor |= 1L << LOCK_SHIFT;
+                default -> descriptor = (descriptor & ~(7L << SEGMENT_SHIFT)) | ((long) SEGMENTS[value] << SEGMENT_SHIFT);
+            }
+            position++;
+        }
+
+        int rexBits = rex & 0xF;
+        int map = X86OpcodeTable.MAP_PRIMARY;
+        int opcode = data[position++] & 0xFF;
+        int encoding = ENCODING_LEGACY;
+        int vectorLength = 0;
+        int vvvv = 0;
+        int pp = 0;
+
+        if (opcode == 0x0F) {
+            if (position >= end) {
+                return exhausted(offset, end);
+            }
+            opcode = data[position++] & 0xFF;
+            map = X86OpcodeTable.MAP_0F;
+            if (opcode == 0x38 || opcode == 0x3A) {
+                if (position >= end) {
+                    return exhausted(offset, end);
+                }
+                map = opcode == 0x38 ? X86OpcodeTable.MAP_0F38 : X86OpcodeTable.MAP_0F3A;
+                opcode = data[position++] & 0xFF;
+            }
+        } else if ((opcode == 0xC4 || opcode == 0xC5 || opcode == 0x62) && position < end && (is64Bit || (data[position] & 0xC0) == 0xC0) || opcode == 0x8F && position < end && (data[position] & 0x38) != 0) {
+            if (rex != 0 || operandSize) {
+                return INVALID_DESCRIPTOR;
+            }
+            int p0 = data[position++] & 0xFF;
+            if (opcode == 0xC5) {
+                encoding = ENCODING_VEX;
+                map = X86OpcodeTable.MAP_0F;
+                rexBits = (~p0 >> 5) & 4;
+                vvvv = (~p0 >> 3) & 0xF;
+                vectorLength = (p0 >> 2) & 1;
+                pp = p0 & 3;
+            } else if (opcode == 0x62) {
+                if (position + 1 >= end) {
+                    return exhausted(offset, end);
+                }
+                int p1 = data[position++] & 0xFF;
+                int p2 = data[position++] & 0xFF;
+                int selector = p0 & 7;
+                if ((p1 & 4) == 0 || selector == 0 || selector == 4 || selector == 7) {
+                    return INVALID_DESCRIPTOR;
+                }
+                encoding = ENCODING_EVEX;
+                map = selector >= 5 ? X86OpcodeTable.MAP_EVEX_EXTENDED : selector;
+                rexBits = ((p1 >> 4) & 8) | ((~p0 >> 5) & 7);
+                vvvv = (~p1 >> 3) & 0xF;
+                pp = p1 & 3;
+                vectorLength = (p2 >> 5) & 3;
+                descriptor |= (long) ((~p0 >> 4) & 1) << R_PRIME_SHIFT | (long) ((~p2 >> 3) & 1) << V_PRIME_SHIFT;
+            } else {
+                if (position >= end) {
+                    return exhausted(offset, end);
+                }
+                int p1 = data[position++] & 0xFF;
+                int selector = p0 & 0x1F;
+                if (opcode == 0xC4 && (selector < 1 || selector > 3) || opcode == 0x8F && (selector < 8 || selector > 10)) {
+                    return INVALID_DESCRIPTOR;
+                }
+                encoding = opcode == 0xC4 ? ENCODING_VEX : ENCODING_XOP;
+                map = opcode == 0xC4 ? selector : X86OpcodeTable.MAP_XOP8 + selector - 8;
+                rexBits = ((p1 >> 4) & 8) | ((~p0 >> 5) & 7);
+                vvvv = (~p1 >> 3) & 0xF;
+                vectorLength = (p1 >> 2) & 1;
+                pp = p1 & 3;
+            }
+            if (!is64Bit) {
+                rexBits &= 8;
+                vvvv &= 7;
+            }
+            if (position >= end) {
+                return exhausted(offset, end);
+            }
+            opcode = data[position++] & 0xFF;
+        }
+
+        int mode = is64Bit ? 1 : 0;
+        int flags = encoding == ENCODING_EVEX ? X86OpcodeTable.evexFlags(mode, map, opcode) : X86OpcodeTable.FLAGS[mode][map][opcode];
+        if ((flags & X86OpcodeTable.INVALID) != 0) {
+            return INVALID_DESCRIPTOR;
+        }
+
+        boolean addressSize16 = addressSize && !is64Bit;
+        int modrmOffset = 0;
+        if ((flags & X86OpcodeTable.MODRM) != 0) {
+            if (position >= end) {
+                return exhausted(offset, end);
+            }
+            modrmOffset = position - offset;
+            int modrm = data[position++] & 0xFF;
+            int displacement = DISPLACEMENTS[(addressSize16 ? 256 : 0) + modrm];
+            if ((displacement & 8) != 0 && !addressSize16) {
+                if (position >= end) {
+                    return exhausted(offset, end);
+                }
+                int sib = data[position++] & 0xFF;
+                if ((sib & 7) == 5 && (modrm >> 6) == 0) {
+                    displacement += 4;
+                }
+            }
+            position += displacement & 7;
+
+            if ((flags & X86OpcodeTable.GROUP) != 0) {
+                int group = X86OpcodeTable.groupOf(flags);
+                if (group == 0) {
+                    if (X86OpcodeTable.X87[opcode - 0xD8][modrm] == null) {
+                        return INVALID_DESCRIPTOR;
+                    }
+                } else {
+                    int groupFlags = X86OpcodeTable.GROUP_FLAGS[group][(modrm >> 3) & 7];
+                    if ((groupFlags & X86OpcodeTable.INVALID) != 0) {
+                        return INVALID_DESCRIPTOR;
+                    }
+                    flags |= (flags & X86OpcodeTable.IMM_MASK) == 0 ? groupFlags & (X86OpcodeTable.IMM_MASK | X86OpcodeTable.DEFAULT_64) : groupFlags & X86OpcodeTable.DEFAULT_64;
+                    flags |= groupFlags & (X86OpcodeTable.FLOW_MASK << X86OpcodeTable.FLOW_SHIFT | X86OpcodeTable.MEMORY_OPERAND);
+                }
+            }
+            if ((modrm & 0xC0) == 0xC0 && ((flags & X86OpcodeTable.MEMORY_OPERAND) != 0 || encoding == ENCODING_VEX || encoding == ENCODING_EVEX) && X86OpcodeTable.requiresMemory(mode, map, opcode, encoding, pp, rep(descriptor), operandSize, modrm)) {
+                return INVALID_DESCRIPTOR;
+            }
+        }
+
+        int immediate = flags & X86OpcodeTable.IMM_MASK;
+        boolean rexW = (rexBits & 8) != 0;
+        int immediateSize = IMMEDIATE_SIZES[(immediate << 4) | (is64Bit ? 8 : 0) | (operandSize ? 4 : 0) | (addressSize ? 2 : 0) | (rexW ? 1 : 0)];
+        int immediateOffset = position - offset;
+        position += immediateSize;
+        if (position > end) {
+            return exhausted(offset, end);
+        }
+
+        descriptor |= (long) (position - offset) << LENGTH_SHIFT;
+        descriptor |= (long) map << MAP_SHIFT;
+        descriptor |= (long) opcode << OPCODE_SHIFT;
+        descriptor |= (long) modrmOffset << MODRM_OFFSET_SHIFT;
+        descriptor |= (long) ((flags & X86OpcodeTable.MODRM) != 0 ? 1 : 0) << HAS_MODRM_SHIFT;
+        descriptor |= (long) immediateOffset << IMMEDIATE_OFFSET_SHIFT;
+        descriptor |= (long) immediateSize << IMMEDIATE_SIZE_SHIFT;
+        descriptor |= (long) (operandSize ? 1 : 0) << OPERAND_SIZE_SHIFT;
+        descriptor |= (long) (addressSize ? 1 : 0) << ADDRESS_SIZE_SHIFT;
+        descriptor |= (long) rexBits << REX_SHIFT;
+        descriptor |= (long) (rex != 0 ? 1 : 0) << HAS_REX_SHIFT;
+        descriptor |= (long) encoding << ENCODING_SHIFT;
+        descriptor |= (long) vectorLength << VECTOR_LENGTH_SHIFT;
+        descriptor |= (long) vvvv << VVVV_SHIFT;
+        descriptor |= (long) pp << PP_SHIFT;
+        descriptor |= (long) X86OpcodeTable.flowOf(flags) << FLOW_DESCRIPTOR_SHIFT;
+        descriptor |= (long) (immediate == X86OpcodeTable.IMM_REL8 || immediate == X86OpcodeTable.IMM_RELZ ? 1 : 0) << RELATIVE_SHIFT;
+        descriptor |= (long) ((flags & X86OpcodeTable.DEFAULT_64) != 0 ? 1 : 0) << DEFAULT_64_SHIFT;
+        return descriptor;
+    }
+
+    static int length(long descriptor) {
+        return (int) (descriptor >>> LENGTH_SHIFT) & 0xF;
+    }
+
+    static int map(long descriptor) {
+        return (int) (descriptor >>> MAP_SHIFT) & 7;
+    }
+
+    static int opcode(long descriptor) {
+        return (int) (descriptor >>> OPCODE_SHIFT) & 0xFF;
+    }
+
+    static boolean hasModRm(long descriptor) {
+        return (descriptor >>> HAS_MODRM_SHIFT & 1) != 0;
+    }
+
+    static int modRmOffset(long descriptor) {
+        return (int) (descriptor >>> MODRM_OFFSET_SHIFT) & 0xF;
+    }
+
+    static int immediateOffset(long descriptor) {
+        return (int) (descriptor >>> IMMEDIATE_OFFSET_SHIFT) & 0xF;
+    }
+
+    static int immediateSize(long descriptor) {
+        return (int) (descriptor >>> IMMEDIATE_SIZE_SHIFT) & 0xF;
+    }
+
+    static boolean operandSizePrefix(long descriptor) {
+        return (descriptor >>> OPERAND_SIZE_SHIFT & 1) != 0;
+    }
+
+    static boolean addressSizePrefix(long descriptor) {
+        return (descriptor >>> ADDRESS_SIZE_SHIFT & 1) != 0;
+    }
+
+    static int rex(long descriptor) {
+        return (int) (descriptor >>> REX_SHIFT) & 0xF;
+    }
+
+    static boolean hasRex(long descriptor) {
+        return (descriptor >>> HAS_REX_SHIFT & 1) != 0;
+    }
+
+    static int rep(long descriptor) {
+        return (int) (descriptor >>> REP_SHIFT) & 3;
+    }
+
+    static boolean lock(long descriptor) {
+        return (descriptor >>> LOCK_SHIFT & 1) != 0;
+    }
+
+    static int segment(long descriptor) {
+        return (int) (descriptor >>> SEGMENT_SHIFT) & 7;
+    }
+
+    static int encoding(long descriptor) {
+        return (int) (descriptor >>> ENCODING_SHIFT) & 3;
+    }
+
+    static int vectorLength(long descriptor) {
+        return (int) (descriptor >>> VECTOR_LENGTH_SHIFT) & 3;
+    }
+
+    static int vvvv(long descriptor) {
+        return (int) (descriptor >>> VVVV_SHIFT) & 0xF | (int) (descriptor >>> V_PRIME_SHIFT & 1) << 4;
+    }
+
+    static int pp(long descriptor) {
+        return (int) (descriptor >>> PP_SHIFT) & 3;
+    }
+
+    static boolean rPrime(long descriptor) {
+        return (descriptor >>> R_PRIME_SHIFT & 1) != 0;
+    }
+
+    static int flow(long descriptor) {
+        return (int) (descriptor >>> FLOW_DESCRIPTOR_SHIFT) & 7;
+    }
+
+    static boolean relative(long descriptor) {
+        return (descriptor >>> RELATIVE_SHIFT & 1) != 0;
+    }
+
+    static boolean default64(long descriptor) {
+        return (descriptor >>> DEFAULT_64_SHIFT & 1) != 0;
+    }
+
+    static long relativeTarget(byte[] data, int offset, long descriptor, long address, boolean is64Bit) {
+        int position = offset + immediateOffset(descriptor);
+        long displacement = switch (immediateSize(descriptor)) {
+            case 1 -> data[position];
+            case 2 -> (short) ((data[position] & 0xFF) | (data[position + 1] << 8));
+            default -> (data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8 | (data[position + 2] & 0xFF) << 16 | data[position + 3] << 24;
+        };
+        long target = address + length(descriptor) + displacement;
+        if (is64Bit) {
+            return target;
+        }
+        return operandSizePrefix(descriptor) && immediateSize(descriptor) == 2 ? target & 0xFFFFL : target & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,990 @@
+package com.arsen.disassembler.arch.x86;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+final class X86OpcodeTable {
+    static final int MAP_PRIMARY = 0;
+    static final int MAP_0F = 1;
+    static final int MAP_0F38 = 2;
+    static final int MAP_0F3A = 3;
+    static final int MAP_XOP8 = 4;
+    static final int MAP_XOP9 = 5;
+    static final int MAP_XOPA = 6;
+    static final int MAP_EVEX_EXTENDED = 7;
+    static final int MAP_COUNT = 8;
+
+    static final int IMM_NONE = 0;
+    static final int IMM_BYTE = 1;
+    static final int IMM_WORD = 2;
+    static final int IMM_Z = 3;
+    static final int IMM_V = 4;
+    static final int IMM_ENTER = 5;
+    static final int IMM_MOFFS = 6;
+    static final int IMM_FAR = 7;
+    static final int IMM_REL8 = 8;
+    static final int IMM_RELZ = 9;
+    static final int IMM_DWORD = 10;
+    static final int IMM_MASK = 0xF;
+
+    static final int MODRM = 1 << 4;
+    static final int INVALID = 1 << 5;
+    static final int DEFAULT_64 = 1 << 6;
+    static final int GROUP = 1 << 7;
+    static final int MEMORY_OPERAND = 1 << 11;
+
+    static final int FLOW_SHIFT = 8;
+    static final int FLOW_MASK = 0x7;
+    static final int FLOW_NONE = 0;
+    static final int FLOW_CONDITIONAL = 1;
+    static final int FLOW_JUMP = 2;
+    static final int FLOW_CALL = 3;
+    static final int FLOW_RETURN = 4;
+    static final int FLOW_SYSTEM = 5;
+    static final int FLOW_NOP = 6;
+
+    static final int GROUP_SHIFT = 12;
+
+    static final String[] CONDITIONS = {"o", "no", "b", "ae", "e", "ne", "be", "a", "s", "ns", "p", "np", "l", "ge", "le", "g"};
+
+    private static final String[] ALU = {"add", "or", "adc", "sbb", "and", "sub", "xor", "cmp"};
+
+    private static final String PRIMARY = """
+            06 push ES i64
+            07 pop ES i64
+            0E push CS i64
+            16 push SS i64
+            17 pop SS i64
+            1E push DS i64
+            1F pop DS i64
+            27 daa i64
+            2F das i64
+            37 aaa i64
+            3F aas i64
+            60 pusha i64
+            61 popa i64
+            62 bound Gv,M i64
+            63 arpl Ew,Gw i64
+            63 movsxd Gv,Ed o64
+            68 push Iz d64
+            69 imul Gv,Ev,Iz
+            6A push Is d64
+            6B imul Gv,Ev,Is
+            6C insb
+            6D ins*
+            6E outsb
+            6F outs*
+            80 @1 Eb,Ib
+            81 @1 Ev,Iz
+            82 @1 Eb,Ib i64
+            83 @1 Ev,Is
+            84 test Eb,Gb
+            85 test Ev,Gv
+            86 xchg Eb,Gb
+            87 xchg Ev,Gv
+            88 mov Eb,Gb
+            89 mov Ev,Gv
+            8A mov Gb,Eb
+            8B mov Gv,Ev
+            8C mov Ev,S
+            8D lea Gv,M
+            8E mov S,Ew
+            8F @1a Ev d64
+            90 nop
+            98 cbw/cwde/cdqe
+            99 cwd/cdq/cqo
+            9A callf A i64
+            9B fwait
+            9C pushf/pushfd/pushfq d64
+            9D popf/popfd/popfq d64
+            9E sahf
+            9F lahf
+            A0 mov AL,Ob
+            A1 mov rAX,Ov
+            A2 mov Ob,AL
+            A3 mov Ov,rAX
+            A4 movsb
+            A5 movs*
+            A6 cmpsb
+            A7 cmps*
+            A8 test AL,Ib
+            A9 test rAX,Iz
+            AA stosb
+            AB stos*
+            AC lodsb
+            AD lods*
+            AE scasb
+            AF scas*
+            C0 @2 Eb,Ib
+            C1 @2 Ev,Ib
+            C2 ret Iw d64
+            C3 ret d64
+            C4 les Gz,Mp i64
+            C5 lds Gz,Mp i64
+            C6 @11b
+            C7 @11v
+            C8 enter Iw,Ib d64
+            C9 leave d64
+            CA retf Iw
+            CB retf
+            CC int3
+            CD int Ib
+            CE into i64
+            CF iret/iretd/iretq
+            D0 @2 Eb,1
+            D1 @2 Ev,1
+            D2 @2 Eb,CL
+            D3 @2 Ev,CL
+            D4 aam Ib i64
+            D5 aad Ib i64
+            D6 salc i64
+            D7 xlat
+            D8 @x87
+            D9 @x87
+            DA @x87
+            DB @x87
+            DC @x87
+            DD @x87
+            DE @x87
+            DF @x87
+            E0 loopne Jb d64
+            E1 loope Jb d64
+            E2 loop Jb d64
+            E3 jrcxz Jb d64
+            E4 in AL,Ib
+            E5 in eAX,Ib
+            E6 out Ib,AL
+            E7 out Ib,eAX
+            E8 call Jz d64
+            E9 jmp Jz d64
+            EA jmpf A i64
+            EB jmp Jb d64
+            EC in AL,DX
+            ED in eAX,DX
+            EE out DX,AL
+            EF out DX,eAX
+            F1 int1
+            F4 hlt
+            F5 cmc
+            F6 @3b
+            F7 @3v
+            F8 clc
+            F9 stc
+            FA cli
+            FB sti
+            FC cld
+            FD std
+            FE @4
+            FF @5
+            """;
+
+    private static final String SECONDARY = """
+            00 @6
+            01 @7
+            02 lar Gv,Ew
+            03 lsl Gv,Ew
+            05 syscall
+            06 clts
+            07 sysret
+            08 invd
+            09 wbinvd
+            0B ud2
+            0D @p Ev
+            0E femms
+            0F 3dnow Pq,Qq,Ib
+            10 movups|movupd|movss:V,H,W|movsd:V,H,W V,W
+            11 movups|movupd|movss:W,H,V|movsd:W,H,V W,V
+            12 movlps|movlpd|movsldup:V,W|movddup:V,W V,H,Mq
+            13 movlps|movlpd Mq,V
+            14 unpcklps|unpcklpd V,H,W
+            15 unpckhps|unpckhpd V,H,W
+            16 movhps|movhpd|movshdup:V,W V,H,Mq
+            17 movhps|movhpd Mq,V
+            18 @16
+            19 nop Ev
+            1A nop Ev
+            1B nop Ev
+            1C nop Ev
+            1D nop Ev
+            1E nop Ev
+            1F nop Ev
+            20 mov Ry,C
+            21 mov Ry,D
+            22 mov C,Ry
+            23 mov D,Ry
+            28 movaps|movapd V,W
+            29 movaps|movapd W,V
+            2A cvtpi2ps:V,Q|cvtpi2pd:V,Q|cvtsi2ss|cvtsi2sd V,H,Ey
+            2B movntps|movntpd Wx,V
+            2C cvttps2pi:P,W|cvttpd2pi:P,W|cvttss2si|cvttsd2si Gy,W
+            2D cvtps2pi:P,W|cvtpd2pi:P,W|cvtss2si|cvtsd2si Gy,W
+            2E ucomiss|ucomisd V,W
+            2F comiss|comisd V,W
+            30 wrmsr
+            31 rdtsc
+            32 rdmsr
+            33 rdpmc
+            34 sysenter
+            35 sysexit
+            37 getsec
+            50 movmskps|movmskpd Gd,U
+            51 sqrtps|sqrtpd|sqrtss|sqrtsd V,H,W
+            52 rsqrtps||rsqrtss V,H,W
+            53 rcpps||rcpss V,H,W
+            54 andps|andpd V,H,W
+            55 andnps|andnpd V,H,W
+            56 orps|orpd V,H,W
+            57 xorps|xorpd V,H,W
+            58 addps|addpd|addss|addsd V,H,W
+            59 mulps|mulpd|mulss|mulsd V,H,W
+            5A cvtps2pd|cvtpd2ps|cvtss2sd|cvtsd2ss V,H,W
+            5B cvtdq2ps|cvtps2dq|cvttps2dq V,W
+            5C subps|subpd|subss|subsd V,H,W
+            5D minps|minpd|minss|minsd V,H,W
+            5E divps|divpd|divss|divsd V,H,W
+            5F maxps|maxpd|maxss|maxsd V,H,W
+            60 punpcklbw P,H,Q
+            61 punpcklwd P,H,Q
+            62 punpckldq P,H,Q
+            63 packsswb P,H,Q
+            64 pcmpgtb P,H,Q
+            65 pcmpgtw P,H,Q
+            66 pcmpgtd P,H,Q
+            67 packuswb P,H,Q
+            68 punpckhbw P,H,Q
+            69 punpckhwd P,H,Q
+            6A punpckhdq P,H,Q
+            6B packssdw P,H,Q
+            6C |punpcklqdq V,H,W
+            6D |punpckhqdq V,H,W
+            6E movd/movq P,Ey
+            6F movq|movdqa:V,W|movdqu:V,W P,Q
+            70 pshufw|pshufd:V,W,Ib|pshufhw:V,W,Ib|pshuflw:V,W,Ib P,Q,Ib
+            71 @12 N,Ib
+            72 @13 N,Ib
+            73 @14 N,Ib
+            74 pcmpeqb P,H,Q
+            75 pcmpeqw P,H,Q
+            76 pcmpeqd P,H,Q
+            77 emms
+            78 vmread Ey,Gy
+            79 vmwrite Gy,Ey
+            7C |haddpd||haddps V,H,W
+            7D |hsubpd||hsubps V,H,W
+            7E movd/movq|movd/movq|movq:V,Wq Ey,P
+            7F movq|movdqa:W,V|movdqu:W,V Q,P
+            A0 push FS d64
+            A1 pop FS d64
+            A2 cpuid
+            A3 bt Ev,Gv
+            A4 shld Ev,Gv,Ib
+            A5 shld Ev,Gv,CL
+            A8 push GS d64
+            A9 pop GS d64
+            AA rsm
+            AB bts Ev,Gv
+            AC shrd Ev,Gv,Ib
+            AD shrd Ev,Gv,CL
+            AE @15
+            AF imul Gv,Ev
+            B0 cmpxchg Eb,Gb
+            B1 cmpxchg Ev,Gv
+            B2 lss Gv,Mp
+            B3 btr Ev,Gv
+            B4 lfs Gv,Mp
+            B5 lgs Gv,Mp
+            B6 movzx Gv,Eb
+            B7 movzx Gv,Ew
+            B8 jmpe||popcnt Gv,Ev
+            B9 ud1 Gv,Ev
+            BA @8 Ev,Ib
+            BB btc Ev,Gv
+            BC bsf||tzcnt Gv,Ev
+            BD bsr||lzcnt Gv,Ev
+            BE movsx Gv,Eb
+            BF movsx Gv,Ew
+            C0 xadd Eb,Gb
+            C1 xadd Ev,Gv
+            C2 cmpps|cmppd|cmpss|cmpsd V,H,W,Ib
+            C3 movnti My,Gy
+            C4 pinsrw P,H,Ew,Ib
+            C5 pextrw Gd,N,Ib
+            C6 shufps|shufpd V,H,W,Ib
+            C7 @9
+            D0 |addsubpd||addsubps V,H,W
+            D1 psrlw P,H,Q
+            D2 psrld P,H,Q
+            D3 psrlq P,H,Q
+            D4 paddq P,H,Q
+            D5 pmullw P,H,Q
+            D6 |movq:Wq,V|movq2dq:V,N|movdq2q:P,U W,V
+            D7 pmovmskb Gd,N
+            D8 psubusb P,H,Q
+            D9 psubusw P,H,Q
+            DA pminub P,H,Q
+            DB pand P,H,Q
+            DC paddusb P,H,Q
+            DD paddusw P,H,Q
+            DE pmaxub P,H,Q
+            DF pandn P,H,Q
+            E0 pavgb P,H,Q
+            E1 psraw P,H,Q
+            E2 psrad P,H,Q
+            E3 pavgw P,H,Q
+            E4 pmulhuw P,H,Q
+            E5 pmulhw P,H,Q
+            E6 |cvttpd2dq|cvtdq2pd|cvtpd2dq V,W
+            E7 movntq:Mq,P|movntdq Wx,V
+            E8 psubsb P,H,Q
+            E9 psubsw P,H,Q
+            EA pminsw P,H,Q
+            EB por P,H,Q
+            EC paddsb P,H,Q
+            ED paddsw P,H,Q
+            EE pmaxsw P,H,Q
+            EF pxor P,H,Q
+            F0 |||lddqu V,M
+            F1 psllw P,H,Q
+            F2 pslld P,H,Q
+            F3 psllq P,H,Q
+            F4 pmuludq P,H,Q
+            F5 pmaddwd P,H,Q
+            F6 psadbw P,H,Q
+            F7 maskmovq|maskmovdqu P,N
+            F8 psubb P,H,Q
+            F9 psubw P,H,Q
+            FA psubd P,H,Q
+            FB psubq P,H,Q
+            FC paddb P,H,Q
+            FD paddw P,H,Q
+            FE paddd P,H,Q
+            FF ud0 Gv,Ev
+            """;
+
+    private static final String MAP_0F38_SPECS = """
+            00 pshufb P,H,Q
+            01 phaddw P,H,Q
+            02 phaddd P,H,Q
+            03 phaddsw P,H,Q
+            04 pmaddubsw P,H,Q
+            05 phsubw P,H,Q
+            06 phsubd P,H,Q
+            07 phsubsw P,H,Q
+            08 psignb P,H,Q
+            09 psignw P,H,Q
+            0A psignd P,H,Q
+            0B pmulhrsw P,H,Q
+            0C |permilps V,H,W
+            0D |permilpd V,H,W
+            0E |testps V,W
+            0F |testpd V,W
+            10 |pblendvb V,W,XMM0
+            13 |cvtph2ps V,W
+            14 |blendvps V,W,XMM0
+            15 |blendvpd V,W,XMM0
+            16 |permps V,H,W
+            17 |ptest V,W
+            18 |broadcastss V,Ud
+            19 |broadcastsd V,Uq
+            1A |broadcastf128 V,M
+            1C pabsb P,Q
+            1D pabsw P,Q
+            1E pabsd P,Q
+            20 |pmovsxbw V,W
+            21 |pmovsxbd V,W
+            22 |pmovsxbq V,W
+            23 |pmovsxwd V,W
+            24 |pmovsxwq V,W
+            25 |pmovsxdq V,W
+            28 |pmuldq V,H,W
+            29 |pcmpeqq V,H,W
+            2A |movntdqa V,M
+            2B |packusdw V,H,W
+            2C |maskmovps V,H,M
+            2D |maskmovpd V,H,M
+            2E |maskmovps M,H,V
+            2F |maskmovpd M,H,V
+            30 |pmovzxbw V,W
+            31 |pmovzxbd V,W
+            32 |pmovzxbq V,W
+            33 |pmovzxwd V,W
+            34 |pmovzxwq V,W
+            35 |pmovzxdq V,W
+            36 |permd V,H,W
+            37 |pcmpgtq V,H,W
+            38 |pminsb V,H,W
+            39 |pminsd V,H,W
+            3A |pminuw V,H,W
+            3B |pminud V,H,W
+            3C |pmaxsb V,H,W
+            3D |pmaxsd V,H,W
+            3E |pmaxuw V,H,W
+            3F |pmaxud V,H,W
+            40 |pmulld V,H,W
+            41 |phminposuw V,W
+            45 |psrlvd V,H,W
+            46 |psravd V,H,W
+            47 |psllvd V,H,W
+            58 |pbroadcastd V,Ud
+            59 |pbroadcastq V,Uq
+            5A |broadcasti128 V,M
+            78 |pbroadcastb V,Ub
+            79 |pbroadcastw V,Uw
+            8C |pmaskmovd V,H,M
+            8E |pmaskmovd M,H,V
+            90 |pgatherdd V,M,H
+            91 |pgatherqd V,M,H
+            92 |gatherdps V,M,H
+            93 |gatherqps V,M,H
+            96 |fmaddsub132ps V,H,W
+            97 |fmsubadd132ps V,H,W
+            98 |fmadd132ps V,H,W
+            99 |fmadd132ss V,H,W
+            9A |fmsub132ps V,H,W
+            9B |fmsub132ss V,H,W
+            9C |fnmadd132ps V,H,W
+            9D |fnmadd132ss V,H,W
+            9E |fnmsub132ps V,H,W
+            9F |fnmsub132ss V,H,W
+            A6 |fmaddsub213ps V,H,W
+            A7 |fmsubadd213ps V,H,W
+            A8 |fmadd213ps V,H,W
+            A9 |fmadd213ss V,H,W
+            AA |fmsub213ps V,H,W
+            AB |fmsub213ss V,H,W
+            AC |fnmadd213ps V,H,W
+            AD |fnmadd213ss V,H,W
+            AE |fnmsub213ps V,H,W
+            AF |fnmsub213ss V,H,W
+            B6 |fmaddsub231ps V,H,W
+            B7 |fmsubadd231ps V,H,W
+            B8 |fmadd231ps V,H,W
+            B9 |fmadd231ss V,H,W
+            BA |fmsub231ps V,H,W
+            BB |fmsub231ss V,H,W
+            BC |fnmadd231ps V,H,W
+            BD |fnmadd231ss V,H,W
+            BE |fnmsub231ps V,H,W
+            BF |fnmsub231ss V,H,W
+            C8 sha1nexte V,W
+            C9 sha1msg1 V,W
+            CA sha1msg2 V,W
+            CB sha256rnds2 V,W,XMM0
+            CC sha256msg1 V,W
+            CD sha256msg2 V,W
+            DB |aesimc V,W
+            DC |aesenc V,H,W
+            DD |aesenclast V,H,W
+            DE |aesdec V,H,W
+            DF |aesdeclast V,H,W
+            F0 movbe|movbe||crc32:Gd,Eb Gy,My
+            F1 movbe|movbe||crc32:Gd,Ey My,Gy
+            F2 andn Gy,By,Ey
+            F3 @17 By,Ey
+            F5 bzhi||pext|pdep Gy,Ey,By
+            F6 |adcx|adox|mulx Gy,By,Ey
+            F7 bextr|shlx|sarx|shrx Gy,Ey,By
+            """;
+
+    private static final String MAP_0F3A_SPECS = """
+            00 |permq V,W,Ib
+            01 |permpd V,W,Ib
+            02 |pblendd V,H,W,Ib
+            04 |permilps V,W,Ib
+            05 |permilpd V,W,Ib
+            06 |perm2f128 V,H,W,Ib
+            08 |roundps V,W,Ib
+            09 |roundpd V,W,Ib
+            0A |roundss V,H,W,Ib
+            0B |roundsd V,H,W,Ib
+            0C |blendps V,H,W,Ib
+            0D |blendpd V,H,W,Ib
+            0E |pblendw V,H,W,Ib
+            0F palignr P,H,Q,Ib
+            14 |pextrb Ed,V,Ib
+            15 |pextrw Ed,V,Ib
+            16 |pextrd/pextrq Ey,V,Ib
+            17 |extractps Ed,V,Ib
+            18 |insertf128 V,H,W,Ib
+            19 |extractf128 W,V,Ib
+            1D |cvtps2ph W,V,Ib
+            20 |pinsrb V,H,Ed,Ib
+            21 |insertps V,H,W,Ib
+            22 |pinsrd/pinsrq V,H,Ey,Ib
+            38 |inserti128 V,H,W,Ib
+            39 |extracti128 W,V,Ib
+            40 |dpps V,H,W,Ib
+            41 |dppd V,H,W,Ib
+            42 |mpsadbw V,H,W,Ib
+            44 |pclmulqdq V,H,W,Ib
+            46 |perm2i128 V,H,W,Ib
+            4A |blendvps V,H,W,L
+            4B |blendvpd V,H,W,L
+            4C |pblendvb V,H,W,L
+            60 |pcmpestrm V,W,Ib
+            61 |pcmpestri V,W,Ib
+            62 |pcmpistrm V,W,Ib
+            63 |pcmpistri V,W,Ib
+            CC sha1rnds4 V,W,Ib
+            DF |aeskeygenassist V,W,Ib
+            F0 |||rorx Gy,Ey,Ib
+            """;
+
+    private static final String VEX_OVERLAY = """
+            0F 41 kandw/kandq|kandb/kandd K,Kv,Km
+            0F 42 kandnw/kandnq|kandnb/kandnd K,Kv,Km
+            0F 44 knotw/knotq|knotb/knotd K,Km
+            0F 45 korw/korq|korb/kord K,Kv,Km
+            0F 46 kxnorw/kxnorq|kxnorb/kxnord K,Kv,Km
+            0F 47 kxorw/kxorq|kxorb/kxord K,Kv,Km
+            0F 4A kaddw/kaddq|kaddb/kaddd K,Kv,Km
+            0F 4B kunpckwd/kunpckdq|kunpckbw K,Kv,Km
+            0F 90 kmovw/kmovq|kmovb/kmovd K,Km
+            0F 91 kmovw/kmovq|kmovb/kmovd M,K
+            0F 92 kmovw|kmovb||kmovd/kmovq K,Ry
+            0F 93 kmovw|kmovb||kmovd/kmovq Gy,Km
+            0F 98 kortestw/kortestq|kortestb/kortestd K,Km
+            0F 99 ktestw/ktestq|ktestb/ktestd K,Km
+            """;
+
+    private static final String EVEX_OVERLAY = """
+            0F 64 |pcmpgtb K,H,W
+            0F 65 |pcmpgtw K,H,W
+            0F 66 |pcmpgtd K,H,W
+            0F 6F |movdqa32/movdqa64|movdqu32/movdqu64|movdqu8/movdqu16 V,W
+            0F 74 |pcmpeqb K,H,W
+            0F 75 |pcmpeqw K,H,W
+            0F 76 |pcmpeqd K,H,W
+            0F 7A |cvttps2qq/cvttpd2qq|cvtudq2pd/cvtuqq2pd|cvtudq2ps/cvtuqq2ps V,W
+            0F 7B |cvtps2qq/cvtpd2qq|cvtusi2ss:V,H,Ey|cvtusi2sd:V,H,Ey V,W
+            0F 7F |movdqa32/movdqa64|movdqu32/movdqu64|movdqu8/movdqu16 W,V
+            0F DB |pandd/pandq V,H,W
+            0F DF |pandnd/pandnq V,H,W
+            0F EB |pord/porq V,H,W
+            0F EF |pxord/pxorq V,H,W
+            0F38 26 |ptestmb/ptestmw|ptestnmb/ptestnmw K,H,W
+            0F38 27 |ptestmd/ptestmq|ptestnmd/ptestnmq K,H,W
+            0F38 29 |pcmpeqq K,H,W
+            0F38 37 |pcmpgtq K,H,W
+            0F38 64 |pblendmd/pblendmq V,H,W
+            0F38 66 |pblendmb/pblendmw V,H,W
+            0F38 7A |pbroadcastb V,Ed
+            0F38 7B |pbroadcastw V,Ed
+            0F38 7C |pbroadcastd/pbroadcastq V,Ey
+            0F38 8D |permb/permw V,H,W
+            0F3A 1E |pcmpud/pcmpuq K,H,W,Ib
+            0F3A 1F |pcmpd/pcmpq K,H,W,Ib
+            0F3A 25 |pternlogd/pternlogq V,H,W,Ib
+            0F3A 3E |pcmpub/pcmpuw K,H,W,Ib
+            0F3A 3F |pcmpb/pcmpw K,H,W,Ib
+            """;
+
+    private static final String GROUPS = """
+            1 add|or|adc|sbb|and|sub|xor|cmp
+            1a pop Ev d64||||||||
+            2 rol|ror|rcl|rcr|shl|shr|sal|sar
+            3b test Eb,Ib|test Eb,Ib|not Eb|neg Eb|mul Eb|imul Eb|div Eb|idiv Eb
+            3v test Ev,Iz|test Ev,Iz|not Ev|neg Ev|mul Ev|imul Ev|div Ev|idiv Ev
+            4 inc Eb|dec Eb||||||
+            5 inc Ev|dec Ev|call Ev d64|callf Mp|jmp Ev d64|jmpf Mp|push Ev d64|
+            11b mov Eb,Ib|||||||xabort Ib
+            11v mov Ev,Iz|||||||xbegin Jz
+            6 sldt Ew|str Ew|lldt Ew|ltr Ew|verr Ew|verw Ew||
+            7 sgdt M|sidt M|lgdt M|lidt M|smsw Ew|rstorssp Mq|lmsw Ew|invlpg Mb
+            8 ||||bt|bts|btr|btc
+            9 |cmpxchg8b/cmpxchg16b Mq||||||vmptrld Mq;rdrand Rv|vmptrst Mq;rdseed Rv
+            12 ||psrlw||psraw||psllw|
+            13 ||psrld||psrad||pslld|
+            14 ||psrlq|psrldq:U,Ib|||psllq|pslldq:U,Ib
+            15 fxsave M|fxrstor M|ldmxcsr Md|stmxcsr Md|xsave M|xrstor M;lfence|xsaveopt M;mfence|clflush Mb;sfence
+            16 prefetchnta Mb|prefetcht0 Mb|prefetcht1 Mb|prefetcht2 Mb|nop Ev|nop Ev|nop Ev|nop Ev
+            17 |blsr|blsmsk|blsi
+            p prefetch Mb|prefetchw Mb|prefetchwt1 Mb|prefetch Mb|prefetch Mb|prefetch Mb|prefetch Mb|prefetch Mb
+            """;
+
+    private static final Map<Integer, String> SYSTEM_0F01 = Map.ofEntries(Map.entry(0xC1, "vmcall"), Map.entry(0xC2, "vmlaunch"), Map.entry(0xC3, "vmresume"), Map.entry(0xC4, "vmxoff"), Map.entry(0xC8, "monitor"), Map.entry(0xC9, "mwait"), Map.entry(0xCA, "clac"), Map.entry(0xCB, "stac"), Map.entry(0xCF, "encls"), Map.entry(0xD0, "xgetbv"), Map.entry(0xD1, "xsetbv"), Map.entry(0xD4, "vmfunc"), Map.entry(0xD5, "xend"), Map.entry(0xD6, "xtest"), Map.entry(0xD7, "enclu"), Map.entry(0xEE, "rdpkru"), Map.entry(0xEF, "wrpkru"), Map.entry(0xF8, "swapgs"), Map.entry(0xF9, "rdtscp"), Map.entry(0xFA, "monitorx"), Map.entry(0xFB, "mwaitx"), Map.entry(0xFC, "clzero"));
+
+    private static final String[][] X87_MEMORY = {
+            {"fadd Md", "fmul Md", "fcom Md", "fcomp Md", "fsub Md", "fsubr Md", "fdiv Md", "fdivr Md"},
+            {"fld Md", null, "fst Md", "fstp Md", "fldenv M", "fldcw Mw", "fnstenv M", "fnstcw Mw"},
+            {"fiadd Md", "fimul Md", "ficom Md", "ficomp Md", "fisub Md", "fisubr Md", "fidiv Md", "fidivr Md"},
+            {"fild Md", "fisttp Md", "fist Md", "fistp Md", null, "fld Mt", null, "fstp Mt"},
+            {"fadd Mq", "fmul Mq", "fcom Mq", "fcomp Mq", "fsub Mq", "fsubr Mq", "fdiv Mq", "fdivr Mq"},
+            {"fld Mq", "fisttp Mq", "fst Mq", "fstp Mq", "frstor M", null, "fnsave M", "fnstsw Mw"},
+            {"fiadd Mw", "fimul Mw", "ficom Mw", "ficomp Mw", "fisub Mw", "fisubr Mw", "fidiv Mw", "fidivr Mw"},
+            {"fild Mw", "fisttp Mw", "fist Mw", "fistp Mw", "fbld Mt", "fild Mq", "fbstp Mt", "fistp Mq"}};
+
+    private static final String[][] X87_REGISTER = {
+            {"fadd ST,STi", "fmul ST,STi", "fcom STi", "fcomp STi", "fsub ST,STi", "fsubr ST,STi", "fdiv ST,STi", "fdivr ST,STi"},
+            {"fld STi", "fxch STi", null, null, null, null, null, null},
+            {"fcmovb ST,STi", "fcmove ST,STi", "fcmovbe ST,STi", "fcmovu ST,STi", null, null, null, null},
+            {"fcmovnb ST,STi", "fcmovne ST,STi", "fcmovnbe ST,STi", "fcmovnu ST,STi", null, "fucomi ST,STi", "fcomi ST,STi", null},
+            {"fadd STi,ST", "fmul STi,ST", null, null, "fsubr STi,ST", "fsub STi,ST", "fdivr STi,ST", "fdiv STi,ST"},
+            {"ffree STi", null, "fst STi", "fstp STi", "fucom STi", "fucomp STi", null, null},
+            {"faddp STi,ST", "fmulp STi,ST", null, null, "fsubrp STi,ST", "fsubp STi,ST", "fdivrp STi,ST", "fdivp STi,ST"},
+            {null, null, null, null, null, "fucomip ST,STi", "fcomip ST,STi", null}};
+
+    private static final Map<Integer, String> X87_SPECIAL = Map.ofEntries(Map.entry(0xD9D0, "fnop"), Map.entry(0xD9E0, "fchs"), Map.entry(0xD9E1, "fabs"), Map.entry(0xD9E4, "ftst"), Map.entry(0xD9E5, "fxam"), Map.entry(0xD9E8, "fld1"), Map.entry(0xD9E9, "fldl2t"), Map.entry(0xD9EA, "fldl2e"), Map.entry(0xD9EB, "fldpi"), Map.entry(0xD9EC, "fldlg2"), Map.entry(0xD9ED, "fldln2"), Map.entry(0xD9EE, "fldz"), Map.entry(0xD9F0, "f2xm1"), Map.entry(0xD9F1, "fyl2x"), Map.entry(0xD9F2, "fptan"), Map.entry(0xD9F3, "fpatan"), Map.entry(0xD9F4, "fxtract"), Map.entry(0xD9F5, "fprem1"), Map.entry(0xD9F6, "fdecstp"), Map.entry(0xD9F7, "fincstp"), Map.entry(0xD9F8, "fprem"), Map.entry(0xD9F9, "fyl2xp1"), Map.entry(0xD9FA, "fsqrt"), Map.entry(0xD9FB, "fsincos"), Map.entry(0xD9FC, "frndint"), Map.entry(0xD9FD, "fscale"), Map.entry(0xD9FE, "fsin"), Map.entry(0xD9FF, "fcos"), Map.entry(0xDAE9, "fucompp"), Map.entry(0xDBE2, "fnclex"), Map.entry(0xDBE3, "fninit"), Map.entry(0xDED9, "fcompp"), Map.entry(0xDFE0, "fnstsw AX"));
+
+    static final int[][][] FLAGS = new int[2][MAP_COUNT][256];
+    static final Spec[][][] SPECS = new Spec[2][4][256];
+    static final Spec[][] GROUP_SPECS = new Spec[32][8];
+    static final Spec[][] GROUP_REGISTER_SPECS = new Spec[32][8];
+    static final int[][] GROUP_FLAGS = new int[32][8];
+    static final Spec[][] X87 = new Spec[8][256];
+    static final Spec[][] VEX_SPECS = new Spec[4][256];
+    static final Spec[][] EVEX_SPECS = new Spec[4][256];
+
+    private static final Set<String> FIXED_OPERANDS = Set.of("AL", "CL", "DX", "rAX", "eAX", "1", "ES", "CS", "SS", "DS", "FS", "GS", "XMM0", "ST", "STi", "AX");
+    private static final Map<String, Integer> GROUP_IDS = new HashMap<>();
+
+    static {
+        parseGroups();
+
+        for (int mode = 0; mode < 2; mode++) {
+            for (int i = 0; i < ALU.length; i++) {
+                define(mode, MAP_PRIMARY, i * 8, ALU[i] + " Eb,Gb");
+                define(mode, MAP_PRIMARY, i * 8 + 1, ALU[i] + " Ev,Gv");
+                define(mode, MAP_PRIMARY, i * 8 + 2, ALU[i] + " Gb,Eb");
+                define(mode, MAP_PRIMARY, i * 8 + 3, ALU[i] + " Gv,Ev");
+                define(mode, MAP_PRIMARY, i * 8 + 4, ALU[i] + " AL,Ib");
+                define(mode, MAP_PRIMARY, i * 8 + 5, ALU[i] + " rAX,Iz");
+            }
+            for (int i = 0; i < 8; i++) {
+                if (mode == 0) {
+                    define(mode, MAP_PRIMARY, 0x40 + i, "inc Zv");
+                    define(mode, MAP_PRIMARY, 0x48 + i, "dec Zv");
+                }
+                define(mode, MAP_PRIMARY, 0x50 + i, "push Zv d64");
+                define(mode, MAP_PRIMARY, 0x58 + i, "pop Zv d64");
+                if (i > 0) {
+                    define(mode, MAP_PRIMARY, 0x90 + i, "xchg Zv,rAX");
+                }
+                define(mode, MAP_PRIMARY, 0xB0 + i, "mov Zb,Ib");
+                define(mode, MAP_PRIMARY, 0xB8 + i, "mov Zv,Iv");
+                define(mode, MAP_0F, 0xC8 + i, "bswap Zv");
+            }
+            for (int i = 0; i < 16; i++) {
+                define(mode, MAP_PRIMARY, 0x70 + i, "j" + CONDITIONS[i] + " Jb d64");
+                define(mode, MAP_0F, 0x80 + i, "j" + CONDITIONS[i] + " Jz d64");
+                define(mode, MAP_0F, 0x90 + i, "set" + CONDITIONS[i] + " Eb");
+                define(mode, MAP_0F, 0x40 + i, "cmov" + CONDITIONS[i] + " Gv,Ev");
+            }
+            parse(mode, MAP_PRIMARY, PRIMARY);
+            parse(mode, MAP_0F, SECONDARY);
+            parse(mode, MAP_0F38, MAP_0F38_SPECS);
+            parse(mode, MAP_0F3A, MAP_0F3A_SPECS);
+
+            for (int opcode = 0; opcode < 256; opcode++) {
+                FLAGS[mode][MAP_0F38][opcode] |= MODRM;
+                FLAGS[mode][MAP_0F3A][opcode] = (FLAGS[mode][MAP_0F3A][opcode] & ~IMM_MASK) | MODRM | IMM_BYTE;
+                FLAGS[mode][MAP_XOP8][opcode] = MODRM | IMM_BYTE;
+                FLAGS[mode][MAP_XOP9][opcode] = MODRM;
+                FLAGS[mode][MAP_XOPA][opcode] = MODRM | IMM_DWORD;
+                FLAGS[mode][MAP_EVEX_EXTENDED][opcode] = MODRM;
+            }
+            for (int opcode : new int[]{0x04, 0x0A, 0x0C, 0x24, 0x25, 0x26, 0x27, 0x36, 0x39, 0x3B, 0x3C, 0x3D, 0x3E, 0x3F, 0x7A, 0x7B, 0xA6, 0xA7}) {
+                FLAGS[mode][MAP_0F][opcode] = INVALID;
+            }
+            for (int opcode : new int[]{0x26, 0x2E, 0x36, 0x3E, 0x64, 0x65, 0x66, 0x67, 0xF0, 0xF2, 0xF3, 0x0F}) {
+                FLAGS[mode][MAP_PRIMARY][opcode] = INVALID;
+            }
+            if (mode == 1) {
+                for (int i = 0x40; i < 0x50; i++) {
+                    FLAGS[mode][MAP_PRIMARY][i] = INVALID;
+                }
+            }
+            for (int map = MAP_PRIMARY; map <= MAP_0F; map++) {
+                for (int opcode = 0; opcode < 256; opcode++) {
+                    if (SPECS[mode][map][opcode] == null && FLAGS[mode][map][opcode] == 0) {
+                        FLAGS[mode][map][opcode] = INVALID;
+                    }
+                }
+            }
+        }
+
+        parseOverlay(VEX_SPECS, VEX_OVERLAY);
+        parseOverlay(EVEX_SPECS, EVEX_OVERLAY);
+
+        for (int opcode = 0; opcode < 8; opcode++) {
+            for (int modrm = 0; modrm < 256; modrm++) {
+                int reg = (modrm >> 3) & 7;
+                String special = X87_SPECIAL.get(((0xD8 + opcode) << 8) | modrm);
+                String spec = modrm >= 0xC0 ? (special != null ? special : X87_REGISTER[opcode][reg]) : X87_MEMORY[opcode][reg];
+                X87[opcode][modrm] = spec == null ? null : Spec.parse(spec);
+            }
+        }
+    }
+
+    private X86OpcodeTable() {
+    }
+
+    static Spec spec(int mode, int map, int opcode) {
+        return map < 4 ? SPECS[mode][map][opcode] : null;
+    }
+
+    static int groupOf(int flags) {
+        return flags >>> GROUP_SHIFT;
+    }
+
+    static int flowOf(int flags) {
+        return (flags >>> FLOW_SHIFT) & FLOW_MASK;
+    }
+
+    static int evexFlags(int mode, int map, int opcode) {
+        Spec overlay = map < MAP_XOP8 ? EVEX_SPECS[map][opcode] : null;
+        return (overlay != null ? overlay.flags() : FLAGS[mode][map][opcode]) | MODRM;
+    }
+
+    static boolean requiresMemory(int mode, int map, int opcode, int encoding, int pp, int rep, boolean operandSizePrefix, int modrm) {
+        Spec spec = map >= MAP_XOP8 ? null : encoding == X86InstructionScanner.ENCODING_VEX && VEX_SPECS[map][opcode] != null ? VEX_SPECS[map][opcode] : encoding == X86InstructionScanner.ENCODING_EVEX && EVEX_SPECS[map][opcode] != null ? EVEX_SPECS[map][opcode] : spec(mode, map, opcode);
+        if (spec == null) {
+            return false;
+        }
+        int variant = spec.variant(encoding, pp, rep, operandSizePrefix);
+        if (map == MAP_0F && (opcode == 0x01 && systemName(modrm) != null || opcode == 0xAE && rep == X86InstructionScanner.REP_F3 || (opcode == 0x12 || opcode == 0x16) && variant == 0)) {
+            return false;
+        }
+        if (spec.group() == null) {
+            return spec.mnemonic(variant) != null && Spec.requiresMemory(spec.operandsFor(variant));
+        }
+        if (spec.group().equals("x87")) {
+            return false;
+        }
+        int group = groupOf(FLAGS[mode][map][opcode]);
+        int reg = (modrm >> 3) & 7;
+        return GROUP_REGISTER_SPECS[group][reg] == null && GROUP_SPECS[group][reg] != null && Spec.requiresMemory(GROUP_SPECS[group][reg].operandsFor(0));
+    }
+
+    static String systemName(int modrm) {
+        return SYSTEM_0F01.get(modrm);
+    }
+
+    static Spec x87(int opcode, int modrm) {
+        return X87[opcode - 0xD8][modrm];
+    }
+
+    private static void parse(int mode, int map, String table) {
+        for (String line : table.strip().split("\n")) {
+            String[] parts = line.strip().split(" ");
+            boolean only32 = line.endsWith(" i64");
+            boolean only64 = line.endsWith(" o64");
+            if ((only32 && mode == 1) || (only64 && mode == 0)) {
+                if (only32) {
+                    FLAGS[mode][map][Integer.parseInt(parts[0], 16)] = INVALID;
+                }
+                continue;
+            }
+            define(mode, map, Integer.parseInt(parts[0], 16), line.substring(3).replace(" i64", "").replace(" o64", ""));
+        }
+    }
+
+    private static void parseOverlay(Spec[][] specs, String table) {
+        for (String line : table.strip().split("\n")) {
+            String[] parts = line.strip().split(" ", 3);
+            int map = switch (parts[0]) {
+                case "0F38" -> MAP_0F38;
+                case "0F3A" -> MAP_0F3A;
+                default -> MAP_0F;
+            };
+            specs[map][Integer.parseInt(parts[1], 16)] = Spec.parse(parts[2]);
+        }
+    }
+
+    private static void define(int mode, int map, int opcode, String text) {
+        Spec spec = Spec.parse(text);
+        SPECS[mode][map][opcode] = spec;
+
+        int flags = spec.flags();
+        if (spec.group() != null) {
+            Integer id = GROUP_IDS.get(spec.group());
+            if (id != null) {
+                flags |= GROUP | MODRM | (id << GROUP_SHIFT);
+            } else {
+                flags |= MODRM;
+            }
+        }
+        FLAGS[mode][map][opcode] = flags;
+    }
+
+    private static void parseGroups() {
+        int id = 1;
+        for (String line : GROUPS.strip().split("\n")) {
+            int space = line.indexOf(' ');
+            String name = line.substring(0, space);
+            String[] slots = line.substring(space + 1).split("\\|", -1);
+            GROUP_IDS.put(name, id);
+            for (int reg = 0; reg < 8 && reg < slots.length; reg++) {
+                String slot = slots[reg].strip();
+                if (slot.isEmpty()) {
+                    continue;
+                }
+                String[] forms = slot.split(";");
+                if (!forms[0].isEmpty()) {
+                    GROUP_SPECS[id][reg] = Spec.parse(forms[0]);
+                    GROUP_FLAGS[id][reg] = GROUP_SPECS[id][reg].flags();
+                }
+                if (forms.length > 1) {
+                    GROUP_REGISTER_SPECS[id][reg] = Spec.parse(forms[1]);
+                    GROUP_FLAGS[id][reg] &= ~MEMORY_OPERAND;
+                }
+            }
+            for (int reg = 0; reg < 8; reg++) {
+                if (GROUP_SPECS[id][reg] == null && GROUP_REGISTER_SPECS[id][reg] == null) {
+                    GROUP_FLAGS[id][reg] = INVALID;
+                }
+            }
+            id++;
+        }
+        GROUP_IDS.put("x87", 0);
+    }
+
+    record Spec(String[] mnemonics, String[][] operands, String group, int flags) {
+        static Spec parse(String text) {
+            String[] parts = text.strip().split(" ");
+            String head = parts[0];
+            String operandText = parts.length > 1 && !isAnnotation(parts[1]) ? parts[1] : "";
+            boolean default64 = text.contains(" d64");
+
+            if (head.startsWith("@")) {
+                int flags = immediateOf(split(operandText)) | (operandText.isEmpty() ? 0 : MODRM) | (default64 ? DEFAULT_64 : 0);
+                return new Spec(new String[]{null, null, null, null}, new String[][]{split(operandText), null, null, null}, head.substring(1), flags);
+            }
+
+            String[] variants = head.split("\\|", -1);
+            String[] mnemonics = new String[4];
+            String[][] operands = new String[4][];
+            String[] shared = split(operandText);
+            for (int i = 0; i < 4; i++) {
+                String variant = i < variants.length ? variants[i] : "";
+                if (variant.isEmpty()) {
+                    continue;
+                }
+                int colon = variant.indexOf(':');
+                mnemonics[i] = colon < 0 ? variant : variant.substring(0, colon);
+                operands[i] = colon < 0 ? shared : split(variant.substring(colon + 1));
+            }
+
+            String primary = firstNonNull(mnemonics);
+            String[] primaryOperands = operands[indexOf(mnemonics, primary)];
+            int flags = immediateOf(primaryOperands) | (default64 ? DEFAULT_64 : 0) | (flowOf(primary, primaryOperands) << FLOW_SHIFT);
+            for (String[] variantOperands : operands) {
+                if (variantOperands != null && usesModRm(variantOperands)) {
+                    flags |= MODRM;
+                }
+                if (variantOperands != null && requiresMemory(variantOperands)) {
+                    flags |= MEMORY_OPERAND;
+                }
+            }
+            return new Spec(mnemonics, operands, null, flags);
+        }
+
+        int variant(int encoding, int pp, int rep, boolean operandSizePrefix) {
+            if (encoding == X86InstructionScanner.ENCODING_VEX || encoding == X86InstructionScanner.ENCODING_EVEX) {
+                return pp;
+            }
+            if (rep == X86InstructionScanner.REP_F3 && mnemonics[2] != null) {
+                return 2;
+            }
+            if (rep == X86InstructionScanner.REP_F2 && mnemonics[3] != null) {
+                return 3;
+            }
+            if (operandSizePrefix && mnemonics[1] != null) {
+                return 1;
+            }
+            return 0;
+        }
+
+        String mnemonic(int prefix) {
+            return mnemonics[prefix] != null ? mnemonics[prefix] : firstNonNull(mnemonics);
+        }
+
+        String[] operandsFor(int prefix) {
+            if (mnemonics[prefix] != null) {
+                return operands[prefix];
+            }
+            String primary = firstNonNull(mnemonics);
+            return primary == null ? operands[0] : operands[indexOf(mnemonics, primary)];
+        }
+
+        private static boolean isAnnotation(String token) {
+            return token.equals("d64");
+        }
+
+        private static String[] split(String operands) {
+            return operands.isEmpty() ? new String[0] : operands.split(",");
+        }
+
+        private static String firstNonNull(String[] values) {
+            for (String value : values) {
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        private static int indexOf(String[] values, String value) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null && values[i].equals(value)) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        private static boolean usesModRm(String[] operands) {
+            for (String operand : operands) {
+                if (!FIXED_OPERANDS.contains(operand) && "EGMRSCDVWUPQN".indexOf(operand.charAt(0)) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        static boolean requiresMemory(String[] operands) {
+            for (String operand : operands) {
+                if (operand.charAt(0) == 'M') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int immediateOf(String[] operands) {
+            int immediate = IMM_NONE;
+            for (String operand : operands) {
+                switch (operand) {
+                    case "Ib", "Is", "L" -> immediate = immediate == IMM_WORD ? IMM_ENTER : IMM_BYTE;
+                    case "Iw" -> immediate = IMM_WORD;
+                    case "Iz" -> immediate = IMM_Z;
+                    case "Iv" -> immediate = IMM_V;
+                    case "Ob", "Ov" -> immediate = IMM_MOFFS;
+                    case "A" -> immediate = IMM_FAR;
+                    case "Jb" -> immediate = IMM_REL8;
+                    case "Jz" -> immediate = IMM_RELZ;
+                    default -> {
+                    }
+                }
+            }
+            return immediate;
+        }
+
+        private static int flowOf(String mnemonic, String[] operands) {
+            if (mnemonic == null) {
+                return FLOW_NONE;
+            }
+            boolean relative = operands.length > 0 && operands[0].startsWith("J");
+            return switch (mnemonic) {
+                case "jmp", "jmpf" -> FLOW_JUMP;
+                case "call", "callf" -> FLOW_CALL;
+                case "ret", "retf", "iret/iretd/iretq" -> FLOW_RETURN;
+                case "loop", "loope", "loopne", "jrcxz" -> FLOW_CONDITIONAL;
+                case "syscall", "sysenter", "sysexit", "sysret", "int", "int1", "int3", "into", "hlt", "ud0", "ud1", "ud2" -> FLOW_SYSTEM;
+                case "nop" -> FLOW_NOP;
+                default -> relative && mnemonic.startsWith("j") ? FLOW_CONDITIONAL : FLOW_NONE;
+            };
+        }
+    }
+}
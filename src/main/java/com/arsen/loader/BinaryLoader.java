@@ -1,14 +1,66 @@
 package com.arsen.loader;
 
+import com.arsen.loader.io.ByteSource;
+import com.arsen.loader.io.ChannelByteSource;
+import com.arsen.loader.io.ContentHasher;
 import com.arsen.model.BinaryFormat;
+import com.arsen.model.Section;
 import com.arsen.model.binary.BinaryFile;
+import com.arsen.model.binary.BinaryProbe;
+import com.arsen.model.binary.ContentHash;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface BinaryLoader {
     boolean supports(byte[] header);
 
-    BinaryFile load(Path path) throws Exception;
+    default BinaryFile load(Path path) throws Exception {
+        return load(path, ByteSource.open(path));
+    }
+
+    default BinaryFile load(Path path, ByteSource source) throws Exception {
+        CompletableFuture<List<Section>> regions = new CompletableFuture<>();
+        CompletableFuture<ContentHash> contentHash = suppliesContentHash() ? null : ContentHasher.hash(source, regions);
+
+        BinaryFile binary;
+        try {
+            binary = parse(path, source, false);
+        } catch (Exception e) {
+            regions.completeExceptionally(e);
+            if (contentHash != null) {
+                contentHash.handle((hash, failure) -> null).join();
+            }
+            source.close();
+            throw e;
+        }
+
+        regions.complete(binary.getSource() == source ? binary.getMappedRegions() : List.of());
+        if (contentHash != null && binary.getContentHash() == null) {
+            binary.setContentHash(contentHash.join());
+        }
+        if (binary.getSource() != source) {
+            source.close();
+        }
+        return binary;
+    }
+
+    default boolean suppliesContentHash() {
+        return false;
+    }
+
+    default BinaryProbe probe(Path path) throws Exception {
+        try (ChannelByteSource source = ChannelByteSource.open(path)) {
+            return probe(path, source);
+        }
+    }
+
+    default BinaryProbe probe(Path path, ByteSource source) throws Exception {
+        return BinaryProbe.from(parse(path, source, true), source.size());
+    }
+
+    BinaryFile parse(Path path, ByteSource source, boolean headersOnly) throws Exception;
 
     BinaryFormat getFormat();
 }
@@ -1,8 +1,14 @@
 package com.arsen.loader;
 
+import com.arsen.loader.container.ContainerLoader;
 import com.arsen.loader.elf.ElfLoader;
+import com.arsen.loader.firmware.IntelHexLoader;
+import com.arsen.loader.firmware.SRecordLoader;
+import com.arsen.loader.io.ChannelByteSource;
 import com.arsen.loader.macho.MachOLoader;
 import com.arsen.loader.pe.PeLoader;
+import com.arsen.loader.raw.RawLoader;
+import com.arsen.model.binary.BinaryProbe;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
@@ -10,32 +16,58 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 public class BinaryLoaderFactory {
+    public static final int HEADER_SIZE = 512;
     private static final List<BinaryLoader> loaders = new ArrayList<>();
+    private static final BinaryLoader rawLoader = new RawLoader();
 
     static {
+        loaders.add(new ContainerLoader());
         loaders.add(new PeLoader());
         loaders.add(new ElfLoader());
         loaders.add(new MachOLoader());
+        loaders.add(new IntelHexLoader());
+        loaders.add(new SRecordLoader());
     }
 
     public static BinaryLoader getLoader(Path path) throws IOException {
-        byte[] header = readHeader(path);
+        BinaryLoader loader = getLoader(readHeader(path));
+        log.info("Selected loader: {} for file: {}", loader.getFormat(), path);
+        return loader;
+    }
+
+    public static BinaryLoader getLoaderOrRaw(Path path) throws IOException {
+        BinaryLoader loader = findLoader(readHeader(path)).orElse(rawLoader);
+        log.info("Selected loader: {} for file: {}", loader.getFormat(), path);
+        return loader;
+    }
 
+    public static BinaryLoader getLoader(byte[] header) {
+        return findLoader(header).orElseThrow(() -> new UnsupportedOperationException("No loader found for binary format"));
+    }
+
+    public static Optional<BinaryLoader> findLoader(byte[] header) {
         for (BinaryLoader loader : loaders) {
             if (loader.supports(header)) {
-                log.info("Selected loader: {} for file: {}", loader.getFormat(), path);
-                return loader;
+                return Optional.of(loader);
             }
         }
+        return Optional.empty();
+    }
 
-        throw new UnsupportedOperationException("No loader found for binary format");
+    public static BinaryProbe probe(Path path) throws Exception {
+        try (ChannelByteSource source = ChannelByteSource.open(path)) {
+            byte[] header = new byte[(int) Math.min(source.size(), HEADER_SIZE)];
+            source.read(0, header, 0, header.length);
+            return getLoader(header).probe(path, source);
+        }
     }
 
     private static byte[] readHeader(Path path) throws IOException {
-        byte[] buffer = new byte[512];
+        byte[] buffer = new byte[HEADER_SIZE];
         try (var stream = Files.newInputStream(path)) {
             int read = stream.read(buffer);
             if (read < buffer.length) {
@@ -0,0 +1,176 @@
+package com.arsen.loader.carve;
+
+import com.arsen.loader.BinaryLoader;
+import com.arsen.loader.BinaryLoaderFactory;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.loader.io.SlicedByteSource;
+import com.arsen.model.Architecture;
+import com.arsen.model.BinaryFormat;
+import com.arsen.model.Section;
+import com.arsen.model.binary.BinaryFile;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Slf4j
+public class BinaryCarver {
+    private static final int CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int OVERLAP = 64;
+    private static final int MAX_PE_HEADER_OFFSET = 0x10000;
+
+    private static final boolean[] MAGIC_LEAD_BYTES = new boolean[256];
+
+    static {
+        for (int lead : new int[]{0x7F, 0xFE, 0xCE, 0xCF, 0xCA, 'M'}) {
+            MAGIC_LEAD_BYTES[lead] = true;
+        }
+    }
+
+    private final int parallelism;
+
+    public BinaryCarver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BinaryCarver(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public BinaryFile carve(BinaryFile binary) throws InterruptedException {
+        List<BinaryFile> embedded = scan(binary.getFilePath(), binary.getSource()).stream().filter(hit -> hit.offset() > 0).map(Hit::binary).toList();
+        return binary.toBuilder().children(embedded).build();
+    }
+
+    public List<BinaryFile> carve(Path path, ByteSource source) throws InterruptedException {
+        return scan(path, source).stream().map(Hit::binary).toList();
+    }
+
+    private List<Hit> scan(Path path, ByteSource source) throws InterruptedException {
+        long size = source.size();
+        int chunks = (int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        List<Future<List<Hit>>> futures = new ArrayList<>(chunks);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            for (int i = 0; i < chunks; i++) {
+                long start = (long) i * CHUNK_SIZE;
+                futures.add(executor.submit(() -> scanChunk(path, source, start)));
+            }
+
+            List<Hit> hits = new ArrayList<>();
+            for (Future<List<Hit>> future : futures) {
+                hits.addAll(future.get());
+            }
+            hits.sort(Comparator.comparingLong(Hit::offset));
+
+            log.info("Carved {} embedded binaries from {}", hits.size(), path);
+            return hits;
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to carve " + path, e.getCause());
+        }
+    }
+
+    private List<Hit> scanChunk(Path path, ByteSource source, long start) {
+        int length = (int) Math.min(CHUNK_SIZE, source.size() - start);
+        byte[] data = new byte[(int) Math.min((long) length + OVERLAP, source.size() - start)];
+        source.read(start, data, 0, data.length);
+        List<Hit> hits = new ArrayList<>();
+
+        for (int i = 0; i < length; i++) {
+            if (!MAGIC_LEAD_BYTES[data[i] & 0xFF]) {
+                continue;
+            }
+            boolean candidate = switch (data[i]) {
+                case 0x7F -> isElfCandidate(data, i);
+                case (byte) 0xFE, (byte) 0xCE, (byte) 0xCF, (byte) 0xCA -> isMachOCandidate(data, i);
+                case 'M' -> isPeCandidate(source, data, start, i);
+                default -> false;
+            };
+            if (candidate) {
+                validate(path, source, start + i).ifPresent(hits::add);
+            }
+        }
+
+        return hits;
+    }
+
+    private boolean isElfCandidate(byte[] data, int position) {
+        return position + 6 <= data.length && data[position + 1] == 'E' && data[position + 2] == 'L' && data[position + 3] == 'F' && isClassAndData(data[position + 4], data[position + 5]);
+    }
+
+    private boolean isMachOCandidate(byte[] data, int position) {
+        return position + 4 <= data.length && isMachOMagic(ByteBuffer.wrap(data, position, 4).getInt());
+    }
+
+    private boolean isPeCandidate(ByteSource source, byte[] data, long start, int position) {
+        if (position + 0x40 > data.length || data[position + 1] != 'Z') {
+            return false;
+        }
+
+        long peOffset = ByteBuffer.wrap(data, position + 0x3C, 4).order(ByteOrder.LITTLE_ENDIAN).getInt() & 0xFFFFFFFFL;
+        long signature = start + position + peOffset;
+        if (peOffset < 0x40 || peOffset > MAX_PE_HEADER_OFFSET || signature + 4 > source.size()) {
+            return false;
+        }
+
+        return source.get(signature) == 'P' && source.get(signature + 1) == 'E' && source.get(signature + 2) == 0 && source.get(signature + 3) == 0;
+    }
+
+    private boolean isClassAndData(byte elfClass, byte elfData) {
+        return (elfClass == 1 || elfClass == 2) && (elfData == 1 || elfData == 2);
+    }
+
+    private boolean isMachOMagic(int magic) {
+        return switch (magic) {
+            case 0xfeedface, 0xfeedfacf, 0xcefaedfe, 0xcffaedfe, 0xcafebabe, 0xcafebabf -> true;
+            default -> false;
+        };
+    }
+
+    private Optional<Hit> validate(Path path, ByteSource source, long offset) {
+        ByteSource view = new SlicedByteSource(source, offset, source.size() - offset);
+        byte[] header = new byte[(int) Math.min(view.size(), BinaryLoaderFactory.HEADER_SIZE)];
+        view.read(0, header, 0, header.length);
+
+        Optional<BinaryLoader> loader = BinaryLoaderFactory.findLoader(header);
+        if (loader.isEmpty() || loader.get().getFormat() == BinaryFormat.CONTAINER) {
+            return Optional.empty();
+        }
+
+        Path childPath = Path.of(path + String.format("@0x%X", offset));
+        try {
+            BinaryFile probe = loader.get().parse(childPath, view, true);
+            if (!isPlausible(probe, view.size())) {
+                return Optional.empty();
+            }
+            return Optional.of(new Hit(offset, loader.get().parse(childPath, view, false)));
+        } catch (Exception e) {
+            log.trace("Rejected carving candidate at 0x{}: {}", Long.toHexString(offset), e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private boolean isPlausible(BinaryFile binary, long available) {
+        if (binary.getArchitecture() == Architecture.UNKNOWN || binary.getMappedRegions().isEmpty()) {
+            return false;
+        }
+        for (Section region : binary.getMappedRegions()) {
+            if (region.getContent() != null && region.getRawSize() > 0 && Long.compareUnsigned(region.getRawAddress().value(), available) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Hit(long offset, BinaryFile binary) {
+    }
+}
@@ -0,0 +1,285 @@
+package com.arsen.loader.container;
+
+import com.arsen.loader.BinaryLoader;
+import com.arsen.loader.BinaryLoaderFactory;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.loader.io.ContentHasher;
+import com.arsen.model.Address;
+import com.arsen.model.Architecture;
+import com.arsen.model.BinaryFormat;
+import com.arsen.model.binary.BinaryFile;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+@Slf4j
+public class ContainerLoader implements BinaryLoader {
+
+    private static final int TAR_BLOCK_SIZE = 512;
+    private static final int TAR_MAGIC_OFFSET = 257;
+    private static final int MAX_DEPTH = 8;
+    private static final String MEMBER_SEPARATOR = "!/";
+    private static final String TEMP_PREFIX = "arsen-member-";
+
+    @Override
+    public boolean supports(byte[] header) {
+        return isGzip(header) || isZip(header) || isTar(header);
+    }
+
+    @Override
+    public BinaryFile parse(Path path, ByteSource source, boolean headersOnly) throws Exception {
+        log.info("Expanding container: {}", path);
+
+        byte[] header = new byte[(int) Math.min(source.size(), BinaryLoaderFactory.HEADER_SIZE)];
+        source.read(0, header, 0, header.length);
+
+        List<BinaryFile> members = new ArrayList<>();
+        try (InputStream in = source.inputStream()) {
+            expand(path.toString(), header, in, headersOnly, 0, members);
+        }
+
+        if (members.isEmpty()) {
+            throw new UnsupportedOperationException("No loadable members in container: " + path);
+        }
+        if (members.size() == 1) {
+            return members.getFirst();
+        }
+
+        BinaryFile container = BinaryFile.builder().filePath(path).format(BinaryFormat.CONTAINER).architecture(Architecture.UNKNOWN).entryPoint(Address.of(0)).children(members).source(source).build();
+        if (!headersOnly) {
+            container.setContentHash(ContentHasher.hash(source, CompletableFuture.completedFuture(List.of())).join());
+        }
+        return container;
+    }
+
+    @Override
+    public boolean suppliesContentHash() {
+        return true;
+    }
+
+    private void expand(String path, byte[] header, InputStream in, boolean headersOnly, int depth, List<BinaryFile> members) throws IOException {
+        if (depth > MAX_DEPTH) {
+            log.warn("Container nesting too deep, skipping {}", path);
+            return;
+        }
+
+        if (isGzip(header)) {
+            expandMember(path + MEMBER_SEPARATOR + stripSuffix(Path.of(path).getFileName().toString()), new GZIPInputStream(in), headersOnly, depth, members);
+        } else if (isZip(header)) {
+            ZipInputStream zip = new ZipInputStream(in);
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (!entry.isDirectory()) {
+                    expandMember(path + MEMBER_SEPARATOR + entry.getName(), zip, headersOnly, depth, members);
+                }
+            }
+        } else if (isTar(header)) {
+            expandTar(path, in, headersOnly, depth, members);
+        }
+    }
+
+    private void expandTar(String path, InputStream in, boolean headersOnly, int depth, List<BinaryFile> members) throws IOException {
+        String longName = null;
+
+        while (true) {
+            byte[] block = in.readNBytes(TAR_BLOCK_SIZE);
+            if (block.length < TAR_BLOCK_SIZE || block[0] == 0) {
+                return;
+            }
+
+            long size = parseTarSize(block);
+            byte type = block[156];
+            String name = longName != null ? longName : tarName(block);
+            longName = null;
+
+            LimitedInputStream member = new LimitedInputStream(in, size);
+            if (type == 'L') {
+                longName = trimNul(new String(member.readAllBytes(), StandardCharsets.UTF_8));
+            } else if (type == '0' || type == 0) {
+                expandMember(path + MEMBER_SEPARATOR + name, member, headersOnly, depth, members);
+            }
+
+            member.transferTo(OutputStream.nullOutputStream());
+            in.skipNBytes((TAR_BLOCK_SIZE - size % TAR_BLOCK_SIZE) % TAR_BLOCK_SIZE);
+        }
+    }
+
+    private void expandMember(String memberPath, InputStream in, boolean headersOnly, int depth, List<BinaryFile> members) throws IOException {
+        byte[] header = in.readNBytes(BinaryLoaderFactory.HEADER_SIZE);
+        if (header.length == 0) {
+            return;
+        }
+
+        Optional<BinaryLoader> loader = BinaryLoaderFactory.findLoader(header);
+        if (loader.isEmpty()) {
+            log.debug("Skipping unrecognized member {}", memberPath);
+            return;
+        }
+
+        if (loader.get() instanceof ContainerLoader) {
+            expand(memberPath, header, new SequenceInputStream(new ByteArrayInputStream(header), in), headersOnly, depth + 1, members);
+            return;
+        }
+
+        Path temp = Files.createTempFile(TEMP_PREFIX, null);
+        temp.toFile().deleteOnExit();
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                out.write(header);
+                in.transferTo(out);
+            }
+            ByteSource member = new TemporaryFileSource(ByteSource.open(temp), temp);
+            if (headersOnly) {
+                try (member) {
+                    members.add(loader.get().parse(Path.of(memberPath), member, true));
+                }
+            } else {
+                members.add(loader.get().load(Path.of(memberPath), member));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to load container member {}: {}", memberPath, e.toString());
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private long parseTarSize(byte[] block) {
+        if ((block[124] & 0x80) != 0) {
+            long size = 0;
+            for (int i = 125; i < 136; i++) {
+                size = (size << 8) | Byte.toUnsignedLong(block[i]);
+            }
+            return size;
+        }
+        String octal = trimNul(new String(block, 124, 12, StandardCharsets.US_ASCII)).trim();
+        return octal.isEmpty() ? 0 : Long.parseLong(octal, 8);
+    }
+
+    private String tarName(byte[] block) {
+        String name = trimNul(new String(block, 0, 100, StandardCharsets.UTF_8));
+        String prefix = trimNul(new String(block, 345, 155, StandardCharsets.UTF_8));
+        return prefix.isEmpty() ? name : prefix + "/" + name;
+    }
+
+    private String trimNul(String value) {
+        int end = value.indexOf('\0');
+        return end < 0 ? value : value.substring(0, end);
+    }
+
+    private String stripSuffix(String name) {
+        if (name.endsWith(".tgz")) {
+            return name.substring(0, name.length() - 4) + ".tar";
+        }
+        return name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+    }
+
+    private static boolean isGzip(byte[] header) {
+        return header.length >= 2 && (header[0] & 0xFF) == 0x1F && (header[1] & 0xFF) == 0x8B;
+    }
+
+    private static boolean isZip(byte[] header) {
+        return header.length >= 4 && header[0] == 'P' && header[1] == 'K' && header[2] == 3 && header[3] == 4;
+    }
+
+    private static boolean isTar(byte[] header) {
+        return header.length >= TAR_MAGIC_OFFSET + 5 && new String(header, TAR_MAGIC_OFFSET, 5, StandardCharsets.US_ASCII).equals("ustar");
+    }
+
+    @Override
+    public BinaryFormat getFormat() {
+        return BinaryFormat.CONTAINER;
+    }
+
+    private static class TemporaryFileSource implements ByteSource {
+        private final ByteSource delegate;
+        private final Path path;
+
+        TemporaryFileSource(ByteSource delegate, Path path) {
+            this.delegate = delegate;
+            this.path = path;
+        }
+
+        @Override
+        public long size() {
+            return delegate.size();
+        }
+
+        @Override
+        public byte get(long position) {
+            return delegate.get(position);
+        }
+
+        @Override
+        public int read(long position, byte[] destination, int offset, int length) {
+            return delegate.read(position, destination, offset, length);
+        }
+
+        @Override
+        public ByteBuffer buffer(long position, int length) {
+            return delegate.buffer(position, length);
+        }
+
+        @Override
+        public ByteSource slice(long offset, long length) {
+            return delegate.slice(offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.debug("Deferring deletion of container member {}: {}", path, e.toString());
+            }
+        }
+    }
+
+    private static class LimitedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+
+        LimitedInputStream(InputStream in, long limit) {
+            this.in = in;
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int value = in.read();
+            if (value >= 0) {
+                remaining--;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] destination, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = in.read(destination, offset, (int) Math.min(length, remaining));
+            if (count > 0) {
+                remaining -= count;
+            }
+            return count;
+        }
+    }
+}
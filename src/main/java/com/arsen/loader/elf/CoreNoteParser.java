@@ -0,0 +1,174 @@
+package com.arsen.loader.elf;
+
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Architecture;
+import com.arsen.model.binary.CoreDump;
+import com.arsen.model.binary.CoreThread;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@Slf4j
+class CoreNoteParser {
+    private static final int NT_PRSTATUS = 1;
+    private static final int NT_PRPSINFO = 3;
+    private static final int NT_FILE = 0x46494C45;
+    private static final String CORE_OWNER = "CORE";
+    private static final int MAX_NOTE_SIZE = 64 * 1024 * 1024;
+    private static final int PRPSINFO_NAME_SIZE = 16;
+    private static final int PRPSINFO_ARGS_SIZE = 80;
+
+    private final ByteOrder byteOrder;
+    private final boolean is64Bit;
+    private final RegisterLayout layout;
+
+    CoreNoteParser(ByteOrder byteOrder, boolean is64Bit, Architecture architecture) {
+        this.byteOrder = byteOrder;
+        this.is64Bit = is64Bit;
+        this.layout = RegisterLayout.of(architecture, is64Bit);
+    }
+
+    CoreDump parse(List<ByteSource> notes) {
+        CoreDump.CoreDumpBuilder builder = CoreDump.builder();
+        for (ByteSource note : notes) {
+            if (note.size() > MAX_NOTE_SIZE) {
+                log.warn("Skipping oversized core note segment of {} bytes", note.size());
+                continue;
+            }
+            parseNotes(note.buffer(0, (int) note.size()).order(byteOrder), builder);
+        }
+        return builder.build();
+    }
+
+    private void parseNotes(ByteBuffer buffer, CoreDump.CoreDumpBuilder builder) {
+        while (buffer.remaining() >= 12) {
+            int nameSize = buffer.getInt();
+            int descSize = buffer.getInt();
+            int type = buffer.getInt();
+            if (nameSize < 0 || descSize < 0 || align(nameSize) + (long) align(descSize) > buffer.remaining()) {
+                return;
+            }
+
+            String owner = readString(buffer, buffer.position(), nameSize);
+            buffer.position(buffer.position() + align(nameSize));
+            ByteBuffer desc = buffer.slice(buffer.position(), descSize).order(byteOrder);
+            buffer.position(buffer.position() + align(descSize));
+
+            if (!owner.equals(CORE_OWNER)) {
+                continue;
+            }
+            switch (type) {
+                case NT_PRSTATUS -> builder.thread(parseStatus(desc));
+                case NT_PRPSINFO -> parseProcessInfo(desc, builder);
+                case NT_FILE -> parseFiles(desc, builder);
+                default -> {
+                }
+            }
+        }
+    }
+
+    private CoreThread parseStatus(ByteBuffer desc) {
+        if (desc.limit() < 16) {
+            return CoreThread.builder().build();
+        }
+        int wordSize = is64Bit ? 8 : 4;
+        int pidOffset = 12 + 4 + 2 * wordSize;
+        int registerOffset = pidOffset + 16 + 4 * 2 * wordSize;
+        int registerCount = Math.max(0, (desc.limit() - registerOffset - (is64Bit ? 8 : 4)) / wordSize);
+
+        CoreThread.CoreThreadBuilder thread = CoreThread.builder().signal(Short.toUnsignedInt(desc.getShort(12))).threadId(desc.limit() >= pidOffset + 4 ? desc.getInt(pidOffset) : 0);
+        for (int i = 0; i < registerCount; i++) {
+            String name = layout.nameOf(i);
+            if (name == null) {
+                continue;
+            }
+            long value = is64Bit ? desc.getLong(registerOffset + i * 8) : desc.getInt(registerOffset + i * 4) & 0xFFFFFFFFL;
+            thread.register(name, value);
+            if (name.equals(layout.programCounter())) {
+                thread.programCounter(Address.of(value));
+            } else if (name.equals(layout.stackPointer())) {
+                thread.stackPointer(Address.of(value));
+            }
+        }
+        return thread.build();
+    }
+
+    private void parseProcessInfo(ByteBuffer desc, CoreDump.CoreDumpBuilder builder) {
+        int nameOffset = desc.limit() - PRPSINFO_ARGS_SIZE - PRPSINFO_NAME_SIZE;
+        if (nameOffset < 16) {
+            return;
+        }
+        builder.pid(desc.getInt(nameOffset - 16)).parentPid(desc.getInt(nameOffset - 12)).processName(readString(desc, nameOffset, PRPSINFO_NAME_SIZE)).commandLine(readString(desc, nameOffset + PRPSINFO_NAME_SIZE, PRPSINFO_ARGS_SIZE).trim());
+    }
+
+    private void parseFiles(ByteBuffer desc, CoreDump.CoreDumpBuilder builder) {
+        long count = readWord(desc);
+        long pageSize = readWord(desc);
+        int wordSize = is64Bit ? 8 : 4;
+        if (count < 0 || count > desc.remaining() || count * 3 * wordSize > desc.remaining()) {
+            return;
+        }
+
+        long[] ranges = new long[(int) count * 3];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = readWord(desc);
+        }
+
+        int position = desc.position();
+        for (int i = 0; i < count && position < desc.limit(); i++) {
+            int end = position;
+            while (end < desc.limit() && desc.get(end) != 0) {
+                end++;
+            }
+            builder.mappedFile(new CoreDump.MappedFile(ranges[i * 3], ranges[i * 3 + 1], ranges[i * 3 + 2] * pageSize, readString(desc, position, end - position)));
+            position = end + 1;
+        }
+    }
+
+    private long readWord(ByteBuffer buffer) {
+        return is64Bit ? buffer.getLong() : buffer.getInt() & 0xFFFFFFFFL;
+    }
+
+    private String readString(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return trimNul(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private String trimNul(String value) {
+        int end = value.indexOf('\0');
+        return end < 0 ? value : value.substring(0, end);
+    }
+
+    private static int align(int size) {
+        return (size + 3) & ~3;
+    }
+
+    private record RegisterLayout(int skip, List<String> names, String programCounter, String stackPointer) {
+        static RegisterLayout of(Architecture architecture, boolean is64Bit) {
+            return switch (architecture) {
+                case X86_64 -> new RegisterLayout(0, List.of("r15", "r14", "r13", "r12", "rbp", "rbx", "r11", "r10", "r9", "r8", "rax", "rcx", "rdx", "rsi", "rdi", "orig_rax", "rip", "cs", "eflags", "rsp", "ss", "fs_base", "gs_base", "ds", "es", "fs", "gs"), "rip", "rsp");
+                case X86 -> new RegisterLayout(0, List.of("ebx", "ecx", "edx", "esi", "edi", "ebp", "eax", "ds", "es", "fs", "gs", "orig_eax", "eip", "cs", "eflags", "esp", "ss"), "eip", "esp");
+                case ARM64 -> new RegisterLayout(0, Stream.concat(IntStream.range(0, 31).mapToObj(i -> "x" + i), Stream.of("sp", "pc", "pstate")).toList(), "pc", "sp");
+                case ARM -> new RegisterLayout(0, Stream.concat(IntStream.range(0, 13).mapToObj(i -> "r" + i), Stream.of("sp", "lr", "pc", "cpsr", "orig_r0")).toList(), "pc", "sp");
+                case MIPS -> new RegisterLayout(is64Bit ? 0 : 6, Stream.concat(IntStream.range(0, 32).mapToObj(i -> "r" + i), Stream.of("lo", "hi", "epc", "badvaddr", "status", "cause")).toList(), "epc", "r29");
+                case POWERPC -> new RegisterLayout(0, Stream.concat(IntStream.range(0, 32).mapToObj(i -> "r" + i), Stream.of("nip", "msr", "orig_r3", "ctr", "lr", "xer", "ccr")).toList(), "nip", "r1");
+                default -> new RegisterLayout(0, List.of(), null, null);
+            };
+        }
+
+        String nameOf(int index) {
+            int slot = index - skip;
+            if (slot < 0) {
+                return null;
+            }
+            return slot < names.size() ? names.get(slot) : "reg" + index;
+        }
+    }
+}
@@ -1,20 +1,49 @@
 package com.arsen.loader.elf;
 
 import com.arsen.loader.BinaryLoader;
+import com.arsen.loader.io.ByteSource;
 import com.arsen.model.*;
+import com.arsen.model.binary.AddressSpace;
 import com.arsen.model.binary.BinaryFile;
+import com.arsen.model.binary.CoreDump;
+import com.arsen.model.binary.CoreThread;
+import com.arsen.model.binary.SymbolTable;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 public class ElfLoader implements BinaryLoader {
 
+    private static final int SHT_SYMTAB = 2;
+    private static final int SHT_NOBITS = 8;
+    private static final int SHT_DYNSYM = 11;
+    private static final int SHN_UNDEF = 0;
+    private static final int SHN_LORESERVE = 0xFF00;
+    private static final int SHN_ABS = 0xFFF1;
+    private static final int STB_GLOBAL = 1;
+    private static final int STB_WEAK = 2;
+    private static final int STT_NOTYPE = 0;
+    private static final int STT_OBJECT = 1;
+    private static final int STT_FUNC = 2;
+    private static final int STT_GNU_IFUNC = 10;
+    private static final int SYMBOL_WINDOW_SIZE = 64 * 1024;
+    private static final long SHF_WRITE = 0x1;
+    private static final long SHF_ALLOC = 0x2;
+    private static final long SHF_EXECINSTR = 0x4;
+    private static final int ET_CORE = 4;
+    private static final int PT_LOAD = 1;
+    private static final int PT_NOTE = 4;
+    private static final int PF_X = 0x1;
+    private static final int PF_W = 0x2;
+    private static final int PF_R = 0x4;
+
     @Override
     public boolean supports(byte[] header) {
         if (header.length < 4) return false;
@@ -22,20 +51,18 @@ public class ElfLoader implements BinaryLoader {
     }
 
     @Override
-    public BinaryFile load(Path path) throws Exception {
+    public BinaryFile parse(Path path, ByteSource source, boolean headersOnly) throws Exception {
         log.info("Loading ELF file: {}", path);
-        byte[] data = Files.readAllBytes(path);
-        ByteBuffer buffer = ByteBuffer.wrap(data);
 
-        int elfClass = data[4];
-        int elfData = data[5];
+        int elfClass = source.get(4);
+        int elfData = source.get(5);
 
         ByteOrder byteOrder = (elfData == 1) ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
-        buffer.order(byteOrder);
 
         boolean is64Bit = (elfClass == 2);
         int bitness = is64Bit ? 64 : 32;
 
+        ByteBuffer buffer = source.buffer(0, is64Bit ? 64 : 52).order(byteOrder);
         buffer.position(16);
         short type = buffer.getShort();
         short machine = buffer.getShort();
@@ -57,45 +84,118 @@ public class ElfLoader implements BinaryLoader {
 
         buffer.getInt();
         short ehsize = buffer.getShort();
-        short phentsize = buffer.getShort();
-        short phnum = buffer.getShort();
-        short shentsize = buffer.getShort();
-        short shnum = buffer.getShort();
-        short shstrndx = buffer.getShort();
+        int phentsize = Short.toUnsignedInt(buffer.getShort());
+        int phnum = Short.toUnsignedInt(buffer.getShort());
+        int shentsize = Short.toUnsignedInt(buffer.getShort());
+        int shnum = Short.toUnsignedInt(buffer.getShort());
+        int shstrndx = Short.toUnsignedInt(buffer.getShort());
+
+        List<ByteSource> notes = new ArrayList<>();
+        List<Section> segments;
+        try {
+            segments = parseSegments(source, byteOrder, phoff, phnum, phentsize, is64Bit, notes);
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed program header table in {}: {}", path, e.toString());
+            segments = List.of();
+        }
+
+        List<SectionHeader> headers;
+        try {
+            headers = parseSectionHeaders(source, byteOrder, shoff, shnum, shentsize, shstrndx, is64Bit);
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed section header table in {}: {}", path, e.toString());
+            headers = List.of();
+        }
+
+        List<Section> sections = headers.stream().map(h -> toSection(source, h)).toList();
+        List<Section> allocated = sections.stream().filter(s -> (s.getFlags() & SHF_ALLOC) != 0).toList();
+
+        Architecture architecture = mapMachineToArchitecture(machine);
+        BinaryFile.BinaryFileBuilder builder = BinaryFile.builder().filePath(path).format(BinaryFormat.ELF).architecture(architecture).endianness(elfData == 1 ? Endianness.LITTLE : Endianness.BIG).bitness(bitness).entryPoint(Address.of(entryPoint)).sections(sections).segments(segments).addressSpace(AddressSpace.of(allocated.isEmpty() ? segments : allocated)).source(source);
+
+        if (type == ET_CORE && !headersOnly) {
+            try {
+                CoreDump core = new CoreNoteParser(byteOrder, is64Bit, architecture).parse(notes);
+                builder.coreDump(core);
+                core.getCrashingThread().map(CoreThread::getProgramCounter).ifPresent(builder::entryPoint);
+                log.info("Core dump of {} (pid {}): {} threads, {} mapped files", core.getProcessName(), core.getPid(), core.getThreads().size(), core.getMappedFiles().size());
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed core notes in {}: {}", path, e.toString());
+            }
+        }
 
-        List<Section> sections = parseSections(buffer, shoff, shnum, shentsize, shstrndx, is64Bit, data);
+        if (!headersOnly) {
+            try {
+                parseSymbols(source, byteOrder, headers, is64Bit, builder);
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed symbol table in {}: {}", path, e.toString());
+            }
+        }
 
-        return BinaryFile.builder().filePath(path).format(BinaryFormat.ELF).architecture(mapMachineToArchitecture(machine)).endianness(elfData == 1 ? Endianness.LITTLE : Endianness.BIG).bitness(bitness).entryPoint(Address.of(entryPoint)).sections(sections).rawData(data).build();
+        return builder.build();
     }
 
-    private List<Section> parseSections(ByteBuffer buffer, long shoff, int shnum, int shentsize, int shstrndx, boolean is64Bit, byte[] data) {
-        List<Section> sections = new ArrayList<>();
+    private List<Section> parseSegments(ByteSource source, ByteOrder byteOrder, long phoff, int phnum, int phentsize, boolean is64Bit, List<ByteSource> notes) {
+        List<Section> segments = new ArrayList<>();
+        if (phoff == 0 || phnum == 0 || phentsize < (is64Bit ? 56 : 32) || Long.compareUnsigned(phoff, source.size()) >= 0) {
+            return segments;
+        }
 
-        byte[] stringTableData = null;
-        if (shstrndx < shnum) {
-            buffer.position((int) (shoff + shstrndx * shentsize));
-            buffer.getInt();
-            buffer.getInt();
+        int count = (int) Math.min(phnum, (source.size() - phoff) / phentsize);
+        ByteBuffer buffer = source.buffer(phoff, count * phentsize).order(byteOrder);
 
-            long strtabOffset;
-            long strtabSize;
+        for (int i = 0; i < count; i++) {
+            buffer.position(i * phentsize);
+
+            int type = buffer.getInt();
+            int flags;
+            long offset;
+            long vaddr;
+            long filesz;
+            long memsz;
 
             if (is64Bit) {
+                flags = buffer.getInt();
+                offset = buffer.getLong();
+                vaddr = buffer.getLong();
                 buffer.getLong();
-                strtabOffset = buffer.getLong();
-                strtabSize = buffer.getLong();
+                filesz = buffer.getLong();
+                memsz = buffer.getLong();
             } else {
+                offset = buffer.getInt() & 0xFFFFFFFFL;
+                vaddr = buffer.getInt() & 0xFFFFFFFFL;
                 buffer.getInt();
-                strtabOffset = buffer.getInt() & 0xFFFFFFFFL;
-                strtabSize = buffer.getInt() & 0xFFFFFFFFL;
+                filesz = buffer.getInt() & 0xFFFFFFFFL;
+                memsz = buffer.getInt() & 0xFFFFFFFFL;
+                flags = buffer.getInt();
             }
 
-            stringTableData = new byte[(int) strtabSize];
-            System.arraycopy(data, (int) strtabOffset, stringTableData, 0, (int) strtabSize);
+            if (type == PT_NOTE && filesz > 0) {
+                notes.add(source.slice(offset, filesz));
+            }
+            if (type != PT_LOAD) {
+                continue;
+            }
+
+            ByteSource content = filesz > 0 ? source.slice(offset, filesz) : null;
+            long rawSize = content == null ? 0 : content.size();
+
+            segments.add(Section.builder().name("LOAD_" + segments.size()).virtualAddress(Address.of(vaddr)).virtualSize(memsz).rawAddress(Address.of(offset)).rawSize(rawSize).flags(flags).permissions(mapSegmentFlags(flags)).content(content).build());
         }
 
+        return segments;
+    }
+
+    private List<SectionHeader> parseSectionHeaders(ByteSource source, ByteOrder byteOrder, long shoff, int shnum, int shentsize, int shstrndx, boolean is64Bit) {
+        List<SectionHeader> headers = new ArrayList<>();
+        if (shoff == 0 || shnum == 0) {
+            return headers;
+        }
+
+        ByteBuffer buffer = source.buffer(shoff, shnum * shentsize).order(byteOrder);
+
         for (int i = 0; i < shnum; i++) {
-            buffer.position((int) (shoff + i * shentsize));
+            buffer.position(i * shentsize);
 
             int nameOffset = buffer.getInt();
             int type = buffer.getInt();
@@ -104,37 +204,164 @@ public class ElfLoader implements BinaryLoader {
             long addr;
             long offset;
             long size;
+            int link;
+            long entsize;
 
             if (is64Bit) {
                 flags = buffer.getLong();
                 addr = buffer.getLong();
                 offset = buffer.getLong();
                 size = buffer.getLong();
+                link = buffer.getInt();
+                buffer.getInt();
+                buffer.getLong();
+                entsize = buffer.getLong();
             } else {
                 flags = buffer.getInt() & 0xFFFFFFFFL;
                 addr = buffer.getInt() & 0xFFFFFFFFL;
                 offset = buffer.getInt() & 0xFFFFFFFFL;
                 size = buffer.getInt() & 0xFFFFFFFFL;
+                link = buffer.getInt();
+                buffer.getInt();
+                buffer.getInt();
+                entsize = buffer.getInt() & 0xFFFFFFFFL;
             }
 
+            headers.add(new SectionHeader(nameOffset, type, flags, addr, offset, size, link, entsize));
+        }
+
+        ByteSource stringTable = shstrndx < shnum ? contentOf(source, headers.get(shstrndx)) : null;
+
+        for (int i = 0; i < headers.size(); i++) {
+            SectionHeader header = headers.get(i);
             String name = "SECTION_" + i;
-            if (stringTableData != null && nameOffset < stringTableData.length) {
-                int endIdx = nameOffset;
-                while (endIdx < stringTableData.length && stringTableData[endIdx] != 0) {
-                    endIdx++;
-                }
-                name = new String(stringTableData, nameOffset, endIdx - nameOffset);
+            if (stringTable != null && header.nameOffset() >= 0 && header.nameOffset() < stringTable.size()) {
+                name = stringTable.readCString(header.nameOffset());
             }
+            headers.set(i, header.withName(name));
+        }
+
+        return headers;
+    }
+
+    private Section toSection(ByteSource source, SectionHeader header) {
+        ByteSource content = contentOf(source, header);
+        long rawSize = content == null ? 0 : content.size();
+
+        return Section.builder().name(header.name()).virtualAddress(Address.of(header.addr())).virtualSize(header.size()).rawAddress(Address.of(header.offset())).rawSize(rawSize).flags((int) header.flags()).permissions(mapSectionFlags(header.flags())).content(content).build();
+    }
+
+    private ByteSource contentOf(ByteSource source, SectionHeader header) {
+        return header.type() == SHT_NOBITS ? null : source.slice(header.offset(), header.size());
+    }
+
+    private void parseSymbols(ByteSource source, ByteOrder byteOrder, List<SectionHeader> headers, boolean is64Bit, BinaryFile.BinaryFileBuilder builder) {
+        SymbolTable.Builder symbols = SymbolTable.builder();
+        List<Import> imports = new ArrayList<>();
+        List<Export> exports = new ArrayList<>();
+        boolean hasSymtab = headers.stream().anyMatch(h -> h.type() == SHT_SYMTAB);
 
-            byte[] sectionData = new byte[(int) Math.min(size, data.length - offset)];
-            if (offset < data.length) {
-                System.arraycopy(data, (int) offset, sectionData, 0, sectionData.length);
+        for (SectionHeader header : headers) {
+            if (header.type() != SHT_SYMTAB && header.type() != SHT_DYNSYM) {
+                continue;
             }
+            if (header.link() <= 0 || header.link() >= headers.size()) {
+                continue;
+            }
+
+            boolean dynamic = header.type() == SHT_DYNSYM;
+            ByteSource stringTable = contentOf(source, headers.get(header.link()));
+            ByteSource table = contentOf(source, header);
+            if (stringTable == null || table == null) {
+                continue;
+            }
+
+            int stringTableIndex = symbols.addStringTable(stringTable);
+            int entrySize = header.entsize() > 0 ? (int) header.entsize() : (is64Bit ? 24 : 16);
+            long count = table.size() / entrySize;
+            int batch = Math.max(1, SYMBOL_WINDOW_SIZE / entrySize);
+
+            for (long first = 1; first < count; first += batch) {
+                int entries = (int) Math.min(batch, count - first);
+                ByteBuffer buffer = table.buffer(first * entrySize, entries * entrySize).order(byteOrder);
+
+                for (int i = 0; i < entries; i++) {
+                    buffer.position(i * entrySize);
+
+                    int nameOffset = buffer.getInt();
+                    long value;
+                    long size;
+                    int info;
+                    int shndx;
+
+                    if (is64Bit) {
+                        info = Byte.toUnsignedInt(buffer.get());
+                        buffer.get();
+                        shndx = Short.toUnsignedInt(buffer.getShort());
+                        value = buffer.getLong();
+                        size = buffer.getLong();
+                    } else {
+                        value = buffer.getInt() & 0xFFFFFFFFL;
+                        size = buffer.getInt() & 0xFFFFFFFFL;
+                        info = Byte.toUnsignedInt(buffer.get());
+                        buffer.get();
+                        shndx = Short.toUnsignedInt(buffer.getShort());
+                    }
+
+                    int bind = info >> 4;
+                    Symbol.SymbolType type = mapSymbolType(info & 0xF);
+                    if (type == null || nameOffset == 0) {
+                        continue;
+                    }
 
-            sections.add(Section.builder().name(name).virtualAddress(Address.of(addr)).virtualSize(size).rawAddress(Address.of(offset)).rawSize(size).flags((int) flags).data(sectionData).build());
+                    if (shndx == SHN_UNDEF) {
+                        if (dynamic) {
+                            imports.add(Import.builder().library("").name(stringTable.readCString(nameOffset)).address(Address.of(value)).ordinal((int) (first + i)).build());
+                        }
+                        continue;
+                    }
+
+                    if (shndx >= SHN_LORESERVE && (shndx != SHN_ABS || value == 0)) {
+                        continue;
+                    }
+
+                    if (dynamic && (bind == STB_GLOBAL || bind == STB_WEAK)) {
+                        exports.add(Export.builder().name(stringTable.readCString(nameOffset)).address(Address.of(value)).ordinal((int) (first + i)).build());
+                    }
+
+                    if (dynamic == !hasSymtab) {
+                        symbols.add(value, size, nameOffset, type, stringTableIndex);
+                    }
+                }
+            }
         }
 
-        return sections;
+        builder.imports(imports).exports(exports).symbolTable(symbols.build());
+    }
+
+    private Symbol.SymbolType mapSymbolType(int type) {
+        return switch (type) {
+            case STT_FUNC, STT_GNU_IFUNC -> Symbol.SymbolType.FUNCTION;
+            case STT_OBJECT -> Symbol.SymbolType.DATA;
+            case STT_NOTYPE -> Symbol.SymbolType.LABEL;
+            default -> null;
+        };
+    }
+
+    private Set<Permission> mapSectionFlags(long flags) {
+        Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+        if ((flags & SHF_ALLOC) != 0) permissions.add(Permission.READ);
+        if ((flags & SHF_WRITE) != 0) permissions.add(Permission.WRITE);
+        if ((flags & SHF_EXECINSTR) != 0) permissions.add(Permission.EXECUTE);
+        return permissions;
+    }
+
+    private Set<Permission> mapSegmentFlags(int flags) {
+        Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+        if ((flags & PF_R) != 0) permissions.add(Permission.READ);
+        if ((flags & PF_W) != 0) permissions.add(Permission.WRITE);
+        if ((flags & PF_X) != 0) permissions.add(Permission.EXECUTE);
+        return permissions;
     }
 
     private Architecture mapMachineToArchitecture(short machine) {
@@ -153,4 +380,14 @@ public class ElfLoader implements BinaryLoader {
     public BinaryFormat getFormat() {
         return BinaryFormat.ELF;
     }
+
+    private record SectionHeader(String name, int nameOffset, int type, long flags, long addr, long offset, long size, int link, long entsize) {
+        SectionHeader(int nameOffset, int type, long flags, long addr, long offset, long size, int link, long entsize) {
+            this(null, nameOffset, type, flags, addr, offset, size, link, entsize);
+        }
+
+        SectionHeader withName(String name) {
+            return new SectionHeader(name, nameOffset, type, flags, addr, offset, size, link, entsize);
+        }
+    }
 }
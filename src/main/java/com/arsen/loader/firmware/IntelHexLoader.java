@@ -0,0 +1,62 @@
+package com.arsen.loader.firmware;
+
+import com.arsen.model.BinaryFormat;
+
+public class IntelHexLoader extends RecordLoader {
+    private static final int DATA = 0x00;
+    private static final int END_OF_FILE = 0x01;
+    private static final int EXTENDED_SEGMENT_ADDRESS = 0x02;
+    private static final int START_SEGMENT_ADDRESS = 0x03;
+    private static final int EXTENDED_LINEAR_ADDRESS = 0x04;
+    private static final int START_LINEAR_ADDRESS = 0x05;
+
+    @Override
+    protected char getStartCode() {
+        return ':';
+    }
+
+    @Override
+    protected int getPrefixLength() {
+        return 1;
+    }
+
+    @Override
+    protected long parseRecord(String line, byte[] record, SparseImage image) {
+        int length = record[0] & 0xFF;
+        if (record.length != length + 5) {
+            throw new IllegalArgumentException("record length " + length + " does not match line");
+        }
+        if (checksum(record, record.length) != 0) {
+            throw new IllegalArgumentException("checksum mismatch");
+        }
+
+        long offset = readAddress(record, 1, 2);
+        int type = record[3] & 0xFF;
+
+        switch (type) {
+            case DATA -> image.write(image.getBase() + offset, record, 4, length);
+            case END_OF_FILE -> {
+            }
+            case EXTENDED_SEGMENT_ADDRESS -> image.setBase(readAddress(record, 4, 2) << 4);
+            case EXTENDED_LINEAR_ADDRESS -> image.setBase(readAddress(record, 4, 2) << 16);
+            case START_SEGMENT_ADDRESS -> {
+                return (readAddress(record, 4, 2) << 4) + readAddress(record, 6, 2);
+            }
+            case START_LINEAR_ADDRESS -> {
+                return readAddress(record, 4, 4);
+            }
+            default -> throw new IllegalArgumentException("unknown record type " + type);
+        }
+        return -1;
+    }
+
+    @Override
+    protected boolean isEndOfFile(String line, byte[] record) {
+        return (record[3] & 0xFF) == END_OF_FILE;
+    }
+
+    @Override
+    public BinaryFormat getFormat() {
+        return BinaryFormat.INTEL_HEX;
+    }
+}
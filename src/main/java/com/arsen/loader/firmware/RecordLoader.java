@@ -0,0 +1,122 @@
+package com.arsen.loader.firmware;
+
+import com.arsen.loader.BinaryLoader;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.loader.io.PagedByteSource;
+import com.arsen.loader.raw.ArchitectureClassifier;
+import com.arsen.model.Address;
+import com.arsen.model.Architecture;
+import com.arsen.model.Section;
+import com.arsen.model.binary.AddressSpace;
+import com.arsen.model.binary.BinaryFile;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+@Slf4j
+abstract class RecordLoader implements BinaryLoader {
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final ArchitectureClassifier classifier = new ArchitectureClassifier();
+
+    protected abstract char getStartCode();
+
+    protected abstract int getPrefixLength();
+
+    protected abstract long parseRecord(String line, byte[] record, SparseImage image);
+
+    protected boolean isEndOfFile(String line, byte[] record) {
+        return false;
+    }
+
+    @Override
+    public boolean supports(byte[] header) {
+        int start = 0;
+        while (start < header.length && Character.isWhitespace(header[start])) {
+            start++;
+        }
+        if (header.length - start < 10 || header[start] != getStartCode()) {
+            return false;
+        }
+        for (int i = start + 1; i < start + 10; i++) {
+            if (Character.digit(header[i], 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public BinaryFile parse(Path path, ByteSource source, boolean headersOnly) throws Exception {
+        log.info("Loading {} firmware: {}", getFormat(), path);
+
+        SparseImage image = new SparseImage();
+        long entryPoint = -1;
+        int lineNumber = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(source.inputStream(), StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.charAt(0) != getStartCode() || line.length() < getPrefixLength() + 2 || (line.length() - getPrefixLength()) % 2 != 0) {
+                    throw new IOException("Malformed record at line " + lineNumber + " of " + path);
+                }
+
+                byte[] record;
+                long entry;
+                try {
+                    record = HEX.parseHex(line, getPrefixLength(), line.length());
+                    entry = parseRecord(line, record, image);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Malformed record at line " + lineNumber + " of " + path + ": " + e.getMessage(), e);
+                }
+                if (entry >= 0) {
+                    entryPoint = entry;
+                }
+                if (isEndOfFile(line, record)) {
+                    break;
+                }
+            }
+        }
+
+        if (image.isEmpty()) {
+            throw new UnsupportedOperationException("No data records in firmware image: " + path);
+        }
+
+        PagedByteSource content = image.toByteSource();
+        List<Section> regions = image.toSections(content);
+        Section largest = regions.stream().max(Comparator.comparingLong(Section::getRawSize)).orElseThrow();
+        ArchitectureClassifier.Classification classification = classifier.classify(largest.getContent());
+
+        log.info("Loaded {} regions from {} classified as {} {}-bit {}", regions.size(), path, classification.architecture(), classification.bitness(), classification.endianness());
+
+        return BinaryFile.builder().filePath(path).format(getFormat()).architecture(classification.architecture()).endianness(classification.endianness()).bitness(classification.architecture() == Architecture.UNKNOWN ? 32 : classification.bitness()).entryPoint(Address.of(entryPoint >= 0 ? entryPoint : image.lowestAddress())).sections(regions).addressSpace(AddressSpace.of(regions)).source(content).build();
+    }
+
+    protected static int checksum(byte[] record, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += record[i] & 0xFF;
+        }
+        return sum & 0xFF;
+    }
+
+    protected static long readAddress(byte[] record, int offset, int width) {
+        long address = 0;
+        for (int i = 0; i < width; i++) {
+            address = (address << 8) | (record[offset + i] & 0xFF);
+        }
+        return address;
+    }
+}
@@ -0,0 +1,53 @@
+package com.arsen.loader.firmware;
+
+import com.arsen.model.BinaryFormat;
+
+public class SRecordLoader extends RecordLoader {
+
+    @Override
+    protected char getStartCode() {
+        return 'S';
+    }
+
+    @Override
+    protected int getPrefixLength() {
+        return 2;
+    }
+
+    @Override
+    protected long parseRecord(String line, byte[] record, SparseImage image) {
+        int count = record[0] & 0xFF;
+        if (record.length != count + 1) {
+            throw new IllegalArgumentException("byte count " + count + " does not match line");
+        }
+        if (checksum(record, record.length) != 0xFF) {
+            throw new IllegalArgumentException("checksum mismatch");
+        }
+
+        char type = line.charAt(1);
+        int width = switch (type) {
+            case '0', '1', '5', '9' -> 2;
+            case '2', '6', '8' -> 3;
+            case '3', '7' -> 4;
+            default -> throw new IllegalArgumentException("unknown record type S" + type);
+        };
+        if (count < width + 1) {
+            throw new IllegalArgumentException("record too short for S" + type);
+        }
+
+        long address = readAddress(record, 1, width);
+        return switch (type) {
+            case '1', '2', '3' -> {
+                image.write(address, record, 1 + width, count - width - 1);
+                yield -1;
+            }
+            case '7', '8', '9' -> address;
+            default -> -1;
+        };
+    }
+
+    @Override
+    public BinaryFormat getFormat() {
+        return BinaryFormat.SREC;
+    }
+}
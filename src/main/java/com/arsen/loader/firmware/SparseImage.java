@@ -0,0 +1,87 @@
+package com.arsen.loader.firmware;
+
+import com.arsen.loader.io.PagedByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Permission;
+import com.arsen.model.Section;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+class SparseImage {
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    private final Map<Long, byte[]> pages = new HashMap<>();
+    private final TreeMap<Long, Long> runs = new TreeMap<>();
+    private long lastRunStart = -1;
+    private long end;
+    private long base;
+
+    long getBase() {
+        return base;
+    }
+
+    void setBase(long base) {
+        this.base = base;
+    }
+
+    void write(long address, byte[] data, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        for (int written = 0; written < length; ) {
+            long current = address + written;
+            int pageOffset = (int) (current & (PAGE_SIZE - 1));
+            int chunk = Math.min(length - written, PAGE_SIZE - pageOffset);
+            System.arraycopy(data, offset + written, pages.computeIfAbsent(current >>> PAGE_SHIFT, k -> new byte[PAGE_SIZE]), pageOffset, chunk);
+            written += chunk;
+        }
+        addRun(address, address + length);
+        end = Math.max(end, address + length);
+    }
+
+    private void addRun(long start, long stop) {
+        if (lastRunStart >= 0 && runs.get(lastRunStart) == start && runs.higherKey(lastRunStart) == null) {
+            runs.put(lastRunStart, stop);
+            return;
+        }
+
+        Map.Entry<Long, Long> floor = runs.floorEntry(start);
+        if (floor != null && floor.getValue() >= start) {
+            start = floor.getKey();
+            stop = Math.max(stop, floor.getValue());
+        }
+        Map.Entry<Long, Long> next;
+        while ((next = runs.higherEntry(start)) != null && next.getKey() <= stop) {
+            stop = Math.max(stop, next.getValue());
+            runs.remove(next.getKey());
+        }
+        runs.put(start, stop);
+        lastRunStart = start;
+    }
+
+    boolean isEmpty() {
+        return runs.isEmpty();
+    }
+
+    long lowestAddress() {
+        return runs.isEmpty() ? 0 : runs.firstKey();
+    }
+
+    PagedByteSource toByteSource() {
+        return new PagedByteSource(pages, PAGE_SHIFT, end);
+    }
+
+    List<Section> toSections(PagedByteSource image) {
+        List<Section> sections = new ArrayList<>(runs.size());
+        for (Map.Entry<Long, Long> run : runs.entrySet()) {
+            long size = run.getValue() - run.getKey();
+            sections.add(Section.builder().name("REGION_" + sections.size()).virtualAddress(Address.of(run.getKey())).virtualSize(size).rawAddress(Address.of(run.getKey())).rawSize(size).permission(Permission.READ).permission(Permission.EXECUTE).content(image.slice(run.getKey(), size)).build());
+        }
+        return sections;
+    }
+}
@@ -0,0 +1,34 @@
+package com.arsen.loader.io;
+
+import java.nio.ByteBuffer;
+
+public class BufferByteSource implements ByteSource {
+    private final ByteBuffer buffer;
+
+    public BufferByteSource(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+    }
+
+    @Override
+    public long size() {
+        return buffer.limit();
+    }
+
+    @Override
+    public byte get(long position) {
+        return buffer.get((int) position);
+    }
+
+    @Override
+    public int read(long position, byte[] destination, int offset, int length) {
+        int count = (int) Math.max(0, Math.min(length, buffer.limit() - position));
+        buffer.get((int) position, destination, offset, count);
+        return count;
+    }
+
+    @Override
+    public ByteBuffer buffer(long position, int length) {
+        int count = (int) Math.max(0, Math.min(length, buffer.limit() - position));
+        return buffer.slice((int) position, count);
+    }
+}
@@ -0,0 +1,64 @@
+package com.arsen.loader.io;
+
+import com.arsen.infrastructure.config.Configuration;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+public interface ByteSource extends Closeable {
+    String MEMORY_MAPPED_KEY = "loader.memoryMapped";
+
+    long size();
+
+    byte get(long position);
+
+    int read(long position, byte[] destination, int offset, int length);
+
+    ByteBuffer buffer(long position, int length);
+
+    default ByteSource slice(long offset, long length) {
+        long start = Math.min(Math.max(offset, 0), size());
+        return new SlicedByteSource(this, start, Math.max(0, Math.min(length, size() - start)));
+    }
+
+    default byte[] toByteArray() {
+        if (size() > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Byte source too large to materialize: " + size());
+        }
+        byte[] data = new byte[(int) size()];
+        read(0, data, 0, data.length);
+        return data;
+    }
+
+    default InputStream inputStream() {
+        return new ByteSourceInputStream(this);
+    }
+
+    default String readCString(long position) {
+        long end = position;
+        while (end < size() && get(end) != 0) {
+            end++;
+        }
+        byte[] bytes = new byte[(int) (end - position)];
+        read(position, bytes, 0, bytes.length);
+        return new String(bytes);
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    static ByteSource open(Path path) throws IOException {
+        if (Configuration.getInstance().getBoolean(MEMORY_MAPPED_KEY, true)) {
+            return MappedByteSource.open(path);
+        }
+        return ChannelByteSource.open(path);
+    }
+
+    static ByteSource wrap(byte[] data) {
+        return new BufferByteSource(ByteBuffer.wrap(data));
+    }
+}
@@ -0,0 +1,42 @@
+package com.arsen.loader.io;
+
+import java.io.InputStream;
+
+public class ByteSourceInputStream extends InputStream {
+    private final ByteSource source;
+    private long position;
+
+    public ByteSourceInputStream(ByteSource source) {
+        this.source = source;
+    }
+
+    @Override
+    public int read() {
+        return position < source.size() ? Byte.toUnsignedInt(source.get(position++)) : -1;
+    }
+
+    @Override
+    public int read(byte[] destination, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (position >= source.size()) {
+            return -1;
+        }
+        int count = source.read(position, destination, offset, (int) Math.min(length, source.size() - position));
+        position += count;
+        return count;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, source.size() - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, source.size() - position);
+    }
+}
@@ -0,0 +1,79 @@
+package com.arsen.loader.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ChannelByteSource implements ByteSource {
+    private static final int WINDOW_SIZE = 4096;
+
+    private final FileChannel channel;
+    private final long size;
+    private final byte[] window = new byte[WINDOW_SIZE];
+    private long windowStart = -1;
+    private int windowLength;
+
+    private ChannelByteSource(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+    }
+
+    public static ChannelByteSource open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new ChannelByteSource(channel, channel.size());
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public synchronized byte get(long position) {
+        if (position < windowStart || position >= windowStart + windowLength) {
+            if (position < 0 || position >= size) {
+                throw new IndexOutOfBoundsException("Position " + position + " outside source of size " + size);
+            }
+            windowLength = read(position, window, 0, WINDOW_SIZE);
+            windowStart = position;
+        }
+        return window[(int) (position - windowStart)];
+    }
+
+    @Override
+    public int read(long position, byte[] destination, int offset, int length) {
+        int total = (int) Math.max(0, Math.min(length, size - position));
+        ByteBuffer target = ByteBuffer.wrap(destination, offset, total);
+        try {
+            while (target.hasRemaining()) {
+                int count = channel.read(target, position + target.position() - offset);
+                if (count < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + total + " bytes at offset " + position, e);
+        }
+        return target.position() - offset;
+    }
+
+    @Override
+    public ByteBuffer buffer(long position, int length) {
+        byte[] data = new byte[(int) Math.max(0, Math.min(length, size - position))];
+        read(position, data, 0, data.length);
+        return ByteBuffer.wrap(data);
+    }
+
+    @Override
+    public ByteSource slice(long offset, long length) {
+        return new LazyByteSource(ByteSource.super.slice(offset, length));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
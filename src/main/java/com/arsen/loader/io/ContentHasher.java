@@ -0,0 +1,125 @@
+package com.arsen.loader.io;
+
+import com.arsen.model.Section;
+import com.arsen.model.binary.ContentHash;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ContentHasher {
+    private static final int BLOCK_SIZE = 1024 * 1024;
+    private static final String ALGORITHM = "SHA-256";
+    private static final HexFormat HEX = HexFormat.of();
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final ByteSource source;
+    private final CompletableFuture<List<Section>> regions;
+    private final List<RegionDigest> digests = new ArrayList<>();
+    private boolean registered;
+
+    private ContentHasher(ByteSource source, CompletableFuture<List<Section>> regions) {
+        this.source = source;
+        this.regions = regions;
+    }
+
+    public static CompletableFuture<ContentHash> hash(ByteSource source, CompletableFuture<List<Section>> regions) {
+        return CompletableFuture.supplyAsync(() -> new ContentHasher(source, regions).run(), EXECUTOR);
+    }
+
+    private ContentHash run() {
+        MessageDigest file = newDigest();
+        byte[] block = new byte[(int) Math.min(BLOCK_SIZE, Math.max(1, source.size()))];
+
+        long position = 0;
+        while (position < source.size()) {
+            if (regions.isCompletedExceptionally()) {
+                throw new CancellationException("Parsing failed before hashing completed");
+            }
+            if (!registered && regions.isDone()) {
+                register(position);
+            }
+
+            int count = source.read(position, block, 0, (int) Math.min(block.length, source.size() - position));
+            file.update(block, 0, count);
+            for (RegionDigest digest : digests) {
+                digest.update(block, position, count);
+            }
+            position += count;
+        }
+
+        if (!registered) {
+            register(position);
+        }
+
+        ContentHash.ContentHashBuilder builder = ContentHash.builder().sha256(HEX.formatHex(file.digest()));
+        for (RegionDigest digest : digests) {
+            builder.sectionHash(digest.name, HEX.formatHex(digest.digest.digest()));
+        }
+        return builder.build();
+    }
+
+    private void register(long consumed) {
+        registered = true;
+        List<String> names = new ArrayList<>();
+        for (Section region : regions.join()) {
+            if (region.getContent() == null || region.getRawSize() == 0 || names.contains(region.getName())) {
+                continue;
+            }
+            long start = region.getRawAddress().value();
+            long end = Math.min(source.size(), start + region.getRawSize());
+            if (start < 0 || start >= end) {
+                continue;
+            }
+
+            RegionDigest digest = new RegionDigest(region.getName(), start, end);
+            digest.catchUp(source, consumed);
+            digests.add(digest);
+            names.add(region.getName());
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Missing digest algorithm " + ALGORITHM, e);
+        }
+    }
+
+    private static class RegionDigest {
+        private final String name;
+        private final long start;
+        private final long end;
+        private final MessageDigest digest = newDigest();
+
+        RegionDigest(String name, long start, long end) {
+            this.name = name;
+            this.start = start;
+            this.end = end;
+        }
+
+        void update(byte[] block, long blockStart, int count) {
+            long from = Math.max(start, blockStart);
+            long to = Math.min(end, blockStart + count);
+            if (from < to) {
+                digest.update(block, (int) (from - blockStart), (int) (to - from));
+            }
+        }
+
+        void catchUp(ByteSource source, long consumed) {
+            byte[] block = new byte[BLOCK_SIZE];
+            for (long position = start; position < Math.min(end, consumed); ) {
+                int count = source.read(position, block, 0, (int) Math.min(block.length, Math.min(end, consumed) - position));
+                digest.update(block, 0, count);
+                position += count;
+            }
+        }
+    }
+}
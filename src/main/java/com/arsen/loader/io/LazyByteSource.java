@@ -0,0 +1,56 @@
+package com.arsen.loader.io;
+
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+
+public class LazyByteSource implements ByteSource {
+    private final ByteSource backing;
+    private volatile SoftReference<byte[]> cache = new SoftReference<>(null);
+
+    public LazyByteSource(ByteSource backing) {
+        this.backing = backing;
+    }
+
+    public boolean isLoaded() {
+        return cache.get() != null;
+    }
+
+    private byte[] data() {
+        byte[] data = cache.get();
+        if (data == null) {
+            data = backing.toByteArray();
+            cache = new SoftReference<>(data);
+        }
+        return data;
+    }
+
+    @Override
+    public long size() {
+        return backing.size();
+    }
+
+    @Override
+    public byte get(long position) {
+        return data()[(int) position];
+    }
+
+    @Override
+    public int read(long position, byte[] destination, int offset, int length) {
+        byte[] data = data();
+        int count = (int) Math.max(0, Math.min(length, data.length - position));
+        System.arraycopy(data, (int) position, destination, offset, count);
+        return count;
+    }
+
+    @Override
+    public ByteBuffer buffer(long position, int length) {
+        byte[] data = data();
+        int count = (int) Math.max(0, Math.min(length, data.length - position));
+        return ByteBuffer.wrap(data, (int) position, count).slice();
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return data();
+    }
+}
@@ -0,0 +1,78 @@
+package com.arsen.loader.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedByteSource implements ByteSource {
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final MappedByteBuffer[] chunks;
+    private final long size;
+
+    private MappedByteSource(MappedByteBuffer[] chunks, long size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    public static MappedByteSource open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+            MappedByteBuffer[] chunks = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long position = (long) i << CHUNK_SHIFT;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, size - position));
+            }
+            return new MappedByteSource(chunks, size);
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public byte get(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)].get((int) (position & CHUNK_MASK));
+    }
+
+    @Override
+    public int read(long position, byte[] destination, int offset, int length) {
+        int total = (int) Math.max(0, Math.min(length, size - position));
+        int done = 0;
+        while (done < total) {
+            long current = position + done;
+            MappedByteBuffer chunk = chunks[(int) (current >>> CHUNK_SHIFT)];
+            int chunkOffset = (int) (current & CHUNK_MASK);
+            int count = Math.min(total - done, chunk.limit() - chunkOffset);
+            chunk.get(chunkOffset, destination, offset + done, count);
+            done += count;
+        }
+        return total;
+    }
+
+    @Override
+    public ByteBuffer buffer(long position, int length) {
+        int available = (int) Math.max(0, Math.min(length, size - position));
+        if (available == 0) {
+            return ByteBuffer.allocate(0);
+        }
+
+        MappedByteBuffer chunk = chunks[(int) (position >>> CHUNK_SHIFT)];
+        int chunkOffset = (int) (position & CHUNK_MASK);
+        if (chunkOffset + available <= chunk.limit()) {
+            return chunk.slice(chunkOffset, available);
+        }
+
+        byte[] copy = new byte[available];
+        read(position, copy, 0, available);
+        return ByteBuffer.wrap(copy);
+    }
+}
@@ -0,0 +1,59 @@
+package com.arsen.loader.io;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+
+public class PagedByteSource implements ByteSource {
+    private final Map<Long, byte[]> pages;
+    private final int pageShift;
+    private final int pageMask;
+    private final long size;
+
+    public PagedByteSource(Map<Long, byte[]> pages, int pageShift, long size) {
+        this.pages = pages;
+        this.pageShift = pageShift;
+        this.pageMask = (1 << pageShift) - 1;
+        this.size = size;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public byte get(long position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " outside paged image of size " + size);
+        }
+        byte[] page = pages.get(position >>> pageShift);
+        return page == null ? 0 : page[(int) (position & pageMask)];
+    }
+
+    @Override
+    public int read(long position, byte[] destination, int offset, int length) {
+        int count = (int) Math.max(0, Math.min(length, size - position));
+        int copied = 0;
+        while (copied < count) {
+            long current = position + copied;
+            int pageOffset = (int) (current & pageMask);
+            int chunk = Math.min(count - copied, pageMask + 1 - pageOffset);
+            byte[] page = pages.get(current >>> pageShift);
+            if (page == null) {
+                Arrays.fill(destination, offset + copied, offset + copied + chunk, (byte) 0);
+            } else {
+                System.arraycopy(page, pageOffset, destination, offset + copied, chunk);
+            }
+            copied += chunk;
+        }
+        return count;
+    }
+
+    @Override
+    public ByteBuffer buffer(long position, int length) {
+        byte[] data = new byte[(int) Math.max(0, Math.min(length, size - position))];
+        read(position, data, 0, data.length);
+        return ByteBuffer.wrap(data);
+    }
+}
@@ -0,0 +1,53 @@
+package com.arsen.loader.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ReleasingByteSource implements ByteSource {
+    private final ByteSource delegate;
+    private final Runnable onClose;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public ReleasingByteSource(ByteSource delegate, Runnable onClose) {
+        this.delegate = delegate;
+        this.onClose = onClose;
+    }
+
+    @Override
+    public long size() {
+        return delegate.size();
+    }
+
+    @Override
+    public byte get(long position) {
+        return delegate.get(position);
+    }
+
+    @Override
+    public int read(long position, byte[] destination, int offset, int length) {
+        return delegate.read(position, destination, offset, length);
+    }
+
+    @Override
+    public ByteBuffer buffer(long position, int length) {
+        return delegate.buffer(position, length);
+    }
+
+    @Override
+    public ByteSource slice(long offset, long length) {
+        return delegate.slice(offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            delegate.close();
+        } finally {
+            onClose.run();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.arsen.loader.io;
+
+import java.nio.ByteBuffer;
+
+public class SlicedByteSource implements ByteSource {
+    private final ByteSource parent;
+    private final long base;
+    private final long size;
+
+    public SlicedByteSource(ByteSource parent, long base, long size) {
+        this.parent = parent;
+        this.base = base;
+        this.size = size;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public byte get(long position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " outside slice of size " + size);
+        }
+        return parent.get(base + position);
+    }
+
+    @Override
+    public int read(long position, byte[] destination, int offset, int length) {
+        int count = (int) Math.max(0, Math.min(length, size - position));
+        return parent.read(base + position, destination, offset, count);
+    }
+
+    @Override
+    public ByteBuffer buffer(long position, int length) {
+        int count = (int) Math.max(0, Math.min(length, size - position));
+        return parent.buffer(base + position, count);
+    }
+
+    @Override
+    public ByteSource slice(long offset, long length) {
+        long start = Math.min(Math.max(offset, 0), size);
+        return new SlicedByteSource(parent, base + start, Math.max(0, Math.min(length, size - start)));
+    }
+}
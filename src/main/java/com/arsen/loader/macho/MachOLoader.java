@@ -1,16 +1,23 @@
 package com.arsen.loader.macho;
 
 import com.arsen.loader.BinaryLoader;
+import com.arsen.loader.io.ByteSource;
 import com.arsen.model.*;
+import com.arsen.model.binary.AddressSpace;
 import com.arsen.model.binary.BinaryFile;
+import com.arsen.model.binary.SymbolTable;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 public class MachOLoader implements BinaryLoader {
@@ -19,31 +26,110 @@ public class MachOLoader implements BinaryLoader {
     private static final int MH_MAGIC_64 = 0xfeedfacf;
     private static final int MH_CIGAM = 0xcefaedfe;
     private static final int MH_CIGAM_64 = 0xcffaedfe;
+    private static final int FAT_MAGIC = 0xcafebabe;
+    private static final int FAT_MAGIC_64 = 0xcafebabf;
+    private static final int MAX_FAT_ARCHS = 20;
+
+    private static final int LC_SEGMENT = 0x1;
+    private static final int LC_SYMTAB = 0x2;
+    private static final int LC_LOAD_DYLIB = 0xc;
+    private static final int LC_SEGMENT_64 = 0x19;
+    private static final int LC_LAZY_LOAD_DYLIB = 0x20;
+    private static final int LC_DYLD_INFO = 0x22;
+    private static final int LC_LOAD_WEAK_DYLIB = 0x80000018;
+    private static final int LC_REEXPORT_DYLIB = 0x8000001f;
+    private static final int LC_DYLD_INFO_ONLY = 0x80000022;
+    private static final int LC_LOAD_UPWARD_DYLIB = 0x80000023;
+    private static final int LC_MAIN = 0x80000028;
+    private static final int LC_DYLD_EXPORTS_TRIE = 0x80000033;
+
+    private static final int VM_PROT_READ = 0x1;
+    private static final int VM_PROT_WRITE = 0x2;
+    private static final int VM_PROT_EXECUTE = 0x4;
+
+    private static final int SECTION_TYPE = 0xff;
+    private static final int S_ZEROFILL = 0x1;
+    private static final int S_GB_ZEROFILL = 0xc;
+    private static final int S_THREAD_LOCAL_ZEROFILL = 0x12;
+    private static final int S_ATTR_PURE_INSTRUCTIONS = 0x80000000;
+    private static final int S_ATTR_SOME_INSTRUCTIONS = 0x400;
+
+    private static final int N_STAB = 0xe0;
+    private static final int N_TYPE = 0x0e;
+    private static final int N_EXT = 0x01;
+    private static final int N_UNDF = 0x0;
+    private static final int N_SECT = 0xe;
+
+    private static final int EXPORT_SYMBOL_FLAGS_REEXPORT = 0x08;
+    private static final int EXPORT_SYMBOL_FLAGS_STUB_AND_RESOLVER = 0x10;
+    private static final int SYMBOL_WINDOW_SIZE = 64 * 1024;
 
     @Override
     public boolean supports(byte[] header) {
         if (header.length < 4) return false;
         ByteBuffer buffer = ByteBuffer.wrap(header);
         int magic = buffer.getInt();
+        if (magic == FAT_MAGIC || magic == FAT_MAGIC_64) {
+            return header.length >= 8 && Integer.compareUnsigned(buffer.getInt(), MAX_FAT_ARCHS) < 0;
+        }
         return magic == MH_MAGIC || magic == MH_MAGIC_64 || magic == MH_CIGAM || magic == MH_CIGAM_64;
     }
 
     @Override
-    public BinaryFile load(Path path) throws Exception {
+    public BinaryFile parse(Path path, ByteSource source, boolean headersOnly) throws Exception {
         log.info("Loading Mach-O file: {}", path);
-        byte[] data = Files.readAllBytes(path);
-        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int magic = source.buffer(0, 4).getInt();
 
-        int magic = buffer.getInt();
-        boolean is64Bit = (magic == MH_MAGIC_64 || magic == MH_CIGAM_64);
-        boolean needsSwap = (magic == MH_CIGAM || magic == MH_CIGAM_64);
+        if (magic == FAT_MAGIC || magic == FAT_MAGIC_64) {
+            return parseFat(path, source, magic == FAT_MAGIC_64, headersOnly);
+        }
+        return parseThin(path, source, headersOnly);
+    }
 
-        if (needsSwap) {
-            buffer.order(ByteOrder.BIG_ENDIAN);
-        } else {
-            buffer.order(ByteOrder.LITTLE_ENDIAN);
+    private BinaryFile parseFat(Path path, ByteSource source, boolean is64Bit, boolean headersOnly) {
+        int count = source.buffer(4, 4).getInt();
+        int entrySize = is64Bit ? 32 : 20;
+        ByteBuffer buffer = source.buffer(8, count * entrySize);
+
+        List<BinaryFile> slices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            buffer.position(i * entrySize);
+            buffer.getInt();
+            buffer.getInt();
+            long offset = is64Bit ? buffer.getLong() : buffer.getInt() & 0xFFFFFFFFL;
+            long size = is64Bit ? buffer.getLong() : buffer.getInt() & 0xFFFFFFFFL;
+
+            try {
+                slices.add(parseThin(path, source.slice(offset, size), headersOnly));
+            } catch (RuntimeException e) {
+                log.warn("Skipping malformed slice {} in {}: {}", i, path, e.toString());
+            }
+        }
+
+        if (slices.isEmpty()) {
+            throw new IllegalArgumentException("Universal binary contains no readable slices");
+        }
+
+        BinaryFile primary = slices.stream().filter(s -> s.getArchitecture() == Architecture.ARM64).findFirst().orElse(slices.stream().filter(s -> s.getArchitecture() == Architecture.X86_64).findFirst().orElse(slices.getFirst()));
+
+        List<BinaryFile> others = slices.stream().filter(s -> s != primary).toList();
+        return primary.toBuilder().clearChildren().children(others).build();
+    }
+
+    private BinaryFile parseThin(Path path, ByteSource source, boolean headersOnly) {
+        int magic = source.buffer(0, 4).getInt();
+        if (magic != MH_MAGIC && magic != MH_MAGIC_64 && magic != MH_CIGAM && magic != MH_CIGAM_64) {
+            throw new IllegalArgumentException("Invalid Mach-O magic");
         }
 
+        boolean is64Bit = (magic == MH_MAGIC_64 || magic == MH_CIGAM_64);
+        boolean littleEndian = (magic == MH_CIGAM || magic == MH_CIGAM_64);
+        ByteOrder byteOrder = littleEndian ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+
+        int headerSize = is64Bit ? 32 : 28;
+        ByteBuffer buffer = source.buffer(0, headerSize).order(byteOrder);
+        buffer.getInt();
+
         int cputype = buffer.getInt();
         int cpusubtype = buffer.getInt();
         int filetype = buffer.getInt();
@@ -51,16 +137,276 @@ public class MachOLoader implements BinaryLoader {
         int sizeofcmds = buffer.getInt();
         int flags = buffer.getInt();
 
+        Architecture arch = mapCpuTypeToArchitecture(cputype);
+
+        ByteBuffer commands = source.buffer(headerSize, sizeofcmds).order(byteOrder);
+
+        List<Section> segments = new ArrayList<>();
+        List<Section> sections = new ArrayList<>();
+        List<String> libraries = new ArrayList<>();
+        long entryOffset = -1;
+        int[] symtab = null;
+        long exportsOffset = 0;
+        long exportsSize = 0;
+
+        int position = 0;
+        for (int i = 0; i < ncmds && position + 8 <= sizeofcmds; i++) {
+            int cmd = commands.getInt(position);
+            int cmdsize = commands.getInt(position + 4);
+            if (cmdsize < 8 || position + cmdsize > sizeofcmds) {
+                log.warn("Truncated load command {} in {}", i, path);
+                break;
+            }
+
+            switch (cmd) {
+                case LC_SEGMENT, LC_SEGMENT_64 -> parseSegment(commands, position, cmd == LC_SEGMENT_64, source, segments, sections);
+                case LC_MAIN -> entryOffset = commands.getLong(position + 8);
+                case LC_SYMTAB -> symtab = new int[]{commands.getInt(position + 8), commands.getInt(position + 12), commands.getInt(position + 16), commands.getInt(position + 20)};
+                case LC_DYLD_INFO, LC_DYLD_INFO_ONLY -> {
+                    exportsOffset = commands.getInt(position + 40) & 0xFFFFFFFFL;
+                    exportsSize = commands.getInt(position + 44) & 0xFFFFFFFFL;
+                }
+                case LC_DYLD_EXPORTS_TRIE -> {
+                    exportsOffset = commands.getInt(position + 8) & 0xFFFFFFFFL;
+                    exportsSize = commands.getInt(position + 12) & 0xFFFFFFFFL;
+                }
+                case LC_LOAD_DYLIB, LC_LOAD_WEAK_DYLIB, LC_REEXPORT_DYLIB, LC_LAZY_LOAD_DYLIB, LC_LOAD_UPWARD_DYLIB -> libraries.add(readCommandString(commands, position, cmdsize));
+                default -> {
+                }
+            }
+
+            position += cmdsize;
+        }
+
+        long imageBase = segments.stream().filter(s -> s.getRawAddress().value() == 0 && s.getRawSize() > 0).mapToLong(s -> s.getVirtualAddress().value()).findFirst().orElse(0);
+        long entryPoint = entryOffset >= 0 ? imageBase + entryOffset : 0;
+
+        BinaryFile.BinaryFileBuilder builder = BinaryFile.builder().filePath(path).format(BinaryFormat.MACH_O).architecture(arch).endianness(littleEndian ? Endianness.LITTLE : Endianness.BIG).bitness(is64Bit ? 64 : 32).entryPoint(Address.of(entryPoint)).sections(sections).segments(segments).addressSpace(AddressSpace.of(sections.isEmpty() ? segments : sections)).source(source);
+
+        if (!headersOnly) {
+            try {
+                if (symtab != null) {
+                    parseSymbols(source, byteOrder, symtab, is64Bit, sections, libraries, builder);
+                }
+                if (exportsSize > 0) {
+                    builder.exports(parseExportTrie(source.buffer(exportsOffset, (int) exportsSize), imageBase));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed symbol information in {}: {}", path, e.toString());
+            }
+        }
+
+        return builder.build();
+    }
+
+    private void parseSegment(ByteBuffer commands, int position, boolean is64Bit, ByteSource source, List<Section> segments, List<Section> sections) {
+        String segmentName = readFixedString(commands, position + 8);
+
+        int cursor = position + 24;
+        long vmaddr;
+        long vmsize;
+        long fileoff;
+        long filesize;
+
         if (is64Bit) {
-            buffer.getInt();
+            vmaddr = commands.getLong(cursor);
+            vmsize = commands.getLong(cursor + 8);
+            fileoff = commands.getLong(cursor + 16);
+            filesize = commands.getLong(cursor + 24);
+            cursor += 32;
+        } else {
+            vmaddr = commands.getInt(cursor) & 0xFFFFFFFFL;
+            vmsize = commands.getInt(cursor + 4) & 0xFFFFFFFFL;
+            fileoff = commands.getInt(cursor + 8) & 0xFFFFFFFFL;
+            filesize = commands.getInt(cursor + 12) & 0xFFFFFFFFL;
+            cursor += 16;
         }
 
-        Architecture arch = mapCpuTypeToArchitecture(cputype);
+        cursor += 4;
+        int initprot = commands.getInt(cursor);
+        int nsects = commands.getInt(cursor + 4);
+        cursor += 12;
 
-        List<Section> sections = new ArrayList<>();
-        long entryPoint = 0;
+        Set<Permission> segmentPermissions = mapProtection(initprot);
+        ByteSource content = filesize > 0 ? source.slice(fileoff, filesize) : null;
+        long rawSize = content == null ? 0 : content.size();
+
+        segments.add(Section.builder().name(segmentName).virtualAddress(Address.of(vmaddr)).virtualSize(vmsize).rawAddress(Address.of(fileoff)).rawSize(rawSize).flags(initprot).permissions(segmentPermissions).content(content).build());
+
+        int sectionSize = is64Bit ? 80 : 68;
+        for (int i = 0; i < nsects; i++) {
+            int base = cursor + i * sectionSize;
+            String sectionName = readFixedString(commands, base);
+
+            long addr;
+            long size;
+            int field = base + 32;
+            if (is64Bit) {
+                addr = commands.getLong(field);
+                size = commands.getLong(field + 8);
+                field += 16;
+            } else {
+                addr = commands.getInt(field) & 0xFFFFFFFFL;
+                size = commands.getInt(field + 4) & 0xFFFFFFFFL;
+                field += 8;
+            }
+
+            long offset = commands.getInt(field) & 0xFFFFFFFFL;
+            int sectionFlags = commands.getInt(field + 16);
+            int type = sectionFlags & SECTION_TYPE;
+
+            boolean zeroFill = type == S_ZEROFILL || type == S_GB_ZEROFILL || type == S_THREAD_LOCAL_ZEROFILL;
+            ByteSource sectionContent = zeroFill || size == 0 ? null : source.slice(offset, size);
+            long sectionRawSize = sectionContent == null ? 0 : sectionContent.size();
+
+            Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+            permissions.addAll(segmentPermissions);
+            if ((sectionFlags & (S_ATTR_PURE_INSTRUCTIONS | S_ATTR_SOME_INSTRUCTIONS)) == 0) {
+                permissions.remove(Permission.EXECUTE);
+            }
+
+            sections.add(Section.builder().name(segmentName + "," + sectionName).virtualAddress(Address.of(addr)).virtualSize(size).rawAddress(Address.of(offset)).rawSize(sectionRawSize).flags(sectionFlags).permissions(permissions).content(sectionContent).build());
+        }
+    }
 
-        return BinaryFile.builder().filePath(path).format(BinaryFormat.MACH_O).architecture(arch).endianness(needsSwap ? Endianness.BIG : Endianness.LITTLE).bitness(is64Bit ? 64 : 32).entryPoint(Address.of(entryPoint)).sections(sections).rawData(data).build();
+    private void parseSymbols(ByteSource source, ByteOrder byteOrder, int[] symtab, boolean is64Bit, List<Section> sections, List<String> libraries, BinaryFile.BinaryFileBuilder builder) {
+        long symoff = symtab[0] & 0xFFFFFFFFL;
+        long nsyms = symtab[1] & 0xFFFFFFFFL;
+        long stroff = symtab[2] & 0xFFFFFFFFL;
+        long strsize = symtab[3] & 0xFFFFFFFFL;
+
+        ByteSource stringTable = source.slice(stroff, strsize);
+        SymbolTable.Builder symbols = SymbolTable.builder();
+        int stringTableIndex = symbols.addStringTable(stringTable);
+        List<Import> imports = new ArrayList<>();
+
+        int entrySize = is64Bit ? 16 : 12;
+        int batch = SYMBOL_WINDOW_SIZE / entrySize;
+
+        for (long first = 0; first < nsyms; first += batch) {
+            int entries = (int) Math.min(batch, nsyms - first);
+            ByteBuffer buffer = source.buffer(symoff + first * entrySize, entries * entrySize).order(byteOrder);
+
+            for (int i = 0; i < entries; i++) {
+                int base = i * entrySize;
+                int nameOffset = buffer.getInt(base);
+                int type = Byte.toUnsignedInt(buffer.get(base + 4));
+                int sectionIndex = Byte.toUnsignedInt(buffer.get(base + 5));
+                int desc = Short.toUnsignedInt(buffer.getShort(base + 6));
+                long value = is64Bit ? buffer.getLong(base + 8) : buffer.getInt(base + 8) & 0xFFFFFFFFL;
+
+                if ((type & N_STAB) != 0 || nameOffset <= 0 || nameOffset >= strsize) {
+                    continue;
+                }
+
+                if ((type & N_TYPE) == N_UNDF && (type & N_EXT) != 0) {
+                    int ordinal = (desc >> 8) & 0xFF;
+                    String library = ordinal > 0 && ordinal <= libraries.size() ? libraries.get(ordinal - 1) : "";
+                    imports.add(Import.builder().library(library).name(stringTable.readCString(nameOffset)).address(Address.of(value)).ordinal(ordinal).build());
+                } else if ((type & N_TYPE) == N_SECT && sectionIndex > 0 && sectionIndex <= sections.size()) {
+                    Symbol.SymbolType symbolType = sections.get(sectionIndex - 1).isExecutable() ? Symbol.SymbolType.FUNCTION : Symbol.SymbolType.DATA;
+                    symbols.add(value, 0, nameOffset, symbolType, stringTableIndex);
+                }
+            }
+        }
+
+        builder.imports(imports).symbolTable(symbols.build());
+    }
+
+    private List<Export> parseExportTrie(ByteBuffer trie, long imageBase) {
+        List<Export> exports = new ArrayList<>();
+        Deque<TrieNode> pending = new ArrayDeque<>();
+        pending.push(new TrieNode(0, ""));
+
+        int visited = 0;
+        while (!pending.isEmpty() && visited++ < trie.limit()) {
+            TrieNode node = pending.pop();
+            trie.position(node.offset());
+
+            long terminalSize = readUleb(trie);
+            int children = trie.position() + (int) terminalSize;
+
+            if (terminalSize > 0) {
+                long flags = readUleb(trie);
+                if ((flags & EXPORT_SYMBOL_FLAGS_REEXPORT) == 0) {
+                    long address = readUleb(trie);
+                    exports.add(Export.builder().name(node.prefix()).address(Address.of(imageBase + address)).ordinal(exports.size()).build());
+                }
+                if ((flags & EXPORT_SYMBOL_FLAGS_STUB_AND_RESOLVER) != 0) {
+                    readUleb(trie);
+                }
+            }
+
+            trie.position(children);
+            int childCount = Byte.toUnsignedInt(trie.get());
+            for (int i = 0; i < childCount; i++) {
+                String edge = readCString(trie);
+                int childOffset = (int) readUleb(trie);
+                if (childOffset > 0 && childOffset < trie.limit()) {
+                    pending.push(new TrieNode(childOffset, node.prefix() + edge));
+                }
+            }
+        }
+
+        return exports;
+    }
+
+    private long readUleb(ByteBuffer buffer) {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            if (shift < 64) {
+                result |= (long) (b & 0x7F) << shift;
+            }
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+
+    private String readCString(ByteBuffer buffer) {
+        int start = buffer.position();
+        int end = start;
+        while (buffer.get(end) != 0) {
+            end++;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        buffer.position(end + 1);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String readFixedString(ByteBuffer buffer, int position) {
+        byte[] bytes = new byte[16];
+        buffer.get(position, bytes);
+        int length = 0;
+        while (length < bytes.length && bytes[length] != 0) {
+            length++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    private String readCommandString(ByteBuffer commands, int position, int cmdsize) {
+        int offset = commands.getInt(position + 8);
+        if (offset < 8 || offset >= cmdsize) {
+            return "";
+        }
+        int length = 0;
+        while (offset + length < cmdsize && commands.get(position + offset + length) != 0) {
+            length++;
+        }
+        byte[] bytes = new byte[length];
+        commands.get(position + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Set<Permission> mapProtection(int protection) {
+        Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+        if ((protection & VM_PROT_READ) != 0) permissions.add(Permission.READ);
+        if ((protection & VM_PROT_WRITE) != 0) permissions.add(Permission.WRITE);
+        if ((protection & VM_PROT_EXECUTE) != 0) permissions.add(Permission.EXECUTE);
+        return permissions;
     }
 
     private Architecture mapCpuTypeToArchitecture(int cputype) {
@@ -78,4 +424,7 @@ public class MachOLoader implements BinaryLoader {
     public BinaryFormat getFormat() {
         return BinaryFormat.MACH_O;
     }
+
+    private record TrieNode(int offset, String prefix) {
+    }
 }
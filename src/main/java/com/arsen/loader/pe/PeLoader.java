@@ -1,20 +1,36 @@
 package com.arsen.loader.pe;
 
 import com.arsen.loader.BinaryLoader;
+import com.arsen.loader.io.ByteSource;
 import com.arsen.model.*;
+import com.arsen.model.binary.AddressSpace;
 import com.arsen.model.binary.BinaryFile;
 import lombok.extern.slf4j.Slf4j;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 public class PeLoader implements BinaryLoader {
 
+    private static final int SECTION_HEADER_SIZE = 40;
+    private static final int IMPORT_DESCRIPTOR_SIZE = 20;
+    private static final int DELAY_DESCRIPTOR_SIZE = 32;
+    private static final int EXPORT_DIRECTORY_SIZE = 40;
+    private static final int DIRECTORY_EXPORT = 0;
+    private static final int DIRECTORY_IMPORT = 1;
+    private static final int DIRECTORY_DELAY_IMPORT = 13;
+    private static final int MAX_DESCRIPTORS = 4096;
+    private static final int MAX_THUNKS = 65536;
+    private static final int IMAGE_SCN_MEM_EXECUTE = 0x20000000;
+    private static final int IMAGE_SCN_MEM_READ = 0x40000000;
+    private static final int IMAGE_SCN_MEM_WRITE = 0x80000000;
+
     @Override
     public boolean supports(byte[] header) {
         if (header.length < 2) return false;
@@ -22,13 +38,11 @@ public class PeLoader implements BinaryLoader {
     }
 
     @Override
-    public BinaryFile load(Path path) throws Exception {
+    public BinaryFile parse(Path path, ByteSource source, boolean headersOnly) throws Exception {
         log.info("Loading PE file: {}", path);
-        byte[] data = Files.readAllBytes(path);
-        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
 
-        int peOffset = buffer.getInt(0x3C);
-        buffer.position(peOffset);
+        long peOffset = source.buffer(0x3C, 4).order(ByteOrder.LITTLE_ENDIAN).getInt() & 0xFFFFFFFFL;
+        ByteBuffer buffer = source.buffer(peOffset, 24).order(ByteOrder.LITTLE_ENDIAN);
 
         int peSignature = buffer.getInt();
         if (peSignature != 0x00004550) {
@@ -38,57 +52,240 @@ public class PeLoader implements BinaryLoader {
         short machine = buffer.getShort();
         Architecture arch = mapMachineToArchitecture(machine);
 
-        short numberOfSections = buffer.getShort();
+        int numberOfSections = Short.toUnsignedInt(buffer.getShort());
         buffer.position(buffer.position() + 12);
-        short sizeOfOptionalHeader = buffer.getShort();
-        buffer.position(buffer.position() + 2);
+        int sizeOfOptionalHeader = Short.toUnsignedInt(buffer.getShort());
+
+        buffer = source.buffer(peOffset + 24, sizeOfOptionalHeader + numberOfSections * SECTION_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
 
         long entryPoint = 0;
         int bitness = 32;
+        long imageBase = 0;
+        long headerSize = 0;
+        long[] directories = new long[0];
 
         if (sizeOfOptionalHeader > 0) {
             short magic = buffer.getShort();
             bitness = (magic == 0x20b) ? 64 : 32;
             buffer.position(buffer.position() + 14);
             entryPoint = buffer.getInt() & 0xFFFFFFFFL;
-            buffer.position(buffer.position() + (bitness == 64 ? 88 : 72));
+
+            if (sizeOfOptionalHeader >= (bitness == 64 ? 112 : 96)) {
+                imageBase = bitness == 64 ? buffer.getLong(24) : buffer.getInt(28) & 0xFFFFFFFFL;
+                headerSize = buffer.getInt(60) & 0xFFFFFFFFL;
+                directories = parseDataDirectories(buffer, bitness == 64 ? 108 : 92, sizeOfOptionalHeader);
+            }
+        }
+
+        List<Section> sections = parseSections(buffer, sizeOfOptionalHeader, numberOfSections, source);
+        AddressSpace addressSpace = AddressSpace.of(sections);
+
+        BinaryFile.BinaryFileBuilder builder = BinaryFile.builder().filePath(path).format(BinaryFormat.PE).architecture(arch).endianness(Endianness.LITTLE).bitness(bitness).entryPoint(Address.of(entryPoint)).sections(sections).addressSpace(addressSpace).source(source);
+
+        if (!headersOnly) {
+            RvaTranslator translator = new RvaTranslator(addressSpace, headerSize);
+            List<Import> imports = new ArrayList<>();
+            try {
+                parseImports(source, translator, directoryRva(directories, DIRECTORY_IMPORT), bitness == 64, imports);
+                parseDelayImports(source, translator, directoryRva(directories, DIRECTORY_DELAY_IMPORT), bitness == 64, imageBase, imports);
+                builder.exports(parseExports(source, translator, directoryRva(directories, DIRECTORY_EXPORT), directorySize(directories, DIRECTORY_EXPORT)));
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed data directory in {}: {}", path, e.toString());
+            }
+            builder.imports(imports);
+        }
+
+        return builder.build();
+    }
+
+    private long[] parseDataDirectories(ByteBuffer buffer, int offset, int sizeOfOptionalHeader) {
+        int count = (int) Math.min(buffer.getInt(offset) & 0xFFFFFFFFL, (sizeOfOptionalHeader - offset - 4) / 8);
+        long[] directories = new long[Math.max(count, 0)];
+        for (int i = 0; i < directories.length; i++) {
+            directories[i] = (buffer.getInt(offset + 4 + i * 8) & 0xFFFFFFFFL) | (long) buffer.getInt(offset + 8 + i * 8) << 32;
+        }
+        return directories;
+    }
+
+    private long directoryRva(long[] directories, int index) {
+        return index < directories.length ? directories[index] & 0xFFFFFFFFL : 0;
+    }
+
+    private long directorySize(long[] directories, int index) {
+        return index < directories.length ? directories[index] >>> 32 : 0;
+    }
+
+    private void parseImports(ByteSource source, RvaTranslator translator, long directoryRva, boolean is64Bit, List<Import> imports) {
+        if (directoryRva == 0) {
+            return;
+        }
+
+        for (int i = 0; i < MAX_DESCRIPTORS; i++) {
+            long offset = translator.toFileOffset(directoryRva + (long) i * IMPORT_DESCRIPTOR_SIZE);
+            if (offset < 0) {
+                break;
+            }
+
+            ByteBuffer descriptor = source.buffer(offset, IMPORT_DESCRIPTOR_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            long lookupTable = descriptor.getInt(0) & 0xFFFFFFFFL;
+            long nameRva = descriptor.getInt(12) & 0xFFFFFFFFL;
+            long addressTable = descriptor.getInt(16) & 0xFFFFFFFFL;
+
+            if (nameRva == 0 && addressTable == 0) {
+                break;
+            }
+
+            String library = readString(source, translator, nameRva);
+            parseThunks(source, translator, library, lookupTable != 0 ? lookupTable : addressTable, addressTable, 0, is64Bit, imports);
+        }
+    }
+
+    private void parseDelayImports(ByteSource source, RvaTranslator translator, long directoryRva, boolean is64Bit, long imageBase, List<Import> imports) {
+        if (directoryRva == 0) {
+            return;
+        }
+
+        for (int i = 0; i < MAX_DESCRIPTORS; i++) {
+            long offset = translator.toFileOffset(directoryRva + (long) i * DELAY_DESCRIPTOR_SIZE);
+            if (offset < 0) {
+                break;
+            }
+
+            ByteBuffer descriptor = source.buffer(offset, DELAY_DESCRIPTOR_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int attributes = descriptor.getInt(0);
+            long bias = (attributes & 1) != 0 ? 0 : imageBase;
+            long nameRva = descriptor.getInt(4) & 0xFFFFFFFFL;
+            long addressTable = descriptor.getInt(12) & 0xFFFFFFFFL;
+            long nameTable = descriptor.getInt(16) & 0xFFFFFFFFL;
+
+            if (nameRva == 0 && addressTable == 0) {
+                break;
+            }
+            if (nameTable == 0) {
+                continue;
+            }
+
+            String library = readString(source, translator, nameRva - bias);
+            parseThunks(source, translator, library, nameTable - bias, addressTable - bias, bias, is64Bit, imports);
+        }
+    }
+
+    private void parseThunks(ByteSource source, RvaTranslator translator, String library, long lookupTable, long addressTable, long bias, boolean is64Bit, List<Import> imports) {
+        int thunkSize = is64Bit ? 8 : 4;
+        long ordinalFlag = is64Bit ? Long.MIN_VALUE : 0x80000000L;
+
+        for (int i = 0; i < MAX_THUNKS; i++) {
+            long offset = translator.toFileOffset(lookupTable + (long) i * thunkSize);
+            if (offset < 0) {
+                break;
+            }
+
+            ByteBuffer thunk = source.buffer(offset, thunkSize).order(ByteOrder.LITTLE_ENDIAN);
+            long value = is64Bit ? thunk.getLong(0) : thunk.getInt(0) & 0xFFFFFFFFL;
+            if (value == 0) {
+                break;
+            }
+
+            Address slot = Address.of(addressTable + (long) i * thunkSize);
+            if ((value & ordinalFlag) != 0) {
+                int ordinal = (int) (value & 0xFFFF);
+                imports.add(Import.builder().library(library).name("#" + ordinal).address(slot).ordinal(ordinal).build());
+            } else {
+                long hintRva = (value - bias) & 0x7FFFFFFFL;
+                long hintOffset = translator.toFileOffset(hintRva);
+                int hint = hintOffset < 0 ? 0 : source.buffer(hintOffset, 2).order(ByteOrder.LITTLE_ENDIAN).getShort(0) & 0xFFFF;
+                imports.add(Import.builder().library(library).name(readString(source, translator, hintRva + 2)).address(slot).ordinal(hint).build());
+            }
+        }
+    }
+
+    private List<Export> parseExports(ByteSource source, RvaTranslator translator, long directoryRva, long directorySize) {
+        List<Export> exports = new ArrayList<>();
+        long directoryOffset = directoryRva == 0 ? -1 : translator.toFileOffset(directoryRva);
+        if (directoryOffset < 0) {
+            return exports;
+        }
+
+        ByteBuffer directory = source.buffer(directoryOffset, EXPORT_DIRECTORY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        int base = directory.getInt(16);
+        int functionCount = (int) Math.min(directory.getInt(20) & 0xFFFFFFFFL, MAX_THUNKS);
+        int nameCount = (int) Math.min(directory.getInt(24) & 0xFFFFFFFFL, functionCount);
+        long functionsRva = directory.getInt(28) & 0xFFFFFFFFL;
+        long namesRva = directory.getInt(32) & 0xFFFFFFFFL;
+        long ordinalsRva = directory.getInt(36) & 0xFFFFFFFFL;
+
+        String[] names = new String[functionCount];
+        for (int i = 0; i < nameCount; i++) {
+            long nameOffset = translator.toFileOffset(namesRva + i * 4L);
+            long ordinalOffset = translator.toFileOffset(ordinalsRva + i * 2L);
+            if (nameOffset < 0 || ordinalOffset < 0) {
+                break;
+            }
+            int index = source.buffer(ordinalOffset, 2).order(ByteOrder.LITTLE_ENDIAN).getShort(0) & 0xFFFF;
+            if (index < functionCount) {
+                names[index] = readString(source, translator, source.buffer(nameOffset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt(0) & 0xFFFFFFFFL);
+            }
+        }
+
+        for (int i = 0; i < functionCount; i++) {
+            long offset = translator.toFileOffset(functionsRva + i * 4L);
+            if (offset < 0) {
+                break;
+            }
+            long rva = source.buffer(offset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt(0) & 0xFFFFFFFFL;
+            if (rva == 0) {
+                continue;
+            }
+            String name = names[i] != null ? names[i] : "#" + (base + i);
+            if (rva >= directoryRva && rva < directoryRva + directorySize) {
+                exports.add(Export.builder().name(name).ordinal(base + i).forwarder(readString(source, translator, rva)).build());
+            } else {
+                exports.add(Export.builder().name(name).address(Address.of(rva)).ordinal(base + i).build());
+            }
         }
 
-        int sectionHeaderStart = peOffset + 24 + sizeOfOptionalHeader;
-        List<Section> sections = parseSections(buffer, sectionHeaderStart, numberOfSections, data);
+        return exports;
+    }
 
-        return BinaryFile.builder().filePath(path).format(BinaryFormat.PE).architecture(arch).endianness(Endianness.LITTLE).bitness(bitness).entryPoint(Address.of(entryPoint)).sections(sections).rawData(data).build();
+    private String readString(ByteSource source, RvaTranslator translator, long rva) {
+        long offset = translator.toFileOffset(rva);
+        return offset < 0 ? "" : source.readCString(offset);
     }
 
-    private List<Section> parseSections(ByteBuffer buffer, int offset, int count, byte[] data) {
+    private List<Section> parseSections(ByteBuffer buffer, int offset, int count, ByteSource source) {
         List<Section> sections = new ArrayList<>();
 
         for (int i = 0; i < count; i++) {
-            int sectionOffset = offset + (i * 40);
+            int sectionOffset = offset + (i * SECTION_HEADER_SIZE);
             buffer.position(sectionOffset);
 
             byte[] nameBytes = new byte[8];
             buffer.get(nameBytes);
             String name = new String(nameBytes).trim().replace("\0", "");
 
-            int virtualSize = buffer.getInt();
-            int virtualAddress = buffer.getInt();
-            int rawSize = buffer.getInt();
-            int rawAddress = buffer.getInt();
+            long virtualSize = buffer.getInt() & 0xFFFFFFFFL;
+            long virtualAddress = buffer.getInt() & 0xFFFFFFFFL;
+            long rawSize = buffer.getInt() & 0xFFFFFFFFL;
+            long rawAddress = buffer.getInt() & 0xFFFFFFFFL;
             buffer.position(buffer.position() + 12);
             int characteristics = buffer.getInt();
 
-            byte[] sectionData = new byte[Math.min(rawSize, data.length - rawAddress)];
-            if (rawAddress < data.length) {
-                System.arraycopy(data, rawAddress, sectionData, 0, sectionData.length);
-            }
+            ByteSource content = source.slice(rawAddress, rawSize);
 
-            sections.add(Section.builder().name(name).virtualAddress(Address.of(virtualAddress)).virtualSize(virtualSize).rawAddress(Address.of(rawAddress)).rawSize(rawSize).flags(characteristics).data(sectionData).build());
+            sections.add(Section.builder().name(name).virtualAddress(Address.of(virtualAddress)).virtualSize(virtualSize).rawAddress(Address.of(rawAddress)).rawSize(rawSize).flags(characteristics).permissions(mapCharacteristics(characteristics)).content(content).build());
         }
 
         return sections;
     }
 
+    private Set<Permission> mapCharacteristics(int characteristics) {
+        Set<Permission> permissions = EnumSet.noneOf(Permission.class);
+        if ((characteristics & IMAGE_SCN_MEM_READ) != 0) permissions.add(Permission.READ);
+        if ((characteristics & IMAGE_SCN_MEM_WRITE) != 0) permissions.add(Permission.WRITE);
+        if ((characteristics & IMAGE_SCN_MEM_EXECUTE) != 0) permissions.add(Permission.EXECUTE);
+        return permissions;
+    }
+
     private Architecture mapMachineToArchitecture(short machine) {
         return switch (machine) {
             case 0x014c -> Architecture.X86;
@@ -0,0 +1,41 @@
+package com.arsen.loader.pe;
+
+import com.arsen.model.Section;
+import com.arsen.model.binary.AddressSpace;
+
+public class RvaTranslator {
+    private final AddressSpace addressSpace;
+    private final long headerSize;
+    private Section lastHit;
+
+    public RvaTranslator(AddressSpace addressSpace, long headerSize) {
+        this.addressSpace = addressSpace;
+        this.headerSize = headerSize;
+    }
+
+    public long toFileOffset(long rva) {
+        if (rva == 0) {
+            return -1;
+        }
+
+        Section section = lastHit;
+        if (section == null || !covers(section, rva)) {
+            section = addressSpace.sectionAt(rva);
+            if (section == null || section.getContent() == null) {
+                return Long.compareUnsigned(rva, headerSize) < 0 ? rva : -1;
+            }
+            lastHit = section;
+        }
+
+        long delta = rva - section.getVirtualAddress().value();
+        if (Long.compareUnsigned(delta, section.getRawSize()) >= 0) {
+            return -1;
+        }
+        return section.getRawAddress().value() + delta;
+    }
+
+    private boolean covers(Section section, long rva) {
+        long delta = rva - section.getVirtualAddress().value();
+        return Long.compareUnsigned(delta, section.getVirtualSize()) < 0;
+    }
+}
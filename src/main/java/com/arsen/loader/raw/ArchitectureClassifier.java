@@ -0,0 +1,93 @@
+package com.arsen.loader.raw;
+
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Architecture;
+import com.arsen.model.Endianness;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ArchitectureClassifier {
+    private static final int SAMPLE_SIZE = 4 * 1024 * 1024;
+    private static final double MIN_SCORE = 4.0;
+
+    private static final List<Pattern> X86_COMMON = List.of(new Pattern(0xC35D, 0xFFFF, 4), new Pattern(0xC3C9, 0xFFFF, 4), new Pattern(0xCCC3, 0xFFFF, 3), new Pattern(0x90C3, 0xFFFF, 2), new Pattern(0x15FF, 0xFFFF, 2));
+    private static final List<Pattern> X86 = concat(X86_COMMON, List.of(new Pattern(0x00E58955, 0x00FFFFFF, 8), new Pattern(0x00EC8B55, 0x00FFFFFF, 8), new Pattern(0xFB1E0FF3, 0xFFFFFFFF, 10), new Pattern(0xEC83, 0xFFFF, 2), new Pattern(0x458B, 0xFFFF, 2)));
+    private static final List<Pattern> X86_64 = concat(X86_COMMON, List.of(new Pattern(0xE5894855, 0xFFFFFFFF, 10), new Pattern(0xFA1E0FF3, 0xFFFFFFFF, 10), new Pattern(0x00EC8348, 0x00FFFFFF, 4), new Pattern(0x245C8948, 0xFFFFFFFF, 4), new Pattern(0x00058B48, 0x00FFFFFF, 3), new Pattern(0x003D8D48, 0x00FFFFFF, 3), new Pattern(0x000D8D48, 0x00FFFFFF, 3), new Pattern(0x00058D4C, 0x00FFFFFF, 3), new Pattern(0x00C48348, 0x00FFFFFF, 4)));
+    private static final List<Pattern> ARM = List.of(new Pattern(0xE12FFF1E, 0xFFFFFFFF, 10), new Pattern(0xE92D4000, 0xFFFF4000, 8), new Pattern(0xE8BD8000, 0xFFFF8000, 8), new Pattern(0xE59F0000, 0xFFFF0000, 2), new Pattern(0xEB000000, 0xFF000000, 1));
+    private static final List<Pattern> THUMB = List.of(new Pattern(0x4770, 0xFFFF, 10), new Pattern(0xB500, 0xFF00, 6), new Pattern(0xBD00, 0xFF00, 6));
+    private static final List<Pattern> ARM64 = List.of(new Pattern(0xD65F03C0, 0xFFFFFFFF, 10), new Pattern(0xD503233F, 0xFFFFFFFF, 10), new Pattern(0xA9807BFD, 0xFFC07FFF, 8), new Pattern(0xA8C07BFD, 0xFFC07FFF, 8), new Pattern(0xA9007BFD, 0xFFC07FFF, 6), new Pattern(0x910003FD, 0xFFFFFFFF, 6), new Pattern(0xD503201F, 0xFFFFFFFF, 2), new Pattern(0x94000000, 0xFC000000, 1));
+    private static final List<Pattern> MIPS = List.of(new Pattern(0x03E00008, 0xFFFFFFFF, 10), new Pattern(0x27BD8000, 0xFFFF8000, 8), new Pattern(0xAFBF0000, 0xFFFF0000, 6), new Pattern(0x8FBF0000, 0xFFFF0000, 6), new Pattern(0x0320F809, 0xFFFFFFFF, 6), new Pattern(0x3C1C0000, 0xFFFF0000, 3));
+    private static final List<Pattern> POWERPC = List.of(new Pattern(0x4E800020, 0xFFFFFFFF, 10), new Pattern(0x7C0802A6, 0xFFFFFFFF, 8), new Pattern(0x7C0803A6, 0xFFFFFFFF, 8), new Pattern(0x94218000, 0xFFFF8000, 6), new Pattern(0x90010000, 0xFFFF0000, 3));
+    private static final List<Pattern> POWERPC_64 = List.of(new Pattern(0x4E800020, 0xFFFFFFFF, 10), new Pattern(0x7C0802A6, 0xFFFFFFFF, 8), new Pattern(0x7C0803A6, 0xFFFFFFFF, 8), new Pattern(0xF8010010, 0xFFFFFFFF, 8), new Pattern(0xE8010010, 0xFFFFFFFF, 8), new Pattern(0xF8218001, 0xFFFF8003, 6));
+
+    private static final List<Candidate> CANDIDATES = List.of(
+            new Candidate(Architecture.X86, Endianness.LITTLE, 32, 1, X86),
+            new Candidate(Architecture.X86_64, Endianness.LITTLE, 64, 1, X86_64),
+            new Candidate(Architecture.ARM, Endianness.LITTLE, 32, 4, ARM),
+            new Candidate(Architecture.ARM, Endianness.BIG, 32, 4, ARM),
+            new Candidate(Architecture.ARM, Endianness.LITTLE, 32, 2, THUMB),
+            new Candidate(Architecture.ARM64, Endianness.LITTLE, 64, 4, ARM64),
+            new Candidate(Architecture.MIPS, Endianness.BIG, 32, 4, MIPS),
+            new Candidate(Architecture.MIPS, Endianness.LITTLE, 32, 4, MIPS),
+            new Candidate(Architecture.POWERPC, Endianness.BIG, 32, 4, POWERPC),
+            new Candidate(Architecture.POWERPC, Endianness.BIG, 64, 4, POWERPC_64),
+            new Candidate(Architecture.POWERPC, Endianness.LITTLE, 64, 4, POWERPC_64));
+
+    public Classification classify(ByteSource source) {
+        byte[] sample = new byte[(int) Math.min(source.size(), SAMPLE_SIZE)];
+        source.read(0, sample, 0, sample.length);
+        return classify(sample);
+    }
+
+    public Classification classify(byte[] sample) {
+        int populated = 0;
+        for (byte b : sample) {
+            if (b != 0) {
+                populated++;
+            }
+        }
+        int density = Math.max(1, populated);
+        return CANDIDATES.parallelStream().map(candidate -> candidate.classify(sample, density)).max(Comparator.comparingDouble(Classification::score)).filter(c -> c.score() >= MIN_SCORE).orElse(Classification.UNKNOWN);
+    }
+
+    private static List<Pattern> concat(List<Pattern> first, List<Pattern> second) {
+        return Stream.concat(first.stream(), second.stream()).toList();
+    }
+
+    public record Classification(Architecture architecture, Endianness endianness, int bitness, double score) {
+        public static final Classification UNKNOWN = new Classification(Architecture.UNKNOWN, Endianness.LITTLE, 32, 0);
+    }
+
+    private record Pattern(int value, int mask, int weight) {
+    }
+
+    private record Candidate(Architecture architecture, Endianness endianness, int bitness, int alignment, List<Pattern> patterns) {
+        Classification classify(byte[] sample, int populated) {
+            ByteBuffer buffer = ByteBuffer.wrap(sample).order(endianness == Endianness.LITTLE ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+            int[] values = patterns.stream().mapToInt(Pattern::value).toArray();
+            int[] masks = patterns.stream().mapToInt(Pattern::mask).toArray();
+            int[] weights = patterns.stream().mapToInt(Pattern::weight).toArray();
+
+            long total = 0;
+            for (int i = 0; i + 4 <= sample.length; i += alignment) {
+                int word = buffer.getInt(i);
+                for (int p = 0; p < values.length; p++) {
+                    if ((word & masks[p]) == values[p]) {
+                        total += weights[p];
+                    }
+                }
+            }
+
+            double chance = 0;
+            for (int p = 0; p < masks.length; p++) {
+                chance += weights[p] / Math.pow(2, Integer.bitCount(masks[p]));
+            }
+
+            return new Classification(architecture, endianness, bitness, total * 1024.0 / populated - chance * 1024.0 / alignment);
+        }
+    }
+}
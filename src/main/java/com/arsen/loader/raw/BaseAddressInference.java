@@ -0,0 +1,226 @@
+package com.arsen.loader.raw;
+
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Architecture;
+import com.arsen.model.Endianness;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Slf4j
+public class BaseAddressInference {
+    private static final int SAMPLE_SIZE = 64 * 1024 * 1024;
+    private static final int MIN_STRING_LENGTH = 6;
+    private static final int MAX_STRINGS = 65536;
+    private static final int MAX_POINTERS = 1 << 20;
+    private static final int PAGE_BITS = 12;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+    private static final int MIN_VOTES = 8;
+    private static final long MIN_POINTER = 0x100;
+    private static final int PARTITIONS = 64;
+    private static final int MAX_CANDIDATES = 1 << 16;
+
+    public long infer(ByteSource source, ArchitectureClassifier.Classification classification) {
+        int width = classification.bitness() == 64 ? 8 : 4;
+        boolean variableLength = classification.architecture() == Architecture.X86 || classification.architecture() == Architecture.X86_64;
+        return infer(source, classification.endianness(), width, variableLength ? 1 : width);
+    }
+
+    public long infer(ByteSource source, Endianness endianness, int width, int step) {
+        byte[] sample = new byte[(int) Math.min(source.size(), SAMPLE_SIZE)];
+        source.read(0, sample, 0, sample.length);
+
+        long[][] stringsByPageOffset = bucketByPageOffset(findStrings(sample));
+        long[] pointers = findPointers(sample, endianness, width, step);
+        if (pointers.length == 0) {
+            return 0;
+        }
+
+        int partitionSize = (pointers.length + PARTITIONS - 1) / PARTITIONS;
+        List<VoteTable> partials = IntStream.range(0, PARTITIONS).parallel().mapToObj(partition -> vote(pointers, Math.min(pointers.length, partition * partitionSize), Math.min(pointers.length, (partition + 1) * partitionSize), stringsByPageOffset)).toList();
+
+        VoteTable votes = new VoteTable();
+        for (VoteTable partial : partials) {
+            votes.addAll(partial);
+        }
+
+        long best = votes.bestKey();
+        int bestVotes = votes.count(best);
+
+        log.debug("Inferred base 0x{} with {} string references", Long.toHexString(best), bestVotes);
+        return bestVotes >= MIN_VOTES ? best : 0;
+    }
+
+    private VoteTable vote(long[] pointers, int from, int to, long[][] stringsByPageOffset) {
+        VoteTable votes = new VoteTable();
+        for (int i = from; i < to; i++) {
+            long pointer = pointers[i];
+            for (long string : stringsByPageOffset[(int) (pointer & PAGE_MASK)]) {
+                if (Long.compareUnsigned(pointer, string) >= 0) {
+                    votes.add(pointer - string, 1);
+                }
+            }
+        }
+        return votes;
+    }
+
+    private long[] findStrings(byte[] sample) {
+        long[] strings = new long[MAX_STRINGS];
+        int count = 0;
+        int start = 0;
+
+        for (int i = 0; i < sample.length && count < MAX_STRINGS; i++) {
+            int b = sample[i] & 0xFF;
+            if (b >= 0x20 && b < 0x7F || b == '\t' || b == '\n' || b == '\r') {
+                continue;
+            }
+            if (b == 0 && i - start >= MIN_STRING_LENGTH && (start == 0 || sample[start - 1] == 0)) {
+                strings[count++] = start;
+            }
+            start = i + 1;
+        }
+
+        return Arrays.copyOf(strings, count);
+    }
+
+    private long[][] bucketByPageOffset(long[] strings) {
+        int[] sizes = new int[PAGE_MASK + 1];
+        for (long string : strings) {
+            sizes[(int) (string & PAGE_MASK)]++;
+        }
+
+        long[][] buckets = new long[PAGE_MASK + 1][];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new long[sizes[i]];
+            sizes[i] = 0;
+        }
+        for (long string : strings) {
+            int bucket = (int) (string & PAGE_MASK);
+            buckets[bucket][sizes[bucket]++] = string;
+        }
+        return buckets;
+    }
+
+    private long[] findPointers(byte[] sample, Endianness endianness, int width, int step) {
+        ByteBuffer buffer = ByteBuffer.wrap(sample).order(endianness == Endianness.LITTLE ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        long[] pointers = new long[Math.min(sample.length / step, MAX_POINTERS * 4)];
+
+        int count = 0;
+        for (int i = 0; i + width <= sample.length && count < pointers.length; i += step) {
+            long value = width == 8 ? buffer.getLong(i) : buffer.getInt(i) & 0xFFFFFFFFL;
+            if (Long.compareUnsigned(value, MIN_POINTER) >= 0 && value != (width == 8 ? -1L : 0xFFFFFFFFL)) {
+                pointers[count++] = value;
+            }
+        }
+
+        long[] distinct = Arrays.stream(pointers, 0, count).sorted().distinct().toArray();
+        if (distinct.length <= MAX_POINTERS) {
+            return distinct;
+        }
+
+        long[] sampled = new long[MAX_POINTERS];
+        for (int i = 0; i < sampled.length; i++) {
+            sampled[i] = distinct[(int) ((long) i * distinct.length / MAX_POINTERS)];
+        }
+        return sampled;
+    }
+
+    private static class VoteTable {
+        private long[] keys = new long[1024];
+        private int[] counts = new int[1024];
+        private int size;
+
+        void add(long key, int count) {
+            int slot = slotOf(key);
+            if (counts[slot] == 0) {
+                if (size >= MAX_CANDIDATES) {
+                    count -= evict();
+                    if (count <= 0) {
+                        return;
+                    }
+                } else if (size * 2 >= keys.length) {
+                    grow();
+                }
+                slot = slotOf(key);
+                keys[slot] = key;
+                size++;
+            }
+            counts[slot] += count;
+        }
+
+        void addAll(VoteTable other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.counts[i] != 0) {
+                    add(other.keys[i], other.counts[i]);
+                }
+            }
+        }
+
+        int count(long key) {
+            return counts[slotOf(key)];
+        }
+
+        long bestKey() {
+            long best = 0;
+            int bestCount = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (counts[i] > bestCount || (counts[i] == bestCount && counts[i] != 0 && Long.compareUnsigned(keys[i], best) < 0)) {
+                    best = keys[i];
+                    bestCount = counts[i];
+                }
+            }
+            return best;
+        }
+
+        private int slotOf(long key) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (counts[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private int evict() {
+            int[] sorted = new int[size];
+            int n = 0;
+            for (int count : counts) {
+                if (count != 0) {
+                    sorted[n++] = count;
+                }
+            }
+            Arrays.sort(sorted);
+            int floor = sorted[size / 2];
+            rehash(keys.length, floor);
+            return floor;
+        }
+
+        private void grow() {
+            rehash(keys.length * 2, 0);
+        }
+
+        private void rehash(int capacity, int floor) {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[capacity];
+            counts = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldCounts[i] > floor) {
+                    int slot = slotOf(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i] - floor;
+                    size++;
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.arsen.loader.raw;
+
+import com.arsen.loader.BinaryLoader;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.*;
+import com.arsen.model.binary.AddressSpace;
+import com.arsen.model.binary.BinaryFile;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.List;
+
+@Slf4j
+public class RawLoader implements BinaryLoader {
+    private final ArchitectureClassifier classifier = new ArchitectureClassifier();
+    private final BaseAddressInference baseAddressInference = new BaseAddressInference();
+
+    @Override
+    public boolean supports(byte[] header) {
+        return false;
+    }
+
+    @Override
+    public BinaryFile parse(Path path, ByteSource source, boolean headersOnly) throws Exception {
+        log.info("Loading raw image: {}", path);
+
+        ArchitectureClassifier.Classification classification = classifier.classify(source);
+        long base = 0;
+        if (!headersOnly && classification.architecture() != Architecture.UNKNOWN) {
+            base = baseAddressInference.infer(source, classification);
+        }
+
+        log.info("Classified {} as {} {}-bit {} at base 0x{}", path, classification.architecture(), classification.bitness(), classification.endianness(), Long.toHexString(base));
+
+        Section image = Section.builder().name("RAW").virtualAddress(Address.of(base)).virtualSize(source.size()).rawAddress(Address.of(0)).rawSize(source.size()).permission(Permission.READ).permission(Permission.EXECUTE).content(source).build();
+
+        return BinaryFile.builder().filePath(path).format(BinaryFormat.RAW).architecture(classification.architecture()).endianness(classification.endianness()).bitness(classification.bitness()).entryPoint(Address.of(base)).section(image).addressSpace(AddressSpace.of(List.of(image))).source(source).build();
+    }
+
+    @Override
+    public BinaryFormat getFormat() {
+        return BinaryFormat.RAW;
+    }
+}
@@ -1,5 +1,5 @@
 package com.arsen.model;
 
 public enum BinaryFormat {
-    PE, ELF, MACH_O, UNKNOWN
+    PE, ELF, MACH_O, CONTAINER, INTEL_HEX, SREC, RAW, UNKNOWN
 }
@@ -9,4 +9,5 @@ public class Export {
     String name;
     Address address;
     int ordinal;
+    String forwarder;
 }
@@ -0,0 +1,5 @@
+package com.arsen.model;
+
+public enum Permission {
+    READ, WRITE, EXECUTE
+}
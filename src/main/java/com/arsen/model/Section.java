@@ -1,10 +1,14 @@
 package com.arsen.model;
 
+import com.arsen.loader.io.ByteSource;
 import lombok.Builder;
+import lombok.Singular;
 import lombok.Value;
 
+import java.util.Set;
+
 @Value
-@Builder
+@Builder(toBuilder = true)
 public class Section {
     String name;
     Address virtualAddress;
@@ -12,18 +16,26 @@ public class Section {
     Address rawAddress;
     long rawSize;
     int flags;
-    byte[] data;
+
+    @Singular
+    Set<Permission> permissions;
+
+    ByteSource content;
+
+    public byte[] getData() {
+        return content == null ? null : content.toByteArray();
+    }
 
     public boolean isExecutable() {
-        return (flags & 0x20000000) != 0;
+        return permissions.contains(Permission.EXECUTE);
     }
 
     public boolean isReadable() {
-        return (flags & 0x40000000) != 0;
+        return permissions.contains(Permission.READ);
     }
 
     public boolean isWritable() {
-        return (flags & 0x80000000) != 0;
+        return permissions.contains(Permission.WRITE);
     }
 
     public boolean containsAddress(Address address) {
@@ -0,0 +1,124 @@
+package com.arsen.model.binary;
+
+import com.arsen.model.Address;
+import com.arsen.model.Section;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+public class AddressSpace {
+    private final Section[] regions;
+    private final long[] starts;
+    private final long[] ends;
+    private final Section[] fileRegions;
+    private final long[] fileStarts;
+
+    private AddressSpace(List<Section> sections) {
+        List<Section> sorted = new ArrayList<>();
+        for (Section section : sections) {
+            if (section.getVirtualSize() > 0) {
+                sorted.add(section);
+            }
+        }
+        sorted.sort(Comparator.comparing((Section s) -> s.getVirtualAddress().value(), Long::compareUnsigned));
+
+        List<Section> mapped = new ArrayList<>(sorted.size());
+        long previousEnd = 0;
+        for (Section section : sorted) {
+            long start = section.getVirtualAddress().value();
+            if (!mapped.isEmpty() && Long.compareUnsigned(start, previousEnd) < 0) {
+                continue;
+            }
+            mapped.add(section);
+            previousEnd = start + section.getVirtualSize();
+        }
+
+        this.regions = mapped.toArray(new Section[0]);
+        this.starts = new long[regions.length];
+        this.ends = new long[regions.length];
+        for (int i = 0; i < regions.length; i++) {
+            starts[i] = regions[i].getVirtualAddress().value();
+            ends[i] = starts[i] + regions[i].getVirtualSize();
+        }
+
+        List<Section> backed = new ArrayList<>(mapped.size());
+        for (Section section : mapped) {
+            if (section.getContent() != null && section.getRawSize() > 0) {
+                backed.add(section);
+            }
+        }
+        backed.sort(Comparator.comparing((Section s) -> s.getRawAddress().value(), Long::compareUnsigned));
+
+        this.fileRegions = backed.toArray(new Section[0]);
+        this.fileStarts = new long[fileRegions.length];
+        for (int i = 0; i < fileRegions.length; i++) {
+            fileStarts[i] = fileRegions[i].getRawAddress().value();
+        }
+    }
+
+    public static AddressSpace of(List<Section> sections) {
+        return new AddressSpace(sections);
+    }
+
+    public int size() {
+        return regions.length;
+    }
+
+    public List<Section> getRegions() {
+        return List.of(regions);
+    }
+
+    public Optional<Section> findSection(Address address) {
+        return Optional.ofNullable(sectionAt(address.value()));
+    }
+
+    public Section sectionAt(long address) {
+        int index = floorIndex(starts, address);
+        if (index < 0 || Long.compareUnsigned(address, ends[index]) >= 0) {
+            return null;
+        }
+        return regions[index];
+    }
+
+    public OptionalLong toFileOffset(Address address) {
+        Section section = sectionAt(address.value());
+        if (section == null || section.getContent() == null) {
+            return OptionalLong.empty();
+        }
+        long delta = address.value() - section.getVirtualAddress().value();
+        if (Long.compareUnsigned(delta, section.getRawSize()) >= 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(section.getRawAddress().value() + delta);
+    }
+
+    public OptionalLong toVirtualAddress(long fileOffset) {
+        int index = floorIndex(fileStarts, fileOffset);
+        if (index < 0) {
+            return OptionalLong.empty();
+        }
+        Section section = fileRegions[index];
+        long delta = fileOffset - fileStarts[index];
+        if (Long.compareUnsigned(delta, Math.min(section.getRawSize(), section.getVirtualSize())) >= 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(section.getVirtualAddress().value() + delta);
+    }
+
+    private static int floorIndex(long[] keys, long value) {
+        int low = 0;
+        int high = keys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keys[mid], value) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+}
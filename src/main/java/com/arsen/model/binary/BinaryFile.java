@@ -1,17 +1,20 @@
 package com.arsen.model.binary;
 
+import com.arsen.loader.io.ByteSource;
 import com.arsen.model.*;
 import lombok.Builder;
 import lombok.Data;
 import lombok.Singular;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
 @Data
-@Builder
-public class BinaryFile {
+@Builder(toBuilder = true)
+public class BinaryFile implements Closeable {
     Path filePath;
     BinaryFormat format;
     Architecture architecture;
@@ -22,19 +25,72 @@ public class BinaryFile {
     @Singular
     List<Section> sections;
 
+    @Singular
+    List<Section> segments;
+
     @Singular
     List<Import> imports;
 
     @Singular
     List<Export> exports;
 
-    byte[] rawData;
+    @Singular
+    List<BinaryFile> children;
+
+    ByteSource source;
+
+    AddressSpace addressSpace;
+
+    SymbolTable symbolTable;
+
+    LinkageIndex linkageIndex;
+
+    ContentHash contentHash;
+
+    CoreDump coreDump;
+
+    public LinkageIndex getLinkageIndex() {
+        if (linkageIndex == null) {
+            linkageIndex = LinkageIndex.of(exports);
+        }
+        return linkageIndex;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable == null ? SymbolTable.EMPTY : symbolTable;
+    }
+
+    public AddressSpace getAddressSpace() {
+        if (addressSpace == null) {
+            addressSpace = AddressSpace.of(getMappedRegions());
+        }
+        return addressSpace;
+    }
+
+    public List<Section> getMappedRegions() {
+        return sections.isEmpty() ? segments : sections;
+    }
+
+    public List<Section> getExecutableRegions() {
+        List<Section> executable = sections.stream().filter(Section::isExecutable).toList();
+        return executable.isEmpty() ? segments.stream().filter(Section::isExecutable).toList() : executable;
+    }
 
     public Optional<Section> getSectionByAddress(Address address) {
-        return sections.stream().filter(s -> s.containsAddress(address)).findFirst();
+        return getAddressSpace().findSection(address);
     }
 
     public Optional<Section> getSectionByName(String name) {
         return sections.stream().filter(s -> s.getName().equals(name)).findFirst();
     }
+
+    @Override
+    public void close() throws IOException {
+        for (BinaryFile child : children) {
+            child.close();
+        }
+        if (source != null) {
+            source.close();
+        }
+    }
 }
@@ -0,0 +1,38 @@
+package com.arsen.model.binary;
+
+import com.arsen.model.*;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.util.List;
+
+@Value
+@Builder
+public class BinaryProbe {
+    Path filePath;
+    long fileSize;
+    BinaryFormat format;
+    Architecture architecture;
+    Endianness endianness;
+    int bitness;
+    Address entryPoint;
+
+    @Singular
+    List<Section> sections;
+
+    @Singular
+    List<Section> segments;
+
+    public static BinaryProbe from(BinaryFile binary, long fileSize) {
+        BinaryProbeBuilder builder = BinaryProbe.builder().filePath(binary.getFilePath()).fileSize(fileSize).format(binary.getFormat()).architecture(binary.getArchitecture()).endianness(binary.getEndianness()).bitness(binary.getBitness()).entryPoint(binary.getEntryPoint());
+        for (Section section : binary.getSections()) {
+            builder.section(section.toBuilder().content(null).build());
+        }
+        for (Section segment : binary.getSegments()) {
+            builder.segment(segment.toBuilder().content(null).build());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.arsen.model.binary;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.Map;
+
+@Value
+@Builder
+public class ContentHash {
+    String sha256;
+
+    @Singular("sectionHash")
+    Map<String, String> sectionHashes;
+}
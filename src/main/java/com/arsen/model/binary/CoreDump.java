@@ -0,0 +1,37 @@
+package com.arsen.model.binary;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Optional;
+
+@Value
+@Builder
+public class CoreDump {
+    int pid;
+    int parentPid;
+    String processName;
+    String commandLine;
+
+    @Singular
+    List<CoreThread> threads;
+
+    @Singular
+    List<MappedFile> mappedFiles;
+
+    public Optional<CoreThread> getCrashingThread() {
+        return threads.stream().filter(t -> t.getSignal() != 0).findFirst().or(() -> threads.stream().findFirst());
+    }
+
+    public Optional<MappedFile> findMappedFile(long address) {
+        return mappedFiles.stream().filter(f -> f.contains(address)).findFirst();
+    }
+
+    public record MappedFile(long start, long end, long fileOffset, String path) {
+        public boolean contains(long address) {
+            return Long.compareUnsigned(address, start) >= 0 && Long.compareUnsigned(address, end) < 0;
+        }
+    }
+}
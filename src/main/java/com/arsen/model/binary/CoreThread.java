@@ -0,0 +1,20 @@
+package com.arsen.model.binary;
+
+import com.arsen.model.Address;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.Map;
+
+@Value
+@Builder
+public class CoreThread {
+    int threadId;
+    int signal;
+    Address programCounter;
+    Address stackPointer;
+
+    @Singular
+    Map<String, Long> registers;
+}
@@ -0,0 +1,47 @@
+package com.arsen.model.binary;
+
+import com.arsen.model.Address;
+import com.arsen.model.Export;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class LinkageIndex {
+    private final Map<String, Export> exportsByName;
+    private final Map<Integer, Export> exportsByOrdinal;
+    private final Map<Long, Export> exportsByAddress;
+
+    private LinkageIndex(List<Export> exports) {
+        this.exportsByName = new HashMap<>();
+        this.exportsByOrdinal = new HashMap<>();
+        this.exportsByAddress = new HashMap<>();
+
+        for (Export export : exports) {
+            if (export.getName() != null) {
+                exportsByName.putIfAbsent(export.getName(), export);
+            }
+            exportsByOrdinal.putIfAbsent(export.getOrdinal(), export);
+            if (export.getAddress() != null) {
+                exportsByAddress.putIfAbsent(export.getAddress().value(), export);
+            }
+        }
+    }
+
+    public static LinkageIndex of(List<Export> exports) {
+        return new LinkageIndex(exports);
+    }
+
+    public Optional<Export> findExport(String name) {
+        return Optional.ofNullable(exportsByName.get(name));
+    }
+
+    public Optional<Export> findExport(int ordinal) {
+        return Optional.ofNullable(exportsByOrdinal.get(ordinal));
+    }
+
+    public Optional<Export> findExport(Address address) {
+        return Optional.ofNullable(exportsByAddress.get(address.value()));
+    }
+}
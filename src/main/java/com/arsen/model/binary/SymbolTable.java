@@ -0,0 +1,152 @@
+package com.arsen.model.binary;
+
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Symbol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+public class SymbolTable {
+    public static final SymbolTable EMPTY = new SymbolTable(new long[0], new long[0], new int[0], new byte[0], new byte[0], new ByteSource[0]);
+
+    private static final Symbol.SymbolType[] TYPES = Symbol.SymbolType.values();
+
+    private final long[] addresses;
+    private final long[] sizes;
+    private final int[] nameOffsets;
+    private final byte[] types;
+    private final byte[] stringTableIndexes;
+    private final ByteSource[] stringTables;
+
+    private SymbolTable(long[] addresses, long[] sizes, int[] nameOffsets, byte[] types, byte[] stringTableIndexes, ByteSource[] stringTables) {
+        this.addresses = addresses;
+        this.sizes = sizes;
+        this.nameOffsets = nameOffsets;
+        this.types = types;
+        this.stringTableIndexes = stringTableIndexes;
+        this.stringTables = stringTables;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return addresses.length;
+    }
+
+    public Address getAddress(int index) {
+        return Address.of(addresses[index]);
+    }
+
+    public long getSize(int index) {
+        return sizes[index];
+    }
+
+    public Symbol.SymbolType getType(int index) {
+        return TYPES[types[index]];
+    }
+
+    public String getName(int index) {
+        return stringTables[stringTableIndexes[index]].readCString(nameOffsets[index]);
+    }
+
+    public Symbol toSymbol(int index) {
+        return Symbol.builder().address(getAddress(index)).name(getName(index)).type(getType(index)).build();
+    }
+
+    public int indexOf(Address address) {
+        int index = floorIndex(address.value());
+        while (index > 0 && addresses[index - 1] == address.value()) {
+            index--;
+        }
+        return index >= 0 && addresses[index] == address.value() ? index : -1;
+    }
+
+    public Optional<Symbol> find(Address address) {
+        int index = indexOf(address);
+        return index < 0 ? Optional.empty() : Optional.of(toSymbol(index));
+    }
+
+    public List<Address> getAddresses(Symbol.SymbolType type) {
+        List<Address> result = new ArrayList<>();
+        for (int i = 0; i < addresses.length; i++) {
+            if (types[i] == type.ordinal()) {
+                result.add(Address.of(addresses[i]));
+            }
+        }
+        return result;
+    }
+
+    private int floorIndex(long address) {
+        int low = 0;
+        int high = addresses.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(addresses[mid], address) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    public static class Builder {
+        private final List<ByteSource> stringTables = new ArrayList<>();
+        private long[] addresses = new long[64];
+        private long[] sizes = new long[64];
+        private int[] nameOffsets = new int[64];
+        private byte[] types = new byte[64];
+        private byte[] stringTableIndexes = new byte[64];
+        private int count;
+
+        public int addStringTable(ByteSource stringTable) {
+            stringTables.add(stringTable);
+            return stringTables.size() - 1;
+        }
+
+        public Builder add(long address, long size, int nameOffset, Symbol.SymbolType type, int stringTable) {
+            if (count == addresses.length) {
+                int capacity = count * 2;
+                addresses = Arrays.copyOf(addresses, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+                nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+                types = Arrays.copyOf(types, capacity);
+                stringTableIndexes = Arrays.copyOf(stringTableIndexes, capacity);
+            }
+            addresses[count] = address;
+            sizes[count] = size;
+            nameOffsets[count] = nameOffset;
+            types[count] = (byte) type.ordinal();
+            stringTableIndexes[count] = (byte) stringTable;
+            count++;
+            return this;
+        }
+
+        public SymbolTable build() {
+            int[] order = IntStream.range(0, count).boxed().sorted(Comparator.comparing(i -> addresses[i], Long::compareUnsigned)).mapToInt(Integer::intValue).toArray();
+
+            long[] sortedAddresses = new long[count];
+            long[] sortedSizes = new long[count];
+            int[] sortedNameOffsets = new int[count];
+            byte[] sortedTypes = new byte[count];
+            byte[] sortedStringTables = new byte[count];
+            for (int i = 0; i < count; i++) {
+                int source = order[i];
+                sortedAddresses[i] = addresses[source];
+                sortedSizes[i] = sizes[source];
+                sortedNameOffsets[i] = nameOffsets[source];
+                sortedTypes[i] = types[source];
+                sortedStringTables[i] = stringTableIndexes[source];
+            }
+
+            return new SymbolTable(sortedAddresses, sortedSizes, sortedNameOffsets, sortedTypes, sortedStringTables, stringTables.toArray(new ByteSource[0]));
+        }
+    }
+}
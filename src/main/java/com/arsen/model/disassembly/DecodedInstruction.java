@@ -0,0 +1,23 @@
+package com.arsen.model.disassembly;
+
+import com.arsen.model.Address;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Singular;
+
+import java.util.List;
+
+@Data
+@Builder
+public class DecodedInstruction implements Instruction {
+    Address address;
+    byte[] bytes;
+    String mnemonic;
+
+    @Singular
+    List<Operand> operands;
+
+    int size;
+    InstructionType type;
+    Address targetAddress;
+}
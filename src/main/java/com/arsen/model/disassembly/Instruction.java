@@ -1,31 +1,34 @@
 package com.arsen.model.disassembly;
 
 import com.arsen.model.Address;
-import lombok.Builder;
-import lombok.Data;
-import lombok.Singular;
 
 import java.util.List;
 
-@Data
-@Builder
-public class Instruction {
-    Address address;
-    byte[] bytes;
-    String mnemonic;
+public interface Instruction {
+    static DecodedInstruction.DecodedInstructionBuilder builder() {
+        return DecodedInstruction.builder();
+    }
+
+    Address getAddress();
+
+    byte[] getBytes();
+
+    String getMnemonic();
+
+    List<Operand> getOperands();
+
+    int getSize();
 
-    @Singular
-    List<Operand> operands;
+    InstructionType getType();
 
-    int size;
-    InstructionType type;
-    Address targetAddress;
+    Address getTargetAddress();
 
-    public String getFullText() {
+    default String getFullText() {
+        List<Operand> operands = getOperands();
         if (operands.isEmpty()) {
-            return mnemonic;
+            return getMnemonic();
         }
-        StringBuilder sb = new StringBuilder(mnemonic);
+        StringBuilder sb = new StringBuilder(getMnemonic());
         sb.append(" ");
         for (int i = 0; i < operands.size(); i++) {
             if (i > 0) sb.append(", ");
@@ -34,9 +37,9 @@ public class Instruction {
         return sb.toString();
     }
 
-    public String getBytesAsHex() {
+    default String getBytesAsHex() {
         StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
+        for (byte b : getBytes()) {
             sb.append(String.format("%02X", b & 0xFF));
         }
         return sb.toString();
@@ -7,17 +7,31 @@ import com.arsen.core.event.EventBus;
 import com.arsen.core.event.EventType;
 import com.arsen.loader.BinaryLoader;
 import com.arsen.loader.BinaryLoaderFactory;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.loader.io.ReleasingByteSource;
 import com.arsen.model.binary.BinaryFile;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Slf4j
 public class BinaryService {
     private final AnalysisEngine analysisEngine;
     private final EventBus eventBus;
+    private final ExecutorService importExecutor;
     @Getter
     private BinaryFile currentBinary;
     @Getter
@@ -26,15 +40,18 @@ public class BinaryService {
     public BinaryService() {
         this.analysisEngine = new AnalysisEngine();
         this.eventBus = EventBus.getInstance();
+        this.importExecutor = Executors.newVirtualThreadPerTaskExecutor();
     }
 
     public CompletableFuture<BinaryFile> loadBinary(Path path) {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 log.info("Loading binary file: {}", path);
-                BinaryLoader loader = BinaryLoaderFactory.getLoader(path);
+                BinaryLoader loader = BinaryLoaderFactory.getLoaderOrRaw(path);
                 BinaryFile binary = loader.load(path);
+                BinaryFile previous = this.currentBinary;
                 this.currentBinary = binary;
+                release(previous);
                 eventBus.publish(Event.of(EventType.BINARY_LOADED, binary));
                 return binary;
             } catch (Exception e) {
@@ -56,7 +73,142 @@ public class BinaryService {
         });
     }
 
+    /**
+     * Imports every recognised binary under {@code root}, streaming one {@link ImportResult} per file to {@code listener}.
+     * The listener takes ownership of each successful result's binary and must close it when done; the file's share of
+     * {@code memoryBudget} is only returned at that point, so holding binaries open throttles the rest of the import.
+     * Failed results carry no binary. If the listener throws, the binary is closed on its behalf.
+     */
+    public CompletableFuture<Integer> importDirectory(Path root, int concurrency, long memoryBudget, Consumer<ImportResult> listener) {
+        return CompletableFuture.supplyAsync(() -> {
+            int budget = (int) Math.max(1, Math.min(memoryBudget >> 20, Integer.MAX_VALUE));
+            Semaphore memory = new Semaphore(budget);
+            AtomicInteger imported = new AtomicInteger();
+
+            log.info("Importing directory {} with concurrency {} and {} MB budget", root, concurrency, budget);
+            try (ExecutorService workers = Executors.newFixedThreadPool(concurrency)) {
+                Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        if (!Files.isRegularFile(file)) {
+                            return FileVisitResult.CONTINUE;
+                        }
+
+                        int cost;
+                        try {
+                            cost = (int) Math.max(1, Math.min(Files.size(file) >> 20, budget));
+                            memory.acquire(cost);
+                        } catch (IOException e) {
+                            reportFailure(file, e, listener);
+                            return FileVisitResult.CONTINUE;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return FileVisitResult.TERMINATE;
+                        }
+
+                        workers.submit(() -> {
+                            ImportResult result = importFile(file, () -> memory.release(cost));
+                            if (result == null) {
+                                return;
+                            }
+                            if (result.error() == null) {
+                                imported.incrementAndGet();
+                            }
+                            try {
+                                listener.accept(result);
+                            } catch (Exception e) {
+                                log.error("Import listener failed for {}", file, e);
+                                release(result.binary());
+                            }
+                        });
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        reportFailure(file, e, listener);
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                        if (e != null) {
+                            reportFailure(dir, e, listener);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to walk directory: " + root, e);
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                throw new RuntimeException("Directory import interrupted");
+            }
+
+            log.info("Imported {} binaries from {}", imported.get(), root);
+            return imported.get();
+        }, importExecutor);
+    }
+
+    private void reportFailure(Path path, Exception error, Consumer<ImportResult> listener) {
+        log.warn("Failed to read import path: {}", path, error);
+        try {
+            listener.accept(new ImportResult(path, null, null, error));
+        } catch (Exception e) {
+            log.error("Import listener failed for {}", path, e);
+        }
+    }
+
+    private ImportResult importFile(Path path, Runnable releaseBudget) {
+        BinaryLoader loader;
+        try {
+            loader = BinaryLoaderFactory.getLoader(path);
+        } catch (UnsupportedOperationException | IOException e) {
+            log.trace("Skipping unrecognized file: {}", path);
+            releaseBudget.run();
+            return null;
+        }
+
+        ByteSource source;
+        try {
+            source = new ReleasingByteSource(ByteSource.open(path), releaseBudget);
+        } catch (IOException e) {
+            log.warn("Failed to open binary: {}", path, e);
+            releaseBudget.run();
+            return new ImportResult(path, null, null, e);
+        }
+
+        BinaryFile binary = null;
+        try {
+            binary = loader.load(path, source);
+            AnalysisResult analysis = analysisEngine.runPasses(binary, progress -> {
+            });
+            return new ImportResult(path, binary, analysis, null);
+        } catch (Exception e) {
+            log.warn("Failed to import binary: {}", path, e);
+            release(binary);
+            return new ImportResult(path, null, null, e);
+        }
+    }
+
+    private void release(BinaryFile binary) {
+        if (binary == null) {
+            return;
+        }
+        try {
+            binary.close();
+        } catch (IOException e) {
+            log.warn("Failed to release binary: {}", binary.getFilePath(), e);
+        }
+    }
+
     public void shutdown() {
         analysisEngine.shutdown();
+        importExecutor.shutdownNow();
+        release(currentBinary);
+    }
+
+    public record ImportResult(Path path, BinaryFile binary, AnalysisResult analysis, Exception error) {
     }
 }
@@ -0,0 +1,97 @@
+package com.arsen.service.triage;
+
+import com.arsen.loader.BinaryLoaderFactory;
+import com.arsen.model.binary.BinaryProbe;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+@Slf4j
+public class TriageService {
+    private final int maxOpenFiles;
+
+    public TriageService() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public TriageService(int maxOpenFiles) {
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    public List<BinaryProbe> scan(Path root) throws IOException, InterruptedException {
+        List<BinaryProbe> probes = new CopyOnWriteArrayList<>();
+        scan(root, probes::add);
+        return probes;
+    }
+
+    public void scan(Path root, Consumer<BinaryProbe> consumer) throws IOException, InterruptedException {
+        scan(root, consumer, (path, e) -> log.warn("Failed to read {} during triage: {}", path, e.toString()));
+    }
+
+    public void scan(Path root, Consumer<BinaryProbe> consumer, BiConsumer<Path, IOException> failures) throws IOException, InterruptedException {
+        Semaphore permits = new Semaphore(maxOpenFiles);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (!Files.isRegularFile(file)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return FileVisitResult.TERMINATE;
+                    }
+
+                    executor.submit(() -> {
+                        try {
+                            consumer.accept(BinaryLoaderFactory.probe(file));
+                        } catch (UnsupportedOperationException e) {
+                            log.trace("Skipping unrecognized file: {}", file);
+                        } catch (Exception e) {
+                            log.debug("Failed to probe file: {}", file, e);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    failures.accept(file, e);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                    if (e != null) {
+                        failures.accept(dir, e);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Triage scan interrupted");
+        }
+
+        log.info("Finished triage scan of {}", root);
+    }
+}
@@ -88,7 +88,7 @@ public class LeftSidebarPanel extends JPanel {
         DefaultMutableTreeNode importsNode = new DefaultMutableTreeNode("Imports");
         if (binary != null && binary.getImports() != null) {
             for (Import imp : binary.getImports()) {
-                String displayName = imp.getLibrary() + "." + imp.getName();
+                String displayName = imp.getLibrary() == null || imp.getLibrary().isEmpty() ? imp.getName() : imp.getLibrary() + "." + imp.getName();
                 importsNode.add(new DefaultMutableTreeNode(displayName));
             }
         }
@@ -97,7 +97,7 @@ public class LeftSidebarPanel extends JPanel {
         DefaultMutableTreeNode exportsNode = new DefaultMutableTreeNode("Exports");
         if (binary != null && binary.getExports() != null) {
             for (Export exp : binary.getExports()) {
-                exportsNode.add(new DefaultMutableTreeNode(exp.getName() + " - " + exp.getAddress().toString()));
+                exportsNode.add(new DefaultMutableTreeNode(exp.getName() + " - " + (exp.getForwarder() != null ? "-> " + exp.getForwarder() : exp.getAddress().toString())));
             }
         }
         root.add(exportsNode);
@@ -1,5 +1,6 @@
 package com.arsen.ui.tabs;
 
+import com.arsen.loader.io.ByteSource;
 import com.arsen.model.binary.BinaryFile;
 
 import javax.swing.*;
@@ -22,14 +23,16 @@ public class HexViewTab extends JPanel {
 
     public void setBinary(BinaryFile binary) {
         this.binary = binary;
-        displayHexDump(binary.getRawData());
+        displayHexDump(binary.getSource());
     }
 
-    private void displayHexDump(byte[] data) {
-        if (data == null) return;
+    private void displayHexDump(ByteSource source) {
+        if (source == null) return;
 
         StringBuilder sb = new StringBuilder();
-        int displayLimit = Math.min(data.length, 10000);
+        int displayLimit = (int) Math.min(source.size(), 10000);
+        byte[] data = new byte[displayLimit];
+        source.read(0, data, 0, displayLimit);
 
         for (int i = 0; i < displayLimit; i += 16) {
             sb.append(String.format("%08X: ", i));
@@ -53,8 +56,8 @@ public class HexViewTab extends JPanel {
             sb.append("\n");
         }
 
-        if (data.length > displayLimit) {
-            sb.append("\n... (showing first ").append(displayLimit).append(" bytes of ").append(data.length).append(")");
+        if (source.size() > displayLimit) {
+            sb.append("\n... (showing first ").append(displayLimit).append(" bytes of ").append(source.size()).append(")");
         }
 
         textArea.setText(sb.toString());
@@ -0,0 +1,39 @@
+package com.arsen.core.analysis;
+
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Architecture;
+import com.arsen.model.Endianness;
+import com.arsen.model.Permission;
+import com.arsen.model.Section;
+import com.arsen.model.binary.BinaryFile;
+import com.arsen.model.disassembly.Function;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class FunctionDetectionPassTest {
+    private static final long BASE = 0x400000;
+
+    @Test
+    void includesSharedTailsInEveryFunctionThatReachesThem() {
+        byte[] code = ByteBuffer.allocate(0x28).putInt(0x0C100004).putInt(0).putInt(0x10000005).putInt(0).putInt(0x10000003).putInt(0).putInt(0).putInt(0).putInt(0x03E00008).putInt(0).array();
+        Section text = Section.builder().name(".text").virtualAddress(Address.of(BASE)).virtualSize(code.length).permission(Permission.READ).permission(Permission.EXECUTE).content(ByteSource.wrap(code)).build();
+        BinaryFile binary = BinaryFile.builder().architecture(Architecture.MIPS).endianness(Endianness.BIG).entryPoint(Address.of(BASE)).section(text).build();
+        AnalysisContext context = new AnalysisContext(binary);
+
+        new FunctionDetectionPass().execute(context);
+
+        assertEquals(2, context.getFunctions().size());
+        assertEquals(6, instructionCount(context.getFunctions().get(Address.of(BASE))));
+        assertEquals(4, instructionCount(context.getFunctions().get(Address.of(BASE + 0x10))));
+    }
+
+    private static int instructionCount(Function function) {
+        assertNotNull(function);
+        return function.getBasicBlocks().stream().mapToInt(block -> block.getInstructions().size()).sum();
+    }
+}
@@ -0,0 +1,35 @@
+package com.arsen.disassembler;
+
+import com.arsen.disassembler.arch.arm.ArmDisassembler;
+import com.arsen.disassembler.arch.arm.ArmModeMap;
+import com.arsen.loader.io.BufferByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Architecture;
+import com.arsen.model.disassembly.Instruction;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DecodeBatchTest {
+    @Test
+    void thumbLiteralOperandsFollowPcAlignment() {
+        byte[] code = {0x01, 0x48, 0x01, 0x48, 0x01, (byte) 0xA0, 0x01, (byte) 0xA0, 0x00, (byte) 0xBF, 0x00, (byte) 0xBF};
+        assertMatchesDisassemble(0x1000, code);
+        assertMatchesDisassemble(0x2002, code);
+    }
+
+    private static void assertMatchesDisassemble(long base, byte[] code) {
+        ArmModeMap modes = new ArmModeMap();
+        modes.mark(base, true);
+        ArmDisassembler disassembler = new ArmDisassembler(Architecture.ARM, modes);
+        DecodeBatch batch = disassembler.decodeRange(Address.of(base), new BufferByteSource(ByteBuffer.wrap(code)));
+
+        for (int i = 0; i < batch.size(); i++) {
+            Instruction expected = disassembler.disassemble(Address.of(batch.getAddress(i)), code, batch.getOffset(i));
+            Instruction actual = batch.toInstruction(i);
+            assertEquals(expected.getFullText(), actual.getFullText(), "instruction at 0x" + Long.toHexString(batch.getAddress(i)));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.arsen.disassembler.arch.arm;
+
+import com.arsen.disassembler.DecodeBatch;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Architecture;
+import com.arsen.model.disassembly.Instruction;
+import com.arsen.model.disassembly.InstructionType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Arm64DisassemblerTest {
+    private static final long BASE = 0x1000;
+
+    private final Arm64Disassembler disassembler = new Arm64Disassembler(Architecture.ARM64);
+
+    @Test
+    void decodesImmediateBranches() {
+        assertDecodes(0x14000002, "b 0x0000000000001008", InstructionType.JUMP, 0x1008);
+        assertDecodes(0x17FFFFFF, "b 0x0000000000000FFC", InstructionType.JUMP, 0xFFC);
+        assertDecodes(0x97FFFFFF, "bl 0x0000000000000FFC", InstructionType.CALL, 0xFFC);
+        assertDecodes(0x54000080, "b.eq 0x0000000000001010", InstructionType.CONDITIONAL_JUMP, 0x1010);
+        assertDecodes(0x54000081, "b.ne 0x0000000000001010", InstructionType.CONDITIONAL_JUMP, 0x1010);
+    }
+
+    @Test
+    void decodesCompareAndTestBranches() {
+        assertDecodes(0xB4000040, "cbz x0, 0x0000000000001008", InstructionType.CONDITIONAL_JUMP, 0x1008);
+        assertDecodes(0x35FFFFE0, "cbnz w0, 0x0000000000000FFC", InstructionType.CONDITIONAL_JUMP, 0xFFC);
+        assertDecodes(0x36180060, "tbz w0, #3, 0x000000000000100C", InstructionType.CONDITIONAL_JUMP, 0x100C);
+        assertDecodes(0xB7F80040, "tbnz x0, #63, 0x0000000000001008", InstructionType.CONDITIONAL_JUMP, 0x1008);
+    }
+
+    @Test
+    void decodesRegisterBranchesAndReturns() {
+        assertDecodes(0xD65F03C0, "ret", InstructionType.RETURN, DecodeBatch.NO_TARGET);
+        assertDecodes(0xD65F0000, "ret x0", InstructionType.RETURN, DecodeBatch.NO_TARGET);
+        assertDecodes(0xD61F0200, "br x16", InstructionType.JUMP, DecodeBatch.NO_TARGET);
+        assertDecodes(0xD63F0020, "blr x1", InstructionType.CALL, DecodeBatch.NO_TARGET);
+    }
+
+    @Test
+    void decodesNonBranchFlowTypes() {
+        assertDecodes(0xD503201F, "nop", InstructionType.NOP, DecodeBatch.NO_TARGET);
+        assertDecodes(0xD4000001, "svc #0x0", InstructionType.SYSTEM, DecodeBatch.NO_TARGET);
+        assertDecodes(0xD4200000, "brk #0x0", InstructionType.SYSTEM, DecodeBatch.NO_TARGET);
+        assertDecodes(0x91000000, "add x0, x0, #0x0", InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(0x10000040, "adr x0, 0x0000000000001008", InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(0x90000010, "adrp x16, 0x0000000000001000", InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+    }
+
+    @Test
+    void reportsUnknownEncodingsWithoutInvalidatingThem() {
+        DecodeBatch batch = disassembler.decodeRange(Address.of(BASE), ByteSource.wrap(bytes(0x4EA01C00)));
+        assertEquals(DecodeBatch.STATUS_UNKNOWN, batch.getStatus(0));
+        assertEquals(InstructionType.NORMAL, batch.getType(0));
+
+        byte[] truncated = {0x1F, 0x20, 0x03};
+        DecodeBatch partial = new DecodeBatch(disassembler, ByteSource.wrap(truncated), BASE, 1);
+        disassembler.decode(truncated, 0, truncated.length, BASE, partial);
+        assertEquals(DecodeBatch.STATUS_TRUNCATED, partial.getStatus(0));
+    }
+
+    private void assertDecodes(int word, String text, InstructionType type, long target) {
+        byte[] code = bytes(word);
+        Instruction instruction = disassembler.disassemble(Address.of(BASE), code, 0);
+        assertEquals(text, instruction.getFullText());
+        assertEquals(4, instruction.getSize(), text);
+        assertEquals(type, instruction.getType(), text);
+        assertEquals(target, instruction.getTargetAddress() == null ? DecodeBatch.NO_TARGET : instruction.getTargetAddress().value(), text);
+
+        DecodeBatch batch = disassembler.decodeRange(Address.of(BASE), ByteSource.wrap(code));
+        assertEquals(1, batch.size(), text);
+        assertEquals(DecodeBatch.STATUS_OK, batch.getStatus(0), text);
+        assertEquals(type, batch.getType(0), text);
+        assertEquals(target, batch.getTarget(0), text);
+    }
+
+    private static byte[] bytes(int word) {
+        return new byte[]{(byte) word, (byte) (word >>> 8), (byte) (word >>> 16), (byte) (word >>> 24)};
+    }
+}
@@ -0,0 +1,108 @@
+package com.arsen.disassembler.arch.arm;
+
+import com.arsen.disassembler.DecodeBatch;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Architecture;
+import com.arsen.model.disassembly.Instruction;
+import com.arsen.model.disassembly.InstructionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArmDisassemblerTest {
+    private static final long BASE = 0x1000;
+
+    @Test
+    void decodesArmBranches() {
+        assertDecodes(false, BASE, "000000eb", "bl 0x0000000000001008", 4, InstructionType.CALL, 0x1008);
+        assertDecodes(false, BASE, "feffffea", "b 0x0000000000001000", 4, InstructionType.JUMP, 0x1000);
+        assertDecodes(false, BASE, "0000000a", "beq 0x0000000000001008", 4, InstructionType.CONDITIONAL_JUMP, 0x1008);
+        assertDecodes(false, BASE, "000000fa", "blx 0x0000000000001008", 4, InstructionType.CALL, 0x1008);
+        assertDecodes(false, BASE, "30ff2fe1", "blx r0", 4, InstructionType.CALL, DecodeBatch.NO_TARGET);
+        assertDecodes(false, BASE, "1eff2fe1", "bx lr", 4, InstructionType.RETURN, DecodeBatch.NO_TARGET);
+        assertDecodes(false, BASE, "1eff2f01", "bxeq lr", 4, InstructionType.CONDITIONAL_JUMP, DecodeBatch.NO_TARGET);
+        assertDecodes(false, BASE, "0080bde8", "ldm sp!, {pc}", 4, InstructionType.RETURN, DecodeBatch.NO_TARGET);
+        assertDecodes(false, BASE, "04f01fe5", "ldr pc, 0x0000000000001004", 4, InstructionType.JUMP, DecodeBatch.NO_TARGET);
+        assertDecodes(false, BASE, "000000ef", "svc #0", 4, InstructionType.SYSTEM, DecodeBatch.NO_TARGET);
+    }
+
+    @Test
+    void decodesThumbCallsAndBranches() {
+        assertDecodes(true, BASE, "00f000f8", "bl 0x0000000000001004", 4, InstructionType.CALL, 0x1004);
+        assertDecodes(true, BASE, "fff7feff", "bl 0x0000000000001000", 4, InstructionType.CALL, 0x1000);
+        assertDecodes(true, BASE, "00f000e8", "blx 0x0000000000001004", 4, InstructionType.CALL, 0x1004);
+        assertDecodes(true, BASE + 2, "00f000e8", "blx 0x0000000000001004", 4, InstructionType.CALL, 0x1004);
+        assertDecodes(true, BASE, "00f000b8", "b.w 0x0000000000001004", 4, InstructionType.JUMP, 0x1004);
+        assertDecodes(true, BASE, "00f00080", "beq.w 0x0000000000001004", 4, InstructionType.CONDITIONAL_JUMP, 0x1004);
+        assertDecodes(true, BASE, "fee7", "b 0x0000000000001000", 2, InstructionType.JUMP, 0x1000);
+        assertDecodes(true, BASE, "00d0", "beq 0x0000000000001004", 2, InstructionType.CONDITIONAL_JUMP, 0x1004);
+        assertDecodes(true, BASE, "7047", "bx lr", 2, InstructionType.RETURN, DecodeBatch.NO_TARGET);
+        assertDecodes(true, BASE, "00bd", "pop {pc}", 2, InstructionType.RETURN, DecodeBatch.NO_TARGET);
+        assertDecodes(true, BASE, "00bf", "nop", 2, InstructionType.NOP, DecodeBatch.NO_TARGET);
+        assertDecodes(true, BASE, "00df", "svc #0", 2, InstructionType.SYSTEM, DecodeBatch.NO_TARGET);
+    }
+
+    @Test
+    void decodesThumbCompareAndBranch() {
+        assertDecodes(true, BASE, "08b1", "cbz r0, 0x0000000000001006", 2, InstructionType.CONDITIONAL_JUMP, 0x1006);
+        assertDecodes(true, BASE + 2, "08b1", "cbz r0, 0x0000000000001008", 2, InstructionType.CONDITIONAL_JUMP, 0x1008);
+        assertDecodes(true, BASE, "08b9", "cbnz r0, 0x0000000000001006", 2, InstructionType.CONDITIONAL_JUMP, 0x1006);
+    }
+
+    @Test
+    void treatsBranchesInsideItBlocksAsConditional() {
+        DecodeBatch batch = sweep(true, "08bf00e018bf704700bf");
+        assertEquals(5, batch.size());
+        assertEquals(InstructionType.NORMAL, batch.getType(0));
+        assertEquals(InstructionType.CONDITIONAL_JUMP, batch.getType(1));
+        assertEquals(0x1006, batch.getTarget(1));
+        assertEquals(InstructionType.NORMAL, batch.getType(2));
+        assertEquals(InstructionType.CONDITIONAL_JUMP, batch.getType(3));
+        assertEquals(InstructionType.NOP, batch.getType(4));
+    }
+
+    @Test
+    void switchesToThumbAtBlxTargets() {
+        ArmModeMap modes = new ArmModeMap();
+        modes.mark(BASE, false);
+        DecodeBatch batch = new ArmDisassembler(Architecture.ARM, modes).decodeRange(Address.of(BASE), ByteSource.wrap(HexFormat.of().parseHex("010000fa1eff2fe1000000007047c046")));
+
+        assertEquals(5, batch.size());
+        assertEquals(0x100C, batch.getTarget(0));
+        assertTrue(modes.isThumb(0x100C));
+        assertEquals(0x100C, batch.getAddress(3));
+        assertEquals(2, batch.getLength(3));
+        assertEquals(InstructionType.RETURN, batch.getType(3));
+        assertEquals(InstructionType.NOP, batch.getType(4));
+    }
+
+    private static void assertDecodes(boolean thumb, long address, String hex, String text, int length, InstructionType type, long target) {
+        ArmModeMap modes = new ArmModeMap();
+        modes.mark(address, thumb);
+        ArmDisassembler disassembler = new ArmDisassembler(Architecture.ARM, modes);
+        byte[] code = HexFormat.of().parseHex(hex);
+
+        Instruction instruction = disassembler.disassemble(Address.of(address), code, 0);
+        assertEquals(text, instruction.getFullText());
+        assertEquals(length, instruction.getSize(), text);
+        assertEquals(type, instruction.getType(), text);
+        assertEquals(target, instruction.getTargetAddress() == null ? DecodeBatch.NO_TARGET : instruction.getTargetAddress().value(), text);
+
+        DecodeBatch batch = disassembler.decodeRange(Address.of(address), ByteSource.wrap(code));
+        assertEquals(1, batch.size(), text);
+        assertEquals(length, batch.getLength(0), text);
+        assertEquals(DecodeBatch.STATUS_OK, batch.getStatus(0), text);
+        assertEquals(type, batch.getType(0), text);
+        assertEquals(target, batch.getTarget(0), text);
+    }
+
+    private static DecodeBatch sweep(boolean thumb, String hex) {
+        ArmModeMap modes = new ArmModeMap();
+        modes.mark(BASE, thumb);
+        return new ArmDisassembler(Architecture.ARM, modes).decodeRange(Address.of(BASE), ByteSource.wrap(HexFormat.of().parseHex(hex)));
+    }
+}
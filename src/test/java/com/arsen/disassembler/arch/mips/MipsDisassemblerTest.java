@@ -0,0 +1,107 @@
+package com.arsen.disassembler.arch.mips;
+
+import com.arsen.core.analysis.AnalysisContext;
+import com.arsen.core.analysis.FunctionDetectionPass;
+import com.arsen.disassembler.DecodeBatch;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Architecture;
+import com.arsen.model.Endianness;
+import com.arsen.model.Permission;
+import com.arsen.model.Section;
+import com.arsen.model.binary.BinaryFile;
+import com.arsen.model.disassembly.BasicBlock;
+import com.arsen.model.disassembly.Function;
+import com.arsen.model.disassembly.Instruction;
+import com.arsen.model.disassembly.InstructionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class MipsDisassemblerTest {
+    private static final long BASE = 0x400000;
+
+    @Test
+    void resolvesJumpTargetsInTheDelaySlotRegion() {
+        assertDecodes(Endianness.LITTLE, 0x0FFFFFF8L, 0x08000040, "j 0x0000000000000100", InstructionType.JUMP, 0x100);
+        assertDecodes(Endianness.LITTLE, 0x0FFFFFFCL, 0x08000040, "j 0x0000000010000100", InstructionType.JUMP, 0x10000100);
+        assertDecodes(Endianness.BIG, 0x0FFFFFFCL, 0x0C000040, "jal 0x0000000010000100", InstructionType.CALL, 0x10000100);
+    }
+
+    @Test
+    void decodesBranchesAndFlowTypes() {
+        assertDecodes(Endianness.LITTLE, BASE, 0x10000003, "b 0x0000000000400010", InstructionType.JUMP, 0x400010);
+        assertDecodes(Endianness.LITTLE, BASE, 0x14800002, "bnez a0, 0x000000000040000C", InstructionType.CONDITIONAL_JUMP, 0x40000C);
+        assertDecodes(Endianness.LITTLE, BASE, 0x1000FFFF, "b 0x0000000000400000", InstructionType.JUMP, 0x400000);
+        assertDecodes(Endianness.LITTLE, BASE, 0x04110001, "bal 0x0000000000400008", InstructionType.CALL, 0x400008);
+        assertDecodes(Endianness.LITTLE, BASE, 0x03E00008, "jr ra", InstructionType.RETURN, DecodeBatch.NO_TARGET);
+        assertDecodes(Endianness.LITTLE, BASE, 0x0320F809, "jalr t9", InstructionType.CALL, DecodeBatch.NO_TARGET);
+        assertDecodes(Endianness.LITTLE, BASE, 0x0000000C, "syscall 0", InstructionType.SYSTEM, DecodeBatch.NO_TARGET);
+        assertDecodes(Endianness.LITTLE, BASE, 0x00000000, "nop", InstructionType.NOP, DecodeBatch.NO_TARGET);
+        assertDecodes(Endianness.BIG, BASE, 0x24020001, "li v0, 1", InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+    }
+
+    @Test
+    void tracksLuiAddiuPairsIntoIndirectCallTargets() {
+        MipsDisassembler disassembler = new MipsDisassembler(Architecture.MIPS, Endianness.LITTLE);
+        DecodeBatch batch = disassembler.decodeRange(Address.of(BASE), ByteSource.wrap(bytes(Endianness.LITTLE, 0x3C190040, 0x27390120, 0x0320F809, 0x00000000)));
+
+        assertEquals(InstructionType.CALL, batch.getType(2));
+        assertEquals(0x400120, batch.getTarget(2));
+    }
+
+    @Test
+    void keepsDelaySlotsInsideTheBranchingBlock() {
+        byte[] code = bytes(Endianness.BIG, 0x27BDFFF8, 0x10800003, 0x24020001, 0x03E00008, 0x00000000, 0x24020002, 0x03E00008, 0x27BD0008, 0x0000000D);
+        Section text = Section.builder().name(".text").virtualAddress(Address.of(BASE)).virtualSize(code.length).permission(Permission.READ).permission(Permission.EXECUTE).content(ByteSource.wrap(code)).build();
+        BinaryFile binary = BinaryFile.builder().architecture(Architecture.MIPS).endianness(Endianness.BIG).entryPoint(Address.of(BASE)).section(text).build();
+        AnalysisContext context = new AnalysisContext(binary);
+
+        new FunctionDetectionPass().execute(context);
+
+        Function function = context.getFunctions().get(Address.of(BASE));
+        assertNotNull(function);
+        assertEquals(0x20, function.getSize());
+        assertEquals(3, function.getBasicBlocks().size());
+        assertBlock(function, BASE, BASE + 0xC, BASE + 0x8);
+        assertBlock(function, BASE + 0xC, BASE + 0x14, BASE + 0x10);
+        assertBlock(function, BASE + 0x14, BASE + 0x20, BASE + 0x1C);
+    }
+
+    private static void assertBlock(Function function, long start, long end, long last) {
+        BasicBlock block = function.getBasicBlocks().stream().filter(candidate -> candidate.getStartAddress().value() == start).findFirst().orElse(null);
+        assertNotNull(block, "block at 0x" + Long.toHexString(start));
+        assertEquals(end, block.getEndAddress().value());
+        List<Instruction> instructions = block.getInstructions();
+        assertEquals(last, instructions.get(instructions.size() - 1).getAddress().value());
+    }
+
+    private static void assertDecodes(Endianness endianness, long address, int word, String text, InstructionType type, long target) {
+        MipsDisassembler disassembler = new MipsDisassembler(Architecture.MIPS, endianness);
+        byte[] code = bytes(endianness, word);
+
+        Instruction instruction = disassembler.disassemble(Address.of(address), code, 0);
+        assertEquals(text, instruction.getFullText());
+        assertEquals(4, instruction.getSize(), text);
+        assertEquals(type, instruction.getType(), text);
+        assertEquals(target, instruction.getTargetAddress() == null ? DecodeBatch.NO_TARGET : instruction.getTargetAddress().value(), text);
+
+        DecodeBatch batch = disassembler.decodeRange(Address.of(address), ByteSource.wrap(code));
+        assertEquals(DecodeBatch.STATUS_OK, batch.getStatus(0), text);
+        assertEquals(type, batch.getType(0), text);
+        assertEquals(target, batch.getTarget(0), text);
+    }
+
+    private static byte[] bytes(Endianness endianness, int... words) {
+        byte[] data = new byte[words.length * 4];
+        for (int i = 0; i < words.length; i++) {
+            for (int b = 0; b < 4; b++) {
+                data[i * 4 + b] = (byte) (words[i] >>> (endianness == Endianness.BIG ? 24 - b * 8 : b * 8));
+            }
+        }
+        return data;
+    }
+}
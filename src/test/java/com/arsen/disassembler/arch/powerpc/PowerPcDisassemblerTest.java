@@ -0,0 +1,85 @@
+package com.arsen.disassembler.arch.powerpc;
+
+import com.arsen.disassembler.DecodeBatch;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Architecture;
+import com.arsen.model.Endianness;
+import com.arsen.model.disassembly.Instruction;
+import com.arsen.model.disassembly.InstructionType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PowerPcDisassemblerTest {
+    private static final long BASE = 0x1000;
+
+    @Test
+    void decodesUnconditionalBranches() {
+        assertDecodes(Endianness.BIG, 0x48000008, "b 0x0000000000001008", InstructionType.JUMP, 0x1008);
+        assertDecodes(Endianness.BIG, 0x4BFFFFFC, "b 0x0000000000000FFC", InstructionType.JUMP, 0xFFC);
+        assertDecodes(Endianness.BIG, 0x48000009, "bl 0x0000000000001008", InstructionType.CALL, 0x1008);
+        assertDecodes(Endianness.BIG, 0x48000102, "ba 0x0000000000000100", InstructionType.JUMP, 0x100);
+        assertDecodes(Endianness.LITTLE, 0x48000009, "bl 0x0000000000001008", InstructionType.CALL, 0x1008);
+    }
+
+    @Test
+    void decodesConditionalAndRegisterBranches() {
+        assertDecodes(Endianness.BIG, 0x41820008, "beq 0x0000000000001008", InstructionType.CONDITIONAL_JUMP, 0x1008);
+        assertDecodes(Endianness.BIG, 0x4200FFFC, "bdnz 0x0000000000000FFC", InstructionType.CONDITIONAL_JUMP, 0xFFC);
+        assertDecodes(Endianness.BIG, 0x4E800020, "blr", InstructionType.RETURN, DecodeBatch.NO_TARGET);
+        assertDecodes(Endianness.LITTLE, 0x4E800020, "blr", InstructionType.RETURN, DecodeBatch.NO_TARGET);
+        assertDecodes(Endianness.BIG, 0x4D820020, "beqlr", InstructionType.CONDITIONAL_JUMP, DecodeBatch.NO_TARGET);
+        assertDecodes(Endianness.BIG, 0x4E800420, "bctr", InstructionType.JUMP, DecodeBatch.NO_TARGET);
+        assertDecodes(Endianness.BIG, 0x4E800421, "bctrl", InstructionType.CALL, DecodeBatch.NO_TARGET);
+    }
+
+    @Test
+    void treatsPcLoadBclAsOrdinaryInstruction() {
+        assertDecodes(Endianness.BIG, 0x429F0005, "bcl 20, 31, 0x0000000000001004", InstructionType.NORMAL, 0x1004);
+        assertDecodes(Endianness.BIG, 0x429F0009, "bcl 20, 31, 0x0000000000001008", InstructionType.CALL, 0x1008);
+    }
+
+    @Test
+    void decodesSystemAndNopFlowTypes() {
+        assertDecodes(Endianness.BIG, 0x44000002, "sc", InstructionType.SYSTEM, DecodeBatch.NO_TARGET);
+        assertDecodes(Endianness.BIG, 0x7FE00008, "trap", InstructionType.SYSTEM, DecodeBatch.NO_TARGET);
+        assertDecodes(Endianness.BIG, 0x60000000, "nop", InstructionType.NOP, DecodeBatch.NO_TARGET);
+    }
+
+    @Test
+    void tracksCounterTargetsThroughLisAddiMtctr() {
+        PowerPcDisassembler disassembler = new PowerPcDisassembler(Architecture.POWERPC, Endianness.BIG);
+        DecodeBatch batch = disassembler.decodeRange(Address.of(BASE), ByteSource.wrap(bytes(Endianness.BIG, 0x3D801235, 0x398C8678, 0x7D8903A6, 0x4E800420, 0x4E800420)));
+
+        assertEquals(InstructionType.JUMP, batch.getType(3));
+        assertEquals(0x12348678, batch.getTarget(3));
+        assertEquals(DecodeBatch.NO_TARGET, batch.getTarget(4));
+    }
+
+    private static void assertDecodes(Endianness endianness, int word, String text, InstructionType type, long target) {
+        PowerPcDisassembler disassembler = new PowerPcDisassembler(Architecture.POWERPC, endianness);
+        byte[] code = bytes(endianness, word);
+
+        Instruction instruction = disassembler.disassemble(Address.of(BASE), code, 0);
+        assertEquals(text, instruction.getFullText());
+        assertEquals(4, instruction.getSize(), text);
+        assertEquals(type, instruction.getType(), text);
+        assertEquals(target, instruction.getTargetAddress() == null ? DecodeBatch.NO_TARGET : instruction.getTargetAddress().value(), text);
+
+        DecodeBatch batch = disassembler.decodeRange(Address.of(BASE), ByteSource.wrap(code));
+        assertEquals(DecodeBatch.STATUS_OK, batch.getStatus(0), text);
+        assertEquals(type, batch.getType(0), text);
+        assertEquals(target, batch.getTarget(0), text);
+    }
+
+    private static byte[] bytes(Endianness endianness, int... words) {
+        byte[] data = new byte[words.length * 4];
+        for (int i = 0; i < words.length; i++) {
+            for (int b = 0; b < 4; b++) {
+                data[i * 4 + b] = (byte) (words[i] >>> (endianness == Endianness.BIG ? 24 - b * 8 : b * 8));
+            }
+        }
+        return data;
+    }
+}
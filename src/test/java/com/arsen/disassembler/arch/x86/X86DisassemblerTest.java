@@ -0,0 +1,109 @@
+package com.arsen.disassembler.arch.x86;
+
+import com.arsen.disassembler.DecodeBatch;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Architecture;
+import com.arsen.model.disassembly.Instruction;
+import com.arsen.model.disassembly.InstructionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class X86DisassemblerTest {
+    private static final long BASE = 0x1000;
+
+    private final X86Disassembler x64 = new X86Disassembler(Architecture.X86_64);
+    private final X86Disassembler x86 = new X86Disassembler(Architecture.X86);
+
+    @Test
+    void decodesLegacyPrefixAndImmediateLengths() {
+        assertDecodes(x64, "90", 1, InstructionType.NOP, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "660f1f440000", 6, InstructionType.NOP, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "66b83412", 4, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "48b88877665544332211", 10, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "f348a5", 3, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "f0480fb10a", 5, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "c7442408ffffffff", 8, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x86, "40", 1, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x86, "66c705001000003412", 9, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+    }
+
+    @Test
+    void decodesModRmAndSibLengths() {
+        assertDecodes(x64, "488b0424", 4, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "488b442408", 5, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "488b842400010000", 8, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "8b042500100000", 7, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "8b4500", 3, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "8b0500000000", 6, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "428b0c8d00000000", 8, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x86, "8b06", 2, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x86, "678b060001", 5, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+    }
+
+    @Test
+    void decodesVexAndEvexLengths() {
+        assertDecodes(x64, "c5f877", 3, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "c5fd6f442420", 6, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "c4e279180424", 6, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "c4e3790fc108", 6, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "62f17c4810442401", 8, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "62f17e487aca", 6, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "62f1764a7bc0", 6, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "62f3fd4839c101", 7, InstructionType.NORMAL, DecodeBatch.NO_TARGET);
+    }
+
+    @Test
+    void decodesBranchTargetsAndFlowTypes() {
+        assertDecodes(x64, "e800000000", 5, InstructionType.CALL, 0x1005);
+        assertDecodes(x64, "e9fbffffff", 5, InstructionType.JUMP, 0x1000);
+        assertDecodes(x64, "ebfe", 2, InstructionType.JUMP, 0x1000);
+        assertDecodes(x64, "7410", 2, InstructionType.CONDITIONAL_JUMP, 0x1012);
+        assertDecodes(x64, "0f8400010000", 6, InstructionType.CONDITIONAL_JUMP, 0x1106);
+        assertDecodes(x64, "67e3fe", 3, InstructionType.CONDITIONAL_JUMP, 0x1001);
+        assertDecodes(x64, "e2fe", 2, InstructionType.CONDITIONAL_JUMP, 0x1000);
+        assertDecodes(x64, "ff1500000000", 6, InstructionType.CALL, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "ffe0", 2, InstructionType.JUMP, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "c3", 1, InstructionType.RETURN, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "c20800", 3, InstructionType.RETURN, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "0f05", 2, InstructionType.SYSTEM, DecodeBatch.NO_TARGET);
+        assertDecodes(x64, "cc", 1, InstructionType.SYSTEM, DecodeBatch.NO_TARGET);
+        assertDecodes(x86, "e8fbffffff", 5, InstructionType.CALL, 0x1000);
+        assertDecodes(x86, "66e9fdff", 4, InstructionType.JUMP, 0x1001);
+    }
+
+    @Test
+    void reportsInvalidAndTruncatedEncodings() {
+        assertStatus(x64, "0f7a", DecodeBatch.STATUS_INVALID);
+        assertStatus(x64, "c5f97bc0", DecodeBatch.STATUS_INVALID);
+        assertStatus(x64, "8dc0", DecodeBatch.STATUS_INVALID);
+        assertStatus(x64, "06", DecodeBatch.STATUS_INVALID);
+        assertStatus(x64, "e80000", DecodeBatch.STATUS_TRUNCATED);
+        assertStatus(x64, "62f17c48", DecodeBatch.STATUS_TRUNCATED);
+        assertStatus(x86, "06", DecodeBatch.STATUS_OK);
+    }
+
+    private static void assertDecodes(X86Disassembler disassembler, String hex, int length, InstructionType type, long target) {
+        byte[] code = HexFormat.of().parseHex(hex);
+        Instruction instruction = disassembler.disassemble(Address.of(BASE), code, 0);
+        assertEquals(length, instruction.getSize(), hex);
+        assertEquals(type, instruction.getType(), hex);
+        assertEquals(target, instruction.getTargetAddress() == null ? DecodeBatch.NO_TARGET : instruction.getTargetAddress().value(), hex);
+
+        DecodeBatch batch = new DecodeBatch(disassembler, ByteSource.wrap(code), BASE, 1);
+        assertEquals(length, disassembler.decode(code, 0, code.length, BASE, batch), hex);
+        assertEquals(DecodeBatch.STATUS_OK, batch.getStatus(0), hex);
+        assertEquals(type, batch.getType(0), hex);
+        assertEquals(target, batch.getTarget(0), hex);
+    }
+
+    private static void assertStatus(X86Disassembler disassembler, String hex, int status) {
+        byte[] code = HexFormat.of().parseHex(hex);
+        DecodeBatch batch = new DecodeBatch(disassembler, ByteSource.wrap(code), BASE, 1);
+        disassembler.decode(code, 0, code.length, BASE, batch);
+        assertEquals(status, batch.getStatus(0), hex);
+    }
+}
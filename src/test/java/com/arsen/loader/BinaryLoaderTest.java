@@ -0,0 +1,128 @@
+package com.arsen.loader;
+
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.BinaryFormat;
+import com.arsen.model.binary.BinaryFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryLoaderTest {
+    private static final int SOURCE_SIZE = 8 * 1024 * 1024;
+
+    @Test
+    void stopsHashingBeforeClosingAFailedSource() throws Exception {
+        TrackingSource source = new TrackingSource(ByteSource.wrap(new byte[SOURCE_SIZE]));
+        BinaryLoader loader = new TestLoader(false, () -> {
+            while (source.reads.get() == 0) {
+                Thread.onSpinWait();
+            }
+            throw new IllegalStateException("malformed");
+        });
+
+        assertThrows(IllegalStateException.class, () -> loader.load(Path.of("broken.bin"), source));
+        Thread.sleep(100);
+
+        assertTrue(source.closed.get());
+        assertEquals(0, source.readsDuringClose.get());
+    }
+
+    @Test
+    void skipsTheFileHashWhenTheParserSuppliesOne() throws Exception {
+        TrackingSource source = new TrackingSource(ByteSource.wrap(new byte[SOURCE_SIZE]));
+        BinaryFile parsed = BinaryFile.builder().filePath(Path.of("member.bin")).build();
+        BinaryLoader loader = new TestLoader(true, () -> parsed);
+
+        BinaryFile binary = loader.load(Path.of("outer.bin"), source);
+
+        assertNull(binary.getContentHash());
+        assertEquals(0, source.reads.get());
+        assertTrue(source.closed.get());
+    }
+
+    private interface Parser {
+        BinaryFile parse();
+    }
+
+    private record TestLoader(boolean suppliesContentHash, Parser parser) implements BinaryLoader {
+        @Override
+        public boolean supports(byte[] header) {
+            return true;
+        }
+
+        @Override
+        public BinaryFile parse(Path path, ByteSource source, boolean headersOnly) {
+            return parser.parse();
+        }
+
+        @Override
+        public BinaryFormat getFormat() {
+            return BinaryFormat.RAW;
+        }
+    }
+
+    private static class TrackingSource implements ByteSource {
+        private final ByteSource delegate;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger readsDuringClose = new AtomicInteger();
+
+        TrackingSource(ByteSource delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public long size() {
+            return delegate.size();
+        }
+
+        @Override
+        public byte get(long position) {
+            track();
+            return delegate.get(position);
+        }
+
+        @Override
+        public int read(long position, byte[] destination, int offset, int length) {
+            track();
+            inFlight.incrementAndGet();
+            try {
+                Thread.sleep(20);
+                return delegate.read(position, destination, offset, length);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public ByteBuffer buffer(long position, int length) {
+            track();
+            return delegate.buffer(position, length);
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+            readsDuringClose.addAndGet(inFlight.get());
+        }
+
+        private void track() {
+            reads.incrementAndGet();
+            if (closed.get()) {
+                readsDuringClose.incrementAndGet();
+            }
+        }
+    }
+}
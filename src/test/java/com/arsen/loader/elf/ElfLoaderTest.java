@@ -0,0 +1,59 @@
+package com.arsen.loader.elf;
+
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Architecture;
+import com.arsen.model.Section;
+import com.arsen.model.binary.BinaryFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ElfLoaderTest {
+    private static final int HEADER_SIZE = 64;
+    private static final int PHENTSIZE = 56;
+
+    @Test
+    void keepsProgramHeadersThatFitInATruncatedFile() throws Exception {
+        byte[] image = Arrays.copyOf(image(3), HEADER_SIZE + PHENTSIZE + 20);
+
+        BinaryFile binary = new ElfLoader().parse(Path.of("truncated.elf"), ByteSource.wrap(image), false);
+
+        assertEquals(Architecture.X86_64, binary.getArchitecture());
+        assertEquals(1, binary.getSegments().size());
+        Section segment = binary.getSegments().get(0);
+        assertEquals(0x400000, segment.getVirtualAddress().value());
+        assertEquals(image.length, segment.getRawSize());
+    }
+
+    @Test
+    void ignoresProgramHeaderTablePastEndOfFile() throws Exception {
+        ByteBuffer image = ByteBuffer.wrap(image(1)).order(ByteOrder.LITTLE_ENDIAN);
+        image.putLong(32, 0x7FFF0000L);
+
+        BinaryFile binary = new ElfLoader().parse(Path.of("lying.elf"), ByteSource.wrap(image.array()), false);
+
+        assertEquals(Architecture.X86_64, binary.getArchitecture());
+        assertTrue(binary.getSegments().isEmpty());
+        assertEquals(0x401000, binary.getEntryPoint().value());
+    }
+
+    private static byte[] image(int phnum) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + phnum * PHENTSIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(new byte[]{0x7F, 'E', 'L', 'F', 2, 1, 1});
+        buffer.position(16);
+        buffer.putShort((short) 2).putShort((short) 0x3E).putInt(1).putLong(0x401000).putLong(HEADER_SIZE).putLong(0);
+        buffer.putInt(0).putShort((short) HEADER_SIZE).putShort((short) PHENTSIZE).putShort((short) phnum);
+
+        for (int i = 0; i < phnum; i++) {
+            buffer.position(HEADER_SIZE + i * PHENTSIZE);
+            buffer.putInt(1).putInt(5).putLong(0).putLong(0x400000 + i * 0x10000L).putLong(0).putLong(0x1000).putLong(0x1000);
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,44 @@
+package com.arsen.loader.firmware;
+
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Section;
+import com.arsen.model.binary.BinaryFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntelHexLoaderTest {
+
+    @Test
+    void stopsAtTheFirstEndOfFileRecord() throws Exception {
+        String hex = String.join("\n", record(0x0100, 0x00, "DEADBEEF"), record(0x0000, 0x01, ""), record(0x2000, 0x00, "CAFEBABE"), "trailing garbage", "");
+
+        BinaryFile binary = new IntelHexLoader().parse(Path.of("firmware.hex"), ByteSource.wrap(hex.getBytes(StandardCharsets.US_ASCII)), false);
+
+        assertEquals(1, binary.getSections().size());
+        Section region = binary.getSections().get(0);
+        assertEquals(0x0100, region.getVirtualAddress().value());
+        assertEquals(4, region.getRawSize());
+    }
+
+    private static String record(int address, int type, String data) {
+        byte[] payload = HexFormat.of().parseHex(data);
+        byte[] record = new byte[payload.length + 5];
+        record[0] = (byte) payload.length;
+        record[1] = (byte) (address >> 8);
+        record[2] = (byte) address;
+        record[3] = (byte) type;
+        System.arraycopy(payload, 0, record, 4, payload.length);
+
+        int sum = 0;
+        for (int i = 0; i < record.length - 1; i++) {
+            sum += record[i] & 0xFF;
+        }
+        record[record.length - 1] = (byte) -sum;
+        return ":" + HexFormat.of().withUpperCase().formatHex(record);
+    }
+}
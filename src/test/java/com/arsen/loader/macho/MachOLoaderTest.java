@@ -0,0 +1,42 @@
+package com.arsen.loader.macho;
+
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Architecture;
+import com.arsen.model.binary.BinaryFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MachOLoaderTest {
+    private static final int CPU_TYPE_X86_64 = 0x01000007;
+    private static final int CPU_TYPE_ARM64 = 0x0100000C;
+    private static final int SLICE_SIZE = 0x1000;
+
+    @Test
+    void keepsThePrimarySliceOutOfItsOwnChildren() throws Exception {
+        BinaryFile binary = new MachOLoader().parse(Path.of("universal"), ByteSource.wrap(universal(CPU_TYPE_X86_64, CPU_TYPE_ARM64)), false);
+
+        assertEquals(Architecture.ARM64, binary.getArchitecture());
+        assertEquals(1, binary.getChildren().size());
+        assertEquals(Architecture.X86_64, binary.getChildren().get(0).getArchitecture());
+    }
+
+    private static byte[] universal(int... cpuTypes) {
+        ByteBuffer buffer = ByteBuffer.allocate(SLICE_SIZE * (cpuTypes.length + 1));
+        buffer.putInt(0xCAFEBABE).putInt(cpuTypes.length);
+        for (int i = 0; i < cpuTypes.length; i++) {
+            buffer.putInt(cpuTypes[i]).putInt(0).putInt(SLICE_SIZE * (i + 1)).putInt(SLICE_SIZE).putInt(12);
+        }
+
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < cpuTypes.length; i++) {
+            buffer.position(SLICE_SIZE * (i + 1));
+            buffer.putInt(0xFEEDFACF).putInt(cpuTypes[i]).putInt(0).putInt(2).putInt(0).putInt(0).putInt(0).putInt(0);
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,99 @@
+package com.arsen.loader.pe;
+
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Address;
+import com.arsen.model.Export;
+import com.arsen.model.Import;
+import com.arsen.model.binary.BinaryFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PeLoaderTest {
+    private static final long IMAGE_BASE = 0x400000;
+    private static final int SECTION_RVA = 0x1000;
+    private static final int SECTION_OFFSET = 0x200;
+
+    @Test
+    void resolvesOldStyleDelayImportNames() throws Exception {
+        BinaryFile binary = new PeLoader().parse(Path.of("test.dll"), ByteSource.wrap(image()), false);
+
+        assertEquals(1, binary.getImports().size());
+        Import delayed = binary.getImports().get(0);
+        assertEquals("USER32.dll", delayed.getLibrary());
+        assertEquals("MessageBoxA", delayed.getName());
+        assertEquals(5, delayed.getOrdinal());
+        assertEquals(Address.of(0x1160), delayed.getAddress());
+    }
+
+    @Test
+    void skipsDelayImportDescriptorsWithoutNameTable() throws Exception {
+        ByteBuffer image = ByteBuffer.wrap(image()).order(ByteOrder.LITTLE_ENDIAN);
+        image.putInt(at(0x1100), 1).putInt(at(0x1104), 0x1140).putInt(at(0x110C), 0x1160).putInt(at(0x1110), 0);
+
+        BinaryFile binary = new PeLoader().parse(Path.of("test.dll"), ByteSource.wrap(image.array()), false);
+
+        assertTrue(binary.getImports().isEmpty());
+    }
+
+    @Test
+    void recordsForwardedExportsWithoutAddress() throws Exception {
+        BinaryFile binary = new PeLoader().parse(Path.of("test.dll"), ByteSource.wrap(image()), false);
+
+        assertEquals(2, binary.getExports().size());
+        Export forwarded = binary.getExports().get(0);
+        assertEquals("Forwarded", forwarded.getName());
+        assertEquals("KERNEL32.Sleep", forwarded.getForwarder());
+        assertNull(forwarded.getAddress());
+
+        Export local = binary.getExports().get(1);
+        assertEquals("Local", local.getName());
+        assertNull(local.getForwarder());
+        assertEquals(Address.of(0x1200), local.getAddress());
+    }
+
+    private static byte[] image() {
+        ByteBuffer image = ByteBuffer.allocate(0x600).order(ByteOrder.LITTLE_ENDIAN);
+        image.put(0, (byte) 'M').put(1, (byte) 'Z').putInt(0x3C, 0x40);
+        image.putInt(0x40, 0x00004550).putShort(0x44, (short) 0x14C).putShort(0x46, (short) 1).putShort(0x54, (short) 0xE0);
+
+        int optional = 0x58;
+        image.putShort(optional, (short) 0x10B).putInt(optional + 28, (int) IMAGE_BASE).putInt(optional + 60, SECTION_OFFSET).putInt(optional + 92, 16);
+        image.putInt(optional + 96, 0x1000).putInt(optional + 100, 0x100);
+        image.putInt(optional + 96 + 13 * 8, 0x1100).putInt(optional + 100 + 13 * 8, 0x40);
+
+        int section = optional + 0xE0;
+        image.put(section, ".data".getBytes(StandardCharsets.US_ASCII)).putInt(section + 8, 0x400).putInt(section + 12, SECTION_RVA).putInt(section + 16, 0x400).putInt(section + 20, SECTION_OFFSET).putInt(section + 36, 0xC0000040);
+
+        image.putInt(at(0x1010), 1).putInt(at(0x1014), 2).putInt(at(0x1018), 2).putInt(at(0x101C), 0x1028).putInt(at(0x1020), 0x1030).putInt(at(0x1024), 0x1038);
+        image.putInt(at(0x1028), 0x1050).putInt(at(0x102C), 0x1200);
+        image.putInt(at(0x1030), 0x1070).putInt(at(0x1034), 0x1080);
+        image.putShort(at(0x1038), (short) 0).putShort(at(0x103A), (short) 1);
+        putString(image, 0x1050, "KERNEL32.Sleep");
+        putString(image, 0x1070, "Forwarded");
+        putString(image, 0x1080, "Local");
+
+        image.putInt(at(0x1100), 0).putInt(at(0x1104), (int) (IMAGE_BASE + 0x1140)).putInt(at(0x110C), (int) (IMAGE_BASE + 0x1160)).putInt(at(0x1110), (int) (IMAGE_BASE + 0x1180));
+        putString(image, 0x1140, "USER32.dll");
+        image.putInt(at(0x1160), (int) (IMAGE_BASE + 0x1190));
+        image.putInt(at(0x1180), (int) (IMAGE_BASE + 0x11A0));
+        image.putShort(at(0x11A0), (short) 5);
+        putString(image, 0x11A2, "MessageBoxA");
+        return image.array();
+    }
+
+    private static int at(int rva) {
+        return rva - SECTION_RVA + SECTION_OFFSET;
+    }
+
+    private static void putString(ByteBuffer image, int rva, String value) {
+        image.put(at(rva), value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
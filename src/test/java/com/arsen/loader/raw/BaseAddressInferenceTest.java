@@ -0,0 +1,32 @@
+package com.arsen.loader.raw;
+
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Endianness;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BaseAddressInferenceTest {
+    private static final long HIGH_BASE = 0xC0000000L;
+    private static final int STRINGS = 64;
+    private static final int NOISE_WORDS = 3 << 19;
+
+    @Test
+    void findsHighBaseBehindManyLowPointerCandidates() {
+        ByteBuffer image = ByteBuffer.allocate(0x2000 + NOISE_WORDS * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < STRINGS; i++) {
+            int offset = 0x10 + i * 0x40;
+            image.put(offset, String.format("message%03d", i).getBytes(StandardCharsets.US_ASCII));
+            image.putInt(0x1000 + i * 4, (int) (HIGH_BASE + offset));
+        }
+        for (int i = 0; i < NOISE_WORDS; i++) {
+            image.putInt(0x2000 + i * 4, 0x100000 + i * 151);
+        }
+
+        assertEquals(HIGH_BASE, new BaseAddressInference().infer(ByteSource.wrap(image.array()), Endianness.LITTLE, 4, 4));
+    }
+}
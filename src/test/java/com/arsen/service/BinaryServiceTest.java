@@ -0,0 +1,100 @@
+package com.arsen.service;
+
+import com.arsen.infrastructure.config.Configuration;
+import com.arsen.loader.io.ByteSource;
+import com.arsen.model.Architecture;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BinaryServiceTest {
+    @Test
+    void handsLiveBinariesToTheListener() throws Exception {
+        Path root = directory(3);
+        BinaryService service = new BinaryService();
+        Properties properties = Configuration.getInstance().getProperties();
+        Object memoryMapped = properties.setProperty(ByteSource.MEMORY_MAPPED_KEY, "false");
+        try {
+            List<BinaryService.ImportResult> results = new CopyOnWriteArrayList<>();
+            int imported = service.importDirectory(root, 2, 64L << 20, results::add).get(30, TimeUnit.SECONDS);
+
+            assertEquals(3, imported);
+            assertEquals(3, results.size());
+            for (BinaryService.ImportResult result : results) {
+                assertNull(result.error());
+                assertEquals(Architecture.X86_64, result.binary().getArchitecture());
+                assertNotNull(result.binary().getAddressSpace());
+                assertEquals(0x7F, result.binary().getSource().get(0));
+                result.binary().close();
+            }
+        } finally {
+            if (memoryMapped == null) {
+                properties.remove(ByteSource.MEMORY_MAPPED_KEY);
+            } else {
+                properties.setProperty(ByteSource.MEMORY_MAPPED_KEY, (String) memoryMapped);
+            }
+            service.shutdown();
+            delete(root);
+        }
+    }
+
+    @Test
+    void returnsTheMemoryBudgetWhenTheListenerClosesBinaries() throws Exception {
+        Path root = directory(4);
+        BinaryService service = new BinaryService();
+        try {
+            int imported = service.importDirectory(root, 2, 1L << 20, result -> {
+                try {
+                    result.binary().close();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }).get(30, TimeUnit.SECONDS);
+
+            assertEquals(4, imported);
+        } finally {
+            service.shutdown();
+            delete(root);
+        }
+    }
+
+    private static Path directory(int binaries) throws Exception {
+        Path root = Files.createTempDirectory("import");
+        for (int i = 0; i < binaries; i++) {
+            Files.write(root.resolve("bin" + i + ".elf"), elf());
+        }
+        Files.writeString(root.resolve("notes.txt"), "not a binary");
+        return root;
+    }
+
+    private static void delete(Path root) throws Exception {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static byte[] elf() {
+        ByteBuffer buffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(new byte[]{0x7F, 'E', 'L', 'F', 2, 1, 1});
+        buffer.position(16);
+        buffer.putShort((short) 2).putShort((short) 0x3E).putInt(1).putLong(0x401000);
+        buffer.position(52);
+        buffer.putShort((short) 64);
+        return buffer.array();
+    }
+}
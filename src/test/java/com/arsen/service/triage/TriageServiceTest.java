@@ -0,0 +1,65 @@
+package com.arsen.service.triage;
+
+import com.arsen.model.Architecture;
+import com.arsen.model.binary.BinaryProbe;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TriageServiceTest {
+    @Test
+    void continuesPastUnreadableDirectories() throws Exception {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path root = Files.createTempDirectory("triage");
+        Path locked = Files.createDirectory(root.resolve("locked"));
+        try {
+            Files.write(root.resolve("a.elf"), elf());
+            Files.write(locked.resolve("b.elf"), elf());
+            Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("---------"));
+            assumeFalse(Files.isReadable(locked), "running with permission to read any directory");
+
+            List<BinaryProbe> probes = new CopyOnWriteArrayList<>();
+            Map<Path, IOException> failures = new ConcurrentHashMap<>();
+            new TriageService(2).scan(root, probes::add, failures::put);
+
+            assertEquals(1, probes.size());
+            assertEquals(root.resolve("a.elf"), probes.get(0).getFilePath());
+            assertEquals(Architecture.X86_64, probes.get(0).getArchitecture());
+            assertTrue(failures.containsKey(locked));
+        } finally {
+            Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("rwx------"));
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    private static byte[] elf() {
+        ByteBuffer buffer = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(new byte[]{0x7F, 'E', 'L', 'F', 2, 1, 1});
+        buffer.position(16);
+        buffer.putShort((short) 2).putShort((short) 0x3E).putInt(1).putLong(0x401000);
+        buffer.position(52);
+        buffer.putShort((short) 64);
+        return buffer.array();
+    }
+}